@@ -0,0 +1,17 @@
+package com.da.authservice.configuration;
+
+import com.da.authservice.loadbalancer.AffinityLoadBalancerConfiguration;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClient;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Routes {@code lb://product-service} by product affinity instead of round robin when
+ * {@code gateway.affinity.enabled=true}, so that the replicas' caches together hold more of the catalog.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "gateway.affinity", name = "enabled", havingValue = "true")
+@LoadBalancerClient(name = "product-service", configuration = AffinityLoadBalancerConfiguration.class)
+public class AffinityRoutingConfig {
+}
@@ -38,7 +38,7 @@ public class Router {
     return routeLocatorBuilder.routes()
            .route("products", route -> route.host("product-service")
                                 .and()
-                                .path("/products/**", "/main-categories/**", "/sub-categories/**", "/product-service/**")
+                                .path("/products/**", "/main-categories/**", "/sub-categories/**", "/graphql", "/product-service/**")
                                 .customize(c -> c.metadata(CONNECT_TIMEOUT_ATTR, 1000).metadata(RESPONSE_TIMEOUT_ATTR, 1000))
                                 .uri("lb://product-service")
                )
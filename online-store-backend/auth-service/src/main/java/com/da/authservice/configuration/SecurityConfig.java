@@ -2,6 +2,7 @@ package com.da.authservice.configuration;
 
 import static org.springframework.http.HttpMethod.DELETE;
 import static org.springframework.http.HttpMethod.GET;
+import static org.springframework.http.HttpMethod.PATCH;
 import static org.springframework.http.HttpMethod.POST;
 import static org.springframework.http.HttpMethod.PUT;
 
@@ -63,8 +64,9 @@ public class SecurityConfig {
            .pathMatchers("/auth/login", "/auth/signup").permitAll()
            .pathMatchers(POST, "/products").hasAuthority(ADMIN)
            .pathMatchers(PUT, "/products/**").hasAuthority(ADMIN)
+           .pathMatchers(PATCH, "/products/**").hasAuthority(ADMIN)
            .pathMatchers(DELETE, "/products/**").hasAuthority(ADMIN)
-           .pathMatchers(GET, "/products/responses", "/products/invoices").hasAnyAuthority(ADMIN, EMPLOYEE)
+           .pathMatchers(GET, "/products/responses", "/products/responses/batch", "/products/invoices").hasAnyAuthority(ADMIN, EMPLOYEE)
            .pathMatchers(POST, "/main-categories", "/sub-categories").hasAuthority(ADMIN)
            .pathMatchers(PUT, "/main-categories/**", "/sub-categories/**").hasAuthority(ADMIN)
            .pathMatchers(DELETE, "/main-categories/**", "/sub-categories/**").hasAuthority(ADMIN)
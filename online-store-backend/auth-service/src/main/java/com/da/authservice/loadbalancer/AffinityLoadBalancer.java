@@ -0,0 +1,160 @@
+package com.da.authservice.loadbalancer;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+
+/**
+ * Sends the requests for one product to the same replica by rendezvous hashing, passing over a replica that
+ * serves more than {@code loadFactor} times the average in-flight load; requests without a product key go round robin.
+ */
+public class AffinityLoadBalancer implements ReactorServiceInstanceLoadBalancer,
+                                             LoadBalancerLifecycle<RequestDataContext, ResponseData, ServiceInstance> {
+
+  private final ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplier;
+  private final String serviceId;
+  private final double loadFactor;
+  private final Map<String, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+  private final AtomicInteger position = new AtomicInteger();
+
+  private final Counter owned;
+  private final Counter spilled;
+  private final Counter unkeyed;
+
+  public AffinityLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplier, String serviceId,
+                              double loadFactor, MeterRegistry meterRegistry) {
+    if (loadFactor < 1) throw new IllegalArgumentException("loadFactor must be at least 1, was " + loadFactor);
+    this.serviceInstanceListSupplier = serviceInstanceListSupplier;
+    this.serviceId = serviceId;
+    this.loadFactor = loadFactor;
+
+    this.owned = pickCounter(meterRegistry, "owner");
+    this.spilled = pickCounter(meterRegistry, "spilled");
+    this.unkeyed = pickCounter(meterRegistry, "unkeyed");
+  }
+
+  private Counter pickCounter(MeterRegistry meterRegistry, String outcome) {
+    return Counter.builder("gateway.affinity.picks").tag("service", serviceId).tag("outcome", outcome)
+                  .description("Replicas picked by product affinity, by whether the key's owner took the request")
+                  .register(meterRegistry);
+  }
+
+  @Override
+  @SuppressWarnings("rawtypes")
+  public Mono<Response<ServiceInstance>> choose(Request request) {
+    ServiceInstanceListSupplier supplier = serviceInstanceListSupplier.getIfAvailable(NoopServiceInstanceListSupplier::new);
+    Optional<String> key = keyOf(request);
+    return supplier.get(request).next().map(instances -> choose(instances, key));
+  }
+
+  Response<ServiceInstance> choose(List<ServiceInstance> instances, Optional<String> key) {
+    if (instances.isEmpty()) return new EmptyResponse();
+
+    ServiceInstance instance = key.map(k -> chooseByKey(instances, k)).orElseGet(() -> chooseRoundRobin(instances));
+    loadOf(instance).incrementAndGet();
+    return new DefaultResponse(instance);
+  }
+
+  /** The highest ranked replica for the key whose in-flight requests stay within the bound. */
+  private ServiceInstance chooseByKey(List<ServiceInstance> instances, String key) {
+    long keyHash = hash(key);
+    List<ServiceInstance> ranked = instances.stream()
+                                            .sorted(Comparator.comparingLong((ServiceInstance instance) -> weight(keyHash, idOf(instance))).reversed())
+                                            .collect(Collectors.toList());
+
+    int total = instances.stream().mapToInt(instance -> loadOf(instance).get()).sum();
+    double bound = Math.ceil(loadFactor * (total + 1) / instances.size());
+    for (int rank = 0; rank < ranked.size(); rank++) {
+      ServiceInstance instance = ranked.get(rank);
+      if (loadOf(instance).get() + 1 <= bound) {
+        (rank == 0 ? owned : spilled).increment();
+        return instance;
+      }
+    }
+    // only reachable while the counts change underneath; the owner is as good a choice as any
+    owned.increment();
+    return ranked.get(0);
+  }
+
+  private ServiceInstance chooseRoundRobin(List<ServiceInstance> instances) {
+    unkeyed.increment();
+    return instances.get(Math.floorMod(position.getAndIncrement(), instances.size()));
+  }
+
+  @Override
+  public void onStart(Request<RequestDataContext> request) {
+  }
+
+  @Override
+  public void onStartRequest(Request<RequestDataContext> request, Response<ServiceInstance> lbResponse) {
+  }
+
+  @Override
+  public void onComplete(CompletionContext<ResponseData, ServiceInstance, RequestDataContext> completionContext) {
+    Response<ServiceInstance> lbResponse = completionContext.getLoadBalancerResponse();
+    if (lbResponse != null && lbResponse.hasServer())
+      loadOf(lbResponse.getServer()).updateAndGet(load -> Math.max(0, load - 1));
+  }
+
+  int getInFlight(ServiceInstance instance) {
+    return loadOf(instance).get();
+  }
+
+  private AtomicInteger loadOf(ServiceInstance instance) {
+    return inFlight.computeIfAbsent(idOf(instance), id -> new AtomicInteger());
+  }
+
+  @SuppressWarnings("rawtypes")
+  private static Optional<String> keyOf(Request request) {
+    if (!(request.getContext() instanceof RequestDataContext)) return Optional.empty();
+    var clientRequest = ((RequestDataContext) request.getContext()).getClientRequest();
+    return clientRequest == null ? Optional.empty() : ProductAffinityKey.of(clientRequest.getUrl());
+  }
+
+  private static String idOf(ServiceInstance instance) {
+    return instance.getInstanceId() != null ? instance.getInstanceId() : instance.getHost() + ":" + instance.getPort();
+  }
+
+  private static long weight(long keyHash, String instanceId) {
+    return mix(keyHash ^ mix(hash(instanceId)));
+  }
+
+  /** 64-bit FNV-1a, stable across JVMs so that every gateway ranks the replicas alike. */
+  private static long hash(String value) {
+    long hash = 0xcbf29ce484222325L;
+    for (int i = 0; i < value.length(); i++) {
+      hash ^= value.charAt(i);
+      hash *= 0x100000001b3L;
+    }
+    return hash;
+  }
+
+  /** The SplitMix64 finalizer, spreading FNV's weak low bits over the whole word. */
+  private static long mix(long value) {
+    value = (value ^ (value >>> 30)) * 0xbf58476d1ce4e5b9L;
+    value = (value ^ (value >>> 27)) * 0x94d049bb133111ebL;
+    return value ^ (value >>> 31);
+  }
+}
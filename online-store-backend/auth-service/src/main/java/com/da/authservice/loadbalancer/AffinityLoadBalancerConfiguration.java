@@ -0,0 +1,24 @@
+package com.da.authservice.loadbalancer;
+
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Load balancer client configuration replacing round robin with {@link AffinityLoadBalancer}. Not a
+ * {@code @Configuration}: it is only read into the child context of the clients that name it.
+ */
+public class AffinityLoadBalancerConfiguration {
+
+  @Bean
+  public AffinityLoadBalancer affinityLoadBalancer(Environment environment, LoadBalancerClientFactory loadBalancerClientFactory,
+                                                   MeterRegistry meterRegistry) {
+    String serviceId = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+    double loadFactor = environment.getProperty("gateway.affinity.load-factor", Double.class, 1.25);
+    return new AffinityLoadBalancer(loadBalancerClientFactory.getLazyProvider(serviceId, ServiceInstanceListSupplier.class),
+                                    serviceId, loadFactor, meterRegistry);
+  }
+}
@@ -0,0 +1,45 @@
+package com.da.authservice.loadbalancer;
+
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * Finds the product a product-service request is about: the barcode of {@code /products/{productBarCode}/...}
+ * or of the {@code productBarCode} parameter, otherwise the trimmed, lower-cased {@code productName} parameter.
+ * A lookup by barcode and one by name may land on different replicas, which only costs a second cache entry.
+ */
+public final class ProductAffinityKey {
+
+  private static final Pattern BAR_CODE_PATH = Pattern.compile("^/products/(\\d+)/(?:stock|similar)$");
+  private static final Pattern BAR_CODE = Pattern.compile("^[1-9]\\d*$");
+
+  private ProductAffinityKey() {
+  }
+
+  public static Optional<String> of(URI uri) {
+    if (uri == null || uri.getRawPath() == null) return Optional.empty();
+
+    var path = BAR_CODE_PATH.matcher(uri.getRawPath());
+    if (path.matches()) return Optional.of("barcode:" + path.group(1));
+
+    MultiValueMap<String, String> params = UriComponentsBuilder.fromUri(uri).build().getQueryParams();
+    String productBarCode = decode(params.getFirst("productBarCode"));
+    if (BAR_CODE.matcher(productBarCode).matches()) return Optional.of("barcode:" + productBarCode);
+
+    String productName = decode(params.getFirst("productName"));
+    if (!productName.isEmpty()) return Optional.of("name:" + productName.toLowerCase(Locale.ROOT));
+
+    return Optional.empty();
+  }
+
+  private static String decode(String value) {
+    return value == null ? "" : URLDecoder.decode(value, StandardCharsets.UTF_8).trim();
+  }
+}
@@ -0,0 +1,112 @@
+package com.da.authservice.loadbalancer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class AffinityLoadBalancerTest {
+
+  private static final List<ServiceInstance> INSTANCES = IntStream.rangeClosed(1, 4)
+      .mapToObj(i -> (ServiceInstance) new DefaultServiceInstance("product-service-" + i, "product-service", "10.0.0." + i, 8080, false))
+      .collect(Collectors.toList());
+
+  private AffinityLoadBalancer loadBalancer;
+
+  @BeforeEach
+  @SuppressWarnings("unchecked")
+  public void setUp() {
+    loadBalancer = new AffinityLoadBalancer(Mockito.mock(ObjectProvider.class), "product-service", 1.25, new SimpleMeterRegistry());
+  }
+
+  @Test
+  public void choose_ReturnTheSameReplica_WhenTheSameProductIsRequestedAgain() {
+    for (String key : List.of("barcode:1", "barcode:2", "name:iphone 12")) {
+      ServiceInstance first = chooseAndComplete(INSTANCES, key);
+      for (int i = 0; i < 10; i++)
+        assertThat(chooseAndComplete(INSTANCES, key)).isEqualTo(first);
+    }
+  }
+
+  @Test
+  public void choose_SpreadTheKeysOverEveryReplica_WhenThereAreManyProducts() {
+    long used = IntStream.range(0, 1000)
+                         .mapToObj(i -> chooseAndComplete(INSTANCES, "barcode:" + i))
+                         .distinct()
+                         .count();
+
+    assertThat(used).isEqualTo(INSTANCES.size());
+  }
+
+  @Test
+  public void choose_OnlyMoveTheKeysOfTheLeavingReplica_WhenAReplicaLeaves() {
+    List<ServiceInstance> remaining = INSTANCES.subList(0, 3);
+
+    for (int i = 0; i < 1000; i++) {
+      ServiceInstance before = chooseAndComplete(INSTANCES, "barcode:" + i);
+      ServiceInstance after = chooseAndComplete(remaining, "barcode:" + i);
+      if (remaining.contains(before)) assertThat(after).isEqualTo(before);
+    }
+  }
+
+  @Test
+  public void choose_SpillOntoTheNextReplica_WhenTheOwnerIsOverTheLoadBound() {
+    ServiceInstance owner = chooseAndComplete(INSTANCES, "barcode:42");
+
+    List<ServiceInstance> picked = IntStream.range(0, 20)
+                                            .mapToObj(i -> loadBalancer.choose(INSTANCES, Optional.of("barcode:42")).getServer())
+                                            .collect(Collectors.toList());
+
+    assertThat(picked.get(0)).isEqualTo(owner);
+    assertThat(picked).anyMatch(instance -> !instance.equals(owner));
+    INSTANCES.forEach(instance -> assertThat(loadBalancer.getInFlight(instance)).isLessThanOrEqualTo((int) Math.ceil(1.25 * 20 / 4)));
+  }
+
+  @Test
+  public void onComplete_ReleaseTheReplica_WhenTheRequestFinished() {
+    Response<ServiceInstance> response = loadBalancer.choose(INSTANCES, Optional.empty());
+    assertThat(loadBalancer.getInFlight(response.getServer())).isEqualTo(1);
+
+    complete(response);
+
+    assertThat(loadBalancer.getInFlight(response.getServer())).isZero();
+  }
+
+  @Test
+  public void of_FindTheProductKey_WhenTheRequestNamesAProduct() {
+    assertThat(ProductAffinityKey.of(URI.create("/products/7501031311309/similar?limit=5"))).contains("barcode:7501031311309");
+    assertThat(ProductAffinityKey.of(URI.create("/products/responses?productBarCode=7501031311309"))).contains("barcode:7501031311309");
+    assertThat(ProductAffinityKey.of(URI.create("/products/responses?productBarCode=0&productName=%20IPhone+12"))).contains("name:iphone 12");
+    assertThat(ProductAffinityKey.of(URI.create("/products/names?productName=Mouse"))).contains("name:mouse");
+    assertThat(ProductAffinityKey.of(URI.create("/products?page=2"))).isEmpty();
+    assertThat(ProductAffinityKey.of(URI.create("/products/12"))).isEmpty();
+  }
+
+  private ServiceInstance chooseAndComplete(List<ServiceInstance> instances, String key) {
+    Response<ServiceInstance> response = loadBalancer.choose(instances, Optional.of(key));
+    complete(response);
+    return response.getServer();
+  }
+
+  private void complete(Response<ServiceInstance> response) {
+    loadBalancer.onComplete(new CompletionContext<ResponseData, ServiceInstance, RequestDataContext>(CompletionContext.Status.SUCCESS,
+        new DefaultRequest<>(), response));
+  }
+}
@@ -0,0 +1,90 @@
+package com.da.productservice.cache;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import javax.annotation.PreDestroy;
+
+import com.da.productservice.dto.ProductInvoiceResponse;
+import com.da.productservice.dto.ProductView;
+import com.da.productservice.event.CatalogResyncEvent;
+import com.da.productservice.event.CategoryChangedEvent;
+import com.da.productservice.event.ProductChangedEvent;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.EqualsAndHashCode;
+
+/** Refresh-ahead caches of product views and invoice lookups, dropped on committed changes of their product. */
+@Component
+public class ProductReadCache {
+
+  private final ExecutorService refresher;
+  private final RefreshAheadCache<String, ProductView> views;
+  private final RefreshAheadCache<InvoiceKey, ProductInvoiceResponse> invoices;
+
+  public ProductReadCache(MeterRegistry meterRegistry,
+                          @Value("${product.read-cache.ttl-seconds:30}") long ttlSeconds,
+                          @Value("${product.read-cache.refresh-ahead-ratio:0.8}") double refreshAheadRatio,
+                          @Value("${product.read-cache.max-entries:10000}") int maxEntries) {
+    var threadFactory = new CustomizableThreadFactory("product-read-cache-");
+    threadFactory.setDaemon(true);
+    this.refresher = Executors.newSingleThreadExecutor(threadFactory);
+
+    long ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+    this.views = new RefreshAheadCache<>("view", ttlNanos, refreshAheadRatio, maxEntries, refresher, meterRegistry);
+    this.invoices = new RefreshAheadCache<>("invoice", ttlNanos, refreshAheadRatio, maxEntries, refresher, meterRegistry);
+  }
+
+  public Optional<ProductView> getView(String productName, Supplier<Optional<ProductView>> loader) {
+    return views.get(productName, loader);
+  }
+
+  public Optional<ProductInvoiceResponse> getForInvoice(Long productBarCode, String productName, Supplier<Optional<ProductInvoiceResponse>> loader) {
+    return invoices.get(new InvoiceKey(productBarCode, productName), loader);
+  }
+
+  /** A renamed product's view is still found under its old name, so views are matched by the barcode they hold. */
+  @TransactionalEventListener
+  public void onProductChanged(ProductChangedEvent event) {
+    var productBarCodes = event.getProductBarCodes();
+    views.invalidateIf((productName, view) -> productBarCodes.contains(view.getProductBarCode()));
+    invoices.invalidateIf((key, invoice) -> productBarCodes.contains(key.productBarCode));
+  }
+
+  @TransactionalEventListener
+  public void onCategoryChanged(CategoryChangedEvent event) {
+    views.clear();
+  }
+
+  @EventListener(CatalogResyncEvent.class)
+  public void clear() {
+    views.clear();
+    invoices.clear();
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    refresher.shutdownNow();
+  }
+
+  @EqualsAndHashCode
+  private static final class InvoiceKey {
+
+    private final Long productBarCode;
+    private final String productName;
+
+    private InvoiceKey(Long productBarCode, String productName) {
+      this.productBarCode = productBarCode;
+      this.productName = productName;
+    }
+  }
+}
@@ -0,0 +1,185 @@
+package com.da.productservice.cache;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiPredicate;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Time-to-live cache that reloads a hot entry in the background before it expires; misses are single-flight and
+ * empty results are not kept.
+ */
+public class RefreshAheadCache<K, V> {
+
+  private final long ttlNanos;
+  private final long refreshAfterNanos;
+  private final int maxEntries;
+  private final Executor refresher;
+  private final LongSupplier clock;
+  private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+  private final AtomicLong generation = new AtomicLong();
+
+  private final Counter hits;
+  private final Counter misses;
+  private final Counter coalesced;
+  private final Counter refreshes;
+  private final Counter failedRefreshes;
+
+  public RefreshAheadCache(String name, long ttlNanos, double refreshAheadRatio, int maxEntries, Executor refresher,
+                           MeterRegistry meterRegistry) {
+    this(name, ttlNanos, refreshAheadRatio, maxEntries, refresher, meterRegistry, System::nanoTime);
+  }
+
+  RefreshAheadCache(String name, long ttlNanos, double refreshAheadRatio, int maxEntries, Executor refresher,
+                    MeterRegistry meterRegistry, LongSupplier clock) {
+    if (refreshAheadRatio <= 0 || refreshAheadRatio > 1)
+      throw new IllegalArgumentException("refreshAheadRatio must be in (0, 1], was " + refreshAheadRatio);
+    this.ttlNanos = ttlNanos;
+    this.refreshAfterNanos = (long) (ttlNanos * refreshAheadRatio);
+    this.maxEntries = maxEntries;
+    this.refresher = refresher;
+    this.clock = clock;
+
+    this.hits = requestCounter(meterRegistry, name, "hit");
+    this.misses = requestCounter(meterRegistry, name, "miss");
+    this.coalesced = requestCounter(meterRegistry, name, "coalesced");
+    this.refreshes = refreshCounter(meterRegistry, name, "success");
+    this.failedRefreshes = refreshCounter(meterRegistry, name, "failure");
+    Gauge.builder("product.read.cache.size", entries, Map::size)
+         .description("Entries held by the product read cache")
+         .tag("cache", name)
+         .register(meterRegistry);
+  }
+
+  private static Counter requestCounter(MeterRegistry meterRegistry, String name, String result) {
+    return Counter.builder("product.read.cache.requests").tag("cache", name).tag("result", result)
+                  .description("Product read cache lookups; coalesced ones waited on a load another request started")
+                  .register(meterRegistry);
+  }
+
+  private static Counter refreshCounter(MeterRegistry meterRegistry, String name, String result) {
+    return Counter.builder("product.read.cache.refreshes").tag("cache", name).tag("result", result)
+                  .description("Product read cache entries reloaded ahead of their expiry")
+                  .register(meterRegistry);
+  }
+
+  /** The cached value for {@code key}, or what {@code loader} finds; a time to live of zero always loads. */
+  public Optional<V> get(K key, Supplier<Optional<V>> loader) {
+    if (ttlNanos <= 0) return loader.get();
+
+    long now = clock.getAsLong();
+    if (entries.size() >= maxEntries) entries.clear();
+    var pending = new Entry<V>();
+    Entry<V> current = entries.compute(key, (k, entry) -> entry == null || entry.isExpired(now, ttlNanos) ? pending : entry);
+
+    if (current == pending) {
+      misses.increment();
+      return load(key, pending, loader);
+    }
+    if (!current.isLoaded()) {
+      coalesced.increment();
+      return join(current.future);
+    }
+
+    hits.increment();
+    if (now - current.loadedAt >= refreshAfterNanos && current.refreshing.compareAndSet(false, true))
+      refresh(key, current, loader);
+    return current.future.getNow(Optional.empty());
+  }
+
+  private Optional<V> load(K key, Entry<V> pending, Supplier<Optional<V>> loader) {
+    long loadedIn = generation.get();
+    Optional<V> value;
+    try {
+      value = loader.get();
+    } catch (RuntimeException e) {
+      entries.remove(key, pending);
+      pending.future.completeExceptionally(e);
+      throw e;
+    }
+
+    pending.future.complete(value);
+    if (value.isPresent() && generation.get() == loadedIn) pending.loadedAt = clock.getAsLong();
+    else entries.remove(key, pending);
+    return value;
+  }
+
+  private void refresh(K key, Entry<V> stale, Supplier<Optional<V>> loader) {
+    try {
+      refresher.execute(() -> {
+        long loadedIn = generation.get();
+        try {
+          Optional<V> value = loader.get();
+          if (generation.get() != loadedIn) return;
+          if (value.isPresent()) entries.replace(key, stale, Entry.loaded(value, clock.getAsLong()));
+          else entries.remove(key, stale);
+          refreshes.increment();
+        } catch (RuntimeException e) {
+          // the stale value keeps being served until it expires, and the next hit tries again
+          failedRefreshes.increment();
+          stale.refreshing.set(false);
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      stale.refreshing.set(false);
+    }
+  }
+
+  /** Drops the entries {@code matches} selects, and the loads still running since their rows are unknown. */
+  public void invalidateIf(BiPredicate<K, V> matches) {
+    generation.incrementAndGet();
+    entries.entrySet().removeIf(entry -> {
+      var value = entry.getValue();
+      return !value.isLoaded() || matches.test(entry.getKey(), value.future.getNow(Optional.empty()).orElse(null));
+    });
+  }
+
+  public void clear() {
+    generation.incrementAndGet();
+    entries.clear();
+  }
+
+  private static <V> Optional<V> join(CompletableFuture<Optional<V>> future) {
+    try {
+      return future.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+      throw e;
+    }
+  }
+
+  /** A load in flight until {@link #loadedAt} is set, which only happens once the future has completed. */
+  private static class Entry<V> {
+
+    private final CompletableFuture<Optional<V>> future = new CompletableFuture<>();
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private volatile long loadedAt = Long.MIN_VALUE;
+
+    private static <V> Entry<V> loaded(Optional<V> value, long loadedAt) {
+      var entry = new Entry<V>();
+      entry.future.complete(value);
+      entry.loadedAt = loadedAt;
+      return entry;
+    }
+
+    private boolean isLoaded() {
+      return loadedAt != Long.MIN_VALUE;
+    }
+
+    private boolean isExpired(long now, long ttlNanos) {
+      return isLoaded() && now - loadedAt >= ttlNanos;
+    }
+  }
+}
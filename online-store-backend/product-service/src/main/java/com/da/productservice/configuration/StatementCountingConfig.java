@@ -0,0 +1,35 @@
+package com.da.productservice.configuration;
+
+import javax.sql.DataSource;
+
+import com.da.productservice.jdbc.StatementCountingDataSource;
+import com.da.productservice.jdbc.StatementCountingFilter;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Configuration
+public class StatementCountingConfig {
+
+  /** Static, so the data source is wrapped however early it is created. */
+  @Bean
+  public static BeanPostProcessor statementCountingDataSourcePostProcessor() {
+    return new BeanPostProcessor() {
+      @Override
+      public Object postProcessAfterInitialization(Object bean, String beanName) {
+        return bean instanceof DataSource && !(bean instanceof StatementCountingDataSource)
+            ? new StatementCountingDataSource((DataSource) bean) : bean;
+      }
+    };
+  }
+
+  @Bean
+  public StatementCountingFilter statementCountingFilter(MeterRegistry meterRegistry,
+                                                         @Value("${product.statements.fail-over-budget:false}") boolean failOverBudget) {
+    return new StatementCountingFilter(meterRegistry, failOverBudget);
+  }
+}
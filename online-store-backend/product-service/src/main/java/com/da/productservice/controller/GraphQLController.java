@@ -0,0 +1,41 @@
+package com.da.productservice.controller;
+
+import java.util.Map;
+
+import javax.validation.Valid;
+
+import com.da.productservice.dto.GraphQLRequest;
+import com.da.productservice.graphql.CatalogDataLoaders;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import graphql.ExecutionInput;
+import graphql.GraphQL;
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+@RestController
+@RequestMapping("/graphql")
+public class GraphQLController {
+
+  private static final MediaType JSON = MediaType.APPLICATION_JSON;
+
+  private final GraphQL graphQL;
+  private final CatalogDataLoaders catalogDataLoaders;
+
+  @PostMapping
+  public ResponseEntity<Map<String, Object>> execute(@Valid @RequestBody GraphQLRequest graphQLRequest){
+    var executionInput = ExecutionInput.newExecutionInput()
+                                       .query(graphQLRequest.getQuery())
+                                       .operationName(graphQLRequest.getOperationName())
+                                       .variables(graphQLRequest.getVariables() == null ? Map.of() : graphQLRequest.getVariables())
+                                       .dataLoaderRegistry(catalogDataLoaders.newRegistry())
+                                       .build();
+    return ResponseEntity.ok().contentType(JSON).body(graphQL.execute(executionInput).toSpecification());
+  }
+}
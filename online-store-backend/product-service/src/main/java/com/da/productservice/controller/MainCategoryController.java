@@ -6,6 +6,7 @@ import javax.validation.Valid;
 
 import com.da.productservice.entity.MainCategory;
 import com.da.productservice.service.MainCategoryService;
+import com.da.productservice.jdbc.StatementBudget;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
@@ -49,11 +50,13 @@ public class MainCategoryController {
     return ResponseEntity.noContent().build();
   }
 
+  @StatementBudget(1)
   @GetMapping("/{mainCategoryName}")
   public ResponseEntity<MainCategory> getByName(@PathVariable String mainCategoryName){
     return ResponseEntity.ok().contentType(JSON).body(mainCategoryService.getByName(mainCategoryName));
   }
 
+  @StatementBudget(2)
   @GetMapping
   public ResponseEntity<Set<String>> getAll(Pageable pageable){
     return ResponseEntity.ok().contentType(JSON).body(mainCategoryService.getAll(pageable));
@@ -1,24 +1,35 @@
 package com.da.productservice.controller;
 
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.Set;
 
 import javax.validation.Valid;
 
+import com.da.productservice.dto.CountStrategy;
+import com.da.productservice.dto.CountedSlice;
+import com.da.productservice.dto.ProductBulkAdjustmentRequest;
+import com.da.productservice.dto.ProductBulkAdjustmentResponse;
 import com.da.productservice.dto.ProductInvoiceResponse;
 import com.da.productservice.dto.ProductListView;
+import com.da.productservice.dto.ProductLookupResponse;
+import com.da.productservice.dto.ProductPatchRequest;
 import com.da.productservice.dto.ProductRequest;
 import com.da.productservice.dto.ProductResponse;
 import com.da.productservice.dto.ProductView;
+import com.da.productservice.dto.SimilarProductResponse;
 import com.da.productservice.service.MainCategoryService;
 import com.da.productservice.service.ProductService;
+import com.da.productservice.jdbc.StatementBudget;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
@@ -26,6 +37,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.util.UriUtils;
 
 import lombok.RequiredArgsConstructor;
 
@@ -35,14 +47,18 @@ import lombok.RequiredArgsConstructor;
 public class ProductController {
 
   private static final MediaType JSON = MediaType.APPLICATION_JSON;
+  private static final String MERGE_PATCH_JSON_VALUE = "application/merge-patch+json";
+  private static final String COUNT_STRATEGY_HEADER = "X-Count-Strategy";
+  private static final String DID_YOU_MEAN_HEADER = "X-Did-You-Mean";
 
   private final MainCategoryService mainCategoryService;
   private final ProductService productService;
 
   @PostMapping
-  public ResponseEntity<ProductResponse> create(@Valid @RequestBody ProductRequest productRequest){
+  public ResponseEntity<ProductResponse> create(@Valid @RequestBody ProductRequest productRequest,
+                                                @RequestParam(defaultValue = "false") boolean checkDuplicates){
     return ResponseEntity.status(HttpStatus.CREATED).contentType(JSON).body(productService.create(productRequest,
-        mainCategoryService.getByName(productRequest.getMainCategoryName())));
+        mainCategoryService.getByName(productRequest.getMainCategoryName()), checkDuplicates));
   }
 
   @PutMapping("/{productId}")
@@ -51,18 +67,43 @@ public class ProductController {
           mainCategoryService.getByName(productRequest.getMainCategoryName())));
   }
 
+  @PatchMapping(value = "/{productId}", consumes = { MERGE_PATCH_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE })
+  public ResponseEntity<ProductResponse> patch(@PathVariable Long productId, @Valid @RequestBody ProductPatchRequest productPatchRequest){
+    var mainCategory = productPatchRequest.isPatched(ProductPatchRequest.MAIN_CATEGORY_NAME)
+        ? mainCategoryService.getByName(productPatchRequest.getMainCategoryName()) : null;
+    return ResponseEntity.ok().contentType(JSON).body(productService.patch(productId, productPatchRequest, mainCategory));
+  }
+
   @PutMapping("/{productBarCode}/stock")
   public ResponseEntity<Void> updateStock(@PathVariable Long productBarCode, @RequestParam(required = true) Integer quantity){
     productService.updateStock(productBarCode, quantity);
     return ResponseEntity.noContent().build();
   }
 
+  @PutMapping("/adjustments")
+  public ResponseEntity<ProductBulkAdjustmentResponse> bulkAdjust(@Valid @RequestBody ProductBulkAdjustmentRequest productBulkAdjustmentRequest){
+    return ResponseEntity.ok().contentType(JSON).body(productService.bulkAdjust(productBulkAdjustmentRequest));
+  }
+
+  @GetMapping("/{productBarCode}/similar")
+  public ResponseEntity<List<SimilarProductResponse>> getSimilar(@PathVariable Long productBarCode, @RequestParam(defaultValue = "10") int limit){
+    return ResponseEntity.ok().contentType(JSON).body(productService.getSimilar(productBarCode, limit));
+  }
+
+  @StatementBudget(1)
   @GetMapping("/responses")
   public ResponseEntity<ProductResponse> getProductResponse(@RequestParam(defaultValue = "0", required = false) Long productBarCode,
                                                             @RequestParam(defaultValue = " ", required = false) String productName){
     return ResponseEntity.ok().contentType(JSON).body(productService.getProductResponseByBarCodeOrProductName(productBarCode, productName));
   }
 
+  @StatementBudget(1)
+  @GetMapping("/responses/batch")
+  public ResponseEntity<List<ProductLookupResponse>> getProductResponses(@RequestParam(required = true) List<Long> productBarCodes){
+    return ResponseEntity.ok().contentType(JSON).body(productService.getProductResponsesByBarCodes(productBarCodes));
+  }
+
+  @StatementBudget(1)
   @GetMapping("/invoices")
   public ResponseEntity<ProductInvoiceResponse> forInvoice(@RequestParam(required = true) Long productBarCode, @RequestParam(required = true) String productName){
     return ResponseEntity.ok().contentType(JSON).body(productService.getForInvoiceResponse(productBarCode, productName));
@@ -74,14 +115,17 @@ public class ProductController {
     return ResponseEntity.noContent().build();
   }
 
+  @StatementBudget(2)
   @GetMapping
-  public ResponseEntity<Page<ProductListView>> getAll(Pageable pageable){
-    return ResponseEntity.ok().contentType(JSON).body(productService.getListView(pageable));
+  public ResponseEntity<Slice<ProductListView>> getAll(@RequestParam(defaultValue = "EXACT") CountStrategy count, Pageable pageable){
+    return toResponse(productService.getListView(pageable, count));
   }
 
+  @StatementBudget(2)
   @GetMapping("/main-categories/{mainCategoryId}")
-  public ResponseEntity<Page<ProductListView>> getByMainCategoryId(@PathVariable Long mainCategoryId, Pageable pageable){
-    return ResponseEntity.ok().contentType(JSON).body(productService.getListViewByMainCategory(mainCategoryId, pageable));
+  public ResponseEntity<Slice<ProductListView>> getByMainCategoryId(@PathVariable Long mainCategoryId, @RequestParam(defaultValue = "EXACT") CountStrategy count,
+                                                                    Pageable pageable){
+    return toResponse(productService.getListViewByMainCategory(mainCategoryId, pageable, count));
   }
 
   @GetMapping("/sub-categories")
@@ -89,13 +133,23 @@ public class ProductController {
     return ResponseEntity.ok().contentType(JSON).body(productService.getListViewBySubCategory(subCategories));
   }
 
+  @StatementBudget(1)
   @GetMapping("/names")
   public ResponseEntity<ProductView> getByName(@RequestParam(required = true) String productName){
     return ResponseEntity.ok().contentType(JSON).body(productService.getProductViewByName(productName));
   }
 
+  @StatementBudget(4)
   @GetMapping("/names/search")
-  public ResponseEntity<Page<ProductListView>> getByNameCoincidences(@RequestParam(required = true) String productName, Pageable pageable){
-    return ResponseEntity.ok().contentType(JSON).body(productService.getListViewByName(productName, pageable));
+  public ResponseEntity<Slice<ProductListView>> getByNameCoincidences(@RequestParam(required = true) String productName,
+                                                                      @RequestParam(defaultValue = "EXACT") CountStrategy count, Pageable pageable){
+    return toResponse(productService.getListViewByName(productName, pageable, count));
+  }
+
+  private ResponseEntity<Slice<ProductListView>> toResponse(CountedSlice<ProductListView> products){
+    var response = ResponseEntity.ok().contentType(JSON).header(COUNT_STRATEGY_HEADER, products.getCountStrategy().name());
+    if (products.getCorrectedQuery() != null)
+      response.header(DID_YOU_MEAN_HEADER, UriUtils.encode(products.getCorrectedQuery(), StandardCharsets.UTF_8));
+    return response.body(products.getProducts());
   }
 }
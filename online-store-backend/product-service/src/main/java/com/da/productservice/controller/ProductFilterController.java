@@ -0,0 +1,40 @@
+package com.da.productservice.controller;
+
+import javax.validation.Valid;
+
+import com.da.productservice.dto.ProductFilterRequest;
+import com.da.productservice.dto.ProductListView;
+import com.da.productservice.dto.SubCategoryQueryRequest;
+import com.da.productservice.service.ProductFilterService;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+@RestController
+@RequestMapping("/products")
+public class ProductFilterController {
+
+  private static final MediaType JSON = MediaType.APPLICATION_JSON;
+
+  private final ProductFilterService productFilterService;
+
+  @PostMapping("/filter")
+  public ResponseEntity<Page<ProductListView>> filter(@Valid @RequestBody ProductFilterRequest productFilterRequest, Pageable pageable){
+    return ResponseEntity.ok().contentType(JSON).body(productFilterService.filter(productFilterRequest, pageable));
+  }
+
+  @PostMapping("/sub-categories/query")
+  public ResponseEntity<Page<ProductListView>> queryBySubCategories(@Valid @RequestBody SubCategoryQueryRequest subCategoryQueryRequest,
+                                                                    Pageable pageable){
+    return ResponseEntity.ok().contentType(JSON).body(productFilterService.queryBySubCategories(subCategoryQueryRequest, pageable));
+  }
+}
@@ -0,0 +1,29 @@
+package com.da.productservice.controller;
+
+import java.util.Set;
+
+import com.da.productservice.stream.ProductStreamHub;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+@RestController
+@RequestMapping("/products/stream")
+public class ProductStreamController {
+
+  private final ProductStreamHub productStreamHub;
+
+  @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public SseEmitter stream(@RequestParam(required = false) Set<Long> productBarCodes,
+                           @RequestParam(required = false) String mainCategoryName,
+                           @RequestParam(required = false) String subCategoryName){
+    return productStreamHub.subscribe(productBarCodes == null ? Set.of() : productBarCodes, mainCategoryName, subCategoryName);
+  }
+}
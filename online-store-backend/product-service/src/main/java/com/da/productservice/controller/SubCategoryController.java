@@ -8,8 +8,10 @@ import com.da.productservice.dto.SubCategoryRequest;
 import com.da.productservice.dto.SubCategoryResponse;
 import com.da.productservice.service.MainCategoryService;
 import com.da.productservice.service.SubCategoryService;
+import com.da.productservice.jdbc.StatementBudget;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -55,13 +57,15 @@ public class SubCategoryController {
     return ResponseEntity.noContent().build();
   }
 
+  @StatementBudget(2)
   @GetMapping
   public ResponseEntity<Set<String>> getAll(Pageable pageable) {
     return ResponseEntity.ok().contentType(JSON).body(subCategoryService.getAll(pageable));
   }
 
+  @StatementBudget(4)
   @GetMapping("/{subCategoryName}")
-  public ResponseEntity<SubCategoryResponse> getByName(@PathVariable String subCategoryName) {
-    return ResponseEntity.ok().contentType(JSON).body(subCategoryService.getSubCategoryResponseByName(subCategoryName));
+  public ResponseEntity<SubCategoryResponse> getByName(@PathVariable String subCategoryName, @PageableDefault(size = 20) Pageable pageable) {
+    return ResponseEntity.ok().contentType(JSON).body(subCategoryService.getSubCategoryResponseByName(subCategoryName, pageable));
   }
 }
@@ -0,0 +1,44 @@
+package com.da.productservice.count;
+
+import java.util.Locale;
+import java.util.function.LongSupplier;
+
+import com.da.productservice.util.SearchPattern;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Everything {@link ProductCounter} needs to total one listing: the key its count is cached under, the exact
+ * count query and the SQL whose planner estimate stands in for it.
+ */
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class CountQuery {
+
+  private final String cacheKey;
+  private final LongSupplier exactCount;
+  private final String estimateSql;
+  private final Object[] estimateArgs;
+
+  public static CountQuery all(LongSupplier exactCount) {
+    return new CountQuery("all", exactCount, "SELECT 1 FROM products", new Object[0]);
+  }
+
+  public static CountQuery byMainCategory(Long mainCategoryId, LongSupplier exactCount) {
+    return new CountQuery("main-category:" + mainCategoryId, exactCount,
+        "SELECT 1 FROM products WHERE main_category_id = ?", new Object[] { mainCategoryId });
+  }
+
+  public static CountQuery byNameContaining(String productName, LongSupplier exactCount) {
+    return new CountQuery("name:" + productName.toLowerCase(Locale.ROOT), exactCount,
+        "SELECT 1 FROM products WHERE upper(product_name) LIKE upper(?)", new Object[] { SearchPattern.containing(productName) });
+  }
+
+  public static CountQuery byNameSearch(String productName, LongSupplier exactCount) {
+    return new CountQuery("search:" + productName.toLowerCase(Locale.ROOT), exactCount,
+        "SELECT 1 FROM products p, websearch_to_tsquery('english', ?) q WHERE p.search_vector @@ q OR p.product_name ILIKE ?",
+        new Object[] { productName, SearchPattern.containing(productName) });
+  }
+}
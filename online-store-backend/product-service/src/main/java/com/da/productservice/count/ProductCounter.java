@@ -0,0 +1,129 @@
+package com.da.productservice.count;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.da.productservice.dto.CountStrategy;
+import com.da.productservice.dto.CountedSlice;
+import com.da.productservice.event.CatalogResyncEvent;
+import com.da.productservice.event.ProductChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/** Turns a {@link Slice} of a product listing into a page counted with the requested {@link CountStrategy}. */
+@Component
+public class ProductCounter {
+
+  private static final String EXPLAIN = "EXPLAIN (FORMAT JSON) ";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate estimateTemplate;
+  private final ObjectMapper objectMapper;
+  private final long cacheTtlNanos;
+  private final int cacheMaxEntries;
+  private final Map<String, CachedCount> cache = new ConcurrentHashMap<>();
+  private final AtomicLong generation = new AtomicLong();
+
+  private volatile boolean estimatesSupported = true;
+
+  public ProductCounter(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager, ObjectMapper objectMapper,
+                        @Value("${product.count.cache-ttl-seconds:60}") long cacheTtlSeconds,
+                        @Value("${product.count.cache-max-entries:10000}") int cacheMaxEntries) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.estimateTemplate = new TransactionTemplate(transactionManager);
+    this.estimateTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    this.estimateTemplate.setReadOnly(true);
+    this.objectMapper = objectMapper;
+    this.cacheTtlNanos = cacheTtlSeconds * 1_000_000_000L;
+    this.cacheMaxEntries = cacheMaxEntries;
+  }
+
+  public <T> CountedSlice<T> count(Slice<T> slice, CountStrategy countStrategy, CountQuery countQuery) {
+    long seen = slice.getPageable().isPaged() ? slice.getPageable().getOffset() + slice.getNumberOfElements() : slice.getNumberOfElements();
+
+    if (!slice.hasNext() && (slice.hasContent() || slice.isFirst()))
+      return new CountedSlice<>(new PageImpl<>(slice.getContent(), slice.getPageable(), seen), CountStrategy.EXACT);
+
+    switch (countStrategy) {
+      case NONE:
+        return new CountedSlice<>(slice, CountStrategy.NONE);
+      case CACHED:
+        return toPage(slice, seen, cached(countQuery), CountStrategy.CACHED);
+      case ESTIMATED:
+        long estimate = estimate(countQuery);
+        if (estimate >= 0) return toPage(slice, seen, estimate, CountStrategy.ESTIMATED);
+        return toPage(slice, seen, countQuery.getExactCount().getAsLong(), CountStrategy.EXACT);
+      default:
+        return toPage(slice, seen, countQuery.getExactCount().getAsLong(), CountStrategy.EXACT);
+    }
+  }
+
+  @TransactionalEventListener
+  public void onProductChanged(ProductChangedEvent event) {
+    clear();
+  }
+
+  @EventListener(CatalogResyncEvent.class)
+  public void clear() {
+    generation.incrementAndGet();
+    cache.clear();
+  }
+
+  private long cached(CountQuery countQuery) {
+    long now = System.nanoTime();
+    var cachedCount = cache.get(countQuery.getCacheKey());
+    if (cachedCount != null && now - cachedCount.countedAt < cacheTtlNanos) return cachedCount.count;
+
+    long countedIn = generation.get();
+    long count = countQuery.getExactCount().getAsLong();
+    if (cache.size() >= cacheMaxEntries) cache.clear();
+    // a write that committed while counting may not be reflected, so only keep counts no write has overtaken
+    if (generation.get() == countedIn) cache.put(countQuery.getCacheKey(), new CachedCount(count, now));
+    return count;
+  }
+
+  private long estimate(CountQuery countQuery) {
+    if (!estimatesSupported) return -1;
+    try {
+      String plan = estimateTemplate.execute(status -> jdbcTemplate.queryForObject(EXPLAIN + countQuery.getEstimateSql(), String.class,
+                                                                                   countQuery.getEstimateArgs()));
+      return objectMapper.readTree(plan).path(0).path("Plan").path("Plan Rows").asLong(-1);
+    } catch (BadSqlGrammarException e) {
+      estimatesSupported = false;
+      return -1;
+    } catch (DataAccessException | JsonProcessingException e) {
+      return -1;
+    }
+  }
+
+  /** Keeps the total consistent with what the slice has shown: at least every row seen, plus one if there is more. */
+  private static <T> CountedSlice<T> toPage(Slice<T> slice, long seen, long total, CountStrategy countStrategy) {
+    long atLeast = slice.hasNext() ? seen + 1 : seen;
+    return new CountedSlice<>(new PageImpl<>(slice.getContent(), slice.getPageable(), Math.max(total, atLeast)), countStrategy);
+  }
+
+  private static class CachedCount {
+
+    private final long count;
+    private final long countedAt;
+
+    private CachedCount(long count, long countedAt) {
+      this.count = count;
+      this.countedAt = countedAt;
+    }
+  }
+}
@@ -0,0 +1,8 @@
+package com.da.productservice.dto;
+
+public interface CatalogLink {
+
+  public Long getParentId();
+
+  public Long getChildId();
+}
@@ -0,0 +1,7 @@
+package com.da.productservice.dto;
+
+/**
+ * How the total of a product listing is produced: counted by the database, served from a count cached until
+ * the next product write, taken from the query planner's row estimate, or not produced at all.
+ */
+public enum CountStrategy { EXACT, CACHED, ESTIMATED, NONE }
@@ -0,0 +1,33 @@
+package com.da.productservice.dto;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A listing together with the {@link CountStrategy} that produced its total. The products are a {@link Page}
+ * for every strategy but {@link CountStrategy#NONE}, which leaves them a plain {@link Slice}. A search that
+ * only matched after a spelling correction also carries the corrected query.
+ */
+@Getter
+@AllArgsConstructor
+public class CountedSlice<T> {
+
+  private final Slice<T> products;
+  private final CountStrategy countStrategy;
+  private final String correctedQuery;
+
+  public CountedSlice(Slice<T> products, CountStrategy countStrategy) {
+    this(products, countStrategy, null);
+  }
+
+  public static <T> CountedSlice<T> exact(Page<T> products) {
+    return new CountedSlice<>(products, CountStrategy.EXACT);
+  }
+
+  public CountedSlice<T> withCorrectedQuery(String correctedQuery) {
+    return new CountedSlice<>(products, countStrategy, correctedQuery);
+  }
+}
@@ -0,0 +1,20 @@
+package com.da.productservice.dto;
+
+import java.util.Map;
+
+import javax.validation.constraints.NotEmpty;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class GraphQLRequest {
+
+  @NotEmpty(message = "The Query is required")
+  private String query;
+  private String operationName;
+  private Map<String, Object> variables;
+}
@@ -0,0 +1,63 @@
+package com.da.productservice.dto;
+
+import java.util.Set;
+import java.util.stream.Stream;
+
+import javax.validation.constraints.AssertTrue;
+import javax.validation.constraints.Digits;
+import javax.validation.constraints.Size;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+public class ProductBulkAdjustmentRequest {
+
+  public enum PriceAdjustment { PERCENTAGE, ABSOLUTE }
+
+  private String mainCategoryName;
+
+  private String subCategoryName;
+
+  @Size(max = 1000, message = "A maximum of {max} Bar Codes can be adjusted at once")
+  private Set<Long> productBarCodes;
+
+  private PriceAdjustment priceAdjustment;
+
+  @Digits(integer = 6, fraction = 2, message = "The Price Value can only have {fraction} decimal places")
+  private Double priceValue;
+
+  @Digits(integer = 4, fraction = 0, message = "The Stock Delta must be an integer and its maximum is 9999")
+  private Integer stockDelta;
+
+  @JsonIgnore
+  @AssertTrue(message = "Exactly one of Main Category, Sub Category or Bar Codes must be selected")
+  public boolean isSelectorValid() {
+    return Stream.of(mainCategoryName, subCategoryName, productBarCodes).filter(s -> s != null).count() == 1;
+  }
+
+  @JsonIgnore
+  @AssertTrue(message = "A Price Adjustment or a Stock Delta is required")
+  public boolean isAdjustmentValid() {
+    return priceAdjustment != null || priceValue != null || stockDelta != null;
+  }
+
+  @JsonIgnore
+  @AssertTrue(message = "A Price Adjustment and its Value must be given together")
+  public boolean isPriceValid() {
+    return (priceAdjustment == null) == (priceValue == null);
+  }
+
+  @JsonIgnore
+  @AssertTrue(message = "A Percentage Price Adjustment must be greater than -100")
+  public boolean isPercentageValid() {
+    return priceAdjustment != PriceAdjustment.PERCENTAGE || priceValue == null || priceValue > -100;
+  }
+}
@@ -0,0 +1,16 @@
+package com.da.productservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ProductBulkAdjustmentResponse {
+
+  private Integer matchedProducts;
+  private Integer updatedProducts;
+}
@@ -0,0 +1,17 @@
+package com.da.productservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class ProductColumns {
+
+  private Long productId;
+  private Long productBarCode;
+  private String productName;
+  private Double productPrice;
+  private Integer productStock;
+  private String productStatus;
+  private Long mainCategoryId;
+}
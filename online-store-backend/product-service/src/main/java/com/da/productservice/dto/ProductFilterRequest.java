@@ -0,0 +1,47 @@
+package com.da.productservice.dto;
+
+import java.util.Set;
+
+import javax.validation.constraints.AssertTrue;
+import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+public class ProductFilterRequest {
+
+  public enum PriceSort { ASC, DESC }
+
+  @PositiveOrZero(message = "The Minimum Price can't be negative")
+  private Double minPrice;
+
+  @PositiveOrZero(message = "The Maximum Price can't be negative")
+  private Double maxPrice;
+
+  private String mainCategoryName;
+
+  @Size(max = 50, message = "A maximum of {max} Sub Categories can be combined")
+  private Set<String> subCategoriesNames;
+
+  @Size(max = 10, message = "A maximum of {max} Statuses can be combined")
+  private Set<String> productStatuses;
+
+  private Boolean inStock;
+
+  private PriceSort priceSort;
+
+  @JsonIgnore
+  @AssertTrue(message = "The Minimum Price can't be greater than the Maximum Price")
+  public boolean isPriceRangeValid() {
+    return minPrice == null || maxPrice == null || minPrice <= maxPrice;
+  }
+}
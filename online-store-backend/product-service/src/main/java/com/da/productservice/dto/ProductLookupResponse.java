@@ -0,0 +1,21 @@
+package com.da.productservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ProductLookupResponse {
+
+  private Long productBarCode;
+  private boolean found;
+  private ProductResponse product;
+
+  public static ProductLookupResponse of(Long productBarCode, ProductResponse product) {
+    return new ProductLookupResponse(productBarCode, product != null, product);
+  }
+}
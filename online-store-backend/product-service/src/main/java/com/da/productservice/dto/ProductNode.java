@@ -0,0 +1,18 @@
+package com.da.productservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class ProductNode {
+
+  private Long productId;
+  private Long productBarCode;
+  private String productName;
+  private String productDescription;
+  private Double productPrice;
+  private Integer productStock;
+  private String productStatus;
+  private Long mainCategoryId;
+}
@@ -0,0 +1,114 @@
+package com.da.productservice.dto;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import javax.validation.constraints.AssertTrue;
+import javax.validation.constraints.DecimalMin;
+import javax.validation.constraints.Digits;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * JSON Merge Patch (RFC 7396) of a product. Only members present in the document are applied: a value replaces
+ * the current one and {@code null} removes it, which only the description allows. The setters record which
+ * members were present, so an absent member and an explicit {@code null} stay distinguishable.
+ */
+@NoArgsConstructor
+@Getter
+public class ProductPatchRequest {
+
+  public static final String PRODUCT_BAR_CODE = "productBarCode";
+  public static final String PRODUCT_NAME = "productName";
+  public static final String PRODUCT_DESCRIPTION = "productDescription";
+  public static final String PRODUCT_STOCK = "productStock";
+  public static final String PRODUCT_PRICE = "productPrice";
+  public static final String MAIN_CATEGORY_NAME = "mainCategoryName";
+  public static final String SUB_CATEGORIES_NAMES = "subCategoriesNames";
+
+  @JsonIgnore
+  private final Set<String> patchedFields = new HashSet<>();
+
+  @PositiveOrZero(message = "The Bar Code must be positive")
+  @Min(value = 1000000000000L,message = "The Bar Code must be 13 digits")
+  @Digits(integer = 13, fraction = 0, message = "The Bar Code must be {integer} digits")
+  private Long productBarCode;
+
+  @Size(min = 1, max = 130, message = "The Name must be between {min} and {max} characters")
+  private String productName;
+
+  private String productDescription;
+
+  @Positive(message = "The Product Stock must be greater than zero")
+  @Digits(integer = 4, fraction = 0, message = "The Stock must be an integer and its maximum is 9999")
+  private Integer productStock;
+
+  @DecimalMin(value = "0.0", message = "The Product Price must be positive")
+  @Digits(integer = 6, fraction = 2, message = "The Price can only have {fraction} decimal places and its maximum is 999999.99")
+  private Double productPrice;
+
+  private String mainCategoryName;
+
+  @Size(min = 1, message = "The Product must belong at least {min} Sub Category")
+  private String[] subCategoriesNames;
+
+  public boolean isPatched(String field) {
+    return patchedFields.contains(field);
+  }
+
+  @JsonIgnore
+  @AssertTrue(message = "At least one field must be patched")
+  public boolean isNotEmpty() {
+    return !patchedFields.isEmpty();
+  }
+
+  @JsonIgnore
+  @AssertTrue(message = "Only the Description can be removed")
+  public boolean isRemovalValid() {
+    return (productBarCode != null || !isPatched(PRODUCT_BAR_CODE)) && (productName != null || !isPatched(PRODUCT_NAME))
+        && (productStock != null || !isPatched(PRODUCT_STOCK)) && (productPrice != null || !isPatched(PRODUCT_PRICE))
+        && (mainCategoryName != null || !isPatched(MAIN_CATEGORY_NAME)) && (subCategoriesNames != null || !isPatched(SUB_CATEGORIES_NAMES));
+  }
+
+  public void setProductBarCode(Long productBarCode) {
+    this.productBarCode = productBarCode;
+    patchedFields.add(PRODUCT_BAR_CODE);
+  }
+
+  public void setProductName(String productName) {
+    this.productName = productName;
+    patchedFields.add(PRODUCT_NAME);
+  }
+
+  public void setProductDescription(String productDescription) {
+    this.productDescription = productDescription;
+    patchedFields.add(PRODUCT_DESCRIPTION);
+  }
+
+  public void setProductStock(Integer productStock) {
+    this.productStock = productStock;
+    patchedFields.add(PRODUCT_STOCK);
+  }
+
+  public void setProductPrice(Double productPrice) {
+    this.productPrice = productPrice;
+    patchedFields.add(PRODUCT_PRICE);
+  }
+
+  public void setMainCategoryName(String mainCategoryName) {
+    this.mainCategoryName = mainCategoryName;
+    patchedFields.add(MAIN_CATEGORY_NAME);
+  }
+
+  public void setSubCategoriesNames(String[] subCategoriesNames) {
+    this.subCategoriesNames = subCategoriesNames;
+    patchedFields.add(SUB_CATEGORIES_NAMES);
+  }
+}
@@ -0,0 +1,10 @@
+package com.da.productservice.dto;
+
+public interface ProductSearchHit {
+
+  public String getProductName();
+
+  public String getProductDescription();
+
+  public Double getProductPrice();
+}
@@ -0,0 +1,34 @@
+package com.da.productservice.dto;
+
+import java.util.Objects;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ProductStockChange {
+
+  private Long productBarCode;
+  private String productName;
+  private Double productPrice;
+  private Integer productStock;
+  private String mainCategoryName;
+
+  public static ProductStockChange removed(Long productBarCode) {
+    return ProductStockChange.builder().productBarCode(productBarCode).build();
+  }
+
+  public boolean isRemoved() {
+    return productName == null;
+  }
+
+  public boolean hasSameStockAndPrice(ProductStockChange other) {
+    return Objects.equals(productStock, other.productStock) && Objects.equals(productPrice, other.productPrice)
+        && isRemoved() == other.isRemoved();
+  }
+}
@@ -0,0 +1,14 @@
+package com.da.productservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class ProductText {
+
+  private Long productId;
+  private Long productBarCode;
+  private String productName;
+  private String productDescription;
+}
@@ -0,0 +1,17 @@
+package com.da.productservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class SimilarProductResponse {
+
+  private Long productBarCode;
+  private String productName;
+  private Double similarity;
+}
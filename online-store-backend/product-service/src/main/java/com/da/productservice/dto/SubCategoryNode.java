@@ -0,0 +1,14 @@
+package com.da.productservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class SubCategoryNode {
+
+  private Long parentId;
+  private Long subCategoryId;
+  private String subCategoryName;
+  private Long mainCategoryId;
+}
@@ -0,0 +1,20 @@
+package com.da.productservice.dto;
+
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.Size;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+public class SubCategoryQueryRequest {
+
+  @NotBlank(message = "The Expression is required")
+  @Size(max = 500, message = "The Expression can't be longer than {max} characters")
+  private String expression;
+}
@@ -1,6 +1,6 @@
 package com.da.productservice.dto;
 
-import java.util.Set;
+import java.util.List;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -16,5 +16,6 @@ public class SubCategoryResponse {
   private Long subCategoryId;
   private String subCategoryName;
   private String mainCategory;
-  private Set<String> products;
+  private long productCount;
+  private List<String> products;
 }
@@ -0,0 +1,41 @@
+package com.da.productservice.entity;
+
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.persistence.AttributeConverter;
+import javax.persistence.Converter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Stores a set of category names as a compact JSON array, {@code ["Mice","Monitors"]}; element order carries no
+ * meaning. Renames and removals recompute the column in SQL, encoding it the same way.
+ */
+@Converter
+public class CategoryNamesConverter implements AttributeConverter<Set<String>, String> {
+
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+  private static final TypeReference<TreeSet<String>> NAMES = new TypeReference<>() {};
+
+  @Override
+  public String convertToDatabaseColumn(Set<String> names) {
+    try {
+      return OBJECT_MAPPER.writeValueAsString(names == null ? Set.of() : new TreeSet<>(names));
+    } catch (JsonProcessingException e) {
+      throw new IllegalArgumentException(e);
+    }
+  }
+
+  @Override
+  public Set<String> convertToEntityAttribute(String column) {
+    if (column == null || column.isBlank()) return new TreeSet<>();
+    try {
+      return OBJECT_MAPPER.readValue(column, NAMES);
+    } catch (JsonProcessingException e) {
+      throw new IllegalArgumentException(e);
+    }
+  }
+}
@@ -3,8 +3,11 @@ package com.da.productservice.entity;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Set;
+import java.util.stream.Collectors;
 
+import javax.persistence.CascadeType;
 import javax.persistence.Column;
+import javax.persistence.Convert;
 import javax.persistence.Entity;
 import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
@@ -15,18 +18,20 @@ import javax.persistence.JoinTable;
 import javax.persistence.Lob;
 import javax.persistence.ManyToMany;
 import javax.persistence.ManyToOne;
+import javax.persistence.OneToOne;
 import javax.persistence.Table;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.OnDelete;
 import org.hibernate.annotations.OnDeleteAction;
 import org.hibernate.annotations.Type;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import lombok.AccessLevel;
-import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
@@ -34,11 +39,10 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
 
-@AllArgsConstructor
 @NoArgsConstructor
 @Data
-@Builder
 @Entity
+@DynamicUpdate
 @Table(name = "products")
 public class Product {
 
@@ -60,9 +64,6 @@ public class Product {
   @Column(name = "product_description")
   private String productDescription;
 
-  @Column(name = "product_stock", nullable = false)
-  private Integer productStock;
-
   @Column(name = "product_price", nullable = false)
   private Double productPrice;
 
@@ -94,4 +95,62 @@ public class Product {
               joinColumns = { @JoinColumn(name = "fk_product") },
               inverseJoinColumns = { @JoinColumn(name = "fk_sub_category") })
   private Set<SubCategory> subCategories;
+
+  /** Copies of the category names, kept in step by the category setters and the set-based category renames. */
+  @Column(name = "main_category_name", length = 50)
+  @Setter(AccessLevel.NONE)
+  private String mainCategoryName;
+
+  @Convert(converter = CategoryNamesConverter.class)
+  @Column(name = "sub_category_names", columnDefinition = "text")
+  @Setter(AccessLevel.NONE)
+  private Set<String> subCategoryNames;
+
+  @ToString.Exclude
+  @EqualsAndHashCode.Exclude
+  @JsonIgnore
+  @OneToOne(mappedBy = "product", cascade = CascadeType.ALL)
+  private ProductInventory inventory;
+
+  @Builder
+  public Product(Long productId, Long productBarCode, String productName, String productDescription, Integer productStock,
+                 Double productPrice, LocalDate createDate, LocalDateTime lastModifiedDate, String productStatus,
+                 MainCategory mainCategory, Set<SubCategory> subCategories) {
+    this.productId = productId;
+    this.productBarCode = productBarCode;
+    this.productName = productName;
+    this.productDescription = productDescription;
+    this.productPrice = productPrice;
+    this.createDate = createDate;
+    this.lastModifiedDate = lastModifiedDate;
+    this.productStatus = productStatus;
+    setMainCategory(mainCategory);
+    setSubCategories(subCategories);
+    setProductStock(productStock);
+  }
+
+  public void setMainCategory(MainCategory mainCategory) {
+    this.mainCategory = mainCategory;
+    this.mainCategoryName = mainCategory == null ? null : mainCategory.getMainCategoryName();
+  }
+
+  public void setSubCategories(Set<SubCategory> subCategories) {
+    this.subCategories = subCategories;
+    refreshSubCategoryNames();
+  }
+
+  /** Copies the names of the current sub-categories; needed after changing the set in place. */
+  public void refreshSubCategoryNames() {
+    this.subCategoryNames = subCategories == null ? Set.of()
+        : subCategories.stream().map(SubCategory::getSubCategoryName).collect(Collectors.toSet());
+  }
+
+  public Integer getProductStock() {
+    return inventory == null ? null : inventory.getProductStock();
+  }
+
+  public void setProductStock(Integer productStock) {
+    if (inventory == null) inventory = new ProductInventory(this, productStock);
+    else inventory.setProductStock(productStock);
+  }
 }
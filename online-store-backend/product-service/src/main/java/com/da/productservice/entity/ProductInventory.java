@@ -0,0 +1,54 @@
+package com.da.productservice.entity;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.FetchType;
+import javax.persistence.Id;
+import javax.persistence.JoinColumn;
+import javax.persistence.MapsId;
+import javax.persistence.OneToOne;
+import javax.persistence.Table;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import lombok.AccessLevel;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/** Stock of a product, in its own narrow table so stock writes leave the products row alone. */
+@NoArgsConstructor
+@Data
+@Entity
+@DynamicUpdate
+@Table(name = "product_inventory")
+public class ProductInventory {
+
+  @Id
+  @Column(name = "product_id", updatable = false)
+  @Setter(AccessLevel.NONE)
+  private Long productId;
+
+  @ToString.Exclude
+  @EqualsAndHashCode.Exclude
+  @JsonIgnore
+  @MapsId
+  @OneToOne(fetch = FetchType.LAZY, optional = false)
+  @JoinColumn(name = "product_id")
+  @OnDelete(action = OnDeleteAction.CASCADE)
+  private Product product;
+
+  @Column(name = "product_stock", nullable = false)
+  private Integer productStock;
+
+  public ProductInventory(Product product, Integer productStock) {
+    this.product = product;
+    this.productStock = productStock;
+  }
+}
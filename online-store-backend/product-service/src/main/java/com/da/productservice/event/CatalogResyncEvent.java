@@ -0,0 +1,17 @@
+package com.da.productservice.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+/**
+ * Published, outside any transaction, when other replicas' changes may have been missed, e.g. while the
+ * {@code InvalidationBus} was reconnecting. Listeners holding derived state rebuild it from the database.
+ */
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class CatalogResyncEvent {
+
+  private final String reason;
+}
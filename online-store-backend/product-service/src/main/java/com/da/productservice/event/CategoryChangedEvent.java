@@ -0,0 +1,27 @@
+package com.da.productservice.event;
+
+import java.util.Set;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Published inside the transaction that creates, renames or deletes main or sub categories, like
+ * {@link ProductChangedEvent}. The products a deletion touches get their own {@link ProductChangedEvent}.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class CategoryChangedEvent {
+
+  public enum CategoryType { MAIN, SUB }
+
+  private final CategoryType categoryType;
+  private final Set<Long> categoryIds;
+  private final boolean remote;
+
+  public CategoryChangedEvent(CategoryType categoryType, Set<Long> categoryIds) {
+    this(categoryType, categoryIds, false);
+  }
+}
@@ -0,0 +1,29 @@
+package com.da.productservice.event;
+
+import java.util.Set;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Published inside the writing transaction; listeners that keep derived state (caches, indexes, streams)
+ * should consume it with {@code @TransactionalEventListener} so they only see committed changes. A remote
+ * event is another replica's committed write, republished by the {@code InvalidationBus}.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class ProductChangedEvent {
+
+  /** {@code STOCK} is an update of the inventory alone, which listeners without stock can skip. */
+  public enum ChangeType { CREATED, UPDATED, STOCK, DELETED }
+
+  private final ChangeType changeType;
+  private final Set<Long> productBarCodes;
+  private final boolean remote;
+
+  public ProductChangedEvent(ChangeType changeType, Set<Long> productBarCodes) {
+    this(changeType, productBarCodes, false);
+  }
+}
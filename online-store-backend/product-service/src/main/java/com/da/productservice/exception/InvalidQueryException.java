@@ -0,0 +1,14 @@
+package com.da.productservice.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidQueryException extends RuntimeException {
+
+  private static final long serialVersionUID = 1L;
+
+  public InvalidQueryException(String message) {
+    super(message);
+  }
+}
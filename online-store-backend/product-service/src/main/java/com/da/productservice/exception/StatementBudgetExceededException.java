@@ -0,0 +1,10 @@
+package com.da.productservice.exception;
+
+public class StatementBudgetExceededException extends RuntimeException {
+
+  private static final long serialVersionUID = 1L;
+
+  public StatementBudgetExceededException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,92 @@
+package com.da.productservice.graphql;
+
+import static graphql.schema.idl.TypeRuntimeWiring.newTypeWiring;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import com.da.productservice.dto.ProductNode;
+import com.da.productservice.dto.SubCategoryNode;
+import com.da.productservice.entity.MainCategory;
+import com.da.productservice.repository.MainCategoryRepository;
+import com.da.productservice.repository.ProductRepository;
+import com.da.productservice.repository.SubCategoryRepository;
+
+import org.dataloader.DataLoader;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import graphql.ErrorType;
+import graphql.GraphqlErrorBuilder;
+import graphql.execution.DataFetcherResult;
+import graphql.schema.DataFetchingEnvironment;
+import graphql.schema.idl.RuntimeWiring;
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+@Component
+public class CatalogDataFetchers {
+
+  static final int MAX_PAGE_SIZE = 50;
+  private static final String INVALID_BAR_CODE = "The Product Bar Code must be a number";
+
+  private final ProductRepository productRepository;
+  private final MainCategoryRepository mainCategoryRepository;
+  private final SubCategoryRepository subCategoryRepository;
+
+  public RuntimeWiring runtimeWiring() {
+    //@formatter:off
+    return RuntimeWiring.newRuntimeWiring()
+                        .type(newTypeWiring("Query")
+                              .dataFetcher("product", this::getProduct)
+                              .dataFetcher("products", this::getProducts)
+                              .dataFetcher("mainCategories", env -> mainCategoryRepository.findAll())
+                              .dataFetcher("mainCategory", env -> mainCategoryRepository.findByMainCategoryName(env.getArgument("mainCategoryName")).orElse(null))
+                              .dataFetcher("subCategory", env -> subCategoryRepository.findNodeBySubCategoryName(env.getArgument("subCategoryName")).orElse(null)))
+                        .type(newTypeWiring("Product")
+                              .dataFetcher("mainCategory", env -> load(env, CatalogDataLoaders.MAIN_CATEGORY, env.<ProductNode>getSource().getMainCategoryId()))
+                              .dataFetcher("subCategories", env -> load(env, CatalogDataLoaders.SUB_CATEGORIES_BY_PRODUCT, env.<ProductNode>getSource().getProductId())))
+                        .type(newTypeWiring("MainCategory")
+                              .dataFetcher("subCategories", env -> load(env, CatalogDataLoaders.SUB_CATEGORIES_BY_MAIN_CATEGORY, env.<MainCategory>getSource().getMainCategoryId()))
+                              .dataFetcher("products", env -> first(env, load(env, CatalogDataLoaders.PRODUCTS_BY_MAIN_CATEGORY, env.<MainCategory>getSource().getMainCategoryId()))))
+                        .type(newTypeWiring("SubCategory")
+                              .dataFetcher("mainCategory", env -> load(env, CatalogDataLoaders.MAIN_CATEGORY, env.<SubCategoryNode>getSource().getMainCategoryId()))
+                              .dataFetcher("products", env -> first(env, load(env, CatalogDataLoaders.PRODUCTS_BY_SUB_CATEGORY, env.<SubCategoryNode>getSource().getSubCategoryId()))))
+                        .build();
+    //@formatter:on
+  }
+
+  /** An ID arrives as a string, so a barcode that is not a number is reported as a validation error of the field. */
+  private DataFetcherResult<ProductNode> getProduct(DataFetchingEnvironment env) {
+    String productBarCode = env.getArgument("productBarCode");
+    String productName = env.getArgument("productName");
+
+    long barCode;
+    try {
+      barCode = productBarCode == null ? 0L : Long.parseLong(productBarCode);
+    } catch (NumberFormatException e) {
+      return DataFetcherResult.<ProductNode>newResult()
+                              .error(GraphqlErrorBuilder.newError(env).message(INVALID_BAR_CODE).errorType(ErrorType.ValidationError).build())
+                              .build();
+    }
+    return DataFetcherResult.<ProductNode>newResult()
+                            .data(productRepository.findNodeByProductBarCodeOrProductName(barCode, productName == null ? " " : productName).orElse(null))
+                            .build();
+  }
+
+  private List<ProductNode> getProducts(DataFetchingEnvironment env) {
+    int page = env.getArgument("page");
+    int size = env.getArgument("size");
+    return productRepository.findNodes(PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), MAX_PAGE_SIZE)));
+  }
+
+  private static <V> CompletableFuture<V> load(DataFetchingEnvironment env, String dataLoaderName, Long key) {
+    DataLoader<Long, V> dataLoader = env.getDataLoader(dataLoaderName);
+    return dataLoader.load(key);
+  }
+
+  private static CompletableFuture<List<ProductNode>> first(DataFetchingEnvironment env, CompletableFuture<List<ProductNode>> products) {
+    int first = Math.max(env.<Integer>getArgument("first"), 0);
+    return products.thenApply(p -> p.size() > first ? p.subList(0, first) : p);
+  }
+}
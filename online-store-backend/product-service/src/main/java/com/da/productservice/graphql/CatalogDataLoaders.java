@@ -0,0 +1,111 @@
+package com.da.productservice.graphql;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import com.da.productservice.dto.CatalogLink;
+import com.da.productservice.dto.ProductNode;
+import com.da.productservice.dto.SubCategoryNode;
+import com.da.productservice.entity.MainCategory;
+import com.da.productservice.repository.MainCategoryRepository;
+import com.da.productservice.repository.ProductRepository;
+import com.da.productservice.repository.SubCategoryRepository;
+
+import org.dataloader.DataLoader;
+import org.dataloader.DataLoaderRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Builds a fresh {@link DataLoaderRegistry} per GraphQL request. Every loader resolves all the keys collected
+ * on one level of the query with a single {@code IN} query, so the number of statements depends on the depth
+ * of the query and not on the number of rows it returns.
+ */
+@RequiredArgsConstructor
+@Component
+public class CatalogDataLoaders {
+
+  public static final String MAIN_CATEGORY = "mainCategory";
+  public static final String SUB_CATEGORIES_BY_PRODUCT = "subCategoriesByProduct";
+  public static final String SUB_CATEGORIES_BY_MAIN_CATEGORY = "subCategoriesByMainCategory";
+  public static final String PRODUCTS_BY_SUB_CATEGORY = "productsBySubCategory";
+  public static final String PRODUCTS_BY_MAIN_CATEGORY = "productsByMainCategory";
+
+  private final ProductRepository productRepository;
+  private final MainCategoryRepository mainCategoryRepository;
+  private final SubCategoryRepository subCategoryRepository;
+
+  @Value("${catalog.graphql.max-children:50}")
+  private int maxChildren;
+
+  public DataLoaderRegistry newRegistry() {
+    var registry = new DataLoaderRegistry();
+    registry.register(MAIN_CATEGORY, DataLoader.newMappedDataLoader(this::loadMainCategories));
+    registry.register(SUB_CATEGORIES_BY_PRODUCT, DataLoader.newMappedDataLoader(this::loadSubCategoriesByProduct));
+    registry.register(SUB_CATEGORIES_BY_MAIN_CATEGORY, DataLoader.newMappedDataLoader(this::loadSubCategoriesByMainCategory));
+    registry.register(PRODUCTS_BY_SUB_CATEGORY, DataLoader.newMappedDataLoader(this::loadProductsBySubCategory));
+    registry.register(PRODUCTS_BY_MAIN_CATEGORY, DataLoader.newMappedDataLoader(this::loadProductsByMainCategory));
+    return registry;
+  }
+
+  public int getMaxChildren() {
+    return maxChildren;
+  }
+
+  private CompletionStage<Map<Long, MainCategory>> loadMainCategories(Set<Long> mainCategoryIds) {
+    return CompletableFuture.completedFuture(mainCategoryRepository.findAllById(mainCategoryIds).stream()
+        .collect(Collectors.toMap(MainCategory::getMainCategoryId, Function.identity())));
+  }
+
+  private CompletionStage<Map<Long, List<SubCategoryNode>>> loadSubCategoriesByProduct(Set<Long> productIds) {
+    return CompletableFuture.completedFuture(
+        groupByParent(productIds, subCategoryRepository.findNodesByProductIds(productIds), SubCategoryNode::getParentId));
+  }
+
+  private CompletionStage<Map<Long, List<SubCategoryNode>>> loadSubCategoriesByMainCategory(Set<Long> mainCategoryIds) {
+    return CompletableFuture.completedFuture(
+        groupByParent(mainCategoryIds, subCategoryRepository.findNodesByMainCategoryIds(mainCategoryIds), SubCategoryNode::getParentId));
+  }
+
+  private CompletionStage<Map<Long, List<ProductNode>>> loadProductsBySubCategory(Set<Long> subCategoryIds) {
+    return CompletableFuture.completedFuture(
+        resolveProductLinks(subCategoryIds, productRepository.findProductLinksBySubCategoryIds(subCategoryIds, maxChildren)));
+  }
+
+  private CompletionStage<Map<Long, List<ProductNode>>> loadProductsByMainCategory(Set<Long> mainCategoryIds) {
+    return CompletableFuture.completedFuture(
+        resolveProductLinks(mainCategoryIds, productRepository.findProductLinksByMainCategoryIds(mainCategoryIds, maxChildren)));
+  }
+
+  private Map<Long, List<ProductNode>> resolveProductLinks(Set<Long> parentIds, List<CatalogLink> links) {
+    Map<Long, ProductNode> products = links.isEmpty() ? Map.of()
+        : productRepository.findNodesByProductIds(links.stream().map(CatalogLink::getChildId).collect(Collectors.toSet()))
+                           .stream().collect(Collectors.toMap(ProductNode::getProductId, Function.identity()));
+
+    Map<Long, List<ProductNode>> productsByParent = emptyListPerParent(parentIds);
+    links.stream().filter(link -> products.containsKey(link.getChildId()))
+                  .forEach(link -> productsByParent.get(link.getParentId()).add(products.get(link.getChildId())));
+    return productsByParent;
+  }
+
+  private static <T> Map<Long, List<T>> groupByParent(Set<Long> parentIds, List<T> nodes, Function<T, Long> parentOf) {
+    Map<Long, List<T>> nodesByParent = emptyListPerParent(parentIds);
+    nodes.forEach(node -> nodesByParent.get(parentOf.apply(node)).add(node));
+    return nodesByParent;
+  }
+
+  private static <T> Map<Long, List<T>> emptyListPerParent(Set<Long> parentIds) {
+    Map<Long, List<T>> nodesByParent = new HashMap<>();
+    parentIds.forEach(parentId -> nodesByParent.put(parentId, new ArrayList<>()));
+    return nodesByParent;
+  }
+}
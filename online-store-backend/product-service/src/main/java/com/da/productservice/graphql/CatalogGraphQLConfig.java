@@ -0,0 +1,60 @@
+package com.da.productservice.graphql;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ClassPathResource;
+
+import graphql.GraphQL;
+import graphql.analysis.FieldComplexityCalculator;
+import graphql.analysis.MaxQueryComplexityInstrumentation;
+import graphql.analysis.MaxQueryDepthInstrumentation;
+import graphql.execution.instrumentation.ChainedInstrumentation;
+import graphql.execution.instrumentation.Instrumentation;
+import graphql.execution.instrumentation.dataloader.DataLoaderDispatcherInstrumentation;
+import graphql.schema.idl.SchemaGenerator;
+import graphql.schema.idl.SchemaParser;
+import graphql.schema.idl.TypeDefinitionRegistry;
+
+@Configuration
+public class CatalogGraphQLConfig {
+
+  private static final String SCHEMA = "graphql/catalog.graphqls";
+
+  @Bean
+  public GraphQL graphQL(CatalogDataFetchers catalogDataFetchers, CatalogDataLoaders catalogDataLoaders,
+                         @Value("${catalog.graphql.max-depth:6}") int maxDepth,
+                         @Value("${catalog.graphql.max-complexity:500}") int maxComplexity) throws IOException {
+    TypeDefinitionRegistry typeDefinitionRegistry;
+    try (Reader reader = new InputStreamReader(new ClassPathResource(SCHEMA).getInputStream(), StandardCharsets.UTF_8)) {
+      typeDefinitionRegistry = new SchemaParser().parse(reader);
+    }
+
+    var schema = new SchemaGenerator().makeExecutableSchema(typeDefinitionRegistry, catalogDataFetchers.runtimeWiring());
+
+    List<Instrumentation> instrumentations = List.of(new MaxQueryDepthInstrumentation(maxDepth),
+        new MaxQueryComplexityInstrumentation(maxComplexity, listComplexity(catalogDataLoaders.getMaxChildren())),
+        new DataLoaderDispatcherInstrumentation());
+
+    return GraphQL.newGraphQL(schema).instrumentation(new ChainedInstrumentation(instrumentations)).build();
+  }
+
+  /**
+   * A list field costs as much as the children it may return, bounded by the same limits the fetchers apply.
+   */
+  private static FieldComplexityCalculator listComplexity(int maxChildren) {
+    return (environment, childComplexity) -> {
+      Object first = environment.getArguments().get("first");
+      Object size = environment.getArguments().get("size");
+      int multiplier = first instanceof Number ? Math.min(((Number) first).intValue(), maxChildren)
+                     : size instanceof Number ? Math.min(((Number) size).intValue(), CatalogDataFetchers.MAX_PAGE_SIZE) : 1;
+      return Math.max(multiplier, 1) * (childComplexity + 1);
+    };
+  }
+}
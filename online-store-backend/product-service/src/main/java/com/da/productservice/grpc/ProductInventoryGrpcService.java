@@ -0,0 +1,113 @@
+package com.da.productservice.grpc;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.da.productservice.exception.ResourceNotFoundException;
+import com.da.productservice.service.ProductService;
+
+import io.grpc.Context;
+import io.grpc.Deadline;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.StreamObserver;
+import lombok.RequiredArgsConstructor;
+import net.devh.boot.grpc.server.service.GrpcService;
+
+/**
+ * gRPC counterpart of {@code /products/invoices} and {@code /products/{productBarCode}/stock} for shopping-service.
+ * The caller's deadline travels with the call, so work is skipped once the client has already given up.
+ */
+@RequiredArgsConstructor
+@GrpcService
+public class ProductInventoryGrpcService extends ProductInventoryGrpc.ProductInventoryImplBase {
+
+  private static final String INVALID_QUANTITY = "The quantity to reserve must be greater than zero";
+
+  private final ProductService productService;
+
+  @Override
+  public void getPricing(PricingRequest request, StreamObserver<PricingResponse> responseObserver) {
+    if (isExpired(responseObserver)) return;
+
+    PricingResponse response;
+    try {
+      var product = productService.getForInvoiceResponse(request.getProductBarCode(), request.getProductName());
+      response = PricingResponse.newBuilder()
+                                .setFound(true)
+                                .setProductName(product.getProductName())
+                                .setProductPrice(product.getProductPrice())
+                                .build();
+    } catch (ResourceNotFoundException exception) {
+      response = PricingResponse.newBuilder().setFound(false).build();
+    }
+    responseObserver.onNext(response);
+    responseObserver.onCompleted();
+  }
+
+  @Override
+  public void reserveStock(StockReservation request, StreamObserver<StockReservationResult> responseObserver) {
+    if (isExpired(responseObserver)) return;
+    if (request.getQuantity() <= 0) {
+      responseObserver.onError(invalidQuantity());
+      return;
+    }
+
+    responseObserver.onNext(StockReservationResult.newBuilder()
+                                                  .setProductBarCode(request.getProductBarCode())
+                                                  .setReserved(productService.reserveStock(request.getProductBarCode(), request.getQuantity()))
+                                                  .build());
+    responseObserver.onCompleted();
+  }
+
+  @Override
+  public StreamObserver<StockReservation> reserveStockBatch(StreamObserver<StockReservationBatchResult> responseObserver) {
+    return new StreamObserver<>() {
+
+      private final Map<Long, Integer> quantitiesByBarCode = new LinkedHashMap<>();
+      private boolean rejected;
+
+      @Override
+      public void onNext(StockReservation reservation) {
+        if (rejected) return;
+        if (reservation.getQuantity() <= 0) {
+          rejected = true;
+          responseObserver.onError(invalidQuantity());
+          return;
+        }
+        quantitiesByBarCode.merge(reservation.getProductBarCode(), reservation.getQuantity(), Integer::sum);
+      }
+
+      @Override
+      public void onError(Throwable throwable) {
+        quantitiesByBarCode.clear();
+      }
+
+      @Override
+      public void onCompleted() {
+        if (rejected || isExpired(responseObserver)) return;
+
+        var result = StockReservationBatchResult.newBuilder();
+        productService.reserveStock(quantitiesByBarCode)
+                      .forEach((productBarCode, reserved) -> result.addResults(StockReservationResult.newBuilder()
+                                                                                                      .setProductBarCode(productBarCode)
+                                                                                                      .setReserved(reserved)));
+        responseObserver.onNext(result.build());
+        responseObserver.onCompleted();
+      }
+    };
+  }
+
+  /** A reservation only takes stock; letting a negative one through would raise the stock past the conditional update. */
+  private static StatusRuntimeException invalidQuantity() {
+    return Status.INVALID_ARGUMENT.withDescription(INVALID_QUANTITY).asRuntimeException();
+  }
+
+  private static boolean isExpired(StreamObserver<?> responseObserver) {
+    Deadline deadline = Context.current().getDeadline();
+    if (!Context.current().isCancelled() && (deadline == null || !deadline.isExpired())) return false;
+
+    responseObserver.onError(Status.DEADLINE_EXCEEDED.withDescription("The caller deadline expired").asRuntimeException());
+    return true;
+  }
+}
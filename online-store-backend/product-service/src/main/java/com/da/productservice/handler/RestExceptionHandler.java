@@ -4,6 +4,8 @@ import java.time.LocalDateTime;
 import java.util.stream.Collectors;
 
 import com.da.productservice.exception.ExceptionDetails;
+import com.da.productservice.exception.DuplicateProductException;
+import com.da.productservice.exception.InvalidQueryException;
 import com.da.productservice.exception.ResourceNotFoundException;
 import com.da.productservice.exception.ValidationExceptionDetails;
 
@@ -33,6 +35,28 @@ public class RestExceptionHandler extends ResponseEntityExceptionHandler{
                                 .exceptionClassName(exception.getClass().getName()).build());
   }
 
+  @ExceptionHandler(InvalidQueryException.class)
+  public ResponseEntity<ExceptionDetails> handleInvalidQueryException(InvalidQueryException exception) {
+    return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                          .body(ExceptionDetails.builder()
+                                .timestamp(LocalDateTime.now())
+                                .status(HttpStatus.BAD_REQUEST.value())
+                                .title("Invalid Query")
+                                .detail(exception.getMessage())
+                                .exceptionClassName(exception.getClass().getName()).build());
+  }
+
+  @ExceptionHandler(DuplicateProductException.class)
+  public ResponseEntity<ExceptionDetails> handleDuplicateProductException(DuplicateProductException exception) {
+    return ResponseEntity.status(HttpStatus.CONFLICT)
+                          .body(ExceptionDetails.builder()
+                                .timestamp(LocalDateTime.now())
+                                .status(HttpStatus.CONFLICT.value())
+                                .title("Duplicate Product")
+                                .detail(exception.getMessage())
+                                .exceptionClassName(exception.getClass().getName()).build());
+  }
+
   @ExceptionHandler(DataIntegrityViolationException.class)
   public ResponseEntity<ExceptionDetails> handleConstraintViolationException(DataIntegrityViolationException exception){
     return ResponseEntity.status(HttpStatus.BAD_REQUEST)
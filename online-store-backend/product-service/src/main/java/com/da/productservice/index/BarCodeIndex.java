@@ -0,0 +1,198 @@
+package com.da.productservice.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.StampedLock;
+
+import com.da.productservice.dto.ProductColumns;
+import com.da.productservice.dto.ProductInvoiceResponse;
+import com.da.productservice.event.CatalogResyncEvent;
+import com.da.productservice.event.ProductChangedEvent;
+import com.da.productservice.event.ProductChangedEvent.ChangeType;
+import com.da.productservice.repository.ProductRepository;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/** In-memory barcode to product name and price, loaded once the application is ready; stock is left out. */
+@Component
+public class BarCodeIndex {
+
+  private static final int LOAD_BATCH_SIZE = 1000;
+
+  private final ProductRepository productRepository;
+  private final StampedLock lock = new StampedLock();
+  private final Set<Long> changedWhileLoading = ConcurrentHashMap.newKeySet();
+
+  private final LongIntHashMap slotsByBarCode = new LongIntHashMap(LOAD_BATCH_SIZE);
+  private String[] productNames = new String[LOAD_BATCH_SIZE];
+  private double[] productPrices = new double[LOAD_BATCH_SIZE];
+  private int[] freeSlots = new int[16];
+  private int freeSlotCount;
+  private int slotCount;
+
+  private volatile boolean loaded;
+
+  public BarCodeIndex(ProductRepository productRepository) {
+    this.productRepository = productRepository;
+  }
+
+  public boolean isLoaded() {
+    return loaded;
+  }
+
+  public boolean contains(long productBarCode) {
+    long stamp = lock.tryOptimisticRead();
+    if (stamp != 0L) {
+      try {
+        boolean found = slotsByBarCode.get(productBarCode) != LongIntHashMap.MISSING;
+        if (lock.validate(stamp)) return found;
+      } catch (RuntimeException concurrentResize) {
+        // fall through to a read lock
+      }
+    }
+    stamp = lock.readLock();
+    try {
+      return slotsByBarCode.get(productBarCode) != LongIntHashMap.MISSING;
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+  /** Name and price of the product when both the barcode and the name match, as {@code findForInvoice} does. */
+  public Optional<ProductInvoiceResponse> findForInvoice(long productBarCode, String productName) {
+    long stamp = lock.tryOptimisticRead();
+    if (stamp != 0L) {
+      try {
+        int slot = slotsByBarCode.get(productBarCode);
+        String name = slot == LongIntHashMap.MISSING ? null : productNames[slot];
+        double price = slot == LongIntHashMap.MISSING ? 0 : productPrices[slot];
+        if (lock.validate(stamp)) return toInvoiceResponse(name, price, productName);
+      } catch (RuntimeException concurrentResize) {
+        // fall through to a read lock
+      }
+    }
+    stamp = lock.readLock();
+    try {
+      int slot = slotsByBarCode.get(productBarCode);
+      return slot == LongIntHashMap.MISSING ? Optional.empty() : toInvoiceResponse(productNames[slot], productPrices[slot], productName);
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+  public int size() {
+    long stamp = lock.readLock();
+    try {
+      return slotsByBarCode.size();
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public synchronized void load() {
+    if (loaded) return;
+
+    List<ProductColumns> batch;
+    Long lastProductId = 0L;
+    do {
+      batch = productRepository.findColumnsAfter(lastProductId, PageRequest.of(0, LOAD_BATCH_SIZE));
+      batch.forEach(this::upsert);
+      if (!batch.isEmpty()) lastProductId = batch.get(batch.size() - 1).getProductId();
+    } while (batch.size() == LOAD_BATCH_SIZE);
+    loaded = true;
+
+    var missed = new ArrayList<>(changedWhileLoading);
+    changedWhileLoading.removeAll(missed);
+    apply(missed);
+  }
+
+  /** Drops everything and loads again; meanwhile {@link #isLoaded()} is false and callers go to the database. */
+  @EventListener(CatalogResyncEvent.class)
+  public synchronized void reload() {
+    long stamp = lock.writeLock();
+    try {
+      loaded = false;
+      slotsByBarCode.clear();
+      Arrays.fill(productNames, null);
+      freeSlotCount = 0;
+      slotCount = 0;
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+    load();
+  }
+
+  @TransactionalEventListener
+  public void onProductChanged(ProductChangedEvent event) {
+    if (event.getChangeType() == ChangeType.STOCK) return;
+    if (!loaded) {
+      changedWhileLoading.addAll(event.getProductBarCodes());
+      return;
+    }
+    apply(event.getProductBarCodes());
+  }
+
+  private void apply(Collection<Long> productBarCodes) {
+    if (productBarCodes.isEmpty()) return;
+
+    Set<Long> removed = new HashSet<>(productBarCodes);
+    for (ProductColumns product : productRepository.findColumnsByBarCodes(productBarCodes)) {
+      removed.remove(product.getProductBarCode());
+      upsert(product);
+    }
+    removed.forEach(this::remove);
+  }
+
+  private void upsert(ProductColumns product) {
+    long stamp = lock.writeLock();
+    try {
+      int slot = slotsByBarCode.get(product.getProductBarCode());
+      if (slot == LongIntHashMap.MISSING) {
+        slot = freeSlotCount > 0 ? freeSlots[--freeSlotCount] : nextSlot();
+        slotsByBarCode.put(product.getProductBarCode(), slot);
+      }
+      productNames[slot] = product.getProductName();
+      productPrices[slot] = product.getProductPrice();
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+  private void remove(long productBarCode) {
+    long stamp = lock.writeLock();
+    try {
+      int slot = slotsByBarCode.remove(productBarCode);
+      if (slot == LongIntHashMap.MISSING) return;
+
+      productNames[slot] = null;
+      if (freeSlotCount == freeSlots.length) freeSlots = Arrays.copyOf(freeSlots, freeSlotCount * 2);
+      freeSlots[freeSlotCount++] = slot;
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+  private int nextSlot() {
+    if (slotCount == productNames.length) {
+      int capacity = slotCount + (slotCount >> 1);
+      productNames = Arrays.copyOf(productNames, capacity);
+      productPrices = Arrays.copyOf(productPrices, capacity);
+    }
+    return slotCount++;
+  }
+
+  private static Optional<ProductInvoiceResponse> toInvoiceResponse(String name, double price, String requestedName) {
+    return name != null && name.equals(requestedName) ? Optional.of(new ProductInvoiceResponse(name, price)) : Optional.empty();
+  }
+}
@@ -0,0 +1,128 @@
+package com.da.productservice.index;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing {@code long -> int} map with linear probing. Keys and values live in two primitive arrays, so
+ * lookups neither box nor allocate, and removal shifts the following entries back instead of leaving tombstones.
+ * Not thread-safe; {@link BarCodeIndex} guards it.
+ */
+final class LongIntHashMap {
+
+  static final int MISSING = -1;
+
+  private static final long FREE = 0L;
+  private static final int MIN_CAPACITY = 16;
+
+  private long[] keys;
+  private int[] values;
+  private int mask;
+  private int size;
+
+  private boolean hasFreeKey;
+  private int freeKeyValue;
+
+  LongIntHashMap(int expectedSize) {
+    allocate(capacityFor(expectedSize));
+  }
+
+  int size() {
+    return size + (hasFreeKey ? 1 : 0);
+  }
+
+  int get(long key) {
+    if (key == FREE) return hasFreeKey ? freeKeyValue : MISSING;
+
+    long[] keys = this.keys;
+    int mask = this.mask;
+    for (int slot = hash(key) & mask; ; slot = (slot + 1) & mask) {
+      if (keys[slot] == key) return values[slot];
+      if (keys[slot] == FREE) return MISSING;
+    }
+  }
+
+  /** Returns the previous value, or {@link #MISSING}. */
+  int put(long key, int value) {
+    if (key == FREE) {
+      int previous = hasFreeKey ? freeKeyValue : MISSING;
+      hasFreeKey = true;
+      freeKeyValue = value;
+      return previous;
+    }
+
+    int slot = hash(key) & mask;
+    while (keys[slot] != FREE) {
+      if (keys[slot] == key) {
+        int previous = values[slot];
+        values[slot] = value;
+        return previous;
+      }
+      slot = (slot + 1) & mask;
+    }
+    keys[slot] = key;
+    values[slot] = value;
+    if (++size * 2 > keys.length) resize(keys.length * 2);
+    return MISSING;
+  }
+
+  /** Returns the removed value, or {@link #MISSING}. */
+  int remove(long key) {
+    if (key == FREE) {
+      int previous = hasFreeKey ? freeKeyValue : MISSING;
+      hasFreeKey = false;
+      return previous;
+    }
+
+    int slot = hash(key) & mask;
+    while (keys[slot] != key) {
+      if (keys[slot] == FREE) return MISSING;
+      slot = (slot + 1) & mask;
+    }
+    int previous = values[slot];
+    size--;
+
+    // shift back every following entry whose home slot is not between the hole and itself
+    for (int next = (slot + 1) & mask; keys[next] != FREE; next = (next + 1) & mask) {
+      int home = hash(keys[next]) & mask;
+      if (((next - home) & mask) >= ((next - slot) & mask)) {
+        keys[slot] = keys[next];
+        values[slot] = values[next];
+        slot = next;
+      }
+    }
+    keys[slot] = FREE;
+    return previous;
+  }
+
+  void clear() {
+    Arrays.fill(keys, FREE);
+    size = 0;
+    hasFreeKey = false;
+  }
+
+  private void resize(int capacity) {
+    long[] oldKeys = keys;
+    int[] oldValues = values;
+    allocate(capacity);
+    size = 0;
+    for (int i = 0; i < oldKeys.length; i++)
+      if (oldKeys[i] != FREE) put(oldKeys[i], oldValues[i]);
+  }
+
+  private void allocate(int capacity) {
+    keys = new long[capacity];
+    values = new int[capacity];
+    mask = capacity - 1;
+  }
+
+  private static int capacityFor(int expectedSize) {
+    int capacity = MIN_CAPACITY;
+    while (capacity < expectedSize * 2L) capacity <<= 1;
+    return capacity;
+  }
+
+  private static int hash(long key) {
+    long h = key * 0x9E3779B97F4A7C15L;
+    return (int) (h ^ (h >>> 32));
+  }
+}
@@ -0,0 +1,75 @@
+package com.da.productservice.index;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * MinHash signatures over the character shingles of a normalized text, split into LSH bands. With
+ * {@value #BANDS} bands of {@value #ROWS} rows two texts share a band with probability
+ * {@code 1 - (1 - s^ROWS)^BANDS}, which crosses one half at a Jaccard similarity {@code s} of about 0.7.
+ */
+final class MinHash {
+
+  static final int BANDS = 16;
+  static final int ROWS = 8;
+  static final int HASHES = BANDS * ROWS;
+
+  private static final int SHINGLE_LENGTH = 4;
+  private static final long[] SEEDS = new SplittableRandom(0x6D696E68617368L).longs(HASHES).toArray();
+
+  private MinHash() {
+  }
+
+  /** Null for a blank text, which has no shingles to compare. */
+  static int[] signature(String text) {
+    String normalized = ProductBloomFilter.normalize(text);
+    if (normalized.isEmpty()) return null;
+
+    int[] signature = new int[HASHES];
+    Arrays.fill(signature, Integer.MAX_VALUE);
+    int shingles = Math.max(1, normalized.length() - SHINGLE_LENGTH + 1);
+    for (int start = 0; start < shingles; start++) {
+      long shingle = hash(normalized, start, Math.min(normalized.length(), start + SHINGLE_LENGTH));
+      for (int i = 0; i < HASHES; i++) {
+        int value = (int) (mix(shingle ^ SEEDS[i]) >>> 32);
+        if (value < signature[i]) signature[i] = value;
+      }
+    }
+    return signature;
+  }
+
+  /** Estimated Jaccard similarity: the share of positions on which both signatures agree. */
+  static double similarity(int[] left, int[] right) {
+    int equal = 0;
+    for (int i = 0; i < HASHES; i++)
+      if (left[i] == right[i]) equal++;
+    return (double) equal / HASHES;
+  }
+
+  /** One key per band; the band number is mixed in so equal rows in different bands do not collide. */
+  static long[] bandKeys(int[] signature) {
+    long[] keys = new long[BANDS];
+    for (int band = 0; band < BANDS; band++) {
+      long key = band;
+      for (int row = band * ROWS; row < (band + 1) * ROWS; row++)
+        key = mix(key * 31 + signature[row]);
+      keys[band] = key;
+    }
+    return keys;
+  }
+
+  private static long hash(String text, int from, int to) {
+    long hash = 0xCBF29CE484222325L;
+    for (int i = from; i < to; i++) {
+      hash ^= text.charAt(i);
+      hash *= 0x100000001B3L;
+    }
+    return hash;
+  }
+
+  private static long mix(long z) {
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
+}
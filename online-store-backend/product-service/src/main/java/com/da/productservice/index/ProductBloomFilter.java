@@ -0,0 +1,188 @@
+package com.da.productservice.index;
+
+import java.text.Normalizer;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PreDestroy;
+
+import com.da.productservice.dto.ProductColumns;
+import com.da.productservice.event.CatalogResyncEvent;
+import com.da.productservice.event.ProductChangedEvent;
+import com.da.productservice.event.ProductChangedEvent.ChangeType;
+import com.da.productservice.repository.ProductRepository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/** Bloom filters over product barcodes and names, answering lookups for products that cannot exist without a query. */
+@Component
+public class ProductBloomFilter {
+
+  private static final int LOAD_BATCH_SIZE = 1000;
+
+  private final ProductRepository productRepository;
+  private final double falsePositiveRate;
+  private final Timer rebuildTimer;
+  private final ScheduledExecutorService worker;
+
+  private volatile Filters filters;
+  private Filters building;
+
+  public ProductBloomFilter(ProductRepository productRepository, MeterRegistry meterRegistry,
+                            @Value("${product.bloom-filter.false-positive-rate:0.01}") double falsePositiveRate,
+                            @Value("${product.bloom-filter.rebuild-minutes:30}") long rebuildMinutes) {
+    this.productRepository = productRepository;
+    this.falsePositiveRate = falsePositiveRate;
+
+    var threadFactory = new CustomizableThreadFactory("product-bloom-filter-");
+    threadFactory.setDaemon(true);
+    this.worker = Executors.newSingleThreadScheduledExecutor(threadFactory);
+    if (rebuildMinutes > 0)
+      worker.scheduleWithFixedDelay(this::rebuild, rebuildMinutes, rebuildMinutes, TimeUnit.MINUTES);
+
+    this.rebuildTimer = Timer.builder("product.bloom.filter.rebuild")
+                             .description("Time taken to rebuild the product Bloom filters from the table")
+                             .register(meterRegistry);
+    Gauge.builder("product.bloom.filter.false.positive.rate", this, filter -> filter.getFalsePositiveRate(true))
+         .description("Expected false-positive rate of the product Bloom filter")
+         .tag("key", "barcode")
+         .register(meterRegistry);
+    Gauge.builder("product.bloom.filter.false.positive.rate", this, filter -> filter.getFalsePositiveRate(false))
+         .description("Expected false-positive rate of the product Bloom filter")
+         .tag("key", "name")
+         .register(meterRegistry);
+    Gauge.builder("product.bloom.filter.memory", this, ProductBloomFilter::getBitSize)
+         .description("Bits held by the product Bloom filters")
+         .baseUnit("bits")
+         .register(meterRegistry);
+  }
+
+  /** True only when no product has this barcode; false means the database has to be asked. */
+  public boolean excludesBarCode(Long productBarCode) {
+    var current = filters;
+    return current != null && (productBarCode == null || !current.barCodes.mightContain(hash(productBarCode)));
+  }
+
+  /** True only when no product has this name; false means the database has to be asked. */
+  public boolean excludesName(String productName) {
+    var current = filters;
+    return current != null && (productName == null || !current.names.mightContain(hash(normalize(productName))));
+  }
+
+  /** Call before the insert or update commits, so a reader that sees the row also sees the keys. */
+  public synchronized void add(Long productBarCode, String productName) {
+    if (filters != null) filters.add(productBarCode, productName);
+    if (building != null) building.add(productBarCode, productName);
+  }
+
+  @EventListener({ ApplicationReadyEvent.class, CatalogResyncEvent.class })
+  public void load() {
+    worker.execute(this::rebuild);
+  }
+
+  /** Other replicas' products were not {@link #add added} here before their commit, so they are read back. */
+  @TransactionalEventListener
+  public void onProductChanged(ProductChangedEvent event) {
+    if (!event.isRemote() || event.getChangeType() == ChangeType.STOCK || event.getProductBarCodes().isEmpty()) return;
+
+    productRepository.findColumnsByBarCodes(event.getProductBarCodes())
+                     .forEach(product -> add(product.getProductBarCode(), product.getProductName()));
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    worker.shutdownNow();
+  }
+
+  double getFalsePositiveRate(boolean barCodes) {
+    var current = filters;
+    if (current == null) return 1;
+    return (barCodes ? current.barCodes : current.names).expectedFalsePositiveRate();
+  }
+
+  long getBitSize() {
+    var current = filters;
+    return current == null ? 0 : current.barCodes.bitSize() + current.names.bitSize();
+  }
+
+  void rebuild() {
+    long start = System.nanoTime();
+    try {
+      var rebuilt = new Filters(productRepository.count(), falsePositiveRate);
+      synchronized (this) {
+        building = rebuilt;
+      }
+
+      List<ProductColumns> batch;
+      Long lastProductId = 0L;
+      do {
+        batch = productRepository.findColumnsAfter(lastProductId, PageRequest.of(0, LOAD_BATCH_SIZE));
+        batch.forEach(product -> rebuilt.add(product.getProductBarCode(), product.getProductName()));
+        if (!batch.isEmpty()) lastProductId = batch.get(batch.size() - 1).getProductId();
+      } while (batch.size() == LOAD_BATCH_SIZE);
+
+      synchronized (this) {
+        filters = rebuilt;
+        building = null;
+      }
+    } catch (RuntimeException exception) {
+      // keep the previous filters until the next rebuild
+      synchronized (this) {
+        building = null;
+      }
+      return;
+    }
+    rebuildTimer.record(Duration.ofNanos(System.nanoTime() - start));
+  }
+
+  static String normalize(String productName) {
+    return Normalizer.normalize(productName, Normalizer.Form.NFKC).trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+  }
+
+  private static long hash(long key) {
+    key ^= key >>> 33;
+    key *= 0xFF51AFD7ED558CCDL;
+    key ^= key >>> 33;
+    key *= 0xC4CEB9FE1A85EC53L;
+    return key ^ key >>> 33;
+  }
+
+  private static long hash(String key) {
+    long hash = 0xCBF29CE484222325L;
+    for (int i = 0; i < key.length(); i++) {
+      hash ^= key.charAt(i);
+      hash *= 0x100000001B3L;
+    }
+    return hash(hash);
+  }
+
+  private static final class Filters {
+
+    private final ScalableBloomFilter barCodes;
+    private final ScalableBloomFilter names;
+
+    Filters(long expectedProducts, double falsePositiveRate) {
+      this.barCodes = new ScalableBloomFilter(expectedProducts, falsePositiveRate);
+      this.names = new ScalableBloomFilter(expectedProducts, falsePositiveRate);
+    }
+
+    void add(Long productBarCode, String productName) {
+      if (productBarCode != null) barCodes.add(hash(productBarCode));
+      if (productName != null) names.add(hash(normalize(productName)));
+    }
+  }
+}
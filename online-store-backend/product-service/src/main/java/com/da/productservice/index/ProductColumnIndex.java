@@ -0,0 +1,403 @@
+package com.da.productservice.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import com.da.productservice.dto.CatalogLink;
+import com.da.productservice.dto.ProductColumns;
+import com.da.productservice.dto.ProductFilterRequest.PriceSort;
+import com.da.productservice.event.CatalogResyncEvent;
+import com.da.productservice.event.ProductChangedEvent;
+import com.da.productservice.repository.ProductRepository;
+
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/** Column-oriented copy of the fields products are browsed by, filtered with compressed bitmaps of rows. */
+@Component
+public class ProductColumnIndex {
+
+  private static final int LOAD_BATCH_SIZE = 1000;
+
+  private final ProductRepository productRepository;
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+  private final Set<Long> pendingBarCodes = ConcurrentHashMap.newKeySet();
+
+  private volatile Columns columns;
+  private volatile boolean rebuilding;
+
+  public ProductColumnIndex(ProductRepository productRepository) {
+    this.productRepository = productRepository;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void load() {
+    if (columns != null) return;
+
+    synchronized (this) {
+      if (columns == null) rebuild();
+    }
+  }
+
+  /**
+   * Returns the product ids matching the query, in price order when the query sorts or bounds by price and in
+   * row order otherwise, together with the total number of matches.
+   */
+  public Page<Long> filter(ProductColumnQuery query, Pageable pageable) {
+    load();
+
+    lock.readLock().lock();
+    if (columns.priceOrderDirty) {
+      lock.readLock().unlock();
+      lock.writeLock().lock();
+      try {
+        columns.sortByPrice();
+        lock.readLock().lock();
+      } finally {
+        lock.writeLock().unlock();
+      }
+    }
+    try {
+      return columns.filter(query, pageable);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Evaluates a sub-category expression on the per-sub-category bitmaps and returns the matching product ids in
+   * ascending order. {@code subCategoryIds} maps every name in the expression to its id.
+   */
+  public Page<Long> evaluate(SubCategoryExpression expression, Map<String, Long> subCategoryIds, Pageable pageable) {
+    load();
+
+    lock.readLock().lock();
+    try {
+      return columns.evaluate(expression, subCategoryIds, pageable);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Reloads every product in keyset-paged batches and swaps the result in; changes committed meanwhile are
+   * queued instead of patching the columns being replaced, and applied on top once the new columns are visible.
+   * Also run when other replicas' changes may have been missed.
+   */
+  @EventListener(CatalogResyncEvent.class)
+  public synchronized void rebuild() {
+    rebuilding = true;
+    try {
+      var loading = new Columns();
+      List<ProductColumns> batch;
+      Long lastProductId = 0L;
+      do {
+        batch = productRepository.findColumnsAfter(lastProductId, PageRequest.of(0, LOAD_BATCH_SIZE));
+        var subCategoryIds = findSubCategoryIds(batch);
+        batch.forEach(product -> loading.upsert(product, subCategoryIds.get(product.getProductId())));
+        if (!batch.isEmpty()) lastProductId = batch.get(batch.size() - 1).getProductId();
+      } while (batch.size() == LOAD_BATCH_SIZE);
+      loading.sortByPrice();
+
+      lock.writeLock().lock();
+      try {
+        columns = loading;
+      } finally {
+        lock.writeLock().unlock();
+      }
+    } finally {
+      rebuilding = false;
+    }
+
+    applyPending();
+  }
+
+  @TransactionalEventListener
+  public void onProductChanged(ProductChangedEvent event) {
+    pendingBarCodes.addAll(event.getProductBarCodes());
+    // queued before the flag is read, so a rebuild finishing in between still finds the change
+    if (columns != null && !rebuilding) applyPending();
+  }
+
+  private void applyPending() {
+    var pending = new ArrayList<>(pendingBarCodes);
+    pendingBarCodes.removeAll(pending);
+    apply(pending);
+  }
+
+  private void apply(Collection<Long> productBarCodes) {
+    if (productBarCodes.isEmpty()) return;
+
+    var products = productRepository.findColumnsByBarCodes(productBarCodes);
+    var subCategoryIds = findSubCategoryIds(products);
+    Set<Long> removed = new HashSet<>(productBarCodes);
+
+    lock.writeLock().lock();
+    try {
+      for (ProductColumns product : products) {
+        removed.remove(product.getProductBarCode());
+        columns.upsert(product, subCategoryIds.get(product.getProductId()));
+      }
+      removed.forEach(columns::remove);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  private Map<Long, long[]> findSubCategoryIds(List<ProductColumns> products) {
+    if (products.isEmpty()) return Map.of();
+
+    var productIds = products.stream().map(ProductColumns::getProductId).collect(Collectors.toList());
+    return productRepository.findSubCategoryLinksByProductIds(productIds).stream()
+        .collect(Collectors.groupingBy(CatalogLink::getParentId,
+            Collectors.collectingAndThen(Collectors.toList(), links -> links.stream().mapToLong(CatalogLink::getChildId).toArray())));
+  }
+
+  private static final class Columns {
+
+    private static final long[] NO_SUB_CATEGORIES = new long[0];
+    private static final long NO_MAIN_CATEGORY = -1L;
+    private static final RoaringBitmap NO_ROWS = new RoaringBitmap();
+
+    private long[] productIds = new long[LOAD_BATCH_SIZE];
+    private double[] prices = new double[LOAD_BATCH_SIZE];
+    private int[] stocks = new int[LOAD_BATCH_SIZE];
+    private long[] mainCategoryIds = new long[LOAD_BATCH_SIZE];
+    private String[] statuses = new String[LOAD_BATCH_SIZE];
+    private long[][] subCategoryIds = new long[LOAD_BATCH_SIZE][];
+    private int size;
+
+    private final Map<Long, Integer> rowsByBarCode = new HashMap<>();
+    private final RoaringBitmap liveRows = new RoaringBitmap();
+    private final RoaringBitmap freeRows = new RoaringBitmap();
+    private final RoaringBitmap inStockRows = new RoaringBitmap();
+    private final Map<Long, RoaringBitmap> rowsBySubCategory = new HashMap<>();
+    private final Map<String, RoaringBitmap> rowsByStatus = new HashMap<>();
+
+    private int[] rowsByPrice = new int[0];
+    private volatile boolean priceOrderDirty;
+
+    void upsert(ProductColumns product, long[] productSubCategoryIds) {
+      Integer existing = rowsByBarCode.get(product.getProductBarCode());
+      int row;
+      if (existing == null) {
+        row = allocate();
+        rowsByBarCode.put(product.getProductBarCode(), row);
+        liveRows.add(row);
+        priceOrderDirty = true;
+      } else {
+        row = existing;
+        unlink(row);
+        if (prices[row] != product.getProductPrice()) priceOrderDirty = true;
+      }
+
+      productIds[row] = product.getProductId();
+      prices[row] = product.getProductPrice();
+      stocks[row] = product.getProductStock();
+      mainCategoryIds[row] = product.getMainCategoryId() == null ? NO_MAIN_CATEGORY : product.getMainCategoryId();
+      statuses[row] = product.getProductStatus();
+      subCategoryIds[row] = productSubCategoryIds == null ? NO_SUB_CATEGORIES : productSubCategoryIds;
+      link(row);
+    }
+
+    void remove(Long productBarCode) {
+      Integer row = rowsByBarCode.remove(productBarCode);
+      if (row == null) return;
+
+      unlink(row);
+      liveRows.remove(row);
+      freeRows.add(row);
+      statuses[row] = null;
+      subCategoryIds[row] = null;
+      priceOrderDirty = true;
+    }
+
+    void sortByPrice() {
+      if (!priceOrderDirty) return;
+
+      rowsByPrice = IntStream.of(liveRows.toArray())
+                             .boxed()
+                             .sorted(Comparator.comparingDouble((Integer row) -> prices[row]))
+                             .mapToInt(Integer::intValue)
+                             .toArray();
+      priceOrderDirty = false;
+    }
+
+    Page<Long> filter(ProductColumnQuery query, Pageable pageable) {
+      RoaringBitmap candidates = candidates(query);
+      long mainCategoryId = query.getMainCategoryId() == null ? NO_MAIN_CATEGORY : query.getMainCategoryId();
+      var matches = new Matches(pageable);
+
+      if (query.getPriceSort() == null && query.getMinPrice() == null && query.getMaxPrice() == null) {
+        IntIterator iterator = candidates.getIntIterator();
+        while (iterator.hasNext()) {
+          int row = iterator.next();
+          if (mainCategoryId == NO_MAIN_CATEGORY || mainCategoryIds[row] == mainCategoryId) matches.add(productIds[row]);
+        }
+        return matches.toPage();
+      }
+
+      int from = query.getMinPrice() == null ? 0 : firstRowAtLeast(query.getMinPrice());
+      int to = query.getMaxPrice() == null ? rowsByPrice.length : firstRowAbove(query.getMaxPrice());
+      boolean descending = query.getPriceSort() == PriceSort.DESC;
+
+      if (candidates.getCardinality() < (to - from) / 8) {
+        // few candidates in a wide price range: sort the candidates instead of scanning the range
+        double minPrice = query.getMinPrice() == null ? Double.NEGATIVE_INFINITY : query.getMinPrice();
+        double maxPrice = query.getMaxPrice() == null ? Double.POSITIVE_INFINITY : query.getMaxPrice();
+        Comparator<Integer> byPrice = Comparator.comparingDouble(row -> prices[row]);
+        IntStream.of(candidates.toArray())
+                 .filter(row -> prices[row] >= minPrice && prices[row] <= maxPrice)
+                 .filter(row -> mainCategoryId == NO_MAIN_CATEGORY || mainCategoryIds[row] == mainCategoryId)
+                 .boxed()
+                 .sorted(descending ? byPrice.reversed() : byPrice)
+                 .forEach(row -> matches.add(productIds[row]));
+        return matches.toPage();
+      }
+
+      for (int i = 0; i < to - from; i++) {
+        int row = rowsByPrice[descending ? to - 1 - i : from + i];
+        if (candidates.contains(row) && (mainCategoryId == NO_MAIN_CATEGORY || mainCategoryIds[row] == mainCategoryId))
+          matches.add(productIds[row]);
+      }
+      return matches.toPage();
+    }
+
+    Page<Long> evaluate(SubCategoryExpression expression, Map<String, Long> subCategoryIds, Pageable pageable) {
+      RoaringBitmap rows = expression.evaluate(name -> rowsBySubCategory.getOrDefault(subCategoryIds.get(name), NO_ROWS), liveRows);
+
+      long[] matches = new long[rows.getCardinality()];
+      int i = 0;
+      IntIterator iterator = rows.getIntIterator();
+      while (iterator.hasNext())
+        matches[i++] = productIds[iterator.next()];
+      Arrays.sort(matches);
+
+      int from = (int) Math.min(pageable.getOffset(), matches.length);
+      int to = Math.min(from + pageable.getPageSize(), matches.length);
+      List<Long> content = new ArrayList<>(to - from);
+      for (int j = from; j < to; j++)
+        content.add(matches[j]);
+      return new PageImpl<>(content, pageable, matches.length);
+    }
+
+    private RoaringBitmap candidates(ProductColumnQuery query) {
+      RoaringBitmap candidates = liveRows.clone();
+      if (query.getSubCategoryIds() != null && !query.getSubCategoryIds().isEmpty())
+        candidates.and(union(query.getSubCategoryIds(), rowsBySubCategory));
+      if (query.getProductStatuses() != null && !query.getProductStatuses().isEmpty())
+        candidates.and(union(query.getProductStatuses(), rowsByStatus));
+      if (Boolean.TRUE.equals(query.getInStock()))
+        candidates.and(inStockRows);
+      if (Boolean.FALSE.equals(query.getInStock()))
+        candidates.andNot(inStockRows);
+      return candidates;
+    }
+
+    private static <K> RoaringBitmap union(Collection<K> keys, Map<K, RoaringBitmap> bitmaps) {
+      return RoaringBitmap.or(keys.stream().map(bitmaps::get).filter(Objects::nonNull).iterator());
+    }
+
+    private int firstRowAtLeast(double price) {
+      int low = 0, high = rowsByPrice.length;
+      while (low < high) {
+        int middle = (low + high) >>> 1;
+        if (prices[rowsByPrice[middle]] < price) low = middle + 1; else high = middle;
+      }
+      return low;
+    }
+
+    private int firstRowAbove(double price) {
+      int low = 0, high = rowsByPrice.length;
+      while (low < high) {
+        int middle = (low + high) >>> 1;
+        if (prices[rowsByPrice[middle]] <= price) low = middle + 1; else high = middle;
+      }
+      return low;
+    }
+
+    private int allocate() {
+      if (!freeRows.isEmpty()) {
+        int row = freeRows.first();
+        freeRows.remove(row);
+        return row;
+      }
+      if (size == productIds.length) {
+        int capacity = size + (size >> 1);
+        productIds = Arrays.copyOf(productIds, capacity);
+        prices = Arrays.copyOf(prices, capacity);
+        stocks = Arrays.copyOf(stocks, capacity);
+        mainCategoryIds = Arrays.copyOf(mainCategoryIds, capacity);
+        statuses = Arrays.copyOf(statuses, capacity);
+        subCategoryIds = Arrays.copyOf(subCategoryIds, capacity);
+      }
+      return size++;
+    }
+
+    private void link(int row) {
+      for (long subCategoryId : subCategoryIds[row])
+        rowsBySubCategory.computeIfAbsent(subCategoryId, key -> new RoaringBitmap()).add(row);
+      if (statuses[row] != null)
+        rowsByStatus.computeIfAbsent(statuses[row], key -> new RoaringBitmap()).add(row);
+      if (stocks[row] > 0)
+        inStockRows.add(row);
+    }
+
+    private void unlink(int row) {
+      for (long subCategoryId : subCategoryIds[row])
+        removeRow(rowsBySubCategory, subCategoryId, row);
+      if (statuses[row] != null)
+        removeRow(rowsByStatus, statuses[row], row);
+      inStockRows.remove(row);
+    }
+
+    private static <K> void removeRow(Map<K, RoaringBitmap> bitmaps, K key, int row) {
+      var bitmap = bitmaps.get(key);
+      if (bitmap == null) return;
+
+      bitmap.remove(row);
+      if (bitmap.isEmpty()) bitmaps.remove(key);
+    }
+  }
+
+  private static final class Matches {
+
+    private final Pageable pageable;
+    private final List<Long> content;
+    private long total;
+
+    Matches(Pageable pageable) {
+      this.pageable = pageable;
+      this.content = new ArrayList<>(pageable.getPageSize());
+    }
+
+    void add(long productId) {
+      if (total >= pageable.getOffset() && content.size() < pageable.getPageSize()) content.add(productId);
+      total++;
+    }
+
+    Page<Long> toPage() {
+      return new PageImpl<>(content, pageable, total);
+    }
+  }
+}
@@ -0,0 +1,25 @@
+package com.da.productservice.index;
+
+import java.util.Set;
+
+import com.da.productservice.dto.ProductFilterRequest.PriceSort;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * A filter over {@link ProductColumnIndex} with category names already resolved to ids. Sub-category ids and
+ * statuses are OR-ed within themselves and AND-ed with everything else.
+ */
+@Getter
+@Builder
+public class ProductColumnQuery {
+
+  private final Double minPrice;
+  private final Double maxPrice;
+  private final Long mainCategoryId;
+  private final Set<Long> subCategoryIds;
+  private final Set<String> productStatuses;
+  private final Boolean inStock;
+  private final PriceSort priceSort;
+}
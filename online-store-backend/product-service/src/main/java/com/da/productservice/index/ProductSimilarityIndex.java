@@ -0,0 +1,209 @@
+package com.da.productservice.index;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import com.da.productservice.dto.ProductText;
+import com.da.productservice.dto.SimilarProductResponse;
+import com.da.productservice.event.CatalogResyncEvent;
+import com.da.productservice.event.ProductChangedEvent;
+import com.da.productservice.event.ProductChangedEvent.ChangeType;
+import com.da.productservice.repository.ProductRepository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/** Near-duplicate lookup over product names and descriptions with MinHash signatures in LSH buckets. */
+@Component
+public class ProductSimilarityIndex {
+
+  private static final int LOAD_BATCH_SIZE = 1000;
+  private static final int MAX_DUPLICATES = 5;
+
+  private final ProductRepository productRepository;
+  private final double similarityThreshold;
+  private final double duplicateThreshold;
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+  private final Set<Long> changedWhileLoading = ConcurrentHashMap.newKeySet();
+
+  private final Map<Long, Signed> productsByBarCode = new HashMap<>();
+  private final Map<Long, Set<Long>> barCodesByBandKey = new HashMap<>();
+
+  private volatile boolean loaded;
+
+  public ProductSimilarityIndex(ProductRepository productRepository,
+                                @Value("${product.similarity.threshold:0.5}") double similarityThreshold,
+                                @Value("${product.similarity.duplicate-threshold:0.85}") double duplicateThreshold) {
+    this.productRepository = productRepository;
+    this.similarityThreshold = similarityThreshold;
+    this.duplicateThreshold = duplicateThreshold;
+  }
+
+  public boolean isLoaded() {
+    return loaded;
+  }
+
+  /** Products resembling the one with this barcode, most similar first; empty when the barcode is unknown. */
+  public Optional<List<SimilarProductResponse>> findSimilar(long productBarCode, int limit) {
+    lock.readLock().lock();
+    try {
+      var product = productsByBarCode.get(productBarCode);
+      return product == null ? Optional.empty() : Optional.of(match(product.signature, product.bandKeys, productBarCode, similarityThreshold, limit));
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /** Products a new product with this name and description would most likely duplicate. */
+  public List<SimilarProductResponse> findDuplicates(String productName, String productDescription) {
+    int[] signature = MinHash.signature(text(productName, productDescription));
+    if (signature == null) return List.of();
+
+    lock.readLock().lock();
+    try {
+      return match(signature, MinHash.bandKeys(signature), null, duplicateThreshold, MAX_DUPLICATES);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  public int size() {
+    lock.readLock().lock();
+    try {
+      return productsByBarCode.size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public synchronized void load() {
+    if (loaded) return;
+
+    List<ProductText> batch;
+    Long lastProductId = 0L;
+    do {
+      batch = productRepository.findTextsAfter(lastProductId, PageRequest.of(0, LOAD_BATCH_SIZE));
+      batch.forEach(this::upsert);
+      if (!batch.isEmpty()) lastProductId = batch.get(batch.size() - 1).getProductId();
+    } while (batch.size() == LOAD_BATCH_SIZE);
+    loaded = true;
+
+    var missed = new ArrayList<>(changedWhileLoading);
+    changedWhileLoading.removeAll(missed);
+    apply(missed);
+  }
+
+  /** Drops everything and loads again; meanwhile nothing is similar. */
+  @EventListener(CatalogResyncEvent.class)
+  public synchronized void reload() {
+    lock.writeLock().lock();
+    try {
+      loaded = false;
+      productsByBarCode.clear();
+      barCodesByBandKey.clear();
+    } finally {
+      lock.writeLock().unlock();
+    }
+    load();
+  }
+
+  @TransactionalEventListener
+  public void onProductChanged(ProductChangedEvent event) {
+    if (event.getChangeType() == ChangeType.STOCK) return;
+    if (!loaded) {
+      changedWhileLoading.addAll(event.getProductBarCodes());
+      return;
+    }
+    apply(event.getProductBarCodes());
+  }
+
+  private void apply(Collection<Long> productBarCodes) {
+    if (productBarCodes.isEmpty()) return;
+
+    Set<Long> removed = new HashSet<>(productBarCodes);
+    for (ProductText product : productRepository.findTextsByBarCodes(productBarCodes)) {
+      removed.remove(product.getProductBarCode());
+      upsert(product);
+    }
+    removed.forEach(this::remove);
+  }
+
+  private List<SimilarProductResponse> match(int[] signature, long[] bandKeys, Long excludedBarCode, double threshold, int limit) {
+    Set<Long> candidates = new HashSet<>();
+    for (long bandKey : bandKeys)
+      candidates.addAll(barCodesByBandKey.getOrDefault(bandKey, Set.of()));
+    candidates.remove(excludedBarCode);
+
+    List<SimilarProductResponse> similar = new ArrayList<>();
+    for (Long candidate : candidates) {
+      var product = productsByBarCode.get(candidate);
+      double similarity = MinHash.similarity(signature, product.signature);
+      if (similarity >= threshold) similar.add(new SimilarProductResponse(candidate, product.productName, similarity));
+    }
+    similar.sort(Comparator.comparing(SimilarProductResponse::getSimilarity).reversed()
+                           .thenComparing(SimilarProductResponse::getProductBarCode));
+    return similar.size() > limit ? new ArrayList<>(similar.subList(0, limit)) : similar;
+  }
+
+  private void upsert(ProductText product) {
+    int[] signature = MinHash.signature(text(product.getProductName(), product.getProductDescription()));
+    lock.writeLock().lock();
+    try {
+      remove(product.getProductBarCode());
+      if (signature == null) return;
+
+      var signed = new Signed(product.getProductName(), signature, MinHash.bandKeys(signature));
+      productsByBarCode.put(product.getProductBarCode(), signed);
+      for (long bandKey : signed.bandKeys)
+        barCodesByBandKey.computeIfAbsent(bandKey, key -> new HashSet<>(2)).add(product.getProductBarCode());
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  private void remove(Long productBarCode) {
+    lock.writeLock().lock();
+    try {
+      var removed = productsByBarCode.remove(productBarCode);
+      if (removed == null) return;
+
+      for (long bandKey : removed.bandKeys) {
+        var bucket = barCodesByBandKey.get(bandKey);
+        if (bucket != null && bucket.remove(productBarCode) && bucket.isEmpty()) barCodesByBandKey.remove(bandKey);
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  private static String text(String productName, String productDescription) {
+    return productDescription == null ? String.valueOf(productName) : productName + " " + productDescription;
+  }
+
+  private static class Signed {
+
+    private final String productName;
+    private final int[] signature;
+    private final long[] bandKeys;
+
+    private Signed(String productName, int[] signature, long[] bandKeys) {
+      this.productName = productName;
+      this.signature = signature;
+      this.bandKeys = bandKeys;
+    }
+  }
+}
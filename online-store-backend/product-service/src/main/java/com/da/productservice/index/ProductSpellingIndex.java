@@ -0,0 +1,189 @@
+package com.da.productservice.index;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+import com.da.productservice.dto.ProductText;
+import com.da.productservice.event.CatalogResyncEvent;
+import com.da.productservice.event.CategoryChangedEvent;
+import com.da.productservice.event.ProductChangedEvent;
+import com.da.productservice.event.ProductChangedEvent.ChangeType;
+import com.da.productservice.repository.MainCategoryRepository;
+import com.da.productservice.repository.ProductRepository;
+import com.da.productservice.repository.SubCategoryRepository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/** "Did you mean" corrections for product name searches, from the words of product and category names. */
+@Component
+public class ProductSpellingIndex {
+
+  private static final int LOAD_BATCH_SIZE = 1000;
+  private static final int MIN_WORD_LENGTH = 3;
+  private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+  private final ProductRepository productRepository;
+  private final MainCategoryRepository mainCategoryRepository;
+  private final SubCategoryRepository subCategoryRepository;
+  private final SymSpellDictionary dictionary;
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+  private final Map<Long, List<String>> wordsByBarCode = new HashMap<>();
+  private final List<String> categoryWords = new ArrayList<>();
+  private final Set<Long> changedWhileLoading = ConcurrentHashMap.newKeySet();
+
+  private volatile boolean loaded;
+
+  public ProductSpellingIndex(ProductRepository productRepository, MainCategoryRepository mainCategoryRepository,
+                              SubCategoryRepository subCategoryRepository,
+                              @Value("${product.spelling.max-edit-distance:2}") int maxEditDistance) {
+    this.productRepository = productRepository;
+    this.mainCategoryRepository = mainCategoryRepository;
+    this.subCategoryRepository = subCategoryRepository;
+    this.dictionary = new SymSpellDictionary(maxEditDistance);
+  }
+
+  public boolean isLoaded() {
+    return loaded;
+  }
+
+  /** The query with each unknown word replaced by the closest known one; empty when there is nothing to correct. */
+  public Optional<String> correct(String query) {
+    if (!loaded || query == null) return Optional.empty();
+
+    var corrected = new StringJoiner(" ");
+    boolean changed = false;
+    lock.readLock().lock();
+    try {
+      for (String word : words(query)) {
+        String correctedWord = word.length() < MIN_WORD_LENGTH ? word : dictionary.lookup(word).orElse(word);
+        changed |= !correctedWord.equals(word);
+        corrected.add(correctedWord);
+      }
+    } finally {
+      lock.readLock().unlock();
+    }
+    return changed ? Optional.of(corrected.toString()) : Optional.empty();
+  }
+
+  public int size() {
+    lock.readLock().lock();
+    try {
+      return dictionary.size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public synchronized void load() {
+    if (loaded) return;
+
+    loadCategoryWords();
+
+    List<ProductText> batch;
+    Long lastProductId = 0L;
+    do {
+      batch = productRepository.findTextsAfter(lastProductId, PageRequest.of(0, LOAD_BATCH_SIZE));
+      batch.forEach(product -> upsert(product.getProductBarCode(), product.getProductName()));
+      if (!batch.isEmpty()) lastProductId = batch.get(batch.size() - 1).getProductId();
+    } while (batch.size() == LOAD_BATCH_SIZE);
+    loaded = true;
+
+    var missed = new ArrayList<>(changedWhileLoading);
+    changedWhileLoading.removeAll(missed);
+    apply(missed);
+  }
+
+  /** Drops every word, category words included, and loads again; meanwhile nothing is corrected. */
+  @EventListener(CatalogResyncEvent.class)
+  public synchronized void reload() {
+    lock.writeLock().lock();
+    try {
+      loaded = false;
+      dictionary.clear();
+      wordsByBarCode.clear();
+      categoryWords.clear();
+    } finally {
+      lock.writeLock().unlock();
+    }
+    load();
+  }
+
+  @TransactionalEventListener
+  public void onProductChanged(ProductChangedEvent event) {
+    if (event.getChangeType() == ChangeType.STOCK) return;
+    if (!loaded) {
+      changedWhileLoading.addAll(event.getProductBarCodes());
+      return;
+    }
+    apply(event.getProductBarCodes());
+  }
+
+  /** Categories are few, so their words are read again whole; waits for a load in progress, which reads them anyway. */
+  @TransactionalEventListener
+  public synchronized void onCategoryChanged(CategoryChangedEvent event) {
+    if (loaded) loadCategoryWords();
+  }
+
+  private void loadCategoryWords() {
+    List<String> words = new ArrayList<>();
+    mainCategoryRepository.findAllNames().forEach(name -> words.addAll(words(name)));
+    subCategoryRepository.findAllNames().forEach(name -> words.addAll(words(name)));
+
+    lock.writeLock().lock();
+    try {
+      words.forEach(dictionary::add);
+      categoryWords.forEach(dictionary::remove);
+      categoryWords.clear();
+      categoryWords.addAll(words);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  private void apply(Collection<Long> productBarCodes) {
+    if (productBarCodes.isEmpty()) return;
+
+    Set<Long> removed = new HashSet<>(productBarCodes);
+    for (ProductText product : productRepository.findTextsByBarCodes(productBarCodes)) {
+      removed.remove(product.getProductBarCode());
+      upsert(product.getProductBarCode(), product.getProductName());
+    }
+    removed.forEach(productBarCode -> upsert(productBarCode, null));
+  }
+
+  /** A null name removes the product's words. */
+  private void upsert(Long productBarCode, String productName) {
+    List<String> words = productName == null ? null : words(productName);
+    lock.writeLock().lock();
+    try {
+      var previous = words == null ? wordsByBarCode.remove(productBarCode) : wordsByBarCode.put(productBarCode, words);
+      if (words != null) words.forEach(dictionary::add);
+      if (previous != null) previous.forEach(dictionary::remove);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  private static List<String> words(String text) {
+    List<String> words = new ArrayList<>();
+    for (String word : WORD_SEPARATOR.split(ProductBloomFilter.normalize(text)))
+      if (!word.isEmpty()) words.add(word);
+    return words;
+  }
+}
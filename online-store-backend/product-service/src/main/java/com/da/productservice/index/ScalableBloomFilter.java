@@ -0,0 +1,112 @@
+package com.da.productservice.index;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/** Bloom filter over pre-hashed keys that adds a larger layer whenever the current one is full. */
+final class ScalableBloomFilter {
+
+  private static final int GROWTH = 2;
+  private static final double TIGHTENING = 0.5;
+  private static final long MIN_CAPACITY = 1024;
+
+  private final double falsePositiveRate;
+
+  private volatile Layer[] layers;
+
+  ScalableBloomFilter(long expectedKeys, double falsePositiveRate) {
+    this.falsePositiveRate = falsePositiveRate;
+    this.layers = new Layer[] { new Layer(Math.max(expectedKeys, MIN_CAPACITY), falsePositiveRate) };
+  }
+
+  synchronized void add(long hash) {
+    Layer[] current = layers;
+    Layer last = current[current.length - 1];
+    if (last.keys >= last.capacity) {
+      last = new Layer(last.capacity * GROWTH, falsePositiveRate * Math.pow(TIGHTENING, current.length));
+      Layer[] grown = Arrays.copyOf(current, current.length + 1);
+      grown[current.length] = last;
+      layers = grown;
+    }
+    last.add(hash);
+  }
+
+  boolean mightContain(long hash) {
+    for (Layer layer : layers)
+      if (layer.mightContain(hash)) return true;
+    return false;
+  }
+
+  long size() {
+    long keys = 0;
+    for (Layer layer : layers)
+      keys += layer.keys;
+    return keys;
+  }
+
+  long bitSize() {
+    long bits = 0;
+    for (Layer layer : layers)
+      bits += layer.bits;
+    return bits;
+  }
+
+  /** Probability that a key never added is reported present, estimated from how full each layer is. */
+  double expectedFalsePositiveRate() {
+    double allLayersMiss = 1;
+    for (Layer layer : layers)
+      allLayersMiss *= 1 - layer.expectedFalsePositiveRate();
+    return 1 - allLayersMiss;
+  }
+
+  private static final class Layer {
+
+    private final long capacity;
+    private final long bits;
+    private final int hashes;
+    private final AtomicLongArray words;
+
+    private volatile long keys;
+
+    Layer(long capacity, double falsePositiveRate) {
+      double ln2 = Math.log(2);
+      long wordCount = Math.min(Integer.MAX_VALUE, (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (ln2 * ln2) / Long.SIZE));
+      this.capacity = capacity;
+      this.bits = Math.max(1, wordCount) * Long.SIZE;
+      this.hashes = Math.max(1, (int) Math.round((double) bits / capacity * ln2));
+      this.words = new AtomicLongArray((int) (bits / Long.SIZE));
+    }
+
+    void add(long hash) {
+      long step = step(hash);
+      for (int i = 0; i < hashes; i++) {
+        long bit = Math.floorMod(hash + i * step, bits);
+        int word = (int) (bit >>> 6);
+        long mask = 1L << bit;
+        long value;
+        while (((value = words.get(word)) & mask) == 0 && !words.compareAndSet(word, value, value | mask));
+      }
+      keys++;
+    }
+
+    boolean mightContain(long hash) {
+      long step = step(hash);
+      for (int i = 0; i < hashes; i++) {
+        long bit = Math.floorMod(hash + i * step, bits);
+        if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) return false;
+      }
+      return true;
+    }
+
+    double expectedFalsePositiveRate() {
+      return Math.pow(1 - Math.exp(-(double) hashes * keys / bits), hashes);
+    }
+
+    private static long step(long hash) {
+      long step = hash >>> 32 | hash << 32;
+      step ^= step >>> 29;
+      step *= 0xBF58476D1CE4E5B9L;
+      return step | 1;
+    }
+  }
+}
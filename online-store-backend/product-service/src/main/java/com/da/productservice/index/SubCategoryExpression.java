@@ -0,0 +1,230 @@
+package com.da.productservice.index;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+import com.da.productservice.exception.InvalidQueryException;
+
+import org.roaringbitmap.RoaringBitmap;
+
+/**
+ * Boolean expression over sub-category names, e.g. {@code Gaming Accessories AND Mice NOT Keyboards}; the
+ * upper-case operators {@code AND}, {@code OR} and {@code NOT} ("and not"), with names quoted where needed.
+ */
+public abstract class SubCategoryExpression {
+
+  private static final int MAX_NAMES = 50;
+
+  public abstract Set<String> getNames();
+
+  abstract RoaringBitmap evaluate(Function<String, RoaringBitmap> rowsByName, RoaringBitmap allRows);
+
+  public static SubCategoryExpression parse(String expression) {
+    var parser = new Parser(tokenize(expression));
+    var parsed = parser.parseOr();
+    if (parser.position < parser.tokens.size())
+      throw new InvalidQueryException("Unexpected '" + parser.tokens.get(parser.position).text + "' in the expression");
+    if (parsed.getNames().size() > MAX_NAMES)
+      throw new InvalidQueryException("A maximum of " + MAX_NAMES + " Sub Categories can be combined");
+    return parsed;
+  }
+
+  private enum TokenType { NAME, AND, OR, NOT, OPEN, CLOSE }
+
+  private static final class Token {
+
+    private final TokenType type;
+    private final String text;
+
+    Token(TokenType type, String text) {
+      this.type = type;
+      this.text = text;
+    }
+  }
+
+  private static List<Token> tokenize(String expression) {
+    List<Token> tokens = new ArrayList<>();
+    List<String> words = new ArrayList<>();
+    int i = 0;
+    while (i < expression.length()) {
+      char c = expression.charAt(i);
+      if (Character.isWhitespace(c)) {
+        i++;
+      } else if (c == '(' || c == ')') {
+        flushName(words, tokens);
+        tokens.add(new Token(c == '(' ? TokenType.OPEN : TokenType.CLOSE, String.valueOf(c)));
+        i++;
+      } else if (c == '"') {
+        int end = expression.indexOf('"', i + 1);
+        if (end < 0) throw new InvalidQueryException("Unterminated quoted Sub Category name");
+        words.add(expression.substring(i + 1, end));
+        i = end + 1;
+      } else {
+        int end = i;
+        while (end < expression.length() && !Character.isWhitespace(expression.charAt(end)) && "()\"".indexOf(expression.charAt(end)) < 0)
+          end++;
+        var word = expression.substring(i, end);
+        if (word.equals("AND") || word.equals("OR") || word.equals("NOT")) {
+          flushName(words, tokens);
+          tokens.add(new Token(TokenType.valueOf(word), word));
+        } else {
+          words.add(word);
+        }
+        i = end;
+      }
+    }
+    flushName(words, tokens);
+    return tokens;
+  }
+
+  private static void flushName(List<String> words, List<Token> tokens) {
+    if (words.isEmpty()) return;
+
+    tokens.add(new Token(TokenType.NAME, String.join(" ", words)));
+    words.clear();
+  }
+
+  private static final class Parser {
+
+    private final List<Token> tokens;
+    private int position;
+
+    Parser(List<Token> tokens) {
+      this.tokens = tokens;
+    }
+
+    SubCategoryExpression parseOr() {
+      var expression = parseAnd();
+      while (accept(TokenType.OR))
+        expression = new Or(expression, parseAnd());
+      return expression;
+    }
+
+    SubCategoryExpression parseAnd() {
+      var expression = parseUnary();
+      while (true) {
+        if (accept(TokenType.AND))
+          expression = accept(TokenType.NOT) ? new AndNot(expression, parseUnary()) : new And(expression, parseUnary());
+        else if (accept(TokenType.NOT))
+          expression = new AndNot(expression, parseUnary());
+        else
+          return expression;
+      }
+    }
+
+    SubCategoryExpression parseUnary() {
+      if (accept(TokenType.NOT)) return new Not(parseUnary());
+      if (accept(TokenType.OPEN)) {
+        var expression = parseOr();
+        if (!accept(TokenType.CLOSE)) throw new InvalidQueryException("Missing ')' in the expression");
+        return expression;
+      }
+      if (position < tokens.size() && tokens.get(position).type == TokenType.NAME)
+        return new Name(tokens.get(position++).text);
+      throw new InvalidQueryException(position < tokens.size()
+          ? "Expected a Sub Category name before '" + tokens.get(position).text + "'"
+          : "Expected a Sub Category name at the end of the expression");
+    }
+
+    private boolean accept(TokenType type) {
+      if (position >= tokens.size() || tokens.get(position).type != type) return false;
+      position++;
+      return true;
+    }
+  }
+
+  private static final class Name extends SubCategoryExpression {
+
+    private final String name;
+
+    Name(String name) {
+      this.name = name;
+    }
+
+    @Override
+    public Set<String> getNames() {
+      return Set.of(name);
+    }
+
+    @Override
+    RoaringBitmap evaluate(Function<String, RoaringBitmap> rowsByName, RoaringBitmap allRows) {
+      return rowsByName.apply(name);
+    }
+  }
+
+  private static final class Not extends SubCategoryExpression {
+
+    private final SubCategoryExpression operand;
+
+    Not(SubCategoryExpression operand) {
+      this.operand = operand;
+    }
+
+    @Override
+    public Set<String> getNames() {
+      return operand.getNames();
+    }
+
+    @Override
+    RoaringBitmap evaluate(Function<String, RoaringBitmap> rowsByName, RoaringBitmap allRows) {
+      return RoaringBitmap.andNot(allRows, operand.evaluate(rowsByName, allRows));
+    }
+  }
+
+  private abstract static class Binary extends SubCategoryExpression {
+
+    protected final SubCategoryExpression left;
+    protected final SubCategoryExpression right;
+
+    Binary(SubCategoryExpression left, SubCategoryExpression right) {
+      this.left = left;
+      this.right = right;
+    }
+
+    @Override
+    public Set<String> getNames() {
+      Set<String> names = new LinkedHashSet<>(left.getNames());
+      names.addAll(right.getNames());
+      return names;
+    }
+  }
+
+  private static final class And extends Binary {
+
+    And(SubCategoryExpression left, SubCategoryExpression right) {
+      super(left, right);
+    }
+
+    @Override
+    RoaringBitmap evaluate(Function<String, RoaringBitmap> rowsByName, RoaringBitmap allRows) {
+      return RoaringBitmap.and(left.evaluate(rowsByName, allRows), right.evaluate(rowsByName, allRows));
+    }
+  }
+
+  private static final class Or extends Binary {
+
+    Or(SubCategoryExpression left, SubCategoryExpression right) {
+      super(left, right);
+    }
+
+    @Override
+    RoaringBitmap evaluate(Function<String, RoaringBitmap> rowsByName, RoaringBitmap allRows) {
+      return RoaringBitmap.or(left.evaluate(rowsByName, allRows), right.evaluate(rowsByName, allRows));
+    }
+  }
+
+  private static final class AndNot extends Binary {
+
+    AndNot(SubCategoryExpression left, SubCategoryExpression right) {
+      super(left, right);
+    }
+
+    @Override
+    RoaringBitmap evaluate(Function<String, RoaringBitmap> rowsByName, RoaringBitmap allRows) {
+      return RoaringBitmap.andNot(left.evaluate(rowsByName, allRows), right.evaluate(rowsByName, allRows));
+    }
+  }
+}
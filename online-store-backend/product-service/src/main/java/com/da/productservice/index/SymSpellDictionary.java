@@ -0,0 +1,127 @@
+package com.da.productservice.index;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/** Symmetric-delete spelling dictionary of counted words. Not thread-safe. */
+class SymSpellDictionary {
+
+  private static final int PREFIX_LENGTH = 7;
+
+  private final int maxEditDistance;
+  private final Map<String, Integer> counts = new HashMap<>();
+  private final Map<String, Set<String>> wordsByDelete = new HashMap<>();
+
+  SymSpellDictionary(int maxEditDistance) {
+    this.maxEditDistance = maxEditDistance;
+  }
+
+  void add(String word) {
+    if (counts.merge(word, 1, Integer::sum) > 1) return;
+
+    for (String delete : deletes(word))
+      wordsByDelete.computeIfAbsent(delete, key -> new HashSet<>(2)).add(word);
+  }
+
+  void remove(String word) {
+    Integer count = counts.get(word);
+    if (count == null) return;
+    if (count > 1) {
+      counts.put(word, count - 1);
+      return;
+    }
+
+    counts.remove(word);
+    for (String delete : deletes(word)) {
+      var words = wordsByDelete.get(delete);
+      if (words != null && words.remove(word) && words.isEmpty()) wordsByDelete.remove(delete);
+    }
+  }
+
+  void clear() {
+    counts.clear();
+    wordsByDelete.clear();
+  }
+
+  boolean contains(String word) {
+    return counts.containsKey(word);
+  }
+
+  int size() {
+    return counts.size();
+  }
+
+  /** The closest known word, preferring the more frequent one on a tie; empty when nothing is within reach. */
+  Optional<String> lookup(String word) {
+    if (counts.containsKey(word)) return Optional.of(word);
+
+    String best = null;
+    int bestDistance = maxEditDistance + 1;
+    int bestCount = 0;
+    for (String delete : deletes(word)) {
+      for (String candidate : wordsByDelete.getOrDefault(delete, Set.of())) {
+        int reach = Math.min(bestDistance, maxEditDistance);
+        int distance = distance(word, candidate, reach + 1);
+        if (distance > reach) continue;
+
+        int count = counts.get(candidate);
+        if (distance < bestDistance || distance == bestDistance && (count > bestCount || count == bestCount && candidate.compareTo(best) < 0)) {
+          best = candidate;
+          bestDistance = distance;
+          bestCount = count;
+        }
+      }
+    }
+    return Optional.ofNullable(best);
+  }
+
+  private Set<String> deletes(String word) {
+    String prefix = word.length() > PREFIX_LENGTH ? word.substring(0, PREFIX_LENGTH) : word;
+    Set<String> deletes = new HashSet<>();
+    deletes.add(prefix);
+    addDeletes(prefix, 1, deletes);
+    return deletes;
+  }
+
+  private void addDeletes(String word, int distance, Set<String> deletes) {
+    if (distance > maxEditDistance || word.length() <= 1) return;
+
+    for (int i = 0; i < word.length(); i++) {
+      String delete = word.substring(0, i) + word.substring(i + 1);
+      if (deletes.add(delete)) addDeletes(delete, distance + 1, deletes);
+    }
+  }
+
+  /** Optimal string alignment distance, or {@code limit} once it is certain to reach it. */
+  static int distance(String source, String target, int limit) {
+    if (Math.abs(source.length() - target.length()) >= limit) return limit;
+
+    int[] previousPrevious = new int[target.length() + 1];
+    int[] previous = new int[target.length() + 1];
+    int[] current = new int[target.length() + 1];
+    for (int j = 0; j <= target.length(); j++)
+      previous[j] = j;
+
+    for (int i = 1; i <= source.length(); i++) {
+      current[0] = i;
+      int rowMinimum = i;
+      for (int j = 1; j <= target.length(); j++) {
+        int cost = source.charAt(i - 1) == target.charAt(j - 1) ? 0 : 1;
+        current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+        if (i > 1 && j > 1 && source.charAt(i - 1) == target.charAt(j - 2) && source.charAt(i - 2) == target.charAt(j - 1))
+          current[j] = Math.min(current[j], previousPrevious[j - 2] + 1);
+        rowMinimum = Math.min(rowMinimum, current[j]);
+      }
+      if (rowMinimum >= limit) return limit;
+
+      int[] recycled = previousPrevious;
+      previousPrevious = previous;
+      previous = current;
+      current = recycled;
+    }
+    return Math.min(previous[target.length()], limit);
+  }
+}
@@ -0,0 +1,226 @@
+package com.da.productservice.invalidation;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+
+import com.da.productservice.event.CatalogResyncEvent;
+import com.da.productservice.event.CategoryChangedEvent;
+import com.da.productservice.event.CategoryChangedEvent.CategoryType;
+import com.da.productservice.event.ProductChangedEvent;
+import com.da.productservice.event.ProductChangedEvent.ChangeType;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Relays committed product and category changes between replicas over PostgreSQL LISTEN/NOTIFY, enabled with
+ * {@code product.invalidation.enabled=true}.
+ */
+@Component
+@ConditionalOnProperty(prefix = "product.invalidation", name = "enabled", havingValue = "true")
+public class InvalidationBus {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(InvalidationBus.class);
+
+  /** Keeps a payload well under the 8000 bytes a notification can carry. */
+  static final int MAX_KEYS_PER_NOTIFICATION = 400;
+  private static final int POLL_MILLIS = 10_000;
+
+  public enum EntityType { PRODUCT, PRODUCT_STOCK, MAIN_CATEGORY, SUB_CATEGORY }
+
+  private final DataSource dataSource;
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final ApplicationEventPublisher eventPublisher;
+  private final ObjectMapper objectMapper;
+  private final String channel;
+  private final long reconnectDelayMillis;
+  private final String origin = UUID.randomUUID().toString();
+
+  private final Counter sent;
+  private final Counter received;
+  private final Counter resyncs;
+
+  private volatile boolean running;
+  private Thread listener;
+
+  public InvalidationBus(DataSource dataSource, JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                         ApplicationEventPublisher eventPublisher, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                         @Value("${product.invalidation.channel:catalog_invalidation}") String channel,
+                         @Value("${product.invalidation.reconnect-delay-ms:5000}") long reconnectDelayMillis) {
+    this.dataSource = dataSource;
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.transactionTemplate.setReadOnly(true);
+    this.eventPublisher = eventPublisher;
+    this.objectMapper = objectMapper;
+    this.channel = channel;
+    this.reconnectDelayMillis = reconnectDelayMillis;
+
+    this.sent = Counter.builder("catalog.invalidation.notifications").tag("direction", "sent")
+                       .description("Cache invalidation notifications exchanged with the other replicas")
+                       .register(meterRegistry);
+    this.received = Counter.builder("catalog.invalidation.notifications").tag("direction", "received")
+                           .description("Cache invalidation notifications exchanged with the other replicas")
+                           .register(meterRegistry);
+    this.resyncs = Counter.builder("catalog.invalidation.resyncs")
+                          .description("Full cache rebuilds after the invalidation listener reconnected")
+                          .register(meterRegistry);
+  }
+
+  /** Listens from before the caches load, so the first connection leaves no gap to resync. */
+  @PostConstruct
+  public void start() {
+    running = true;
+    listener = new Thread(this::listen, "catalog-invalidation-listener");
+    listener.setDaemon(true);
+    listener.start();
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    running = false;
+    if (listener != null) listener.interrupt();
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+  public void onProductChanged(ProductChangedEvent event) {
+    if (!event.isRemote())
+      send(event.getChangeType() == ChangeType.STOCK ? EntityType.PRODUCT_STOCK : EntityType.PRODUCT, event.getProductBarCodes());
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+  public void onCategoryChanged(CategoryChangedEvent event) {
+    if (!event.isRemote())
+      send(event.getCategoryType() == CategoryType.MAIN ? EntityType.MAIN_CATEGORY : EntityType.SUB_CATEGORY, event.getCategoryIds());
+  }
+
+  private void send(EntityType entityType, Set<Long> keys) {
+    if (keys.isEmpty()) return;
+
+    List<Long> ordered = new ArrayList<>(keys);
+    for (int from = 0; from < ordered.size(); from += MAX_KEYS_PER_NOTIFICATION) {
+      var notification = new Notification(origin, entityType, ordered.subList(from, Math.min(from + MAX_KEYS_PER_NOTIFICATION, ordered.size())));
+      jdbcTemplate.queryForList("SELECT pg_notify(?, ?)", channel, write(notification));
+      sent.increment();
+    }
+  }
+
+  private void listen() {
+    boolean missed = false;
+    while (running) {
+      try (Connection connection = dataSource.getConnection()) {
+        connection.setAutoCommit(true);
+        try (var statement = connection.createStatement()) {
+          statement.execute("LISTEN " + channel);
+        }
+        if (missed) resync();
+
+        PGConnection pgConnection = connection.unwrap(PGConnection.class);
+        while (running) {
+          PGNotification[] notifications = pgConnection.getNotifications(POLL_MILLIS);
+          if (notifications == null) continue;
+          for (PGNotification notification : notifications)
+            receive(notification.getParameter());
+        }
+      } catch (SQLException | RuntimeException e) {
+        if (!running) return;
+        LOGGER.warn("Invalidation listener on {} lost its connection, reconnecting in {} ms: {}", channel, reconnectDelayMillis, e.getMessage());
+      }
+      missed = true;
+      try {
+        Thread.sleep(reconnectDelayMillis);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+    }
+  }
+
+  void receive(String payload) {
+    Notification notification;
+    try {
+      notification = objectMapper.readValue(payload, Notification.class);
+    } catch (JsonProcessingException e) {
+      LOGGER.warn("Ignoring malformed invalidation notification {}", payload);
+      return;
+    }
+    if (origin.equals(notification.getOrigin())) return;
+
+    received.increment();
+    Set<Long> keys = Set.copyOf(notification.getKeys());
+    switch (notification.getEntityType()) {
+      case PRODUCT:
+        publishCommitted(new ProductChangedEvent(ChangeType.UPDATED, keys, true));
+        break;
+      case PRODUCT_STOCK:
+        publishCommitted(new ProductChangedEvent(ChangeType.STOCK, keys, true));
+        break;
+      case MAIN_CATEGORY:
+        publishCommitted(new CategoryChangedEvent(CategoryType.MAIN, keys, true));
+        break;
+      default:
+        publishCommitted(new CategoryChangedEvent(CategoryType.SUB, keys, true));
+    }
+  }
+
+  /** The listeners only hear events of a committing transaction, so the event gets one. */
+  private void publishCommitted(Object event) {
+    transactionTemplate.executeWithoutResult(status -> eventPublisher.publishEvent(event));
+  }
+
+  private void resync() {
+    resyncs.increment();
+    LOGGER.warn("Invalidation listener on {} reconnected, rebuilding the caches", channel);
+    eventPublisher.publishEvent(new CatalogResyncEvent("invalidation listener reconnected"));
+  }
+
+  private String write(Notification notification) {
+    try {
+      return objectMapper.writeValueAsString(notification);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  String getOrigin() {
+    return origin;
+  }
+
+  @Data
+  @AllArgsConstructor
+  @NoArgsConstructor
+  static class Notification {
+
+    private String origin;
+    private EntityType entityType;
+    private List<Long> keys;
+  }
+}
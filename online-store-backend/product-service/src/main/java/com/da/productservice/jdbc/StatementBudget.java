@@ -0,0 +1,20 @@
+package com.da.productservice.jdbc;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The most JDBC statements one call of a controller method should execute. Going over it is counted and logged
+ * by the {@link StatementCountingFilter}, and fails the request where {@code product.statements.fail-over-budget}
+ * is set, as it is in the statement budget tests.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface StatementBudget {
+
+  int value();
+}
@@ -0,0 +1,82 @@
+package com.da.productservice.jdbc;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Counts the JDBC statements a thread executes while a {@link Scope} is open. Scopes nest: a statement counts
+ * in every scope open on the thread, so a test can measure a request that the {@link StatementCountingFilter}
+ * is measuring as well. Statements run while no scope is open, or on another thread, are not counted.
+ */
+public final class StatementCounter {
+
+  private static final ThreadLocal<Deque<Scope>> SCOPES = new ThreadLocal<>();
+
+  private StatementCounter() {
+  }
+
+  public static Scope open() {
+    var scopes = SCOPES.get();
+    if (scopes == null) {
+      scopes = new ArrayDeque<>();
+      SCOPES.set(scopes);
+    }
+    var scope = new Scope();
+    scopes.push(scope);
+    return scope;
+  }
+
+  static void record(String sql) {
+    var scopes = SCOPES.get();
+    if (scopes == null || scopes.isEmpty()) return;
+
+    String kind = kind(sql);
+    scopes.forEach(scope -> scope.add(kind));
+  }
+
+  /** The leading keyword of the statement: select, insert, update, delete... or "other" when unknown. */
+  static String kind(String sql) {
+    if (sql == null) return "other";
+
+    String trimmed = sql.stripLeading();
+    int end = 0;
+    while (end < trimmed.length() && Character.isLetter(trimmed.charAt(end)))
+      end++;
+    return end == 0 ? "other" : trimmed.substring(0, end).toLowerCase(Locale.ROOT);
+  }
+
+  public static final class Scope implements AutoCloseable {
+
+    private final Map<String, Integer> byKind = new TreeMap<>();
+    private int total;
+
+    private Scope() {
+    }
+
+    public int getTotal() {
+      return total;
+    }
+
+    public Map<String, Integer> getByKind() {
+      return Collections.unmodifiableMap(byKind);
+    }
+
+    private void add(String kind) {
+      total++;
+      byKind.merge(kind, 1, Integer::sum);
+    }
+
+    @Override
+    public void close() {
+      var scopes = SCOPES.get();
+      if (scopes == null) return;
+
+      scopes.remove(this);
+      if (scopes.isEmpty()) SCOPES.remove();
+    }
+  }
+}
@@ -0,0 +1,71 @@
+package com.da.productservice.jdbc;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Hands out connections whose statements report each execution to the {@link StatementCounter}. A batch is
+ * one execution, as it is one round trip. Everything else, {@code unwrap} included, goes to the real objects.
+ */
+public class StatementCountingDataSource extends DelegatingDataSource {
+
+  public StatementCountingDataSource(DataSource targetDataSource) {
+    super(targetDataSource);
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    return counting(super.getConnection());
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    return counting(super.getConnection(username, password));
+  }
+
+  private static Connection counting(Connection connection) {
+    return (Connection) Proxy.newProxyInstance(StatementCountingDataSource.class.getClassLoader(), new Class<?>[] { Connection.class },
+        (proxy, method, args) -> {
+          if (isIdentityMethod(method)) return identity(proxy, method, args);
+          Object result = invoke(connection, method, args);
+          if (result instanceof Statement && method.getReturnType().isInterface() && Statement.class.isAssignableFrom(method.getReturnType()))
+            return counting((Statement) result, method.getReturnType(), args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : null);
+          return result;
+        });
+  }
+
+  private static Object counting(Statement statement, Class<?> type, String preparedSql) {
+    return Proxy.newProxyInstance(StatementCountingDataSource.class.getClassLoader(), new Class<?>[] { type },
+        (proxy, method, args) -> {
+          if (isIdentityMethod(method)) return identity(proxy, method, args);
+          if (method.getName().startsWith("execute"))
+            StatementCounter.record(args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : preparedSql);
+          return invoke(statement, method, args);
+        });
+  }
+
+  private static boolean isIdentityMethod(Method method) {
+    return method.getDeclaringClass() == Object.class && !method.getName().equals("toString");
+  }
+
+  /** Proxies are compared by identity, as drivers and pools compare the objects they hand out. */
+  private static Object identity(Object proxy, Method method, Object[] args) {
+    return method.getName().equals("equals") ? proxy == args[0] : System.identityHashCode(proxy);
+  }
+
+  private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+    try {
+      return method.invoke(target, args);
+    } catch (InvocationTargetException e) {
+      throw e.getCause();
+    }
+  }
+}
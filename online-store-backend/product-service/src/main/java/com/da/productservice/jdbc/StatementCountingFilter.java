@@ -0,0 +1,66 @@
+package com.da.productservice.jdbc;
+
+import java.io.IOException;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import com.da.productservice.exception.StatementBudgetExceededException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/** Counts the JDBC statements of every controller request and checks them against its {@link StatementBudget}. */
+public class StatementCountingFilter extends OncePerRequestFilter {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(StatementCountingFilter.class);
+
+  private final MeterRegistry meterRegistry;
+  private final boolean failOverBudget;
+
+  public StatementCountingFilter(MeterRegistry meterRegistry, boolean failOverBudget) {
+    this.meterRegistry = meterRegistry;
+    this.failOverBudget = failOverBudget;
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+    var buffered = failOverBudget ? new ContentCachingResponseWrapper(response) : null;
+    try (var scope = StatementCounter.open()) {
+      filterChain.doFilter(request, buffered == null ? response : buffered);
+
+      var handler = request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+      if (handler instanceof HandlerMethod) check((HandlerMethod) handler, request, scope);
+    }
+    if (buffered != null) buffered.copyBodyToResponse();
+  }
+
+  private void check(HandlerMethod handlerMethod, HttpServletRequest request, StatementCounter.Scope scope) {
+    String handler = handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName();
+
+    DistributionSummary.builder("jdbc.statements")
+                       .description("JDBC statements executed per request")
+                       .tag("handler", handler)
+                       .register(meterRegistry)
+                       .record(scope.getTotal());
+    LOGGER.debug("{} {} ({}): {} statements {}", request.getMethod(), request.getRequestURI(), handler, scope.getTotal(), scope.getByKind());
+
+    var budget = handlerMethod.getMethodAnnotation(StatementBudget.class);
+    if (budget == null || scope.getTotal() <= budget.value()) return;
+
+    meterRegistry.counter("jdbc.statements.over.budget", "handler", handler).increment();
+    String message = handler + " executed " + scope.getTotal() + " statements " + scope.getByKind() + ", over its budget of " + budget.value();
+    LOGGER.warn(message);
+    if (failOverBudget) throw new StatementBudgetExceededException(message);
+  }
+}
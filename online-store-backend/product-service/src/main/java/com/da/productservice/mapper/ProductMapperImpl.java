@@ -1,7 +1,7 @@
 package com.da.productservice.mapper;
 
+import java.util.HashSet;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 import com.da.productservice.dto.ProductRequest;
 import com.da.productservice.dto.ProductResponse;
@@ -40,8 +40,8 @@ public class ProductMapperImpl implements ProductMapper {
                           .createDate(product.getCreateDate())
                           .lastModifiedDate(product.getLastModifiedDate())
                           .productStatus(product.getProductStatus())
-                          .mainCategoryName(product.getMainCategory().getMainCategoryName())
-                          .subCategories(product.getSubCategories().stream().map(SubCategory::getSubCategoryName).collect(Collectors.toSet()))
+                          .mainCategoryName(product.getMainCategoryName())
+                          .subCategories(new HashSet<>(product.getSubCategoryNames()))
                           .build();
   }
 
@@ -52,8 +52,8 @@ public class ProductMapperImpl implements ProductMapper {
                       .productName(product.getProductName())
                       .productDescription(product.getProductDescription())
                       .productPrice(product.getProductPrice())
-                      .mainCategoryName(product.getMainCategory().getMainCategoryName())
-                      .subCategories(product.getSubCategories().stream().map(SubCategory::getSubCategoryName).collect(Collectors.toSet()))
+                      .mainCategoryName(product.getMainCategoryName())
+                      .subCategories(new HashSet<>(product.getSubCategoryNames()))
                       .build();
   }
 }
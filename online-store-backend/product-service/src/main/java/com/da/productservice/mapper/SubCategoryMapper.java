@@ -4,9 +4,11 @@ import com.da.productservice.dto.SubCategoryResponse;
 import com.da.productservice.entity.MainCategory;
 import com.da.productservice.entity.SubCategory;
 
+import org.springframework.data.domain.Page;
+
 public interface SubCategoryMapper {
 
-  public SubCategoryResponse subCategoryToSubCategoryResponse(SubCategory subCategory);
+  public SubCategoryResponse subCategoryToSubCategoryResponse(SubCategory subCategory, Page<String> productNames);
 
   public SubCategory subCategoryRequestToSubCategory(String subCategoryName, MainCategory mainCategory);
 }
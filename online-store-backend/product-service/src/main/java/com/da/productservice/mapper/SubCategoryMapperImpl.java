@@ -1,13 +1,10 @@
 package com.da.productservice.mapper;
 
-import java.util.Set;
-import java.util.stream.Collectors;
-
+import org.springframework.data.domain.Page;
 import org.springframework.stereotype.Component;
 
 import com.da.productservice.dto.SubCategoryResponse;
 import com.da.productservice.entity.MainCategory;
-import com.da.productservice.entity.Product;
 import com.da.productservice.entity.SubCategory;
 
 @Component
@@ -22,22 +19,15 @@ public class SubCategoryMapperImpl implements SubCategoryMapper {
   }
 
   @Override
-  public SubCategoryResponse subCategoryToSubCategoryResponse(SubCategory subCategory) {
-    return subCategory.getProducts() == null || subCategory.getProducts().isEmpty()
+  public SubCategoryResponse subCategoryToSubCategoryResponse(SubCategory subCategory, Page<String> productNames) {
     //@formatter:off
-                ? SubCategoryResponse.builder()
-                                          .subCategoryId(subCategory.getSubCategoryId())
-                                          .subCategoryName(subCategory.getSubCategoryName())
-                                          .mainCategory(subCategory.getMainCategory().getMainCategoryName())
-                                          .products(Set.of("This subcategory has no products"))
-                                          .build()
-
-                : SubCategoryResponse.builder()
-                                          .subCategoryId(subCategory.getSubCategoryId())
-                                          .subCategoryName(subCategory.getSubCategoryName())
-                                          .mainCategory(subCategory.getMainCategory().getMainCategoryName())
-                                          .products(subCategory.getProducts().stream().map(Product::getProductName).collect(Collectors.toSet()))
-                                          .build();
+    return SubCategoryResponse.builder()
+                              .subCategoryId(subCategory.getSubCategoryId())
+                              .subCategoryName(subCategory.getSubCategoryName())
+                              .mainCategory(subCategory.getMainCategory().getMainCategoryName())
+                              .productCount(productNames.getTotalElements())
+                              .products(productNames.getContent())
+                              .build();
     //@formatter:on
   }
 }
@@ -0,0 +1,84 @@
+package com.da.productservice.replica;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import lombok.Getter;
+
+/** Immutable product row of a {@link CatalogSnapshot}; read the description through {@link CatalogSnapshot#getDescription}. */
+@Getter
+public final class CatalogProduct {
+
+  private static final long[] NO_SUB_CATEGORIES = new long[0];
+  static final long NO_MAIN_CATEGORY = -1L;
+
+  private final long productId;
+  private final long productBarCode;
+  private final String productName;
+  private final String productDescription;
+  private final double productPrice;
+  private final int productStock;
+  private final String productStatus;
+  private final LocalDate createDate;
+  private final LocalDateTime lastModifiedDate;
+  private final long mainCategoryId;
+  private final long[] subCategoryIds;
+  private final long descriptionReference;
+
+  public CatalogProduct(Long productId, Long productBarCode, String productName, String productDescription, Double productPrice,
+                        Integer productStock, String productStatus, LocalDate createDate, LocalDateTime lastModifiedDate,
+                        Long mainCategoryId) {
+    this(productId, productBarCode, productName, productDescription, productPrice, productStock, productStatus, createDate,
+        lastModifiedDate, mainCategoryId == null ? NO_MAIN_CATEGORY : mainCategoryId, NO_SUB_CATEGORIES, DescriptionFile.NOT_STORED);
+  }
+
+  private CatalogProduct(long productId, long productBarCode, String productName, String productDescription, double productPrice,
+                         int productStock, String productStatus, LocalDate createDate, LocalDateTime lastModifiedDate,
+                         long mainCategoryId, long[] subCategoryIds, long descriptionReference) {
+    this.productId = productId;
+    this.productBarCode = productBarCode;
+    this.productName = productName;
+    this.productDescription = productDescription;
+    this.productPrice = productPrice;
+    this.productStock = productStock;
+    this.productStatus = productStatus;
+    this.createDate = createDate;
+    this.lastModifiedDate = lastModifiedDate;
+    this.mainCategoryId = mainCategoryId;
+    this.subCategoryIds = subCategoryIds;
+    this.descriptionReference = descriptionReference;
+  }
+
+  CatalogProduct withSubCategoryIds(long[] subCategoryIds) {
+    return new CatalogProduct(productId, productBarCode, productName, productDescription, productPrice, productStock, productStatus,
+        createDate, lastModifiedDate, mainCategoryId, subCategoryIds == null ? NO_SUB_CATEGORIES : subCategoryIds, descriptionReference);
+  }
+
+  /** Drops the description from the heap, now that {@code descriptionReference} points at it. */
+  CatalogProduct withStoredDescription(long descriptionReference) {
+    return new CatalogProduct(productId, productBarCode, productName, null, productPrice, productStock, productStatus, createDate,
+        lastModifiedDate, mainCategoryId, subCategoryIds, descriptionReference);
+  }
+
+  CatalogProduct withHeapDescription(String productDescription) {
+    return new CatalogProduct(productId, productBarCode, productName, productDescription, productPrice, productStock, productStatus,
+        createDate, lastModifiedDate, mainCategoryId, subCategoryIds, DescriptionFile.NOT_STORED);
+  }
+
+  boolean isDescriptionStored() {
+    return descriptionReference != DescriptionFile.NOT_STORED;
+  }
+
+  /**
+   * Rough retained size: object header and fields, strings as compact Latin-1, dates and the sub-category ids.
+   * A stored description takes no heap.
+   */
+  long estimateBytes() {
+    return 88 + estimateBytes(productName) + estimateBytes(productDescription) + estimateBytes(productStatus)
+        + (createDate == null ? 0 : 24) + (lastModifiedDate == null ? 0 : 72) + 16 + 8L * subCategoryIds.length;
+  }
+
+  static long estimateBytes(String value) {
+    return value == null ? 0 : 40 + value.length();
+  }
+}
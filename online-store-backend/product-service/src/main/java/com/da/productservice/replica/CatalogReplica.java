@@ -0,0 +1,254 @@
+package com.da.productservice.replica;
+
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import javax.annotation.PreDestroy;
+
+import com.da.productservice.dto.CatalogLink;
+import com.da.productservice.entity.MainCategory;
+import com.da.productservice.entity.SubCategory;
+import com.da.productservice.event.CatalogResyncEvent;
+import com.da.productservice.event.CategoryChangedEvent;
+import com.da.productservice.event.ProductChangedEvent;
+import com.da.productservice.repository.MainCategoryRepository;
+import com.da.productservice.repository.ProductRepository;
+import com.da.productservice.repository.SubCategoryRepository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Holds the current {@link CatalogSnapshot}, enabled with {@code catalog.replica.enabled=true}, and applies committed
+ * product changes to it as copy-on-write deltas.
+ */
+@Component
+@ConditionalOnProperty(prefix = "catalog.replica", name = "enabled", havingValue = "true")
+public class CatalogReplica {
+
+  private static final int LOAD_BATCH_SIZE = 1000;
+  private static final int PER_100K_PRODUCTS = 100_000;
+  private static final long MIN_COMPACTION_BYTES = 8 * 1024 * 1024;
+
+  private final ProductRepository productRepository;
+  private final MainCategoryRepository mainCategoryRepository;
+  private final SubCategoryRepository subCategoryRepository;
+  private final Path descriptionsDirectory;
+
+  private final Set<Long> changedBarCodes = ConcurrentHashMap.newKeySet();
+  private final ScheduledExecutorService worker;
+
+  private volatile CatalogSnapshot snapshot;
+
+  public CatalogReplica(ProductRepository productRepository, MainCategoryRepository mainCategoryRepository,
+                        SubCategoryRepository subCategoryRepository, MeterRegistry meterRegistry,
+                        @Value("${catalog.replica.resync-minutes:10}") long resyncMinutes,
+                        @Value("${catalog.replica.descriptions.directory:${java.io.tmpdir}/product-descriptions}") String descriptionsDirectory) {
+    this.productRepository = productRepository;
+    this.mainCategoryRepository = mainCategoryRepository;
+    this.subCategoryRepository = subCategoryRepository;
+    this.descriptionsDirectory = descriptionsDirectory.isBlank() ? null : Path.of(descriptionsDirectory);
+    if (this.descriptionsDirectory != null) DescriptionFile.deleteStale(this.descriptionsDirectory);
+
+    var threadFactory = new CustomizableThreadFactory("catalog-replica-");
+    threadFactory.setDaemon(true);
+    this.worker = Executors.newSingleThreadScheduledExecutor(threadFactory);
+    if (resyncMinutes > 0)
+      worker.scheduleWithFixedDelay(this::resync, resyncMinutes, resyncMinutes, TimeUnit.MINUTES);
+
+    Gauge.builder("catalog.replica.products", this, replica -> replica.current().size())
+         .description("Products held by the in-memory catalog replica")
+         .register(meterRegistry);
+    Gauge.builder("catalog.replica.memory", this, replica -> replica.current().getEstimatedBytes())
+         .description("Estimated heap retained by the catalog replica")
+         .baseUnit("bytes")
+         .register(meterRegistry);
+    Gauge.builder("catalog.replica.memory.per.100k.products", this, CatalogReplica::getEstimatedBytesPer100kProducts)
+         .description("Estimated heap retained by the catalog replica for every 100k products")
+         .baseUnit("bytes")
+         .register(meterRegistry);
+    Gauge.builder("catalog.replica.descriptions.off.heap", this, replica -> replica.current().getDescriptionBytes())
+         .description("Bytes of product descriptions the catalog replica keeps in its memory-mapped file")
+         .baseUnit("bytes")
+         .register(meterRegistry);
+  }
+
+  /** Empty until the first load completes; callers fall back to the database meanwhile. */
+  public Optional<CatalogSnapshot> getSnapshot() {
+    return Optional.ofNullable(snapshot);
+  }
+
+  public double getEstimatedBytesPer100kProducts() {
+    var current = current();
+    return current.size() == 0 ? 0 : (double) current.getEstimatedBytes() * PER_100K_PRODUCTS / current.size();
+  }
+
+  @EventListener({ ApplicationReadyEvent.class, CatalogResyncEvent.class })
+  public void load() {
+    worker.execute(this::resync);
+  }
+
+  @TransactionalEventListener
+  public void onCategoryChanged(CategoryChangedEvent event) {
+    worker.execute(this::refreshCategories);
+  }
+
+  @TransactionalEventListener
+  public void onProductChanged(ProductChangedEvent event) {
+    changedBarCodes.addAll(event.getProductBarCodes());
+    worker.execute(this::applyChanges);
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    worker.shutdownNow();
+    var current = snapshot;
+    if (current != null && current.getDescriptions() != null) current.getDescriptions().release();
+  }
+
+  private CatalogSnapshot current() {
+    var current = snapshot;
+    return current == null ? CatalogSnapshot.EMPTY : current;
+  }
+
+  private void resync() {
+    DescriptionFile descriptions = newDescriptionFile();
+    var previous = snapshot;
+    try {
+      List<CatalogProduct> products = new ArrayList<>();
+      List<CatalogProduct> batch;
+      Long lastProductId = 0L;
+      do {
+        batch = productRepository.findCatalogProductsAfter(lastProductId, PageRequest.of(0, LOAD_BATCH_SIZE));
+        products.addAll(storeDescriptions(withSubCategoryIds(batch), descriptions));
+        if (!batch.isEmpty()) lastProductId = batch.get(batch.size() - 1).getProductId();
+      } while (batch.size() == LOAD_BATCH_SIZE);
+
+      snapshot = CatalogSnapshot.of(products, findMainCategories(), findSubCategories(), descriptions);
+    } catch (RuntimeException exception) {
+      // keep serving the previous snapshot (or the database) until the next resync
+      if (descriptions != null) descriptions.release();
+      return;
+    }
+    if (previous != null && previous.getDescriptions() != null) previous.getDescriptions().release();
+    applyChanges();
+  }
+
+  private void applyChanges() {
+    if (snapshot == null || changedBarCodes.isEmpty()) return;
+
+    List<Long> barCodes = new ArrayList<>(changedBarCodes);
+    changedBarCodes.removeAll(barCodes);
+    try {
+      List<CatalogProduct> upserts = new ArrayList<>();
+      for (int from = 0; from < barCodes.size(); from += LOAD_BATCH_SIZE)
+        upserts.addAll(withSubCategoryIds(productRepository.findCatalogProductsByBarCodes(
+            barCodes.subList(from, Math.min(from + LOAD_BATCH_SIZE, barCodes.size())))));
+
+      Set<Long> removed = new HashSet<>(barCodes);
+      upserts.forEach(product -> removed.remove(product.getProductBarCode()));
+
+      snapshot = snapshot.withChanges(storeDescriptions(upserts, snapshot.getDescriptions()), removed, findMainCategories(), findSubCategories());
+    } catch (RuntimeException exception) {
+      changedBarCodes.addAll(barCodes);
+      return;
+    }
+    compactDescriptions();
+  }
+
+  private void compactDescriptions() {
+    var current = snapshot;
+    var descriptions = current.getDescriptions();
+    if (descriptions == null) return;
+
+    long replacedBytes = descriptions.getAppendedBytes() - current.getDescriptionBytes();
+    if (replacedBytes < MIN_COMPACTION_BYTES || replacedBytes < current.getDescriptionBytes()) return;
+
+    var compacted = newDescriptionFile();
+    if (compacted == null) return;
+    try {
+      snapshot = current.withDescriptionsIn(compacted);
+    } catch (RuntimeException exception) {
+      compacted.release();
+      return;
+    }
+    descriptions.release();
+  }
+
+  /** Null when descriptions stay on the heap, by configuration or because the file cannot be created. */
+  private DescriptionFile newDescriptionFile() {
+    if (descriptionsDirectory == null) return null;
+    try {
+      return DescriptionFile.create(descriptionsDirectory);
+    } catch (UncheckedIOException exception) {
+      return null;
+    }
+  }
+
+  private static List<CatalogProduct> storeDescriptions(List<CatalogProduct> products, DescriptionFile descriptions) {
+    if (descriptions == null) return products;
+
+    List<CatalogProduct> stored = new ArrayList<>(products.size());
+    for (CatalogProduct product : products) {
+      long reference = descriptions.append(product.getProductDescription());
+      stored.add(reference == DescriptionFile.NOT_STORED ? product : product.withStoredDescription(reference));
+    }
+    return stored;
+  }
+
+  private void refreshCategories() {
+    if (snapshot == null) return;
+
+    try {
+      snapshot = snapshot.withChanges(List.of(), List.of(), findMainCategories(), findSubCategories());
+    } catch (RuntimeException exception) {
+      // the next change or resync reads the categories again
+    }
+  }
+
+  private List<CatalogProduct> withSubCategoryIds(List<CatalogProduct> products) {
+    if (products.isEmpty()) return products;
+
+    Map<Long, long[]> subCategoryIds = findSubCategoryIds(products.stream().map(CatalogProduct::getProductId).collect(Collectors.toList()));
+    return products.stream()
+                   .map(product -> product.withSubCategoryIds(subCategoryIds.get(product.getProductId())))
+                   .collect(Collectors.toList());
+  }
+
+  private Map<Long, long[]> findSubCategoryIds(Collection<Long> productIds) {
+    return productRepository.findSubCategoryLinksByProductIds(productIds).stream()
+        .collect(Collectors.groupingBy(CatalogLink::getParentId,
+            Collectors.collectingAndThen(Collectors.toList(), links -> links.stream().mapToLong(CatalogLink::getChildId).toArray())));
+  }
+
+  private Map<Long, String> findMainCategories() {
+    return mainCategoryRepository.findAll().stream()
+        .collect(Collectors.toMap(MainCategory::getMainCategoryId, MainCategory::getMainCategoryName));
+  }
+
+  private Map<Long, String> findSubCategories() {
+    return subCategoryRepository.findAll().stream()
+        .collect(Collectors.toMap(SubCategory::getSubCategoryId, SubCategory::getSubCategoryName));
+  }
+}
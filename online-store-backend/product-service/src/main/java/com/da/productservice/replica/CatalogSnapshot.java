@@ -0,0 +1,267 @@
+package com.da.productservice.replica;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+/** Immutable view of the whole catalogue; {@link #withChanges} builds the next one. */
+public final class CatalogSnapshot {
+
+  static final CatalogSnapshot EMPTY = of(List.of(), Map.of(), Map.of());
+
+  private final CatalogProduct[] products;
+  private final String[] lowerCaseNames;
+  private final long[] barCodes;
+  private final int[] positionsByBarCode;
+  private final Map<String, Integer> positionsByName;
+
+  private final long[] mainCategoryIds;
+  private final String[] mainCategoryNames;
+  private final int[][] positionsByMainCategory;
+
+  private final long[] subCategoryIds;
+  private final String[] subCategoryNames;
+  private final int[][] positionsBySubCategory;
+  private final Map<String, Integer> subCategoryIndexesByName;
+
+  private final DescriptionFile descriptions;
+
+  private final Instant builtAt = Instant.now();
+  private final long estimatedBytes;
+  private final long descriptionBytes;
+
+  private CatalogSnapshot(CatalogProduct[] products, Map<Long, String> mainCategories, Map<Long, String> subCategories,
+                          DescriptionFile descriptions) {
+    this.products = products;
+    this.descriptions = descriptions;
+    this.lowerCaseNames = new String[products.length];
+    this.positionsByName = new HashMap<>(products.length * 2);
+
+    Integer[] byBarCode = new Integer[products.length];
+    for (int i = 0; i < products.length; i++) {
+      lowerCaseNames[i] = products[i].getProductName().toLowerCase(Locale.ROOT);
+      positionsByName.put(products[i].getProductName(), i);
+      byBarCode[i] = i;
+    }
+    Arrays.sort(byBarCode, Comparator.comparingLong(i -> products[i].getProductBarCode()));
+    this.positionsByBarCode = Arrays.stream(byBarCode).mapToInt(Integer::intValue).toArray();
+    this.barCodes = Arrays.stream(positionsByBarCode).mapToLong(i -> products[i].getProductBarCode()).toArray();
+
+    this.mainCategoryIds = mainCategories.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+    this.mainCategoryNames = Arrays.stream(mainCategoryIds).mapToObj(mainCategories::get).toArray(String[]::new);
+    this.positionsByMainCategory = group(mainCategoryIds, position -> new long[] { products[position].getMainCategoryId() });
+
+    this.subCategoryIds = subCategories.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+    this.subCategoryNames = Arrays.stream(subCategoryIds).mapToObj(subCategories::get).toArray(String[]::new);
+    this.positionsBySubCategory = group(subCategoryIds, position -> products[position].getSubCategoryIds());
+    this.subCategoryIndexesByName = new HashMap<>();
+    for (int i = 0; i < subCategoryNames.length; i++)
+      subCategoryIndexesByName.put(subCategoryNames[i], i);
+
+    this.estimatedBytes = estimateBytes();
+    this.descriptionBytes = Arrays.stream(products).mapToLong(product -> DescriptionFile.length(product.getDescriptionReference())).sum();
+  }
+
+  static CatalogSnapshot of(List<CatalogProduct> products, Map<Long, String> mainCategories, Map<Long, String> subCategories) {
+    return of(products, mainCategories, subCategories, null);
+  }
+
+  /** {@code descriptions} must hold the description of every product that has a reference. */
+  static CatalogSnapshot of(List<CatalogProduct> products, Map<Long, String> mainCategories, Map<Long, String> subCategories,
+                            DescriptionFile descriptions) {
+    var sorted = products.toArray(CatalogProduct[]::new);
+    Arrays.sort(sorted, Comparator.comparingLong(CatalogProduct::getProductId));
+    return new CatalogSnapshot(sorted, mainCategories, subCategories, descriptions);
+  }
+
+  /**
+   * Returns a new snapshot with {@code upserts} replacing the products with the same id, the products behind
+   * {@code removedBarCodes} dropped and the category names replaced.
+   */
+  CatalogSnapshot withChanges(Collection<CatalogProduct> upserts, Collection<Long> removedBarCodes, Map<Long, String> mainCategories,
+                              Map<Long, String> subCategories) {
+    Set<Long> replacedIds = new HashSet<>();
+    upserts.forEach(product -> replacedIds.add(product.getProductId()));
+    Set<Long> removed = new HashSet<>(removedBarCodes);
+
+    List<CatalogProduct> next = new ArrayList<>(products.length + upserts.size());
+    for (CatalogProduct product : products)
+      if (!replacedIds.contains(product.getProductId()) && !removed.contains(product.getProductBarCode()))
+        next.add(product);
+    next.addAll(upserts);
+    return of(next, mainCategories, subCategories, descriptions);
+  }
+
+  /**
+   * Returns the same catalogue with every description moved into {@code target}, copied byte for byte when it
+   * is already stored. Writing only the live descriptions is how a file's replaced ones are reclaimed.
+   */
+  CatalogSnapshot withDescriptionsIn(DescriptionFile target) {
+    var moved = new CatalogProduct[products.length];
+    for (int i = 0; i < products.length; i++) {
+      var product = products[i];
+      long reference = product.isDescriptionStored() ? target.copy(descriptions, product.getDescriptionReference())
+                                                     : target.append(product.getProductDescription());
+      moved[i] = reference != DescriptionFile.NOT_STORED ? product.withStoredDescription(reference)
+                                                         : product.withHeapDescription(getDescription(product));
+    }
+    return new CatalogSnapshot(moved, toMap(mainCategoryIds, mainCategoryNames), toMap(subCategoryIds, subCategoryNames), target);
+  }
+
+  public int size() {
+    return products.length;
+  }
+
+  public Instant getBuiltAt() {
+    return builtAt;
+  }
+
+  public long getEstimatedBytes() {
+    return estimatedBytes;
+  }
+
+  /** Bytes of the descriptions held off-heap, which {@link #getEstimatedBytes} leaves out. */
+  public long getDescriptionBytes() {
+    return descriptionBytes;
+  }
+
+  DescriptionFile getDescriptions() {
+    return descriptions;
+  }
+
+  public String getDescription(CatalogProduct product) {
+    return product.isDescriptionStored() ? descriptions.read(product.getDescriptionReference()) : product.getProductDescription();
+  }
+
+  public Optional<CatalogProduct> findByBarCode(long productBarCode) {
+    int index = Arrays.binarySearch(barCodes, productBarCode);
+    return index < 0 ? Optional.empty() : Optional.of(products[positionsByBarCode[index]]);
+  }
+
+  public Optional<CatalogProduct> findByName(String productName) {
+    Integer position = positionsByName.get(productName);
+    return position == null ? Optional.empty() : Optional.of(products[position]);
+  }
+
+  public Page<CatalogProduct> findAll(Pageable pageable) {
+    return page(position -> true, pageable);
+  }
+
+  public Page<CatalogProduct> findByNameContainingIgnoreCase(String productName, Pageable pageable) {
+    var lowerCaseName = productName.toLowerCase(Locale.ROOT);
+    return page(position -> lowerCaseNames[position].contains(lowerCaseName), pageable);
+  }
+
+  public Page<CatalogProduct> findByMainCategoryId(long mainCategoryId, Pageable pageable) {
+    int index = Arrays.binarySearch(mainCategoryIds, mainCategoryId);
+    int[] positions = index < 0 ? new int[0] : positionsByMainCategory[index];
+    int from = (int) Math.min(pageable.getOffset(), positions.length);
+    int to = Math.min(from + pageable.getPageSize(), positions.length);
+
+    List<CatalogProduct> content = new ArrayList<>(to - from);
+    for (int i = from; i < to; i++)
+      content.add(products[positions[i]]);
+    return new PageImpl<>(content, pageable, positions.length);
+  }
+
+  public boolean hasSubCategory(String subCategoryName) {
+    return subCategoryIndexesByName.containsKey(subCategoryName);
+  }
+
+  public Set<CatalogProduct> findBySubCategoryName(String subCategoryName) {
+    Integer index = subCategoryIndexesByName.get(subCategoryName);
+    if (index == null) return Set.of();
+
+    Set<CatalogProduct> matches = new LinkedHashSet<>();
+    for (int position : positionsBySubCategory[index])
+      matches.add(products[position]);
+    return matches;
+  }
+
+  public String getMainCategoryName(CatalogProduct product) {
+    int index = Arrays.binarySearch(mainCategoryIds, product.getMainCategoryId());
+    return index < 0 ? null : mainCategoryNames[index];
+  }
+
+  public Set<String> getSubCategoryNames(CatalogProduct product) {
+    Set<String> names = new HashSet<>();
+    for (long subCategoryId : product.getSubCategoryIds()) {
+      int index = Arrays.binarySearch(subCategoryIds, subCategoryId);
+      if (index >= 0) names.add(subCategoryNames[index]);
+    }
+    return names;
+  }
+
+  private Page<CatalogProduct> page(IntPredicate matches, Pageable pageable) {
+    List<CatalogProduct> content = new ArrayList<>(pageable.getPageSize());
+    long total = 0;
+    for (int position = 0; position < products.length; position++) {
+      if (!matches.test(position)) continue;
+      if (total >= pageable.getOffset() && content.size() < pageable.getPageSize()) content.add(products[position]);
+      total++;
+    }
+    return new PageImpl<>(content, pageable, total);
+  }
+
+  private static Map<Long, String> toMap(long[] categoryIds, String[] categoryNames) {
+    Map<Long, String> categories = new HashMap<>(categoryIds.length * 2);
+    for (int i = 0; i < categoryIds.length; i++)
+      categories.put(categoryIds[i], categoryNames[i]);
+    return categories;
+  }
+
+  private int[][] group(long[] categoryIds, IntFunction<long[]> categoriesOfProduct) {
+    int[] counts = new int[categoryIds.length];
+    int[][] indexesByPosition = new int[products.length][];
+    for (int position = 0; position < products.length; position++) {
+      long[] productCategories = categoriesOfProduct.apply(position);
+      int[] indexes = new int[productCategories.length];
+      int found = 0;
+      for (long categoryId : productCategories) {
+        int index = Arrays.binarySearch(categoryIds, categoryId);
+        if (index >= 0) {
+          indexes[found++] = index;
+          counts[index]++;
+        }
+      }
+      indexesByPosition[position] = Arrays.copyOf(indexes, found);
+    }
+
+    int[][] positions = new int[categoryIds.length][];
+    for (int i = 0; i < categoryIds.length; i++)
+      positions[i] = new int[counts[i]];
+    int[] filled = new int[categoryIds.length];
+    for (int position = 0; position < products.length; position++)
+      for (int index : indexesByPosition[position])
+        positions[index][filled[index]++] = position;
+    return positions;
+  }
+
+  private long estimateBytes() {
+    // arrays of references and primitives per product, plus the name map entry and the lower-cased name copy
+    long bytes = 0;
+    for (int i = 0; i < products.length; i++)
+      bytes += products[i].estimateBytes() + 4 + 8 + 4 + 48 + CatalogProduct.estimateBytes(lowerCaseNames[i]);
+    for (int[] positions : positionsByMainCategory)
+      bytes += 16 + 4L * positions.length;
+    for (int[] positions : positionsBySubCategory)
+      bytes += 16 + 4L * positions.length;
+    return bytes;
+  }
+}
@@ -0,0 +1,143 @@
+package com.da.productservice.replica;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/** Append-only, memory-mapped file of product descriptions, written by one thread. */
+final class DescriptionFile {
+
+  /** Marks a description that is not in the file: null, or too long for a chunk and kept on the heap. */
+  static final long NOT_STORED = -1L;
+
+  static final int DEFAULT_CHUNK_BYTES = 16 * 1024 * 1024;
+  private static final int LENGTH_BITS = 24;
+  private static final long MAX_LENGTH = (1L << LENGTH_BITS) - 1;
+
+  private final Path path;
+  private final FileChannel channel;
+  private final int chunkBytes;
+
+  private volatile MappedByteBuffer[] chunks = new MappedByteBuffer[0];
+  private long appendedBytes;
+  private long end;
+
+  private DescriptionFile(Path path, FileChannel channel, int chunkBytes) {
+    this.path = path;
+    this.channel = channel;
+    this.chunkBytes = chunkBytes;
+  }
+
+  /** Deletes the files a previous run left behind, which nothing can reference any more. */
+  static void deleteStale(Path directory) {
+    if (!Files.isDirectory(directory)) return;
+    try (var stale = Files.newDirectoryStream(directory, "descriptions-*.bin")) {
+      for (Path path : stale)
+        Files.deleteIfExists(path);
+    } catch (IOException e) {
+      // left for the next start
+    }
+  }
+
+  static DescriptionFile create(Path directory) {
+    return create(directory, DEFAULT_CHUNK_BYTES);
+  }
+
+  static DescriptionFile create(Path directory, int chunkBytes) {
+    if (chunkBytes <= 0 || chunkBytes > MAX_LENGTH + 1)
+      throw new IllegalArgumentException("chunkBytes must be in (0, " + (MAX_LENGTH + 1) + "], was " + chunkBytes);
+    try {
+      Files.createDirectories(directory);
+      Path path = Files.createTempFile(directory, "descriptions-", ".bin");
+      return new DescriptionFile(path, FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE), chunkBytes);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  long append(String description) {
+    if (description == null) return NOT_STORED;
+    return append(ByteBuffer.wrap(description.getBytes(StandardCharsets.UTF_8)));
+  }
+
+  /** Copies a description of another file over without decoding it. */
+  long copy(DescriptionFile source, long reference) {
+    return reference == NOT_STORED ? NOT_STORED : append(source.slice(reference));
+  }
+
+  private long append(ByteBuffer bytes) {
+    int length = bytes.remaining();
+    if (length > chunkBytes) return NOT_STORED;
+
+    long offset = end;
+    if (length > 0 && offset / chunkBytes != (offset + length - 1) / chunkBytes) offset = (offset / chunkBytes + 1) * chunkBytes;
+    int chunk = (int) (offset / chunkBytes);
+    if (length > 0) {
+      if (chunk >= chunks.length) map(chunk);
+      chunks[chunk].duplicate().position((int) (offset % chunkBytes)).put(bytes);
+    }
+    end = offset + length;
+    appendedBytes += length;
+    return offset << LENGTH_BITS | length;
+  }
+
+  private void map(int chunk) {
+    try {
+      var grown = Arrays.copyOf(chunks, chunk + 1);
+      for (int i = chunks.length; i <= chunk; i++)
+        grown[i] = channel.map(MapMode.READ_WRITE, (long) i * chunkBytes, chunkBytes);
+      chunks = grown;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /** A read-only view of the description's UTF-8 bytes, straight from the mapping. */
+  ByteBuffer slice(long reference) {
+    int length = length(reference);
+    if (length == 0) return ByteBuffer.allocate(0).asReadOnlyBuffer();
+
+    long offset = reference >>> LENGTH_BITS;
+    int position = (int) (offset % chunkBytes);
+    return chunks[(int) (offset / chunkBytes)].duplicate().position(position).limit(position + length).slice().asReadOnlyBuffer();
+  }
+
+  String read(long reference) {
+    return reference == NOT_STORED ? null : StandardCharsets.UTF_8.decode(slice(reference)).toString();
+  }
+
+  static int length(long reference) {
+    return reference == NOT_STORED ? 0 : (int) (reference & MAX_LENGTH);
+  }
+
+  /** Bytes written so far, live or not. */
+  long getAppendedBytes() {
+    return appendedBytes;
+  }
+
+  /** Bytes mapped, which is what the file takes from the page cache at most. */
+  long getMappedBytes() {
+    return (long) chunks.length * chunkBytes;
+  }
+
+  /**
+   * Closes and deletes the file. Mappings outlive both, so snapshots still holding references keep reading
+   * until they are collected along with the last mapping.
+   */
+  void release() {
+    try {
+      channel.close();
+      Files.deleteIfExists(path);
+    } catch (IOException e) {
+      // a leftover file is removed with the directory's other stale files on the next start
+    }
+  }
+}
@@ -1,5 +1,6 @@
 package com.da.productservice.repository;
 
+import java.util.List;
 import java.util.Optional;
 
 import com.da.productservice.entity.MainCategory;
@@ -18,4 +19,11 @@ public interface MainCategoryRepository extends JpaRepository<MainCategory, Long
   @Modifying(clearAutomatically = true)
   @Query("UPDATE MainCategory AS m SET m.mainCategoryName = :categoryName WHERE m.mainCategoryId = :categoryId")
   public int updateName(@Param("categoryName") String categoryName, @Param("categoryId") Long categoryId);
+
+  @Modifying(clearAutomatically = true)
+  @Query("UPDATE Product AS p SET p.mainCategoryName = :categoryName WHERE p.mainCategory.mainCategoryId = :categoryId")
+  public int updateNameOnProducts(@Param("categoryName") String categoryName, @Param("categoryId") Long categoryId);
+
+  @Query("SELECT m.mainCategoryName FROM MainCategory m")
+  public List<String> findAllNames();
 }
@@ -0,0 +1,34 @@
+package com.da.productservice.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import com.da.productservice.entity.ProductInventory;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ProductInventoryRepository extends JpaRepository<ProductInventory, Long>{
+
+  @Modifying(clearAutomatically = true)
+  @Query("UPDATE ProductInventory AS i SET i.productStock = i.productStock + (:stock) WHERE i.productId = (SELECT p.productId FROM Product p WHERE p.productBarCode = :productBarCode)")
+  public int updateStockByBarCode(@Param("stock") Integer stock, @Param("productBarCode") Long productBarCode);
+
+  /** Takes the quantity out of stock, or nothing when the stock is short. */
+  @Modifying(clearAutomatically = true)
+  @Query("UPDATE ProductInventory AS i SET i.productStock = i.productStock - (:quantity) WHERE i.productId = (SELECT p.productId FROM Product p WHERE p.productBarCode = :productBarCode) AND i.productStock >= :quantity")
+  public int reserveStockByBarCode(@Param("quantity") Integer quantity, @Param("productBarCode") Long productBarCode);
+
+  /** The barcodes adjustStockByBarCodes changes, with the same guard. */
+  @Query("SELECT p.productBarCode FROM ProductInventory i JOIN i.product p WHERE p.productBarCode IN :productBarCodes AND i.productStock + (:stock) >= 0")
+  public List<Long> findBarCodesWithAdjustableStock(@Param("stock") Integer stock, @Param("productBarCodes") Collection<Long> productBarCodes);
+
+  /** Leaves out the products whose stock would drop below zero. */
+  @Modifying(clearAutomatically = true)
+  @Query("UPDATE ProductInventory AS i SET i.productStock = i.productStock + (:stock) WHERE i.productId IN (SELECT p.productId FROM Product p WHERE p.productBarCode IN :productBarCodes) AND i.productStock + (:stock) >= 0")
+  public int adjustStockByBarCodes(@Param("stock") Integer stock, @Param("productBarCodes") Collection<Long> productBarCodes);
+}
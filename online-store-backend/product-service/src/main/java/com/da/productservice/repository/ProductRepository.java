@@ -1,15 +1,28 @@
 package com.da.productservice.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import com.da.productservice.dto.CatalogLink;
+import com.da.productservice.dto.ProductColumns;
 import com.da.productservice.dto.ProductInvoiceResponse;
 import com.da.productservice.dto.ProductListView;
+import com.da.productservice.dto.ProductNode;
+import com.da.productservice.dto.ProductResponse;
+import com.da.productservice.dto.ProductSearchHit;
+import com.da.productservice.dto.ProductStockChange;
+import com.da.productservice.dto.ProductText;
+import com.da.productservice.dto.ProductView;
+import com.da.productservice.dto.SubCategoryNode;
 import com.da.productservice.entity.Product;
 import com.da.productservice.entity.SubCategory;
+import com.da.productservice.replica.CatalogProduct;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -19,27 +32,128 @@ import org.springframework.stereotype.Repository;
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long>{
 
+  public static final String PRODUCT_NODE = "SELECT new com.da.productservice.dto.ProductNode(p.productId, p.productBarCode, p.productName, p.productDescription, p.productPrice, p.inventory.productStock, p.productStatus, p.mainCategory.mainCategoryId) FROM Product p";
+
+  public static final String CATALOG_PRODUCT = "SELECT new com.da.productservice.replica.CatalogProduct(p.productId, p.productBarCode, p.productName, p.productDescription, p.productPrice, p.inventory.productStock, p.productStatus, p.createDate, p.lastModifiedDate, m.mainCategoryId) FROM Product p LEFT JOIN p.mainCategory m ";
+
+  /** PostgreSQL only (products_search.sql): the tsvector match and the ILIKE are served by their GIN indexes. */
+  public static final String FULL_TEXT_SEARCH = "FROM products p, websearch_to_tsquery('english', :productName) q WHERE p.search_vector @@ q OR p.product_name ILIKE :pattern ";
+
+  public static final String FULL_TEXT_RANK = "ORDER BY ts_rank_cd(p.search_vector, q) DESC, similarity(p.product_name, :productName) DESC, p.product_id";
+
   public Optional<Product> findByProductName(String productName);
 
   public Optional<Product> findByProductBarCodeOrProductName(Long productBarCode, String productName);
 
+  /** One row: the category names come from the denormalized columns, not from the category tables. */
+  @Query("SELECT new com.da.productservice.dto.ProductView(p.productBarCode, p.productName, p.productDescription, p.productPrice, p.mainCategoryName, p.subCategoryNames) FROM Product p WHERE p.productName = :productName")
+  public Optional<ProductView> findViewByProductName(@Param("productName") String productName);
+
+  @Query("SELECT new com.da.productservice.dto.ProductResponse(p.productId, p.productBarCode, p.productName, p.productDescription, p.inventory.productStock, p.productPrice, p.createDate, p.lastModifiedDate, p.productStatus, p.mainCategoryName, p.subCategoryNames) FROM Product p WHERE p.productBarCode = :productBarCode OR p.productName = :productName")
+  public Optional<ProductResponse> findResponseByProductBarCodeOrProductName(@Param("productBarCode") Long productBarCode, @Param("productName") String productName);
+
+  @Query("SELECT new com.da.productservice.dto.ProductResponse(p.productId, p.productBarCode, p.productName, p.productDescription, p.inventory.productStock, p.productPrice, p.createDate, p.lastModifiedDate, p.productStatus, p.mainCategoryName, p.subCategoryNames) FROM Product p WHERE p.productBarCode IN :productBarCodes")
+  public List<ProductResponse> findResponsesByBarCodes(@Param("productBarCodes") Collection<Long> productBarCodes);
+
+  @EntityGraph(attributePaths = "inventory")
   public List<Product> findByMainCategoryMainCategoryId(Long mainCategoryId);
 
-  @Query("SELECT new com.sirnoob.productservice.dto.ProductInvoiceResponse(p.productName, p.productPrice) FROM Product p WHERE p.productName = :productName AND p.productBarCode = :productBarCode")
+  @Query("SELECT new com.da.productservice.dto.ProductInvoiceResponse(p.productName, p.productPrice) FROM Product p WHERE p.productName = :productName AND p.productBarCode = :productBarCode")
   public Optional<ProductInvoiceResponse> findForInvoice(@Param("productBarCode") Long productBarCode, @Param("productName") String productName);
 
-  @Query("SELECT new com.sirnoob.productservice.dto.ProductListView(p.productName, p.productDescription, p.productPrice) FROM Product p")
+  @Query("SELECT new com.da.productservice.dto.ProductListView(p.productName, p.productDescription, p.productPrice) FROM Product p")
   public Page<ProductListView> getAll(Pageable pageable);
 
+  @Query("SELECT new com.da.productservice.dto.ProductListView(p.productName, p.productDescription, p.productPrice) FROM Product p")
+  public Slice<ProductListView> getAllSlice(Pageable pageable);
+
   public Page<ProductListView> findByProductNameContainingIgnoreCase(String productName, Pageable pageable);
 
+  public Slice<ProductListView> findSliceByProductNameContainingIgnoreCase(String productName, Pageable pageable);
+
+  public long countByProductNameContainingIgnoreCase(String productName);
+
+  @Query(value = "SELECT p.product_name AS productName, p.product_description AS productDescription, p.product_price AS productPrice " + FULL_TEXT_SEARCH + FULL_TEXT_RANK,
+         countQuery = "SELECT COUNT(*) " + FULL_TEXT_SEARCH, nativeQuery = true)
+  public Page<ProductSearchHit> searchByName(@Param("productName") String productName, @Param("pattern") String pattern, Pageable pageable);
+
+  @Query(value = "SELECT p.product_name AS productName, p.product_description AS productDescription, p.product_price AS productPrice " + FULL_TEXT_SEARCH + FULL_TEXT_RANK,
+         nativeQuery = true)
+  public Slice<ProductSearchHit> searchSliceByName(@Param("productName") String productName, @Param("pattern") String pattern, Pageable pageable);
+
+  @Query(value = "SELECT COUNT(*) " + FULL_TEXT_SEARCH, nativeQuery = true)
+  public long countSearchByName(@Param("productName") String productName, @Param("pattern") String pattern);
+
   public Page<ProductListView> findByMainCategoryMainCategoryId(Long mainCategory, Pageable pageable);
 
-  @Query("SELECT new com.sirnoob.productservice.dto.ProductListView(p.productName, p.productDescription, p.productPrice) FROM Product p WHERE :subCategory MEMBER p.subCategories")
+  public Slice<ProductListView> findSliceByMainCategoryMainCategoryId(Long mainCategory, Pageable pageable);
+
+  public long countByMainCategoryMainCategoryId(Long mainCategory);
+
+  /** A join reaches the links through their primary key; MEMBER OF correlated a subquery that scanned them once per product. */
+  @Query("SELECT new com.da.productservice.dto.ProductListView(p.productName, p.productDescription, p.productPrice) FROM Product p JOIN p.subCategories s WHERE s = :subCategory")
   public List<ProductListView> findBySubCategory(@Param("subCategory") SubCategory subCategory);
 
+  @Query("SELECT new com.da.productservice.dto.ProductStockChange(p.productBarCode, p.productName, p.productPrice, p.inventory.productStock, p.mainCategoryName) FROM Product p WHERE p.productBarCode IN :productBarCodes")
+  public List<ProductStockChange> findStockChangesByBarCodes(@Param("productBarCodes") Collection<Long> productBarCodes);
+
+  @Query("SELECT new com.da.productservice.dto.SubCategoryNode(p.productBarCode, s.subCategoryId, s.subCategoryName, s.mainCategory.mainCategoryId) FROM Product p JOIN p.subCategories s WHERE p.productBarCode IN :productBarCodes")
+  public List<SubCategoryNode> findSubCategoryNodesByBarCodes(@Param("productBarCodes") Collection<Long> productBarCodes);
+
+  @Query("SELECT new com.da.productservice.dto.ProductColumns(p.productId, p.productBarCode, p.productName, p.productPrice, p.inventory.productStock, p.productStatus, m.mainCategoryId) FROM Product p LEFT JOIN p.mainCategory m WHERE p.productId > :productId ORDER BY p.productId")
+  public List<ProductColumns> findColumnsAfter(@Param("productId") Long productId, Pageable pageable);
+
+  @Query("SELECT new com.da.productservice.dto.ProductColumns(p.productId, p.productBarCode, p.productName, p.productPrice, p.inventory.productStock, p.productStatus, m.mainCategoryId) FROM Product p LEFT JOIN p.mainCategory m WHERE p.productBarCode IN :productBarCodes")
+  public List<ProductColumns> findColumnsByBarCodes(@Param("productBarCodes") Collection<Long> productBarCodes);
+
+  @Query("SELECT new com.da.productservice.dto.ProductText(p.productId, p.productBarCode, p.productName, p.productDescription) FROM Product p WHERE p.productId > :productId ORDER BY p.productId")
+  public List<ProductText> findTextsAfter(@Param("productId") Long productId, Pageable pageable);
+
+  @Query("SELECT new com.da.productservice.dto.ProductText(p.productId, p.productBarCode, p.productName, p.productDescription) FROM Product p WHERE p.productBarCode IN :productBarCodes")
+  public List<ProductText> findTextsByBarCodes(@Param("productBarCodes") Collection<Long> productBarCodes);
+
+  @Query("SELECT p.productId AS parentId, s.subCategoryId AS childId FROM Product p JOIN p.subCategories s WHERE p.productId IN :productIds")
+  public List<CatalogLink> findSubCategoryLinksByProductIds(@Param("productIds") Collection<Long> productIds);
+
+  @Query(CATALOG_PRODUCT + "WHERE p.productId > :productId ORDER BY p.productId")
+  public List<CatalogProduct> findCatalogProductsAfter(@Param("productId") Long productId, Pageable pageable);
+
+  @Query(CATALOG_PRODUCT + "WHERE p.productBarCode IN :productBarCodes")
+  public List<CatalogProduct> findCatalogProductsByBarCodes(@Param("productBarCodes") Collection<Long> productBarCodes);
+
+  @Query("SELECT p.productBarCode FROM Product p WHERE p.mainCategory.mainCategoryName = :mainCategoryName")
+  public List<Long> findBarCodesByMainCategoryName(@Param("mainCategoryName") String mainCategoryName);
+
+  @Query("SELECT p.productBarCode FROM Product p JOIN p.subCategories s WHERE s.subCategoryName = :subCategoryName")
+  public List<Long> findBarCodesBySubCategoryName(@Param("subCategoryName") String subCategoryName);
+
+  @Query("SELECT p.productBarCode FROM Product p WHERE p.productBarCode IN :productBarCodes")
+  public List<Long> findExistingBarCodes(@Param("productBarCodes") Collection<Long> productBarCodes);
+
+  /** Rounds the new prices to cents and leaves out the products whose price would drop below zero. */
+  /** The barcodes adjustPriceByBarCodes changes, with the same guard. */
+  @Query("SELECT p.productBarCode FROM Product p WHERE p.productBarCode IN :productBarCodes AND p.productPrice * :factor + :offset >= 0")
+  public List<Long> findBarCodesWithAdjustablePrice(@Param("factor") Double factor, @Param("offset") Double offset,
+      @Param("productBarCodes") Collection<Long> productBarCodes);
+
   @Modifying(clearAutomatically = true)
-  @Query("UPDATE Product AS p SET p.productStock = p.productStock + (:stock) WHERE p.productBarCode = :productBarCode")
-  public int updateStockByBarCode(@Param("stock") Integer stock, @Param("productBarCode") Long productBarCode);
+  @Query("UPDATE Product AS p SET p.productPrice = ROUND(CAST(p.productPrice * :factor + :offset AS big_decimal), 2) "
+       + "WHERE p.productBarCode IN :productBarCodes AND p.productPrice * :factor + :offset >= 0")
+  public int adjustPriceByBarCodes(@Param("factor") Double factor, @Param("offset") Double offset,
+      @Param("productBarCodes") Collection<Long> productBarCodes);
+
+  @Query(PRODUCT_NODE + " WHERE p.productId IN :productIds")
+  public List<ProductNode> findNodesByProductIds(@Param("productIds") Collection<Long> productIds);
+
+  @Query(PRODUCT_NODE + " WHERE p.productBarCode = :productBarCode OR p.productName = :productName")
+  public Optional<ProductNode> findNodeByProductBarCodeOrProductName(@Param("productBarCode") Long productBarCode, @Param("productName") String productName);
+
+  @Query(PRODUCT_NODE)
+  public List<ProductNode> findNodes(Pageable pageable);
+
+  @Query(value = "SELECT l.parent_id AS parentId, l.child_id AS childId FROM (SELECT sp.fk_sub_category AS parent_id, sp.fk_product AS child_id, ROW_NUMBER() OVER (PARTITION BY sp.fk_sub_category ORDER BY sp.fk_product) AS position FROM sub_categories_products sp WHERE sp.fk_sub_category IN (:subCategoryIds)) l WHERE l.position <= :limit", nativeQuery = true)
+  public List<CatalogLink> findProductLinksBySubCategoryIds(@Param("subCategoryIds") Collection<Long> subCategoryIds, @Param("limit") int limit);
 
+  @Query(value = "SELECT l.parent_id AS parentId, l.child_id AS childId FROM (SELECT p.main_category_id AS parent_id, p.product_id AS child_id, ROW_NUMBER() OVER (PARTITION BY p.main_category_id ORDER BY p.product_id) AS position FROM products p WHERE p.main_category_id IN (:mainCategoryIds)) l WHERE l.position <= :limit", nativeQuery = true)
+  public List<CatalogLink> findProductLinksByMainCategoryIds(@Param("mainCategoryIds") Collection<Long> mainCategoryIds, @Param("limit") int limit);
 }
@@ -1,24 +1,67 @@
 package com.da.productservice.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.da.productservice.dto.SubCategoryNode;
+import com.da.productservice.entity.Product;
 import com.da.productservice.entity.SubCategory;
 
 @Repository
 public interface SubCategoryRepository extends JpaRepository<SubCategory, Long>{
 
+  public static final String PRODUCTS_OF_SUB_CATEGORY = "WHERE product_id IN (SELECT sp.fk_product FROM sub_categories_products sp WHERE sp.fk_sub_category = :subCategoryId)";
+
+  /** The product's sub-category names as the JSON array CategoryNamesConverter writes, on H2 and PostgreSQL alike; null without links. */
+  public static final String SUB_CATEGORY_NAMES_OF_PRODUCT = "SELECT '[' || STRING_AGG('\"' || REPLACE(REPLACE(s.sub_category_name, '\\', '\\\\'), '\"', '\\\"') || '\"', ',' ORDER BY s.sub_category_name) || ']' "
+      + "FROM sub_categories_products sp JOIN sub_categories s ON s.sub_category_id = sp.fk_sub_category WHERE sp.fk_product = products.product_id";
+
   public Optional<SubCategory> findBySubCategoryName(String subCategoryName);
 
+  public List<SubCategory> findBySubCategoryNameIn(Collection<String> subCategoryNames);
+
   public List<SubCategory> findByMainCategoryMainCategoryId(Long mainCategoryId);
 
   @Modifying(clearAutomatically = true)
   @Query("UPDATE SubCategory AS s SET s.subCategoryName = :subCategoryName WHERE s.subCategoryId = :subCategoryId")
   public int updateName(@Param("subCategoryName") String subCategoryName, @Param("subCategoryId") Long subCategoryId);
+
+  /** Rewrites the denormalized names of every product in the sub-category from its links, after the sub-category was renamed. */
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query(value = "UPDATE products SET sub_category_names = COALESCE((" + SUB_CATEGORY_NAMES_OF_PRODUCT + "), '[]') " + PRODUCTS_OF_SUB_CATEGORY, nativeQuery = true)
+  public int renameOnProducts(@Param("subCategoryId") Long subCategoryId);
+
+  /** Rewrites the denormalized names of every product in the sub-category from its other links; run before its links go. */
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query(value = "UPDATE products SET sub_category_names = COALESCE((" + SUB_CATEGORY_NAMES_OF_PRODUCT + " AND sp.fk_sub_category <> :subCategoryId), '[]') " + PRODUCTS_OF_SUB_CATEGORY, nativeQuery = true)
+  public int removeFromProducts(@Param("subCategoryId") Long subCategoryId);
+
+  @Query("SELECT new com.da.productservice.dto.SubCategoryNode(p.productId, s.subCategoryId, s.subCategoryName, s.mainCategory.mainCategoryId) FROM Product p JOIN p.subCategories s WHERE p.productId IN :productIds")
+  public List<SubCategoryNode> findNodesByProductIds(@Param("productIds") Collection<Long> productIds);
+
+  @Query("SELECT new com.da.productservice.dto.SubCategoryNode(s.mainCategory.mainCategoryId, s.subCategoryId, s.subCategoryName, s.mainCategory.mainCategoryId) FROM SubCategory s WHERE s.mainCategory.mainCategoryId IN :mainCategoryIds")
+  public List<SubCategoryNode> findNodesByMainCategoryIds(@Param("mainCategoryIds") Collection<Long> mainCategoryIds);
+
+  @Query("SELECT new com.da.productservice.dto.SubCategoryNode(s.mainCategory.mainCategoryId, s.subCategoryId, s.subCategoryName, s.mainCategory.mainCategoryId) FROM SubCategory s WHERE s.subCategoryName = :subCategoryName")
+  public Optional<SubCategoryNode> findNodeBySubCategoryName(@Param("subCategoryName") String subCategoryName);
+
+  @Query(value = "SELECT p.product_name FROM sub_categories_products sp JOIN products p ON p.product_id = sp.fk_product WHERE sp.fk_sub_category = :subCategoryId ORDER BY sp.fk_product",
+         countQuery = "SELECT COUNT(*) FROM sub_categories_products sp WHERE sp.fk_sub_category = :subCategoryId", nativeQuery = true)
+  public Page<String> findProductNamesBySubCategoryId(@Param("subCategoryId") Long subCategoryId, Pageable pageable);
+
+  /** Fetches the inventory along, an inverse one-to-one that is otherwise selected once per product. */
+  @Query("SELECT p FROM Product p JOIN p.subCategories s LEFT JOIN FETCH p.inventory WHERE s.subCategoryId = :subCategoryId")
+  public List<Product> findProductsBySubCategoryId(@Param("subCategoryId") Long subCategoryId);
+
+  @Query("SELECT s.subCategoryName FROM SubCategory s")
+  public List<String> findAllNames();
 }
@@ -0,0 +1,36 @@
+package com.da.productservice.search;
+
+import com.da.productservice.count.CountQuery;
+import com.da.productservice.dto.ProductListView;
+import com.da.productservice.repository.ProductRepository;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+@Component
+@ConditionalOnProperty(prefix = "product.search", name = "full-text", havingValue = "false", matchIfMissing = true)
+public class ContainingProductSearch implements ProductSearch {
+
+  private final ProductRepository productRepository;
+
+  @Override
+  public Page<ProductListView> search(String productName, Pageable pageable) {
+    return productRepository.findByProductNameContainingIgnoreCase(productName, pageable);
+  }
+
+  @Override
+  public Slice<ProductListView> searchSlice(String productName, Pageable pageable) {
+    return productRepository.findSliceByProductNameContainingIgnoreCase(productName, pageable);
+  }
+
+  @Override
+  public CountQuery countQuery(String productName) {
+    return CountQuery.byNameContaining(productName, () -> productRepository.countByProductNameContainingIgnoreCase(productName));
+  }
+}
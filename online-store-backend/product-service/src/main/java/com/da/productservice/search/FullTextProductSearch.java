@@ -0,0 +1,54 @@
+package com.da.productservice.search;
+
+import com.da.productservice.count.CountQuery;
+import com.da.productservice.dto.ProductListView;
+import com.da.productservice.dto.ProductSearchHit;
+import com.da.productservice.repository.ProductRepository;
+import com.da.productservice.util.SearchPattern;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Matches the name against the weighted name/description {@code tsvector} and, so partial words keep matching
+ * as they did before, against a trigram-indexed {@code ILIKE}. Results come back by full-text rank, then name
+ * similarity; a requested sort is ignored since the rank is the order.
+ */
+@RequiredArgsConstructor
+@Component
+@ConditionalOnProperty(prefix = "product.search", name = "full-text", havingValue = "true")
+public class FullTextProductSearch implements ProductSearch {
+
+  private final ProductRepository productRepository;
+
+  @Override
+  public Page<ProductListView> search(String productName, Pageable pageable) {
+    return productRepository.searchByName(productName, SearchPattern.containing(productName), ranked(pageable))
+                            .map(FullTextProductSearch::toListView);
+  }
+
+  @Override
+  public Slice<ProductListView> searchSlice(String productName, Pageable pageable) {
+    return productRepository.searchSliceByName(productName, SearchPattern.containing(productName), ranked(pageable))
+                            .map(FullTextProductSearch::toListView);
+  }
+
+  @Override
+  public CountQuery countQuery(String productName) {
+    return CountQuery.byNameSearch(productName, () -> productRepository.countSearchByName(productName, SearchPattern.containing(productName)));
+  }
+
+  private static Pageable ranked(Pageable pageable) {
+    return pageable.isPaged() ? PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()) : pageable;
+  }
+
+  private static ProductListView toListView(ProductSearchHit hit) {
+    return new ProductListView(hit.getProductName(), hit.getProductDescription(), hit.getProductPrice());
+  }
+}
@@ -0,0 +1,22 @@
+package com.da.productservice.search;
+
+import com.da.productservice.count.CountQuery;
+import com.da.productservice.dto.ProductListView;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+/**
+ * Finds products by name for {@code ProductService.getListViewByName}. {@link FullTextProductSearch} ranks
+ * index-driven matches on PostgreSQL when {@code product.search.full-text} is set; otherwise
+ * {@link ContainingProductSearch} runs the plain case-insensitive containment, which H2 supports too.
+ */
+public interface ProductSearch {
+
+  public Page<ProductListView> search(String productName, Pageable pageable);
+
+  public Slice<ProductListView> searchSlice(String productName, Pageable pageable);
+
+  public CountQuery countQuery(String productName);
+}
@@ -0,0 +1,241 @@
+package com.da.productservice.service;
+
+import static com.da.productservice.service.ProductServiceImpl.NO_PRODUCTS_FOUND;
+import static com.da.productservice.service.ProductServiceImpl.PRODUCT_NOT_FOUND;
+import static com.da.productservice.service.SubCategoryServiceImpl.SUB_CATEGORY_NOT_FOUND;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.da.productservice.dto.CountStrategy;
+import com.da.productservice.dto.CountedSlice;
+import com.da.productservice.dto.ProductBulkAdjustmentRequest;
+import com.da.productservice.dto.ProductBulkAdjustmentResponse;
+import com.da.productservice.dto.ProductInvoiceResponse;
+import com.da.productservice.dto.ProductListView;
+import com.da.productservice.dto.ProductLookupResponse;
+import com.da.productservice.dto.ProductPatchRequest;
+import com.da.productservice.dto.ProductRequest;
+import com.da.productservice.dto.ProductResponse;
+import com.da.productservice.dto.ProductView;
+import com.da.productservice.dto.SimilarProductResponse;
+import com.da.productservice.entity.MainCategory;
+import com.da.productservice.entity.Product;
+import com.da.productservice.exception.ResourceNotFoundException;
+import com.da.productservice.index.ProductSpellingIndex;
+import com.da.productservice.replica.CatalogProduct;
+import com.da.productservice.replica.CatalogReplica;
+import com.da.productservice.replica.CatalogSnapshot;
+import com.da.productservice.util.CollectionValidator;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Serves the read side of {@link ProductService} from the {@link CatalogReplica} and delegates everything else,
+ * as well as reads that arrive before the first snapshot or ask for a sort, to {@link ProductServiceImpl}.
+ */
+@Primary
+@RequiredArgsConstructor
+@Service
+@ConditionalOnProperty(prefix = "catalog.replica", name = "enabled", havingValue = "true")
+public class CatalogReplicaProductService implements ProductService {
+
+  private final ProductServiceImpl productService;
+  private final CatalogReplica catalogReplica;
+  private final ProductSpellingIndex productSpellingIndex;
+
+  @Override
+  public ProductResponse getProductResponseByBarCodeOrProductName(Long productBarCode, String productName) {
+    return read(snapshot -> toProductResponse(snapshot, findByBarCode(snapshot, productBarCode)
+                                                          .or(() -> snapshot.findByName(productName))
+                                                          .orElseThrow(() -> new ResourceNotFoundException(PRODUCT_NOT_FOUND))),
+        () -> productService.getProductResponseByBarCodeOrProductName(productBarCode, productName));
+  }
+
+  @Override
+  public List<ProductLookupResponse> getProductResponsesByBarCodes(List<Long> productBarCodes) {
+    ProductServiceImpl.throwExceptionIfTooManyBarCodes(productBarCodes);
+
+    return read(snapshot -> productBarCodes.stream()
+                                           .map(productBarCode -> ProductLookupResponse.of(productBarCode, findByBarCode(snapshot, productBarCode)
+                                               .map(product -> toProductResponse(snapshot, product)).orElse(null)))
+                                           .collect(Collectors.toList()),
+        () -> productService.getProductResponsesByBarCodes(productBarCodes));
+  }
+
+  @Override
+  public ProductInvoiceResponse getForInvoiceResponse(Long productBarCode, String productName) {
+    return read(snapshot -> findByBarCode(snapshot, productBarCode)
+                              .filter(product -> product.getProductName().equals(productName))
+                              .map(product -> new ProductInvoiceResponse(product.getProductName(), product.getProductPrice()))
+                              .orElseThrow(() -> new ResourceNotFoundException(PRODUCT_NOT_FOUND)),
+        () -> productService.getForInvoiceResponse(productBarCode, productName));
+  }
+
+  @Override
+  public ProductView getProductViewByName(String productName) {
+    return read(snapshot -> toProductView(snapshot, snapshot.findByName(productName)
+                                                      .orElseThrow(() -> new ResourceNotFoundException(PRODUCT_NOT_FOUND))),
+        () -> productService.getProductViewByName(productName));
+  }
+
+  @Override
+  public List<SimilarProductResponse> getSimilar(Long productBarCode, int limit) {
+    return productService.getSimilar(productBarCode, limit);
+  }
+
+  @Override
+  public CountedSlice<ProductListView> getListViewByName(String productName, Pageable pageable, CountStrategy countStrategy) {
+    var snapshot = catalogReplica.getSnapshot();
+    if (snapshot.isEmpty() || pageable.getSort().isSorted()) return productService.getListViewByName(productName, pageable, countStrategy);
+
+    var products = snapshot.get().findByNameContainingIgnoreCase(productName, pageable).map(product -> toListView(snapshot.get(), product));
+    if (products.isEmpty()) {
+      var correctedName = productSpellingIndex.correct(productName);
+      var correctedProducts = correctedName.map(name -> snapshot.get().findByNameContainingIgnoreCase(name, pageable).map(product -> toListView(snapshot.get(), product)));
+      if (correctedProducts.isPresent() && !correctedProducts.get().isEmpty())
+        return CountedSlice.exact(correctedProducts.get()).withCorrectedQuery(correctedName.get());
+    }
+    return CountedSlice.exact(CollectionValidator.throwExceptionIfPageIsEmpty(products, NO_PRODUCTS_FOUND));
+  }
+
+  @Override
+  public CountedSlice<ProductListView> getListView(Pageable pageable, CountStrategy countStrategy) {
+    return readPage(pageable, snapshot -> snapshot.findAll(pageable), () -> productService.getListView(pageable, countStrategy));
+  }
+
+  @Override
+  public CountedSlice<ProductListView> getListViewByMainCategory(Long mainCategoryId, Pageable pageable, CountStrategy countStrategy) {
+    return readPage(pageable, snapshot -> snapshot.findByMainCategoryId(mainCategoryId, pageable),
+        () -> productService.getListViewByMainCategory(mainCategoryId, pageable, countStrategy));
+  }
+
+  @Override
+  public Set<ProductListView> getListViewBySubCategory(String[] subCategoriesNames) {
+    return read(snapshot -> {
+      for (String subCategoryName : subCategoriesNames)
+        if (!snapshot.hasSubCategory(subCategoryName)) throw new ResourceNotFoundException(SUB_CATEGORY_NOT_FOUND);
+
+      Set<ProductListView> products = Stream.of(subCategoriesNames)
+          .flatMap(name -> snapshot.findBySubCategoryName(name).stream())
+          .map(product -> toListView(snapshot, product))
+          .collect(Collectors.toSet());
+      return CollectionValidator.throwExceptionIfSetIsEmpty(products, NO_PRODUCTS_FOUND);
+    }, () -> productService.getListViewBySubCategory(subCategoriesNames));
+  }
+
+  @Override
+  public Product getById(Long productId) {
+    return productService.getById(productId);
+  }
+
+  @Override
+  public List<Product> getByMainCategory(Long mainCategoryId) {
+    return productService.getByMainCategory(mainCategoryId);
+  }
+
+  @Override
+  public ProductResponse create(ProductRequest productRequest, MainCategory mainCategory, boolean checkDuplicates) {
+    return productService.create(productRequest, mainCategory, checkDuplicates);
+  }
+
+  @Override
+  public ProductResponse update(Long productId, ProductRequest productRequest, MainCategory mainCategory) {
+    return productService.update(productId, productRequest, mainCategory);
+  }
+
+  @Override
+  public ProductResponse patch(Long productId, ProductPatchRequest productPatchRequest, MainCategory mainCategory) {
+    return productService.patch(productId, productPatchRequest, mainCategory);
+  }
+
+  @Override
+  public void updateStock(Long productBarCode, Integer quantity) {
+    productService.updateStock(productBarCode, quantity);
+  }
+
+  @Override
+  public boolean reserveStock(Long productBarCode, Integer quantity) {
+    return productService.reserveStock(productBarCode, quantity);
+  }
+
+  @Override
+  public Map<Long, Boolean> reserveStock(Map<Long, Integer> quantitiesByBarCode) {
+    return productService.reserveStock(quantitiesByBarCode);
+  }
+
+  @Override
+  public ProductBulkAdjustmentResponse bulkAdjust(ProductBulkAdjustmentRequest productBulkAdjustmentRequest) {
+    return productService.bulkAdjust(productBulkAdjustmentRequest);
+  }
+
+  @Override
+  public void deleteById(Long productId) {
+    productService.deleteById(productId);
+  }
+
+  private <T> T read(Function<CatalogSnapshot, T> fromSnapshot, Supplier<T> fromDatabase) {
+    return catalogReplica.getSnapshot().map(fromSnapshot).orElseGet(fromDatabase);
+  }
+
+  /** The snapshot counts in memory, so its pages always carry an exact total whatever strategy was asked for. */
+  private CountedSlice<ProductListView> readPage(Pageable pageable, Function<CatalogSnapshot, Page<CatalogProduct>> fromSnapshot,
+                                                 Supplier<CountedSlice<ProductListView>> fromDatabase) {
+    if (pageable.getSort().isSorted()) return fromDatabase.get();
+
+    return read(snapshot -> CountedSlice.exact(CollectionValidator.throwExceptionIfPageIsEmpty(fromSnapshot.apply(snapshot)
+                                                                                                   .map(product -> toListView(snapshot, product)), NO_PRODUCTS_FOUND)),
+        fromDatabase);
+  }
+
+  private static Optional<CatalogProduct> findByBarCode(CatalogSnapshot snapshot, Long productBarCode) {
+    return productBarCode == null ? Optional.empty() : snapshot.findByBarCode(productBarCode);
+  }
+
+  private static ProductListView toListView(CatalogSnapshot snapshot, CatalogProduct product) {
+    return new ProductListView(product.getProductName(), snapshot.getDescription(product), product.getProductPrice());
+  }
+
+  private static ProductResponse toProductResponse(CatalogSnapshot snapshot, CatalogProduct product) {
+    //@formatter:off
+    return ProductResponse.builder()
+                          .productId(product.getProductId())
+                          .productBarCode(product.getProductBarCode())
+                          .productName(product.getProductName())
+                          .productDescription(snapshot.getDescription(product))
+                          .productStock(product.getProductStock())
+                          .productPrice(product.getProductPrice())
+                          .createDate(product.getCreateDate())
+                          .lastModifiedDate(product.getLastModifiedDate())
+                          .productStatus(product.getProductStatus())
+                          .mainCategoryName(snapshot.getMainCategoryName(product))
+                          .subCategories(snapshot.getSubCategoryNames(product))
+                          .build();
+    //@formatter:on
+  }
+
+  private static ProductView toProductView(CatalogSnapshot snapshot, CatalogProduct product) {
+    //@formatter:off
+    return ProductView.builder()
+                      .productBarCode(product.getProductBarCode())
+                      .productName(product.getProductName())
+                      .productDescription(snapshot.getDescription(product))
+                      .productPrice(product.getProductPrice())
+                      .mainCategoryName(snapshot.getMainCategoryName(product))
+                      .subCategories(snapshot.getSubCategoryNames(product))
+                      .build();
+    //@formatter:on
+  }
+}
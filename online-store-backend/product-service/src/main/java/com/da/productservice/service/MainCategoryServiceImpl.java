@@ -8,8 +8,14 @@ import javax.transaction.Transactional;
 import com.da.productservice.exception.ResourceNotFoundException;
 import com.da.productservice.repository.MainCategoryRepository;
 import com.da.productservice.entity.MainCategory;
+import com.da.productservice.entity.Product;
+import com.da.productservice.event.CategoryChangedEvent;
+import com.da.productservice.event.CategoryChangedEvent.CategoryType;
+import com.da.productservice.event.ProductChangedEvent;
+import com.da.productservice.event.ProductChangedEvent.ChangeType;
 import com.da.productservice.util.CollectionValidator;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
@@ -22,6 +28,7 @@ public class MainCategoryServiceImpl implements MainCategoryService {
   private final ProductService productService;
   private final SubCategoryService subCategoryService;
   private final MainCategoryRepository mainCategoryRepository;
+  private final ApplicationEventPublisher eventPublisher;
 
   private static final String MAIN_CATEGORY_NOT_FOUND = "Main Category Not Found";
   private static final String NO_MAIN_CATEGORIES_FOUND = "No Main Categories Found";
@@ -29,7 +36,9 @@ public class MainCategoryServiceImpl implements MainCategoryService {
   @Transactional
   @Override
   public MainCategory create(MainCategory mainCategory) {
-    return mainCategoryRepository.save(mainCategory);
+    MainCategory created = mainCategoryRepository.save(mainCategory);
+    eventPublisher.publishEvent(new CategoryChangedEvent(CategoryType.MAIN, Set.of(created.getMainCategoryId())));
+    return created;
   }
 
   @Transactional
@@ -37,6 +46,8 @@ public class MainCategoryServiceImpl implements MainCategoryService {
   public void updateName(Long mainCategoryId, String mainCategoryName) {
     if (mainCategoryRepository.updateName(mainCategoryName, mainCategoryId) < 1)
       throw new ResourceNotFoundException(MAIN_CATEGORY_NOT_FOUND);
+    mainCategoryRepository.updateNameOnProducts(mainCategoryName, mainCategoryId);
+    eventPublisher.publishEvent(new CategoryChangedEvent(CategoryType.MAIN, Set.of(mainCategoryId)));
   }
 
   @Transactional
@@ -47,12 +58,18 @@ public class MainCategoryServiceImpl implements MainCategoryService {
     subCategoryService.getMainCategory(mainCategoryId)
       .forEach(sc -> subCategoryService.deleteById(sc.getSubCategoryId()));
 
-    productService.getByMainCategory(mainCategoryId).forEach(prs -> {
+    var products = productService.getByMainCategory(mainCategoryId);
+    products.forEach(prs -> {
       if (prs.getSubCategories() != null && !prs.getSubCategories().isEmpty())
         prs.getSubCategories().clear();
     });
 
     mainCategoryRepository.delete(mainCategory);
+    eventPublisher.publishEvent(new CategoryChangedEvent(CategoryType.MAIN, Set.of(mainCategoryId)));
+
+    if (!products.isEmpty())
+      eventPublisher.publishEvent(new ProductChangedEvent(ChangeType.DELETED,
+          products.stream().map(Product::getProductBarCode).collect(Collectors.toSet())));
   }
 
   @Override
@@ -0,0 +1,15 @@
+package com.da.productservice.service;
+
+import com.da.productservice.dto.ProductFilterRequest;
+import com.da.productservice.dto.ProductListView;
+import com.da.productservice.dto.SubCategoryQueryRequest;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+public interface ProductFilterService {
+
+  public Page<ProductListView> filter(ProductFilterRequest productFilterRequest, Pageable pageable);
+
+  public Page<ProductListView> queryBySubCategories(SubCategoryQueryRequest subCategoryQueryRequest, Pageable pageable);
+}
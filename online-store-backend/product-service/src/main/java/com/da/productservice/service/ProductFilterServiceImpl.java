@@ -0,0 +1,86 @@
+package com.da.productservice.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import com.da.productservice.dto.ProductFilterRequest;
+import com.da.productservice.dto.ProductListView;
+import com.da.productservice.dto.ProductNode;
+import com.da.productservice.dto.SubCategoryQueryRequest;
+import com.da.productservice.entity.SubCategory;
+import com.da.productservice.index.ProductColumnIndex;
+import com.da.productservice.index.ProductColumnQuery;
+import com.da.productservice.index.SubCategoryExpression;
+import com.da.productservice.repository.ProductRepository;
+import com.da.productservice.util.CollectionValidator;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+@Service
+public class ProductFilterServiceImpl implements ProductFilterService {
+
+  private final ProductColumnIndex productColumnIndex;
+  private final MainCategoryService mainCategoryService;
+  private final SubCategoryService subCategoryService;
+  private final ProductRepository productRepository;
+
+  private static final String NO_PRODUCTS_FOUND = "No Products Found";
+
+  @Transactional(readOnly = true)
+  @Override
+  public Page<ProductListView> filter(ProductFilterRequest request, Pageable pageable) {
+    //@formatter:off
+    var query = ProductColumnQuery.builder()
+                                  .minPrice(request.getMinPrice())
+                                  .maxPrice(request.getMaxPrice())
+                                  .mainCategoryId(request.getMainCategoryName() == null ? null
+                                      : mainCategoryService.getByName(request.getMainCategoryName()).getMainCategoryId())
+                                  .subCategoryIds(request.getSubCategoriesNames() == null ? null
+                                      : subCategoryService.getAllByNames(request.getSubCategoriesNames()).stream()
+                                                          .map(SubCategory::getSubCategoryId)
+                                                          .collect(Collectors.toSet()))
+                                  .productStatuses(request.getProductStatuses())
+                                  .inStock(request.getInStock())
+                                  .priceSort(request.getPriceSort())
+                                  .build();
+    //@formatter:on
+    Page<Long> productIds = productColumnIndex.filter(query, pageable);
+    return CollectionValidator.throwExceptionIfPageIsEmpty(toListViews(productIds, pageable), NO_PRODUCTS_FOUND);
+  }
+
+  @Transactional(readOnly = true)
+  @Override
+  public Page<ProductListView> queryBySubCategories(SubCategoryQueryRequest request, Pageable pageable) {
+    var expression = SubCategoryExpression.parse(request.getExpression());
+
+    Map<String, Long> subCategoryIds = subCategoryService.getAllByNames(expression.getNames()).stream()
+        .collect(Collectors.toMap(SubCategory::getSubCategoryName, SubCategory::getSubCategoryId));
+
+    Page<Long> productIds = productColumnIndex.evaluate(expression, subCategoryIds, pageable);
+    return CollectionValidator.throwExceptionIfPageIsEmpty(toListViews(productIds, pageable), NO_PRODUCTS_FOUND);
+  }
+
+  private Page<ProductListView> toListViews(Page<Long> productIds, Pageable pageable) {
+    if (productIds.isEmpty()) return Page.empty(pageable);
+
+    Map<Long, ProductNode> products = productRepository.findNodesByProductIds(productIds.getContent()).stream()
+        .collect(Collectors.toMap(ProductNode::getProductId, Function.identity()));
+
+    List<ProductListView> content = productIds.getContent().stream()
+        .map(products::get)
+        .filter(Objects::nonNull)
+        .map(p -> new ProductListView(p.getProductName(), p.getProductDescription(), p.getProductPrice()))
+        .collect(Collectors.toList());
+    return new PageImpl<>(content, pageable, productIds.getTotalElements());
+  }
+}
@@ -1,17 +1,24 @@
 package com.da.productservice.service;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
+import com.da.productservice.dto.CountStrategy;
+import com.da.productservice.dto.CountedSlice;
+import com.da.productservice.dto.ProductBulkAdjustmentRequest;
+import com.da.productservice.dto.ProductBulkAdjustmentResponse;
 import com.da.productservice.dto.ProductInvoiceResponse;
 import com.da.productservice.dto.ProductListView;
+import com.da.productservice.dto.ProductLookupResponse;
+import com.da.productservice.dto.ProductPatchRequest;
 import com.da.productservice.dto.ProductRequest;
 import com.da.productservice.dto.ProductResponse;
 import com.da.productservice.dto.ProductView;
+import com.da.productservice.dto.SimilarProductResponse;
 import com.da.productservice.entity.MainCategory;
 import com.da.productservice.entity.Product;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 public interface ProductService {
@@ -20,25 +27,37 @@ public interface ProductService {
 
   public List<Product> getByMainCategory(Long mainCategoryId);
 
-  public ProductResponse create(ProductRequest productRequest, MainCategory mainCategory);
+  public ProductResponse create(ProductRequest productRequest, MainCategory mainCategory, boolean checkDuplicates);
 
   public ProductResponse update(Long productId, ProductRequest productRequest, MainCategory mainCategory);
 
+  public ProductResponse patch(Long productId, ProductPatchRequest productPatchRequest, MainCategory mainCategory);
+
   public ProductResponse getProductResponseByBarCodeOrProductName(Long productBarCode, String productName);
 
+  public List<ProductLookupResponse> getProductResponsesByBarCodes(List<Long> productBarCodes);
+
   public ProductInvoiceResponse getForInvoiceResponse(Long productBarCode, String productName);
 
   public ProductView getProductViewByName(String productName);
 
-  public Page<ProductListView> getListViewByName(String productName, Pageable pageable);
+  public List<SimilarProductResponse> getSimilar(Long productBarCode, int limit);
+
+  public CountedSlice<ProductListView> getListViewByName(String productName, Pageable pageable, CountStrategy countStrategy);
 
-  public Page<ProductListView> getListView(Pageable pageable);
+  public CountedSlice<ProductListView> getListView(Pageable pageable, CountStrategy countStrategy);
 
-  public Page<ProductListView> getListViewByMainCategory(Long mainCategoryId, Pageable pageable);
+  public CountedSlice<ProductListView> getListViewByMainCategory(Long mainCategoryId, Pageable pageable, CountStrategy countStrategy);
 
   public Set<ProductListView> getListViewBySubCategory(String[] subCategoryName);
 
   public void updateStock(Long productBarCode, Integer quantity);
 
+  public boolean reserveStock(Long productBarCode, Integer quantity);
+
+  public Map<Long, Boolean> reserveStock(Map<Long, Integer> quantitiesByBarCode);
+
+  public ProductBulkAdjustmentResponse bulkAdjust(ProductBulkAdjustmentRequest productBulkAdjustmentRequest);
+
   public void deleteById(Long productId);
 }
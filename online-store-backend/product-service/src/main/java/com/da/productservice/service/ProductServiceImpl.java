@@ -1,24 +1,53 @@
 package com.da.productservice.service;
 
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
+import com.da.productservice.exception.DuplicateProductException;
+import com.da.productservice.exception.InvalidQueryException;
 import com.da.productservice.exception.ResourceNotFoundException;
+import com.da.productservice.repository.ProductInventoryRepository;
 import com.da.productservice.repository.ProductRepository;
+import com.da.productservice.cache.ProductReadCache;
+import com.da.productservice.count.CountQuery;
+import com.da.productservice.count.ProductCounter;
+import com.da.productservice.dto.CountStrategy;
+import com.da.productservice.dto.CountedSlice;
+import com.da.productservice.dto.ProductBulkAdjustmentRequest;
+import com.da.productservice.dto.ProductBulkAdjustmentRequest.PriceAdjustment;
+import com.da.productservice.dto.ProductBulkAdjustmentResponse;
 import com.da.productservice.dto.ProductInvoiceResponse;
 import com.da.productservice.dto.ProductListView;
+import com.da.productservice.dto.ProductLookupResponse;
+import com.da.productservice.dto.ProductPatchRequest;
 import com.da.productservice.dto.ProductRequest;
 import com.da.productservice.dto.ProductResponse;
 import com.da.productservice.dto.ProductView;
+import com.da.productservice.dto.SimilarProductResponse;
 import com.da.productservice.entity.MainCategory;
 import com.da.productservice.entity.Product;
 import com.da.productservice.entity.SubCategory;
+import com.da.productservice.event.ProductChangedEvent;
+import com.da.productservice.event.ProductChangedEvent.ChangeType;
 import com.da.productservice.mapper.ProductMapper;
 import com.da.productservice.util.CollectionValidator;
+import com.da.productservice.index.BarCodeIndex;
+import com.da.productservice.index.ProductBloomFilter;
+import com.da.productservice.index.ProductSimilarityIndex;
+import com.da.productservice.index.ProductSpellingIndex;
+import com.da.productservice.search.ProductSearch;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -30,21 +59,52 @@ public class ProductServiceImpl implements ProductService {
 
   private final SubCategoryService subCategoryService;
   private final ProductRepository productRepository;
+  private final ProductInventoryRepository productInventoryRepository;
   private final ProductMapper productMapper;
+  private final ApplicationEventPublisher eventPublisher;
+  private final BarCodeIndex barCodeIndex;
+  private final ProductBloomFilter productBloomFilter;
+  private final ProductCounter productCounter;
+  private final ProductSearch productSearch;
+  private final ProductSimilarityIndex productSimilarityIndex;
+  private final ProductSpellingIndex productSpellingIndex;
+  private final ProductReadCache productReadCache;
 
-  private static final String PRODUCT_NOT_FOUND = "Product Not Found";
-  private static final String NO_PRODUCTS_FOUND = "No Products Found";
+  static final String PRODUCT_NOT_FOUND = "Product Not Found";
+  static final String NO_PRODUCTS_FOUND = "No Products Found";
+  private static final String SIMILAR_PRODUCT_EXISTS = "Similar Product Exists: ";
+  private static final int MAX_SIMILAR_PRODUCTS = 50;
+  private static final int MAX_LOOKUP_BAR_CODES = 100;
+  private static final String TOO_MANY_BAR_CODES = "A maximum of " + MAX_LOOKUP_BAR_CODES + " Bar Codes can be fetched at once";
+  private static final int BULK_BATCH_SIZE = 500;
 
   @Transactional
   @Override
-  public ProductResponse create(ProductRequest productRequest, MainCategory mainCategory) {
+  public ProductResponse create(ProductRequest productRequest, MainCategory mainCategory, boolean checkDuplicates) {
+    if (checkDuplicates) throwExceptionIfDuplicate(productRequest);
+
     Set<SubCategory> subCategories = subCategoryService.getSetByName(productRequest.getSubCategoriesNames());
 
     Product product = productMapper.productRequestToProduct(productRequest, mainCategory, subCategories);
 
     product.setProductStatus("CREATED");
+    productBloomFilter.add(product.getProductBarCode(), product.getProductName());
+
+    var productResponse = productMapper.productToProductResponse(productRepository.save(product));
+
+    eventPublisher.publishEvent(new ProductChangedEvent(ChangeType.CREATED, Set.of(product.getProductBarCode())));
+
+    return productResponse;
+  }
 
-    return productMapper.productToProductResponse(productRepository.save(product));
+  /** Supplier feeds re-create products under slightly different names; imports that ask for it have those turned away before any write. */
+  private void throwExceptionIfDuplicate(ProductRequest productRequest) {
+    var duplicates = productSimilarityIndex.findDuplicates(productRequest.getProductName(), productRequest.getProductDescription());
+    if (duplicates.isEmpty()) return;
+
+    throw new DuplicateProductException(SIMILAR_PRODUCT_EXISTS + duplicates.stream()
+                                                                      .map(SimilarProductResponse::getProductName)
+                                                                      .collect(Collectors.joining(", ")));
   }
 
   @Transactional
@@ -52,6 +112,7 @@ public class ProductServiceImpl implements ProductService {
   public ProductResponse update(Long productId, ProductRequest productRequest, MainCategory mainCategory) {
 
     Product product = getById(productId);
+    Long previousBarCode = product.getProductBarCode();
 
     product.setProductBarCode(productRequest.getProductBarCode());
     product.setProductName(productRequest.getProductName());
@@ -60,37 +121,190 @@ public class ProductServiceImpl implements ProductService {
     product.setProductPrice(productRequest.getProductPrice());
     product.setMainCategory(mainCategory);
     product.setSubCategories(subCategoryService.getSetByName(productRequest.getSubCategoriesNames()));
+    productBloomFilter.add(product.getProductBarCode(), product.getProductName());
+
+    var productResponse = productMapper.productToProductResponse(productRepository.save(product));
+
+    eventPublisher.publishEvent(new ProductChangedEvent(ChangeType.UPDATED, new HashSet<>(Arrays.asList(previousBarCode, product.getProductBarCode()))));
 
-    return productMapper.productToProductResponse(productRepository.save(product));
+    return productResponse;
+  }
+
+  @Transactional
+  @Override
+  public ProductResponse patch(Long productId, ProductPatchRequest productPatchRequest, MainCategory mainCategory) {
+    Product product = getById(productId);
+    Long previousBarCode = product.getProductBarCode();
+
+    if (productPatchRequest.isPatched(ProductPatchRequest.PRODUCT_BAR_CODE))
+      product.setProductBarCode(productPatchRequest.getProductBarCode());
+    if (productPatchRequest.isPatched(ProductPatchRequest.PRODUCT_NAME))
+      product.setProductName(productPatchRequest.getProductName());
+    if (productPatchRequest.isPatched(ProductPatchRequest.PRODUCT_DESCRIPTION))
+      product.setProductDescription(productPatchRequest.getProductDescription());
+    if (productPatchRequest.isPatched(ProductPatchRequest.PRODUCT_STOCK))
+      product.setProductStock(productPatchRequest.getProductStock());
+    if (productPatchRequest.isPatched(ProductPatchRequest.PRODUCT_PRICE))
+      product.setProductPrice(productPatchRequest.getProductPrice());
+    if (mainCategory != null)
+      product.setMainCategory(mainCategory);
+    if (productPatchRequest.isPatched(ProductPatchRequest.SUB_CATEGORIES_NAMES)) {
+      patchSubCategories(product.getSubCategories(), productPatchRequest.getSubCategoriesNames());
+      product.refreshSubCategoryNames();
+    }
+
+    productBloomFilter.add(product.getProductBarCode(), product.getProductName());
+
+    // the product is managed: dirty checking flushes only the changed columns, no save/merge needed
+    var productResponse = productMapper.productToProductResponse(product);
+
+    eventPublisher.publishEvent(new ProductChangedEvent(ChangeType.UPDATED, new HashSet<>(Arrays.asList(previousBarCode, product.getProductBarCode()))));
+
+    return productResponse;
+  }
+
+  private void patchSubCategories(Set<SubCategory> subCategories, String[] subCategoriesNames) {
+    Set<String> namesToAdd = new HashSet<>(Arrays.asList(subCategoriesNames));
+    subCategories.removeIf(subCategory -> !namesToAdd.contains(subCategory.getSubCategoryName()));
+    subCategories.forEach(subCategory -> namesToAdd.remove(subCategory.getSubCategoryName()));
+
+    if (!namesToAdd.isEmpty())
+      subCategories.addAll(subCategoryService.getSetByName(namesToAdd.toArray(String[]::new)));
   }
 
   @Transactional
   @Override
   public void updateStock(Long productBarCode, Integer quantity) {
-    if (productRepository.updateStockByBarCode(quantity, productBarCode) < 1)
+    if (isKnownMissing(productBarCode) || productInventoryRepository.updateStockByBarCode(quantity, productBarCode) < 1)
       throw new ResourceNotFoundException(PRODUCT_NOT_FOUND);
+
+    eventPublisher.publishEvent(new ProductChangedEvent(ChangeType.STOCK, Set.of(productBarCode)));
+  }
+
+  @Transactional
+  @Override
+  public boolean reserveStock(Long productBarCode, Integer quantity) {
+    if (isKnownMissing(productBarCode) || productInventoryRepository.reserveStockByBarCode(quantity, productBarCode) < 1) return false;
+
+    eventPublisher.publishEvent(new ProductChangedEvent(ChangeType.STOCK, Set.of(productBarCode)));
+    return true;
+  }
+
+  @Transactional
+  @Override
+  public Map<Long, Boolean> reserveStock(Map<Long, Integer> quantitiesByBarCode) {
+    Map<Long, Boolean> reservations = new LinkedHashMap<>();
+    quantitiesByBarCode.forEach((productBarCode, quantity) -> reservations.put(productBarCode,
+        !isKnownMissing(productBarCode) && productInventoryRepository.reserveStockByBarCode(quantity, productBarCode) > 0));
+
+    Set<Long> reserved = reservations.entrySet().stream().filter(Map.Entry::getValue).map(Map.Entry::getKey).collect(Collectors.toSet());
+    if (!reserved.isEmpty())
+      eventPublisher.publishEvent(new ProductChangedEvent(ChangeType.STOCK, reserved));
+
+    return reservations;
+  }
+
+  @Transactional
+  @Override
+  public ProductBulkAdjustmentResponse bulkAdjust(ProductBulkAdjustmentRequest request) {
+    List<Long> productBarCodes = getBarCodesToAdjust(request);
+
+    if (productBarCodes.isEmpty())
+      throw new ResourceNotFoundException(NO_PRODUCTS_FOUND);
+
+    double factor = request.getPriceAdjustment() == PriceAdjustment.PERCENTAGE ? 1 + request.getPriceValue() / 100 : 1;
+    double offset = request.getPriceAdjustment() == PriceAdjustment.ABSOLUTE ? request.getPriceValue() : 0;
+    int stock = request.getStockDelta() == null ? 0 : request.getStockDelta();
+    var changeType = factor != 1 || offset != 0 ? ChangeType.UPDATED : ChangeType.STOCK;
+
+    // one event per batch, holding only what changed, keeps the listeners' reloads within a batch as well
+    int updatedProducts = 0;
+    for (int from = 0; from < productBarCodes.size(); from += BULK_BATCH_SIZE) {
+      var batch = productBarCodes.subList(from, Math.min(from + BULK_BATCH_SIZE, productBarCodes.size()));
+      Set<Long> updated = new HashSet<>();
+      if (factor != 1 || offset != 0) {
+        var adjustable = productRepository.findBarCodesWithAdjustablePrice(factor, offset, batch);
+        if (!adjustable.isEmpty()) productRepository.adjustPriceByBarCodes(factor, offset, adjustable);
+        updated.addAll(adjustable);
+      }
+      if (stock != 0) {
+        var adjustable = productInventoryRepository.findBarCodesWithAdjustableStock(stock, batch);
+        if (!adjustable.isEmpty()) productInventoryRepository.adjustStockByBarCodes(stock, adjustable);
+        updated.addAll(adjustable);
+      }
+      if (updated.isEmpty()) continue;
+
+      updatedProducts += updated.size();
+      eventPublisher.publishEvent(new ProductChangedEvent(changeType, updated));
+    }
+
+    return new ProductBulkAdjustmentResponse(productBarCodes.size(), updatedProducts);
+  }
+
+  private List<Long> getBarCodesToAdjust(ProductBulkAdjustmentRequest request) {
+    if (request.getMainCategoryName() != null)
+      return productRepository.findBarCodesByMainCategoryName(request.getMainCategoryName());
+    if (request.getSubCategoryName() != null)
+      return productRepository.findBarCodesBySubCategoryName(request.getSubCategoryName());
+    return productRepository.findExistingBarCodes(request.getProductBarCodes());
   }
 
   @Transactional
   @Override
   public void deleteById(Long productId) {
-    productRepository.delete(getById(productId));
+    Product product = getById(productId);
+    productRepository.delete(product);
+
+    eventPublisher.publishEvent(new ProductChangedEvent(ChangeType.DELETED, Set.of(product.getProductBarCode())));
   }
 
   @Transactional(readOnly = true)
   @Override
   public ProductResponse getProductResponseByBarCodeOrProductName(Long productBarCode, String productName) {
-    return productMapper
-        .productToProductResponse(productRepository.findByProductBarCodeOrProductName(productBarCode, productName)
-            .orElseThrow(() -> new ResourceNotFoundException(PRODUCT_NOT_FOUND)));
+    if (productBloomFilter.excludesBarCode(productBarCode) && productBloomFilter.excludesName(productName))
+      throw new ResourceNotFoundException(PRODUCT_NOT_FOUND);
+
+    return productRepository.findResponseByProductBarCodeOrProductName(productBarCode, productName)
+        .orElseThrow(() -> new ResourceNotFoundException(PRODUCT_NOT_FOUND));
+  }
+
+  /** One IN query for the barcodes not already known to be missing; the category names come with each row. */
+  @Transactional(readOnly = true)
+  @Override
+  public List<ProductLookupResponse> getProductResponsesByBarCodes(List<Long> productBarCodes) {
+    throwExceptionIfTooManyBarCodes(productBarCodes);
+
+    Set<Long> candidates = productBarCodes.stream().filter(productBarCode -> productBarCode != null && !isKnownMissing(productBarCode))
+                                          .collect(Collectors.toSet());
+    Map<Long, ProductResponse> productsByBarCode = candidates.isEmpty() ? Map.of()
+        : productRepository.findResponsesByBarCodes(candidates).stream()
+                           .collect(Collectors.toMap(ProductResponse::getProductBarCode, Function.identity()));
+
+    return productBarCodes.stream().map(productBarCode -> ProductLookupResponse.of(productBarCode, productsByBarCode.get(productBarCode)))
+                          .collect(Collectors.toList());
+  }
+
+  /** The one place the lookup limit is enforced, whichever service ends up answering. */
+  static void throwExceptionIfTooManyBarCodes(List<Long> productBarCodes) {
+    if (productBarCodes.size() > MAX_LOOKUP_BAR_CODES)
+      throw new InvalidQueryException(TOO_MANY_BAR_CODES);
   }
 
   @Override
   public ProductInvoiceResponse getForInvoiceResponse(Long productBarCode, String productName) {
-    return productRepository.findForInvoice(productBarCode, productName)
+    if (barCodeIndex.isLoaded())
+      return barCodeIndex.findForInvoice(productBarCode, productName).orElseThrow(() -> new ResourceNotFoundException(PRODUCT_NOT_FOUND));
+    if (productBloomFilter.excludesBarCode(productBarCode) || productBloomFilter.excludesName(productName))
+      throw new ResourceNotFoundException(PRODUCT_NOT_FOUND);
+
+    return productReadCache.getForInvoice(productBarCode, productName, () -> productRepository.findForInvoice(productBarCode, productName))
         .orElseThrow(() -> new ResourceNotFoundException(PRODUCT_NOT_FOUND));
   }
 
+  private boolean isKnownMissing(Long productBarCode) {
+    return barCodeIndex.isLoaded() ? !barCodeIndex.contains(productBarCode) : productBloomFilter.excludesBarCode(productBarCode);
+  }
+
   @Override
   public Product getById(Long productId) {
     return productRepository.findById(productId).orElseThrow(() -> new ResourceNotFoundException(PRODUCT_NOT_FOUND));
@@ -103,29 +317,55 @@ public class ProductServiceImpl implements ProductService {
 
   @Override
   public ProductView getProductViewByName(String productName) {
-    return productMapper.productToProductView(productRepository.findByProductName(productName)
-        .orElseThrow(() -> new ResourceNotFoundException(PRODUCT_NOT_FOUND)));
+    if (productBloomFilter.excludesName(productName))
+      throw new ResourceNotFoundException(PRODUCT_NOT_FOUND);
+
+    return productReadCache.getView(productName, () -> productRepository.findViewByProductName(productName))
+        .orElseThrow(() -> new ResourceNotFoundException(PRODUCT_NOT_FOUND));
+  }
+
+  @Override
+  public List<SimilarProductResponse> getSimilar(Long productBarCode, int limit) {
+    if (!productSimilarityIndex.isLoaded()) return List.of();
+
+    return productSimilarityIndex.findSimilar(productBarCode, Math.min(limit, MAX_SIMILAR_PRODUCTS))
+                                 .orElseThrow(() -> new ResourceNotFoundException(PRODUCT_NOT_FOUND));
   }
 
   @Transactional(readOnly = true)
   @Override
-  public Page<ProductListView> getListViewByName(String productName, Pageable pageable) {
-    Page<ProductListView> products = productRepository.findByProductNameContainingIgnoreCase(productName, pageable);
-    return CollectionValidator.throwExceptionIfPageIsEmpty(products, NO_PRODUCTS_FOUND);
+  public CountedSlice<ProductListView> getListViewByName(String productName, Pageable pageable, CountStrategy countStrategy) {
+    try {
+      return searchByName(productName, pageable, countStrategy);
+    } catch (ResourceNotFoundException noMatch) {
+      String correctedName = productSpellingIndex.correct(productName).orElseThrow(() -> noMatch);
+      return searchByName(correctedName, pageable, countStrategy).withCorrectedQuery(correctedName);
+    }
+  }
+
+  private CountedSlice<ProductListView> searchByName(String productName, Pageable pageable, CountStrategy countStrategy) {
+    return getCountedListView(pageable, countStrategy,
+        () -> productSearch.search(productName, pageable),
+        () -> productSearch.searchSlice(productName, pageable),
+        productSearch.countQuery(productName));
   }
 
   @Transactional(readOnly = true)
   @Override
-  public Page<ProductListView> getListView(Pageable pageable) {
-    Page<ProductListView> products = productRepository.getAll(pageable);
-    return CollectionValidator.throwExceptionIfPageIsEmpty(products, NO_PRODUCTS_FOUND);
+  public CountedSlice<ProductListView> getListView(Pageable pageable, CountStrategy countStrategy) {
+    return getCountedListView(pageable, countStrategy,
+        () -> productRepository.getAll(pageable),
+        () -> productRepository.getAllSlice(pageable),
+        CountQuery.all(productRepository::count));
   }
 
   @Transactional(readOnly = true)
   @Override
-  public Page<ProductListView> getListViewByMainCategory(Long mainCategoryId, Pageable pageable) {
-    Page<ProductListView> products = productRepository.findByMainCategoryMainCategoryId(mainCategoryId, pageable);
-    return CollectionValidator.throwExceptionIfPageIsEmpty(products, NO_PRODUCTS_FOUND);
+  public CountedSlice<ProductListView> getListViewByMainCategory(Long mainCategoryId, Pageable pageable, CountStrategy countStrategy) {
+    return getCountedListView(pageable, countStrategy,
+        () -> productRepository.findByMainCategoryMainCategoryId(mainCategoryId, pageable),
+        () -> productRepository.findSliceByMainCategoryMainCategoryId(mainCategoryId, pageable),
+        CountQuery.byMainCategory(mainCategoryId, () -> productRepository.countByMainCategoryMainCategoryId(mainCategoryId)));
   }
 
   @Transactional(readOnly = true)
@@ -137,4 +377,13 @@ public class ProductServiceImpl implements ProductService {
         .collect(Collectors.toSet());
     return CollectionValidator.throwExceptionIfSetIsEmpty(products, NO_PRODUCTS_FOUND);
   }
+
+  /** Exact totals keep the single paged query; every other strategy fetches a slice and leaves the total to the counter. */
+  private CountedSlice<ProductListView> getCountedListView(Pageable pageable, CountStrategy countStrategy, Supplier<Page<ProductListView>> page,
+                                                           Supplier<Slice<ProductListView>> slice, CountQuery countQuery) {
+    if (countStrategy == CountStrategy.EXACT || pageable.isUnpaged())
+      return CountedSlice.exact(CollectionValidator.throwExceptionIfPageIsEmpty(page.get(), NO_PRODUCTS_FOUND));
+
+    return productCounter.count(CollectionValidator.throwExceptionIfSliceIsEmpty(slice.get(), NO_PRODUCTS_FOUND), countStrategy, countQuery);
+  }
 }
@@ -1,5 +1,6 @@
 package com.da.productservice.service;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 
@@ -13,7 +14,7 @@ public interface SubCategoryService {
 
   public SubCategoryResponse create(String subCategoryName, MainCategory mainCategory);
 
-  public SubCategoryResponse getSubCategoryResponseByName(String subCategoryName);
+  public SubCategoryResponse getSubCategoryResponseByName(String subCategoryName, Pageable pageable);
 
   public SubCategory getByName(String subCategoryName);
 
@@ -23,6 +24,9 @@ public interface SubCategoryService {
 
   public Set<SubCategory> getSetByName(String[] subCategoriesNames);
 
+  /** Resolves the names with one query; a ResourceNotFoundException lists every name that does not exist. */
+  public Set<SubCategory> getAllByNames(Collection<String> subCategoriesNames);
+
   public List<SubCategory> getMainCategory (Long mainCategoryId);
 
   public void updateName(Long subCategoryId, String subCategoryName);
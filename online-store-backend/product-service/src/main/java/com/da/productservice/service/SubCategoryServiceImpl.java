@@ -1,20 +1,31 @@
 package com.da.productservice.service;
 
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 import javax.transaction.Transactional;
 
 import com.da.productservice.exception.ResourceNotFoundException;
 import com.da.productservice.repository.SubCategoryRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 import com.da.productservice.dto.SubCategoryResponse;
 import com.da.productservice.entity.MainCategory;
+import com.da.productservice.entity.Product;
 import com.da.productservice.entity.SubCategory;
+import com.da.productservice.event.CategoryChangedEvent;
+import com.da.productservice.event.CategoryChangedEvent.CategoryType;
+import com.da.productservice.event.ProductChangedEvent;
+import com.da.productservice.event.ProductChangedEvent.ChangeType;
 import com.da.productservice.mapper.SubCategoryMapper;
 import com.da.productservice.util.CollectionValidator;
 
@@ -26,16 +37,20 @@ public class SubCategoryServiceImpl implements SubCategoryService {
 
   private final SubCategoryMapper subCategoryMapper;
   private final SubCategoryRepository subCategoryRepository;
+  private final ApplicationEventPublisher eventPublisher;
 
-  private static final String SUB_CATEGORY_NOT_FOUND = "Sub Category Not Found";
+  static final String SUB_CATEGORY_NOT_FOUND = "Sub Category Not Found";
+  private static final String SUB_CATEGORIES_NOT_FOUND = "Sub Categories Not Found";
   private static final String NO_SUB_CATEGORIES_FOUND = "No Sub Categories Found";
+  private static final int MAX_PRODUCT_NAMES = 100;
 
   @Transactional
   @Override
   public SubCategoryResponse create(String subCategoryName, MainCategory mainCategory) {
     SubCategory subCategory = subCategoryRepository
       .save(subCategoryMapper.subCategoryRequestToSubCategory(subCategoryName, mainCategory));
-    return subCategoryMapper.subCategoryToSubCategoryResponse(subCategory);
+    eventPublisher.publishEvent(new CategoryChangedEvent(CategoryType.SUB, Set.of(subCategory.getSubCategoryId())));
+    return subCategoryMapper.subCategoryToSubCategoryResponse(subCategory, Page.empty());
   }
 
   @Transactional
@@ -43,19 +58,27 @@ public class SubCategoryServiceImpl implements SubCategoryService {
   public void updateName(Long subCategoryId, String subCategoryName) {
     if (subCategoryRepository.updateName(subCategoryName, subCategoryId) < 1)
       throw new ResourceNotFoundException(SUB_CATEGORY_NOT_FOUND);
+    subCategoryRepository.renameOnProducts(subCategoryId);
+    eventPublisher.publishEvent(new CategoryChangedEvent(CategoryType.SUB, Set.of(subCategoryId)));
   }
 
   @Transactional
   @Override
   public void deleteById(Long subCategoryId) {
     SubCategory subCategory = getById(subCategoryId);
+    subCategoryRepository.removeFromProducts(subCategoryId);
 
-    if (subCategory.getProducts() != null && !subCategory.getProducts().isEmpty()) {
-      subCategory.getProducts().stream()
-                               .filter(p -> p.getSubCategories() != null && !p.getSubCategories().isEmpty())
-                               .forEach(prd -> prd.getSubCategories().remove(subCategory));
+    List<Product> products = subCategoryRepository.findProductsBySubCategoryId(subCategoryId);
+    if (!products.isEmpty()) {
+      products.stream()
+              .filter(p -> p.getSubCategories() != null && !p.getSubCategories().isEmpty())
+              .forEach(prd -> prd.getSubCategories().remove(subCategory));
+
+      eventPublisher.publishEvent(new ProductChangedEvent(ChangeType.UPDATED,
+          products.stream().map(Product::getProductBarCode).collect(Collectors.toSet())));
     }
     subCategoryRepository.delete(subCategory);
+    eventPublisher.publishEvent(new CategoryChangedEvent(CategoryType.SUB, Set.of(subCategoryId)));
   }
 
   @Override
@@ -65,8 +88,11 @@ public class SubCategoryServiceImpl implements SubCategoryService {
   }
 
   @Override
-  public SubCategoryResponse getSubCategoryResponseByName(String subCategoryName) {
-    return subCategoryMapper.subCategoryToSubCategoryResponse(getByName(subCategoryName));
+  public SubCategoryResponse getSubCategoryResponseByName(String subCategoryName, Pageable pageable) {
+    SubCategory subCategory = getByName(subCategoryName);
+    var productNames = subCategoryRepository.findProductNamesBySubCategoryId(subCategory.getSubCategoryId(),
+        PageRequest.of(pageable.getPageNumber(), Math.min(pageable.getPageSize(), MAX_PRODUCT_NAMES)));
+    return subCategoryMapper.subCategoryToSubCategoryResponse(subCategory, productNames);
   }
 
   @Override
@@ -83,7 +109,20 @@ public class SubCategoryServiceImpl implements SubCategoryService {
 
   @Override
   public Set<SubCategory> getSetByName(String[] subCategoriesNames) {
-    return Stream.of(subCategoriesNames).map(this::getByName).collect(Collectors.toSet());
+    return getAllByNames(Arrays.asList(subCategoriesNames));
+  }
+
+  @Override
+  public Set<SubCategory> getAllByNames(Collection<String> subCategoriesNames) {
+    Set<String> names = new LinkedHashSet<>(subCategoriesNames);
+    if (names.isEmpty()) return new HashSet<>();
+
+    Set<SubCategory> subCategories = new HashSet<>(subCategoryRepository.findBySubCategoryNameIn(names));
+    Set<String> missingNames = new LinkedHashSet<>(names);
+    subCategories.forEach(subCategory -> missingNames.remove(subCategory.getSubCategoryName()));
+    if (!missingNames.isEmpty())
+      throw new ResourceNotFoundException(SUB_CATEGORIES_NOT_FOUND + ": " + String.join(", ", missingNames));
+    return subCategories;
   }
 
   @Override
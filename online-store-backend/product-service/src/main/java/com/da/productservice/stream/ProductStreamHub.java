@@ -0,0 +1,167 @@
+package com.da.productservice.stream;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PreDestroy;
+
+import com.da.productservice.dto.ProductStockChange;
+import com.da.productservice.dto.SubCategoryNode;
+import com.da.productservice.event.ProductChangedEvent;
+import com.da.productservice.repository.ProductRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Fans committed stock and price changes out to SSE subscribers. Changed barcodes are collected after commit and
+ * flushed on a short interval with one query per batch, so a burst of updates to a product becomes a single event;
+ * changes that leave stock and price untouched are not sent. A flush that fails keeps its barcodes for the next one.
+ */
+@Component
+public class ProductStreamHub {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ProductStreamHub.class);
+
+  private static final int FLUSH_BATCH_SIZE = 500;
+  /** Past this many products the last published values are dropped; at worst each product then sends one unchanged event. */
+  static final int MAX_TRACKED_PRODUCTS = 10_000;
+
+  private final ProductRepository productRepository;
+  private final long emitterTimeout;
+  private final Counter flushFailures;
+
+  private final Set<ProductStreamSubscription> subscriptions = ConcurrentHashMap.newKeySet();
+  private final Set<Long> changedBarCodes = ConcurrentHashMap.newKeySet();
+  private final Map<Long, ProductStockChange> lastPublished = new ConcurrentHashMap<>();
+  private final ScheduledExecutorService scheduler;
+  private final ExecutorService sender;
+
+  public ProductStreamHub(ProductRepository productRepository, MeterRegistry meterRegistry,
+                          @Value("${catalog.stream.flush-interval-millis:250}") long flushInterval,
+                          @Value("${catalog.stream.heartbeat-seconds:25}") long heartbeat,
+                          @Value("${catalog.stream.timeout-minutes:30}") long timeout,
+                          @Value("${catalog.stream.sender-threads:4}") int senderThreads) {
+    this.productRepository = productRepository;
+    this.emitterTimeout = TimeUnit.MINUTES.toMillis(timeout);
+    this.flushFailures = Counter.builder("catalog.stream.flush.failures")
+                                .description("Flushes of product changes that failed and were retried on the next flush")
+                                .register(meterRegistry);
+    this.scheduler = Executors.newSingleThreadScheduledExecutor(daemonThreads("product-stream-hub-"));
+    this.sender = Executors.newFixedThreadPool(senderThreads, daemonThreads("product-stream-sender-"));
+
+    scheduler.scheduleWithFixedDelay(this::flush, flushInterval, flushInterval, TimeUnit.MILLISECONDS);
+    scheduler.scheduleWithFixedDelay(this::heartbeat, heartbeat, heartbeat, TimeUnit.SECONDS);
+  }
+
+  public SseEmitter subscribe(Set<Long> productBarCodes, String mainCategoryName, String subCategoryName) {
+    var emitter = new SseEmitter(emitterTimeout);
+    subscribe(emitter, productBarCodes, mainCategoryName, subCategoryName);
+    return emitter;
+  }
+
+  void subscribe(SseEmitter emitter, Set<Long> productBarCodes, String mainCategoryName, String subCategoryName) {
+    var subscription = new ProductStreamSubscription(emitter, productBarCodes, mainCategoryName, subCategoryName, sender,
+        this::unsubscribe);
+
+    emitter.onCompletion(() -> unsubscribe(subscription));
+    emitter.onError(error -> unsubscribe(subscription));
+    emitter.onTimeout(emitter::complete);
+    subscriptions.add(subscription);
+
+    if (!productBarCodes.isEmpty())
+      productRepository.findStockChangesByBarCodes(productBarCodes).forEach(subscription::offer);
+  }
+
+  /** Without subscribers nothing is compared against the last published values, so they go with the last one. */
+  private void unsubscribe(ProductStreamSubscription subscription) {
+    subscriptions.remove(subscription);
+    if (subscriptions.isEmpty()) lastPublished.clear();
+  }
+
+  @TransactionalEventListener
+  public void onProductChanged(ProductChangedEvent event) {
+    if (subscriptions.isEmpty()) {
+      lastPublished.keySet().removeAll(event.getProductBarCodes());
+      return;
+    }
+    changedBarCodes.addAll(event.getProductBarCodes());
+  }
+
+  void flush() {
+    if (changedBarCodes.isEmpty()) return;
+
+    List<Long> productBarCodes = new ArrayList<>(changedBarCodes);
+    changedBarCodes.removeAll(productBarCodes);
+    try {
+      publish(productBarCodes);
+    } catch (RuntimeException exception) {
+      changedBarCodes.addAll(productBarCodes);
+      flushFailures.increment();
+      LOGGER.warn("Could not publish the changes of {} products, retrying on the next flush", productBarCodes.size(), exception);
+    }
+  }
+
+  private void publish(List<Long> productBarCodes) {
+    Map<Long, ProductStockChange> changes = new HashMap<>();
+    Map<Long, Set<String>> subCategoriesNames = new HashMap<>();
+    boolean needsSubCategories = subscriptions.stream().anyMatch(ProductStreamSubscription::needsSubCategories);
+
+    for (int from = 0; from < productBarCodes.size(); from += FLUSH_BATCH_SIZE) {
+      var batch = productBarCodes.subList(from, Math.min(from + FLUSH_BATCH_SIZE, productBarCodes.size()));
+      productRepository.findStockChangesByBarCodes(batch).forEach(change -> changes.put(change.getProductBarCode(), change));
+      if (needsSubCategories)
+        for (SubCategoryNode node : productRepository.findSubCategoryNodesByBarCodes(batch))
+          subCategoriesNames.computeIfAbsent(node.getParentId(), key -> new HashSet<>()).add(node.getSubCategoryName());
+    }
+
+    if (lastPublished.size() > MAX_TRACKED_PRODUCTS) lastPublished.clear();
+
+    for (Long productBarCode : productBarCodes) {
+      var change = changes.getOrDefault(productBarCode, ProductStockChange.removed(productBarCode));
+      var previous = change.isRemoved() ? lastPublished.remove(productBarCode) : lastPublished.put(productBarCode, change);
+      if (previous != null && previous.hasSameStockAndPrice(change)) continue;
+
+      var mainCategoryName = change.isRemoved() && previous != null ? previous.getMainCategoryName() : change.getMainCategoryName();
+      var names = subCategoriesNames.getOrDefault(productBarCode, Set.of());
+      subscriptions.stream()
+                   .filter(subscription -> subscription.matches(change, mainCategoryName, names))
+                   .forEach(subscription -> subscription.offer(change));
+    }
+  }
+
+  private void heartbeat() {
+    subscriptions.forEach(ProductStreamSubscription::heartbeat);
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    scheduler.shutdownNow();
+    sender.shutdownNow();
+    subscriptions.forEach(ProductStreamSubscription::complete);
+    subscriptions.clear();
+  }
+
+  private static CustomizableThreadFactory daemonThreads(String prefix) {
+    var threadFactory = new CustomizableThreadFactory(prefix);
+    threadFactory.setDaemon(true);
+    return threadFactory;
+  }
+}
@@ -0,0 +1,104 @@
+package com.da.productservice.stream;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import com.da.productservice.dto.ProductStockChange;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * One SSE client. Pending changes are keyed by barcode, so a subscriber that falls behind only ever holds
+ * the latest value per product instead of a growing queue.
+ */
+class ProductStreamSubscription {
+
+  private final SseEmitter emitter;
+  private final Set<Long> productBarCodes;
+  private final String mainCategoryName;
+  private final String subCategoryName;
+  private final Executor sender;
+  private final Consumer<ProductStreamSubscription> onClose;
+
+  private final Map<Long, ProductStockChange> pending = new ConcurrentHashMap<>();
+  private final AtomicBoolean draining = new AtomicBoolean();
+  private volatile boolean closed;
+
+  ProductStreamSubscription(SseEmitter emitter, Set<Long> productBarCodes, String mainCategoryName, String subCategoryName,
+                            Executor sender, Consumer<ProductStreamSubscription> onClose) {
+    this.emitter = emitter;
+    this.productBarCodes = productBarCodes;
+    this.mainCategoryName = mainCategoryName;
+    this.subCategoryName = subCategoryName;
+    this.sender = sender;
+    this.onClose = onClose;
+  }
+
+  boolean needsSubCategories() {
+    return subCategoryName != null;
+  }
+
+  boolean matches(ProductStockChange change, String changeMainCategoryName, Set<String> changeSubCategoriesNames) {
+    if (productBarCodes.isEmpty() && mainCategoryName == null && subCategoryName == null) return true;
+
+    return productBarCodes.contains(change.getProductBarCode())
+        || (mainCategoryName != null && mainCategoryName.equals(changeMainCategoryName))
+        || (subCategoryName != null && changeSubCategoriesNames.contains(subCategoryName));
+  }
+
+  void offer(ProductStockChange change) {
+    if (closed) return;
+
+    pending.put(change.getProductBarCode(), change);
+    if (draining.compareAndSet(false, true)) sender.execute(this::drain);
+  }
+
+  void heartbeat() {
+    if (closed) return;
+
+    try {
+      emitter.send(SseEmitter.event().comment("heartbeat"));
+    } catch (IOException | IllegalStateException exception) {
+      close(exception);
+    }
+  }
+
+  void complete() {
+    closed = true;
+    pending.clear();
+    emitter.complete();
+  }
+
+  private void drain() {
+    do {
+      try {
+        for (Long productBarCode : pending.keySet()) {
+          var change = pending.remove(productBarCode);
+          if (change == null) continue;
+
+          emitter.send(SseEmitter.event()
+                                 .id(String.valueOf(productBarCode))
+                                 .name(change.isRemoved() ? "removed" : "change")
+                                 .data(change, MediaType.APPLICATION_JSON));
+        }
+      } catch (IOException | IllegalStateException exception) {
+        close(exception);
+        return;
+      }
+      draining.set(false);
+    } while (!pending.isEmpty() && draining.compareAndSet(false, true));
+  }
+
+  private void close(Exception exception) {
+    closed = true;
+    pending.clear();
+    onClose.accept(this);
+    emitter.completeWithError(exception);
+  }
+}
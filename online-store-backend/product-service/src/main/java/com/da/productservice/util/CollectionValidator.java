@@ -5,6 +5,7 @@ import java.util.Set;
 import com.da.productservice.exception.ResourceNotFoundException;
 
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 
 public class CollectionValidator {
 
@@ -17,4 +18,9 @@ public class CollectionValidator {
 		if(!page.isEmpty()) return page;
 		throw new ResourceNotFoundException(message);
 	}
+
+	public static <T> Slice<T> throwExceptionIfSliceIsEmpty(Slice<T> slice, String message){
+		if(!slice.isEmpty()) return slice;
+		throw new ResourceNotFoundException(message);
+	}
 }
@@ -0,0 +1,9 @@
+package com.da.productservice.util;
+
+public class SearchPattern {
+
+	/** A LIKE pattern matching any value that contains the term, with the term's own wildcards escaped. */
+	public static String containing(String term){
+		return "%" + term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+	}
+}
@@ -0,0 +1,150 @@
+package com.da.productservice.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class RefreshAheadCacheTest {
+
+  private static final long TTL = 100;
+
+  AtomicLong clock;
+
+  List<Runnable> refreshes;
+
+  SimpleMeterRegistry meterRegistry;
+
+  RefreshAheadCache<String, String> cache;
+
+  AtomicInteger loads;
+
+  @BeforeEach
+  public void setUp() {
+    clock = new AtomicLong();
+    refreshes = new ArrayList<>();
+    meterRegistry = new SimpleMeterRegistry();
+    cache = new RefreshAheadCache<>("test", TTL, 0.8, 100, refreshes::add, meterRegistry, clock::get);
+    loads = new AtomicInteger();
+  }
+
+  @Test
+  public void get_LoadOnce_WhenTheEntryIsFresh() {
+    assertThat(cache.get("key", this::load)).contains("value-1");
+    clock.set(TTL / 2);
+
+    assertThat(cache.get("key", this::load)).contains("value-1");
+    assertThat(loads).hasValue(1);
+    assertThat(refreshes).isEmpty();
+  }
+
+  @Test
+  public void get_RefreshInTheBackgroundOnce_WhenARecentlyReadEntryNearsExpiry() {
+    cache.get("key", this::load);
+    clock.set(TTL * 9 / 10);
+
+    assertThat(cache.get("key", this::load)).contains("value-1");
+    assertThat(cache.get("key", this::load)).contains("value-1");
+    assertThat(refreshes).hasSize(1);
+
+    refreshes.get(0).run();
+    clock.set(TTL * 3 / 2);
+
+    assertThat(cache.get("key", this::load)).contains("value-2");
+    assertThat(loads).hasValue(2);
+    assertThat(meterRegistry.get("product.read.cache.refreshes").tag("result", "success").counter().count()).isEqualTo(1);
+  }
+
+  @Test
+  public void get_LoadAgain_WhenTheEntryExpiredUnread() {
+    cache.get("key", this::load);
+    clock.set(TTL);
+
+    assertThat(cache.get("key", this::load)).contains("value-2");
+    assertThat(refreshes).isEmpty();
+  }
+
+  @Test
+  public void get_ShareOneLoad_WhenConcurrentRequestsMissTogether() throws Exception {
+    var loading = new CountDownLatch(1);
+    var release = new CountDownLatch(1);
+    ExecutorService requests = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<Optional<String>>> results = new ArrayList<>();
+      results.add(requests.submit(() -> cache.get("key", () -> {
+        loading.countDown();
+        await(release);
+        return load();
+      })));
+      loading.await(5, TimeUnit.SECONDS);
+      for (int i = 0; i < 7; i++)
+        results.add(requests.submit(() -> cache.get("key", this::load)));
+
+      while (meterRegistry.get("product.read.cache.requests").tag("result", "coalesced").counter().count() < 7)
+        Thread.sleep(1);
+      release.countDown();
+
+      for (var result : results)
+        assertThat(result.get(5, TimeUnit.SECONDS)).contains("value-1");
+      assertThat(loads).hasValue(1);
+    } finally {
+      requests.shutdownNow();
+    }
+  }
+
+  @Test
+  public void get_RethrowToEveryWaiterAndKeepNothing_WhenTheLoadFails() {
+    assertThatThrownBy(() -> cache.get("key", () -> {
+      throw new IllegalStateException("down");
+    })).isInstanceOf(IllegalStateException.class);
+
+    assertThat(cache.get("key", this::load)).contains("value-1");
+  }
+
+  @Test
+  public void get_KeepNothing_WhenTheLoadFindsNothing() {
+    assertThat(cache.get("key", Optional::empty)).isEmpty();
+
+    assertThat(cache.get("key", this::load)).contains("value-1");
+  }
+
+  @Test
+  public void invalidateIf_DropTheMatchingEntriesAndTheRefreshesInFlight() {
+    cache.get("key", this::load);
+    cache.get("other", this::load);
+    clock.set(TTL * 9 / 10);
+    cache.get("key", this::load);
+
+    cache.invalidateIf((key, value) -> key.equals("key"));
+    refreshes.get(0).run();
+
+    assertThat(cache.get("key", this::load)).contains("value-4");
+    assertThat(cache.get("other", this::load)).contains("value-2");
+  }
+
+  private Optional<String> load() {
+    return Optional.of("value-" + loads.incrementAndGet());
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,27 @@
+package com.da.productservice.controller;
+
+import com.da.productservice.cache.ProductReadCache;
+import com.da.productservice.count.ProductCounter;
+import com.da.productservice.index.BarCodeIndex;
+import com.da.productservice.index.ProductBloomFilter;
+import com.da.productservice.index.ProductSimilarityIndex;
+import com.da.productservice.index.ProductSpellingIndex;
+import com.da.productservice.mapper.ProductMapperImpl;
+import com.da.productservice.mapper.SubCategoryMapperImpl;
+import com.da.productservice.repository.ProductInventoryRepository;
+import com.da.productservice.search.ContainingProductSearch;
+import com.da.productservice.service.MainCategoryServiceImpl;
+import com.da.productservice.service.ProductServiceImpl;
+import com.da.productservice.service.SubCategoryServiceImpl;
+
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+
+/** The catalog services behind the controllers, with their indexes and caches mocked; tests mock the repositories they stub. */
+@TestConfiguration
+@Import({ MainCategoryServiceImpl.class, SubCategoryServiceImpl.class, ProductServiceImpl.class, ProductMapperImpl.class, SubCategoryMapperImpl.class, ContainingProductSearch.class })
+@MockBean({ ProductInventoryRepository.class, BarCodeIndex.class, ProductBloomFilter.class, ProductCounter.class, ProductSimilarityIndex.class,
+            ProductSpellingIndex.class, ProductReadCache.class })
+class CatalogServicesTestConfig {
+}
@@ -0,0 +1,127 @@
+package com.da.productservice.controller;
+
+import static com.da.productservice.util.RandomEntityGenerator.createMainCategoryStaticValues;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+import java.util.Optional;
+
+import com.da.productservice.dto.GraphQLRequest;
+import com.da.productservice.dto.ProductNode;
+import com.da.productservice.dto.SubCategoryNode;
+import com.da.productservice.graphql.CatalogDataFetchers;
+import com.da.productservice.graphql.CatalogDataLoaders;
+import com.da.productservice.graphql.CatalogGraphQLConfig;
+import com.da.productservice.repository.MainCategoryRepository;
+import com.da.productservice.repository.ProductRepository;
+import com.da.productservice.repository.SubCategoryRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.BDDMockito;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+@WebMvcTest(GraphQLController.class)
+@Import({ CatalogGraphQLConfig.class, CatalogDataFetchers.class, CatalogDataLoaders.class })
+class GraphQLControllerTest {
+
+  @MockBean
+  private MainCategoryRepository mainCategoryRepository;
+
+  @MockBean
+  private SubCategoryRepository subCategoryRepository;
+
+  @MockBean
+  private ProductRepository productRepository;
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  private static final MediaType JSON = MediaType.APPLICATION_JSON;
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+  @BeforeEach
+  public void setUp() {
+    ProductNode product = new ProductNode(1L, 1023045090807L, "Samsung Galaxy J7 (2016)", "Color: Black", 199.99, 50, "CREATED", 1L);
+
+    BDDMockito.when(productRepository.findNodeByProductBarCodeOrProductName(anyLong(), anyString())).thenReturn(Optional.of(product));
+
+    BDDMockito.when(mainCategoryRepository.findAllById(any())).thenReturn(List.of(createMainCategoryStaticValues()));
+
+    BDDMockito.when(subCategoryRepository.findNodesByProductIds(any()))
+        .thenReturn(List.of(new SubCategoryNode(1L, 1L, "Sub Category 1", 1L), new SubCategoryNode(1L, 2L, "Sub Category 2", 1L)));
+  }
+
+  @Test
+  public void executeQuery_ResolveProductWithItsCategories_WhenSuccessful() throws Exception{
+    String query = "{ product(productBarCode: \"1023045090807\") { productName mainCategory { mainCategoryName } subCategories { subCategoryName } } }";
+
+    mockMvc.perform(post("/graphql").contentType(JSON)
+                                    .content(OBJECT_MAPPER.writeValueAsString(new GraphQLRequest(query, null, null)))
+                                    .accept(JSON))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(JSON))
+            .andExpect(jsonPath("$.data.product.mainCategory.mainCategoryName").value("Main Category"))
+            .andExpect(jsonPath("$.data.product.subCategories.length()").value(2));
+
+    Mockito.verify(mainCategoryRepository, Mockito.times(1)).findAllById(any());
+    Mockito.verify(subCategoryRepository, Mockito.times(1)).findNodesByProductIds(any());
+  }
+
+  @Test
+  public void executeQuery_ReturnErrors_WhenQueryIsDeeperThanTheLimit() throws Exception{
+    String query = "{ product(productName: \"product\") { mainCategory { subCategories { products { mainCategory { subCategories { subCategoryName } } } } } } }";
+
+    mockMvc.perform(post("/graphql").contentType(JSON)
+                                    .content(OBJECT_MAPPER.writeValueAsString(new GraphQLRequest(query, null, null))))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.errors").isNotEmpty());
+
+    Mockito.verifyNoInteractions(productRepository);
+  }
+
+  @Test
+  public void executeQuery_ReturnValidationError_WhenProductBarCodeIsNotANumber() throws Exception{
+    String query = "{ product(productBarCode: \"abc\") { productName } }";
+
+    mockMvc.perform(post("/graphql").contentType(JSON)
+                                    .content(OBJECT_MAPPER.writeValueAsString(new GraphQLRequest(query, null, null))))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.errors[0].message").value("The Product Bar Code must be a number"))
+            .andExpect(jsonPath("$.errors[0].extensions.classification").value("ValidationError"));
+
+    Mockito.verifyNoInteractions(productRepository);
+  }
+
+  @Test
+  public void executeQuery_CountProductPagesAtTheFetchedSize_WhenSizeIsAboveTheLimit() throws Exception{
+    BDDMockito.when(productRepository.findNodes(any())).thenReturn(List.of());
+    String query = "{ products(size: 1000) { productName } }";
+
+    mockMvc.perform(post("/graphql").contentType(JSON)
+                                    .content(OBJECT_MAPPER.writeValueAsString(new GraphQLRequest(query, null, null))))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.errors").doesNotExist());
+  }
+
+  @Test
+  public void executeQuery_Return400StatusCode_WhenQueryIsEmpty() throws Exception{
+    mockMvc.perform(post("/graphql").contentType(JSON)
+                                    .content(OBJECT_MAPPER.writeValueAsString(new GraphQLRequest())))
+            .andExpect(status().isBadRequest())
+            .andExpect(content().contentType(JSON));
+  }
+}
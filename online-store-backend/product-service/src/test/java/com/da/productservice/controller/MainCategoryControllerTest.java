@@ -19,14 +19,9 @@ import java.util.Optional;
 import com.da.productservice.entity.MainCategory;
 import com.da.productservice.entity.Product;
 import com.da.productservice.entity.SubCategory;
-import com.da.productservice.mapper.ProductMapperImpl;
-import com.da.productservice.mapper.SubCategoryMapperImpl;
 import com.da.productservice.repository.MainCategoryRepository;
 import com.da.productservice.repository.ProductRepository;
 import com.da.productservice.repository.SubCategoryRepository;
-import com.da.productservice.service.MainCategoryServiceImpl;
-import com.da.productservice.service.ProductServiceImpl;
-import com.da.productservice.service.SubCategoryServiceImpl;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -42,8 +37,8 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 
-@WebMvcTest
-@Import({ MainCategoryServiceImpl.class, ProductServiceImpl.class, ProductMapperImpl.class, SubCategoryServiceImpl.class, SubCategoryMapperImpl.class })
+@WebMvcTest(MainCategoryController.class)
+@Import(CatalogServicesTestConfig.class)
 class MainCategoryControllerTest {
 
   @MockBean
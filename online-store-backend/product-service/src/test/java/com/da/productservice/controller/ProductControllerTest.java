@@ -4,37 +4,52 @@ import static com.da.productservice.util.RandomEntityGenerator.createMainCategor
 import static com.da.productservice.util.RandomEntityGenerator.createProductInvoiceResponse;
 import static com.da.productservice.util.RandomEntityGenerator.createProductListViewStaticValues;
 import static com.da.productservice.util.RandomEntityGenerator.createProductRequest;
+import static com.da.productservice.util.RandomEntityGenerator.createProductResponseStaticValues;
+import static com.da.productservice.util.RandomEntityGenerator.createProductViewStaticValues;
 import static com.da.productservice.util.RandomEntityGenerator.createProductWithMainCategoryAndSubCategory;
 import static com.da.productservice.util.RandomEntityGenerator.createSubCategory;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
-
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import com.da.productservice.count.CountQuery;
+import com.da.productservice.cache.ProductReadCache;
+import com.da.productservice.count.ProductCounter;
+import com.da.productservice.dto.CountStrategy;
+import com.da.productservice.dto.CountedSlice;
+import com.da.productservice.dto.ProductBulkAdjustmentRequest;
+import com.da.productservice.dto.ProductBulkAdjustmentRequest.PriceAdjustment;
 import com.da.productservice.dto.ProductInvoiceResponse;
 import com.da.productservice.dto.ProductListView;
 import com.da.productservice.dto.ProductRequest;
+import com.da.productservice.dto.ProductView;
+import com.da.productservice.dto.SimilarProductResponse;
 import com.da.productservice.entity.MainCategory;
 import com.da.productservice.entity.Product;
 import com.da.productservice.entity.SubCategory;
-import com.da.productservice.mapper.ProductMapperImpl;
-import com.da.productservice.mapper.SubCategoryMapperImpl;
 import com.da.productservice.repository.MainCategoryRepository;
+import com.da.productservice.repository.ProductInventoryRepository;
 import com.da.productservice.repository.ProductRepository;
 import com.da.productservice.repository.SubCategoryRepository;
-import com.da.productservice.service.MainCategoryServiceImpl;
-import com.da.productservice.service.ProductServiceImpl;
-import com.da.productservice.service.SubCategoryServiceImpl;
+import com.da.productservice.index.ProductSimilarityIndex;
+import com.da.productservice.index.ProductSpellingIndex;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import org.hamcrest.Matchers;
@@ -47,11 +62,13 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
-@WebMvcTest
-@Import({ ProductServiceImpl.class, ProductMapperImpl.class, MainCategoryServiceImpl.class, SubCategoryServiceImpl.class, SubCategoryMapperImpl.class })
+@WebMvcTest(ProductController.class)
+@Import(CatalogServicesTestConfig.class)
 class ProductControllerTest {
 
   @MockBean
@@ -63,13 +80,30 @@ class ProductControllerTest {
   @MockBean
   private ProductRepository productRepository;
 
+  @Autowired
+  private ProductInventoryRepository productInventoryRepository;
+
+  @Autowired
+  private ProductCounter productCounter;
+
+  @Autowired
+  private ProductSimilarityIndex productSimilarityIndex;
+
+  @Autowired
+  private ProductSpellingIndex productSpellingIndex;
+
+  @Autowired
+  private ProductReadCache productReadCache;
+
   @Autowired
   private MockMvc mockMvc;
 
   private static final MediaType JSON = MediaType.APPLICATION_JSON;
+  private static final MediaType MERGE_PATCH_JSON = MediaType.parseMediaType("application/merge-patch+json");
   private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
   private static final String PRODUCT_ID = "$.productId";
   private static final String PRODUCT_BAR_CODE = "$.productBarCode";
+  private static final String COUNT_STRATEGY = "X-Count-Strategy";
 
   @BeforeEach
   public void setUp() {
@@ -90,13 +124,18 @@ class ProductControllerTest {
 
     BDDMockito.when(subCategoryRespository.findBySubCategoryName(anyString())).thenReturn(subCategory);
 
+    BDDMockito.when(subCategoryRespository.findBySubCategoryNameIn(any()))
+              .thenAnswer(invocation -> invocation.<Collection<String>>getArgument(0).stream()
+                                                  .map(name -> SubCategory.builder().subCategoryName(name).mainCategory(mainCategory.get()).build())
+                                                  .collect(Collectors.toList()));
+
     BDDMockito.when(productRepository.save(any(Product.class))).thenReturn(product);
 
     BDDMockito.when(productRepository.findById(anyLong())).thenReturn(Optional.of(product));
 
-    BDDMockito.when(productRepository.updateStockByBarCode(anyInt(), anyLong())).thenReturn(1);
+    BDDMockito.when(productInventoryRepository.updateStockByBarCode(anyInt(), anyLong())).thenReturn(1);
 
-    BDDMockito.when(productRepository.findByProductBarCodeOrProductName(anyLong(), anyString())).thenReturn(Optional.of(product));
+    BDDMockito.when(productRepository.findResponseByProductBarCodeOrProductName(anyLong(), anyString())).thenReturn(Optional.of(createProductResponseStaticValues()));
 
     BDDMockito.when(productRepository.findForInvoice(anyLong(), anyString())).thenReturn(Optional.of(productInvoiceResponse));
 
@@ -110,9 +149,21 @@ class ProductControllerTest {
 
     BDDMockito.when(productRepository.findBySubCategory(any(SubCategory.class))).thenReturn(listOfProducts);
 
-    BDDMockito.when(productRepository.findByProductName(anyString())).thenReturn(Optional.of(product));
+    BDDMockito.when(productRepository.findViewByProductName(anyString())).thenReturn(Optional.of(createProductViewStaticValues()));
 
     BDDMockito.when(productRepository.findByProductNameContainingIgnoreCase(anyString(), any(PageRequest.class))).thenReturn(pageOfProducts);
+
+    BDDMockito.when(productRepository.findBarCodesByMainCategoryName(anyString())).thenReturn(List.of(1023045090807L));
+
+    BDDMockito.when(productInventoryRepository.findBarCodesWithAdjustableStock(any(), any())).thenReturn(List.of(1023045090807L));
+
+    BDDMockito.when(productInventoryRepository.adjustStockByBarCodes(any(), any())).thenReturn(1);
+
+    BDDMockito.when(productReadCache.getForInvoice(anyLong(), anyString(), any()))
+              .thenAnswer(invocation -> invocation.<Supplier<Optional<ProductInvoiceResponse>>>getArgument(2).get());
+
+    BDDMockito.when(productReadCache.getView(anyString(), any()))
+              .thenAnswer(invocation -> invocation.<Supplier<Optional<ProductView>>>getArgument(1).get());
   }
 
   @Test
@@ -126,6 +177,39 @@ class ProductControllerTest {
             .andExpect(jsonPath(PRODUCT_BAR_CODE, Matchers.isA(Long.class)));
   }
 
+  @Test
+  public void createProduct_Return409StatusCode_WhenASimilarProductExists() throws Exception{
+    BDDMockito.when(productSimilarityIndex.findDuplicates(anyString(), any()))
+        .thenReturn(List.of(new SimilarProductResponse(1023045090807L, "Logitech G203 Prodigy", 0.9)));
+
+    mockMvc.perform(post("/products").param("checkDuplicates", "true").contentType(JSON)
+                                      .content(OBJECT_MAPPER.writeValueAsString(createProductRequest())))
+            .andExpect(status().isConflict())
+            .andExpect(content().contentType(JSON));
+  }
+
+  @Test
+  public void createProduct_Return201StatusCode_WhenASimilarProductExistsButDuplicatesAreNotChecked() throws Exception{
+    BDDMockito.when(productSimilarityIndex.findDuplicates(anyString(), any()))
+        .thenReturn(List.of(new SimilarProductResponse(1023045090807L, "Logitech G203 Prodigy", 0.9)));
+
+    mockMvc.perform(post("/products").contentType(JSON)
+                                      .content(OBJECT_MAPPER.writeValueAsString(createProductRequest()))
+                                      .accept(JSON))
+            .andExpect(status().isCreated());
+  }
+
+  @Test
+  public void getSimilarProducts_Return200StatusCode_WhenSuccessful() throws Exception{
+    BDDMockito.when(productSimilarityIndex.isLoaded()).thenReturn(true);
+    BDDMockito.when(productSimilarityIndex.findSimilar(anyLong(), anyInt()))
+        .thenReturn(Optional.of(List.of(new SimilarProductResponse(1023045090807L, "Logitech G203 Prodigy", 0.9))));
+
+    mockMvc.perform(get("/products/1/similar").accept(JSON))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].productName").value("Logitech G203 Prodigy"));
+  }
+
   @Test
   public void createProduct_Return404StatusCode_WhenMainCategoryWasNotFound() throws Exception{
     BDDMockito.when(mainCategoryRepository.findByMainCategoryName(anyString())).thenReturn(Optional.empty());
@@ -146,7 +230,7 @@ class ProductControllerTest {
 
   @Test
   public void createProduct_Return404StatusCode_WhenSubCategoryWasNotFound() throws Exception{
-    BDDMockito.when(subCategoryRespository.findBySubCategoryName(anyString())).thenReturn(Optional.empty());
+    BDDMockito.doReturn(List.of()).when(subCategoryRespository).findBySubCategoryNameIn(any());
 
     mockMvc.perform(post("/products").contentType(JSON)
                                       .content(OBJECT_MAPPER.writeValueAsString(createProductRequest())))
@@ -165,6 +249,24 @@ class ProductControllerTest {
             .andExpect(jsonPath(PRODUCT_BAR_CODE, Matchers.isA(Long.class)));
   }
 
+  @Test
+  public void patchProduct_Return200StatusCode_WhenSuccessful() throws Exception{
+    mockMvc.perform(patch("/products/1").contentType(MERGE_PATCH_JSON)
+                                        .content("{\"productPrice\": 149.99, \"productDescription\": null}")
+                                        .accept(JSON))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(JSON))
+            .andExpect(jsonPath(PRODUCT_ID, Matchers.isA(Integer.class)));
+  }
+
+  @Test
+  public void patchProduct_Return400StatusCode_WhenARequiredFieldIsRemoved() throws Exception{
+    mockMvc.perform(patch("/products/1").contentType(MERGE_PATCH_JSON)
+                                        .content("{\"productPrice\": null}"))
+            .andExpect(status().isBadRequest())
+            .andExpect(content().contentType(JSON));
+  }
+
   @Test
   public void updateProduct_Return404StatusCode_WhenMainCategoryWasNotFound() throws Exception{
     BDDMockito.when(mainCategoryRepository.findByMainCategoryName(anyString())).thenReturn(Optional.empty());
@@ -177,7 +279,7 @@ class ProductControllerTest {
 
   @Test
   public void updateProduct_Return404StatusCode_WhenSubCategoryWasNotFound() throws Exception{
-    BDDMockito.when(subCategoryRespository.findBySubCategoryName(anyString())).thenReturn(Optional.empty());
+    BDDMockito.doReturn(List.of()).when(subCategoryRespository).findBySubCategoryNameIn(any());
 
     mockMvc.perform(put("/products/1").contentType(JSON)
                                       .content(OBJECT_MAPPER.writeValueAsString(createProductRequest())))
@@ -193,7 +295,7 @@ class ProductControllerTest {
 
   @Test
   public void updateProductStock_Return404StatusCode_WhenUpdateOperationsReturnsZero() throws Exception{
-    BDDMockito.when(productRepository.updateStockByBarCode(anyInt(), anyLong())).thenReturn(0);
+    BDDMockito.when(productInventoryRepository.updateStockByBarCode(anyInt(), anyLong())).thenReturn(0);
 
     mockMvc.perform(put("/products/1/stock?quantity=100"))
             .andExpect(status().isNotFound())
@@ -207,9 +309,22 @@ class ProductControllerTest {
             .andExpect(content().contentType(JSON));
   }
 
+  @Test
+  public void getProductResponses_Return200StatusCodeWithNotFoundMarkers_WhenSomeBarCodesAreMissing() throws Exception{
+    BDDMockito.when(productRepository.findResponsesByBarCodes(any())).thenReturn(List.of(createProductResponseStaticValues()));
+
+    mockMvc.perform(get("/products/responses/batch?productBarCodes=1,1023045090807").accept(JSON))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(JSON))
+            .andExpect(jsonPath("$[0].productBarCode").value(1))
+            .andExpect(jsonPath("$[0].found").value(false))
+            .andExpect(jsonPath("$[1].found").value(true))
+            .andExpect(jsonPath("$[1].product.productName").value("Samsung Galaxy J7 (2016)"));
+  }
+
   @Test
   public void getProductResponse_Return404StatusCode_WhenProductWasNotFound() throws Exception{
-    BDDMockito.when(productRepository.findByProductBarCodeOrProductName(anyLong(), anyString())).thenReturn(Optional.empty());
+    BDDMockito.when(productRepository.findResponseByProductBarCodeOrProductName(anyLong(), anyString())).thenReturn(Optional.empty());
 
     mockMvc.perform(get("/products/responses?productBarCode=1&productName=product"))
             .andExpect(status().isNotFound())
@@ -248,7 +363,21 @@ class ProductControllerTest {
   public void listAllProducts_Return200StatusCode_WhenSuccessful() throws Exception{
     mockMvc.perform(get("/products?page=0&size=10").accept(JSON))
             .andExpect(status().isOk())
-            .andExpect(content().contentType(JSON));
+            .andExpect(content().contentType(JSON))
+            .andExpect(header().string(COUNT_STRATEGY, "EXACT"));
+  }
+
+  @Test
+  public void listAllProducts_Return200StatusCodeWithoutTotal_WhenCountStrategyIsNone() throws Exception{
+    Slice<ProductListView> sliceOfProducts = new SliceImpl<>(List.of(createProductListViewStaticValues()), PageRequest.of(0, 10), true);
+    BDDMockito.when(productRepository.getAllSlice(any(PageRequest.class))).thenReturn(sliceOfProducts);
+    BDDMockito.when(productCounter.count(eq(sliceOfProducts), eq(CountStrategy.NONE), any(CountQuery.class)))
+        .thenReturn(new CountedSlice<>(sliceOfProducts, CountStrategy.NONE));
+
+    mockMvc.perform(get("/products?page=0&size=10&count=NONE").accept(JSON))
+            .andExpect(status().isOk())
+            .andExpect(header().string(COUNT_STRATEGY, "NONE"))
+            .andExpect(jsonPath("$.totalElements").doesNotExist());
   }
 
   @Test
@@ -308,7 +437,7 @@ class ProductControllerTest {
 
   @Test
   public void getProductByProductName_Return404StatusCode_WhenProductWasNotFound() throws Exception{
-    BDDMockito.when(productRepository.findByProductName(anyString())).thenReturn(Optional.empty());
+    BDDMockito.when(productRepository.findViewByProductName(anyString())).thenReturn(Optional.empty());
 
     mockMvc.perform(get("/products/names?productName=product"))
             .andExpect(status().isNotFound())
@@ -330,4 +459,56 @@ class ProductControllerTest {
             .andExpect(status().isNotFound())
             .andExpect(content().contentType(JSON));
   }
+
+  @Test
+  public void listByProductNameCoincidences_Return200StatusCodeWithCorrection_WhenTheNameIsMisspelled() throws Exception{
+    BDDMockito.when(productRepository.findByProductNameContainingIgnoreCase(eq("logitek mouse"), any(PageRequest.class))).thenReturn(new PageImpl<>(List.of()));
+    BDDMockito.when(productSpellingIndex.correct("logitek mouse")).thenReturn(Optional.of("logitech mouse"));
+
+    mockMvc.perform(get("/products/names/search?productName=logitek mouse&page=0&size=10").accept(JSON))
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Did-You-Mean", "logitech%20mouse"));
+  }
+
+  @Test
+  public void bulkAdjustProducts_Return200StatusCode_WhenSuccessful() throws Exception{
+    ProductBulkAdjustmentRequest request = ProductBulkAdjustmentRequest.builder().mainCategoryName("Main Category").stockDelta(10).build();
+
+    mockMvc.perform(put("/products/adjustments").contentType(JSON)
+                                                .content(OBJECT_MAPPER.writeValueAsString(request))
+                                                .accept(JSON))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(JSON))
+            .andExpect(jsonPath("$.updatedProducts", Matchers.is(1)));
+  }
+
+  @Test
+  public void bulkAdjustProducts_Return400StatusCode_WhenMoreThanOneSelectorIsGiven() throws Exception{
+    ProductBulkAdjustmentRequest request = ProductBulkAdjustmentRequest.builder()
+                                                                       .mainCategoryName("Main Category")
+                                                                       .subCategoryName("Sub Category")
+                                                                       .stockDelta(10)
+                                                                       .build();
+
+    mockMvc.perform(put("/products/adjustments").contentType(JSON)
+                                                .content(OBJECT_MAPPER.writeValueAsString(request)))
+            .andExpect(status().isBadRequest())
+            .andExpect(content().contentType(JSON));
+  }
+
+  @Test
+  public void bulkAdjustProducts_Return400StatusCode_WhenPriceAdjustmentHasNoValue() throws Exception{
+    ProductBulkAdjustmentRequest request = ProductBulkAdjustmentRequest.builder()
+                                                                       .mainCategoryName("Main Category")
+                                                                       .priceAdjustment(PriceAdjustment.PERCENTAGE)
+                                                                       .stockDelta(5)
+                                                                       .build();
+
+    mockMvc.perform(put("/products/adjustments").contentType(JSON)
+                                                .content(OBJECT_MAPPER.writeValueAsString(request)))
+            .andExpect(status().isBadRequest())
+            .andExpect(content().contentType(JSON));
+
+    BDDMockito.verify(productRepository, BDDMockito.never()).adjustPriceByBarCodes(any(), any(), any());
+  }
 }
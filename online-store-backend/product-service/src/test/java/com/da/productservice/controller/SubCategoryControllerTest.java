@@ -11,16 +11,12 @@ import java.util.Optional;
 import com.da.productservice.dto.SubCategoryRequest;
 import com.da.productservice.entity.MainCategory;
 import com.da.productservice.entity.SubCategory;
-import com.da.productservice.mapper.ProductMapperImpl;
-import com.da.productservice.mapper.SubCategoryMapperImpl;
 import com.da.productservice.repository.MainCategoryRepository;
 import com.da.productservice.repository.ProductRepository;
 import com.da.productservice.repository.SubCategoryRepository;
-import com.da.productservice.service.MainCategoryServiceImpl;
-import com.da.productservice.service.ProductServiceImpl;
-import com.da.productservice.service.SubCategoryServiceImpl;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import org.hamcrest.Matchers;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.BDDMockito;
@@ -30,14 +26,15 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 
-@WebMvcTest
-@Import({ SubCategoryServiceImpl.class, SubCategoryMapperImpl.class, MainCategoryServiceImpl.class, ProductServiceImpl.class, ProductMapperImpl.class })
+@WebMvcTest(SubCategoryController.class)
+@Import(CatalogServicesTestConfig.class)
 class SubCategoryControllerTest {
 
   @MockBean
@@ -72,6 +69,8 @@ class SubCategoryControllerTest {
     BDDMockito.when(subCategoryRepository.findAll(any(PageRequest.class))).thenReturn(new PageImpl<>(List.of(SUB_CATEGORY)));
 
     BDDMockito.when(subCategoryRepository.findBySubCategoryName(anyString())).thenReturn(Optional.of(SUB_CATEGORY));
+
+    BDDMockito.when(subCategoryRepository.findProductNamesBySubCategoryId(any(), any(Pageable.class))).thenReturn(new PageImpl<>(List.of("Product")));
   }
 
   @Test
@@ -124,7 +123,9 @@ class SubCategoryControllerTest {
   public void getSubCategoryResponseByName_Return200StatusCode_WhenSuccesful() throws Exception{
     mockMvc.perform(get("/sub-categories/subcategory").accept(JSON))
             .andExpect(status().isOk())
-            .andExpect(content().contentType(JSON));
+            .andExpect(content().contentType(JSON))
+            .andExpect(jsonPath("$.productCount", Matchers.is(1)))
+            .andExpect(jsonPath("$.products[0]", Matchers.is("Product")));
   }
 
   @Test
@@ -0,0 +1,139 @@
+package com.da.productservice.count;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.da.productservice.dto.CountStrategy;
+import com.da.productservice.dto.CountedSlice;
+import com.da.productservice.event.ProductChangedEvent;
+import com.da.productservice.event.ProductChangedEvent.ChangeType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.BDDMockito;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+public class ProductCounterTest {
+
+  @Mock
+  JdbcTemplate jdbcTemplate;
+  @Mock
+  PlatformTransactionManager transactionManager;
+
+  ProductCounter productCounter;
+
+  AtomicInteger exactCounts;
+
+  CountQuery countQuery;
+
+  Slice<String> middleSlice;
+
+  @BeforeEach
+  public void setUp() {
+    MockitoAnnotations.openMocks(this);
+    productCounter = new ProductCounter(jdbcTemplate, transactionManager, new ObjectMapper(), 60, 100);
+
+    exactCounts = new AtomicInteger();
+    countQuery = CountQuery.all(() -> 40 + exactCounts.incrementAndGet());
+    middleSlice = new SliceImpl<>(List.of("a", "b"), PageRequest.of(1, 2), true);
+  }
+
+  @Test
+  public void count_ReportExactWithoutCounting_WhenTheSliceIsTheLastOne() {
+    Slice<String> lastSlice = new SliceImpl<>(List.of("a"), PageRequest.of(2, 2), false);
+
+    CountedSlice<String> products = productCounter.count(lastSlice, CountStrategy.ESTIMATED, countQuery);
+
+    assertThat(products.getCountStrategy()).isEqualTo(CountStrategy.EXACT);
+    assertThat(((Page<String>) products.getProducts()).getTotalElements()).isEqualTo(5);
+    assertThat(exactCounts.get()).isZero();
+  }
+
+  @Test
+  public void count_ReturnTheSliceAsIs_WhenTheCountStrategyIsNone() {
+    CountedSlice<String> products = productCounter.count(middleSlice, CountStrategy.NONE, countQuery);
+
+    assertThat(products.getProducts()).isSameAs(middleSlice);
+    assertThat(products.getCountStrategy()).isEqualTo(CountStrategy.NONE);
+    assertThat(exactCounts.get()).isZero();
+  }
+
+  @Test
+  public void count_ReuseTheCachedTotalUntilAProductChanges_WhenTheCountStrategyIsCached() {
+    assertThat(total(productCounter.count(middleSlice, CountStrategy.CACHED, countQuery))).isEqualTo(41);
+    assertThat(total(productCounter.count(middleSlice, CountStrategy.CACHED, countQuery))).isEqualTo(41);
+
+    productCounter.onProductChanged(new ProductChangedEvent(ChangeType.CREATED, Set.of(1L)));
+
+    CountedSlice<String> products = productCounter.count(middleSlice, CountStrategy.CACHED, countQuery);
+    assertThat(total(products)).isEqualTo(42);
+    assertThat(products.getCountStrategy()).isEqualTo(CountStrategy.CACHED);
+  }
+
+  @Test
+  public void count_UseThePlannerRows_WhenTheCountStrategyIsEstimated() {
+    BDDMockito.when(jdbcTemplate.queryForObject(anyString(), eq(String.class), any(Object[].class)))
+        .thenReturn("[{\"Plan\": {\"Node Type\": \"Seq Scan\", \"Plan Rows\": 1200}}]");
+
+    CountedSlice<String> products = productCounter.count(middleSlice, CountStrategy.ESTIMATED, countQuery);
+
+    assertThat(products.getCountStrategy()).isEqualTo(CountStrategy.ESTIMATED);
+    assertThat(total(products)).isEqualTo(1200);
+    assertThat(exactCounts.get()).isZero();
+  }
+
+  @Test
+  public void count_FallBackToExact_WhenTheDatabaseCannotExplain() {
+    BDDMockito.when(jdbcTemplate.queryForObject(anyString(), eq(String.class), any(Object[].class)))
+        .thenThrow(new BadSqlGrammarException("explain", "EXPLAIN (FORMAT JSON) SELECT 1 FROM products", new SQLException("Syntax error")));
+
+    CountedSlice<String> products = productCounter.count(middleSlice, CountStrategy.ESTIMATED, countQuery);
+
+    assertThat(products.getCountStrategy()).isEqualTo(CountStrategy.EXACT);
+    assertThat(total(products)).isEqualTo(41);
+  }
+
+  @Test
+  public void count_ExplainInATransactionOfItsOwn_WhenTheCountStrategyIsEstimated() {
+    BDDMockito.when(jdbcTemplate.queryForObject(anyString(), eq(String.class), any(Object[].class)))
+        .thenThrow(new BadSqlGrammarException("explain", "EXPLAIN (FORMAT JSON) SELECT 1 FROM products", new SQLException("Syntax error")));
+    ArgumentCaptor<TransactionDefinition> definition = ArgumentCaptor.forClass(TransactionDefinition.class);
+
+    productCounter.count(middleSlice, CountStrategy.ESTIMATED, countQuery);
+
+    BDDMockito.verify(transactionManager).getTransaction(definition.capture());
+    BDDMockito.verify(transactionManager).rollback(any());
+    assertThat(definition.getValue().getPropagationBehavior()).isEqualTo(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    assertThat(definition.getValue().isReadOnly()).isTrue();
+  }
+
+  @Test
+  public void count_NeverReportFewerRowsThanTheSliceShowed_WhenTheEstimateIsLow() {
+    BDDMockito.when(jdbcTemplate.queryForObject(anyString(), eq(String.class), any(Object[].class)))
+        .thenReturn("[{\"Plan\": {\"Plan Rows\": 1}}]");
+
+    assertThat(total(productCounter.count(middleSlice, CountStrategy.ESTIMATED, countQuery))).isEqualTo(5);
+  }
+
+  private static long total(CountedSlice<String> products) {
+    return ((Page<String>) products.getProducts()).getTotalElements();
+  }
+}
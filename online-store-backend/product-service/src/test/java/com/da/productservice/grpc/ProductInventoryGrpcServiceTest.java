@@ -0,0 +1,150 @@
+package com.da.productservice.grpc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import com.da.productservice.dto.ProductInvoiceResponse;
+import com.da.productservice.exception.ResourceNotFoundException;
+import com.da.productservice.service.ProductService;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.BDDMockito;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+
+public class ProductInventoryGrpcServiceTest {
+
+  private static final long BAR_CODE = 1023045090807L;
+
+  @Mock
+  ProductService productService;
+
+  private Server server;
+  private ManagedChannel channel;
+
+  @BeforeEach
+  public void setUp() throws IOException {
+    MockitoAnnotations.openMocks(this);
+
+    String name = InProcessServerBuilder.generateName();
+    server = InProcessServerBuilder.forName(name).addService(new ProductInventoryGrpcService(productService)).build().start();
+    channel = InProcessChannelBuilder.forName(name).build();
+  }
+
+  @AfterEach
+  public void tearDown() {
+    channel.shutdownNow();
+    server.shutdownNow();
+  }
+
+  @Test
+  public void getPricing_ReturnProduct_WhenSuccessful() {
+    BDDMockito.when(productService.getForInvoiceResponse(anyLong(), anyString())).thenReturn(new ProductInvoiceResponse("Product", 10.95));
+
+    var response = blockingStub().getPricing(PricingRequest.newBuilder().setProductBarCode(BAR_CODE).setProductName("Product").build());
+
+    assertThat(response.getFound()).isTrue();
+    assertThat(response.getProductPrice()).isEqualTo(10.95);
+  }
+
+  @Test
+  public void getPricing_ReturnNotFound_WhenProductDoesNotExist() {
+    BDDMockito.when(productService.getForInvoiceResponse(anyLong(), anyString())).thenThrow(new ResourceNotFoundException("Product Not Found"));
+
+    var response = blockingStub().getPricing(PricingRequest.newBuilder().setProductBarCode(BAR_CODE).setProductName("Product").build());
+
+    assertThat(response.getFound()).isFalse();
+  }
+
+  @Test
+  public void reserveStock_ReturnNotReserved_WhenStockIsInsufficient() {
+    BDDMockito.when(productService.reserveStock(BAR_CODE, 50)).thenReturn(false);
+
+    var response = blockingStub().reserveStock(StockReservation.newBuilder().setProductBarCode(BAR_CODE).setQuantity(50).build());
+
+    assertThat(response.getReserved()).isFalse();
+    assertThat(response.getProductBarCode()).isEqualTo(BAR_CODE);
+  }
+
+  @Test
+  public void reserveStock_ThrowInvalidArgument_WhenQuantityIsNotPositive() {
+    var request = StockReservation.newBuilder().setProductBarCode(BAR_CODE).setQuantity(-5).build();
+
+    assertThatExceptionOfType(StatusRuntimeException.class).isThrownBy(() -> blockingStub().reserveStock(request))
+                                                           .satisfies(e -> assertThat(e.getStatus().getCode()).isEqualTo(Status.Code.INVALID_ARGUMENT));
+    BDDMockito.verify(productService, BDDMockito.never()).reserveStock(anyLong(), anyInt());
+  }
+
+  @Test
+  public void reserveStockBatch_ReserveEveryProductInOneCall_WhenSuccessful() throws Exception {
+    BDDMockito.when(productService.reserveStock(anyMap())).thenReturn(Map.of(BAR_CODE, true, 2L, false));
+    var result = new CompletableFuture<StockReservationBatchResult>();
+
+    var requestObserver = ProductInventoryGrpc.newStub(channel).withDeadlineAfter(1, TimeUnit.SECONDS).reserveStockBatch(completing(result));
+    requestObserver.onNext(StockReservation.newBuilder().setProductBarCode(BAR_CODE).setQuantity(2).build());
+    requestObserver.onNext(StockReservation.newBuilder().setProductBarCode(BAR_CODE).setQuantity(3).build());
+    requestObserver.onNext(StockReservation.newBuilder().setProductBarCode(2L).setQuantity(1).build());
+    requestObserver.onCompleted();
+
+    assertThat(result.get(1, TimeUnit.SECONDS).getResultsCount()).isEqualTo(2);
+    BDDMockito.verify(productService).reserveStock(Map.of(BAR_CODE, 5, 2L, 1));
+  }
+
+  @Test
+  public void reserveStockBatch_SkipReservations_WhenTheDeadlineExpiresBeforeTheStreamEnds() throws Exception {
+    var result = new CompletableFuture<StockReservationBatchResult>();
+
+    var requestObserver = ProductInventoryGrpc.newStub(channel).withDeadlineAfter(100, TimeUnit.MILLISECONDS).reserveStockBatch(completing(result));
+    requestObserver.onNext(StockReservation.newBuilder().setProductBarCode(BAR_CODE).setQuantity(2).build());
+    Thread.sleep(300);
+    requestObserver.onCompleted();
+
+    assertThatExceptionOfType(ExecutionException.class).isThrownBy(() -> result.get(1, TimeUnit.SECONDS))
+        .satisfies(e -> assertThat(Status.fromThrowable(e.getCause()).getCode()).isEqualTo(Status.Code.DEADLINE_EXCEEDED));
+    BDDMockito.verify(productService, BDDMockito.never()).reserveStock(anyMap());
+  }
+
+  private ProductInventoryGrpc.ProductInventoryBlockingStub blockingStub() {
+    return ProductInventoryGrpc.newBlockingStub(channel).withDeadlineAfter(1, TimeUnit.SECONDS);
+  }
+
+  private static StreamObserver<StockReservationBatchResult> completing(CompletableFuture<StockReservationBatchResult> result) {
+    return new StreamObserver<>() {
+
+      @Override
+      public void onNext(StockReservationBatchResult value) {
+        result.complete(value);
+      }
+
+      @Override
+      public void onError(Throwable throwable) {
+        result.completeExceptionally(throwable);
+      }
+
+      @Override
+      public void onCompleted() {
+        result.complete(StockReservationBatchResult.getDefaultInstance());
+      }
+    };
+  }
+}
@@ -0,0 +1,97 @@
+package com.da.productservice.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.da.productservice.dto.ProductColumns;
+import com.da.productservice.event.ProductChangedEvent;
+import com.da.productservice.event.ProductChangedEvent.ChangeType;
+import com.da.productservice.repository.ProductRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.BDDMockito;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+public class BarCodeIndexTest {
+
+  @Mock
+  ProductRepository productRepository;
+
+  BarCodeIndex barCodeIndex;
+
+  @BeforeEach
+  public void setUp() {
+    MockitoAnnotations.openMocks(this);
+    barCodeIndex = new BarCodeIndex(productRepository);
+
+    BDDMockito.when(productRepository.findColumnsAfter(anyLong(), any())).thenReturn(List.of(
+        new ProductColumns(1L, 101L, "Product 1", 300.0, 5, "CREATED", 1L),
+        new ProductColumns(2L, 0L, "Product 2", 150.0, 0, "CREATED", 1L)));
+
+    barCodeIndex.load();
+  }
+
+  @Test
+  public void findForInvoice_ReturnNameAndPrice_WhenBarCodeAndNameMatch() {
+    var invoiceResponse = barCodeIndex.findForInvoice(101L, "Product 1");
+
+    assertThat(invoiceResponse).isPresent();
+    assertThat(invoiceResponse.get().getProductPrice()).isEqualTo(300.0);
+    assertThat(barCodeIndex.findForInvoice(0L, "Product 2")).isPresent();
+  }
+
+  @Test
+  public void findForInvoice_ReturnEmpty_WhenNameDoesNotMatch() {
+    assertThat(barCodeIndex.findForInvoice(101L, "Product 2")).isEmpty();
+    assertThat(barCodeIndex.findForInvoice(999L, "Product 1")).isEmpty();
+  }
+
+  @Test
+  public void onProductChanged_UpdateAndRemoveBarCodes_WhenProductsChange() {
+    BDDMockito.when(productRepository.findColumnsByBarCodes(anyCollection())).thenReturn(List.of(
+        new ProductColumns(3L, 103L, "Product 3", 80.0, 1, "CREATED", 1L)));
+
+    barCodeIndex.onProductChanged(new ProductChangedEvent(ChangeType.UPDATED, Set.of(101L, 103L)));
+
+    assertThat(barCodeIndex.contains(101L)).isFalse();
+    assertThat(barCodeIndex.findForInvoice(103L, "Product 3")).isPresent();
+    assertThat(barCodeIndex.size()).isEqualTo(2);
+  }
+
+  @Test
+  public void onProductChanged_SkipTheReload_WhenOnlyTheStockChanged() {
+    barCodeIndex.onProductChanged(new ProductChangedEvent(ChangeType.STOCK, Set.of(101L)));
+
+    BDDMockito.verify(productRepository, BDDMockito.never()).findColumnsByBarCodes(anyCollection());
+    assertThat(barCodeIndex.contains(101L)).isTrue();
+  }
+
+  @Test
+  public void longIntHashMap_KeepEveryEntryReachable_WhenKeysAreRemovedAndResized() {
+    LongIntHashMap map = new LongIntHashMap(4);
+    Map<Long, Integer> expected = new HashMap<>();
+    for (int i = 0; i < 5000; i++) {
+      long key = (i * 7919L) - 2500;
+      map.put(key, i);
+      expected.put(key, i);
+    }
+    for (int i = 0; i < 5000; i += 3) {
+      long key = (i * 7919L) - 2500;
+      assertThat(map.remove(key)).isEqualTo(i);
+      expected.remove(key);
+    }
+
+    assertThat(map.size()).isEqualTo(expected.size());
+    expected.forEach((key, value) -> assertThat(map.get(key)).isEqualTo(value));
+    assertThat(map.get(-2500L)).isEqualTo(LongIntHashMap.MISSING);
+  }
+}
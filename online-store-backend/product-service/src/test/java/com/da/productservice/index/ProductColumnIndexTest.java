@@ -0,0 +1,144 @@
+package com.da.productservice.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.da.productservice.dto.CatalogLink;
+import com.da.productservice.dto.ProductColumns;
+import com.da.productservice.dto.ProductFilterRequest.PriceSort;
+import com.da.productservice.event.ProductChangedEvent;
+import com.da.productservice.event.ProductChangedEvent.ChangeType;
+import com.da.productservice.exception.InvalidQueryException;
+import com.da.productservice.repository.ProductRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.BDDMockito;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+public class ProductColumnIndexTest {
+
+  @Mock
+  ProductRepository productRepository;
+
+  ProductColumnIndex productColumnIndex;
+
+  private static final Map<String, Long> SUB_CATEGORY_IDS = Map.of("Gaming Accessories", 10L, "Mice", 20L, "Keyboards", 30L);
+
+  @BeforeEach
+  public void setUp() {
+    MockitoAnnotations.openMocks(this);
+    productColumnIndex = new ProductColumnIndex(productRepository);
+
+    BDDMockito.when(productRepository.findColumnsAfter(anyLong(), any(Pageable.class))).thenReturn(List.of(
+        new ProductColumns(1L, 101L, "Product 1", 300.0, 5, "CREATED", 1L),
+        new ProductColumns(2L, 102L, "Product 2", 100.0, 0, "CREATED", 1L),
+        new ProductColumns(3L, 103L, "Product 3", 200.0, 8, "CREATED", 2L),
+        new ProductColumns(4L, 104L, "Product 4", 50.0, 3, "CREATED", 2L)));
+
+    BDDMockito.when(productRepository.findSubCategoryLinksByProductIds(anyCollection())).thenReturn(List.of(
+        link(1L, 10L), link(1L, 20L), link(2L, 10L), link(3L, 20L), link(4L, 30L)));
+  }
+
+  @Test
+  public void filter_ReturnProductsInPriceOrder_WhenThePriceRangeIsSorted() {
+    Page<Long> productIds = productColumnIndex.filter(ProductColumnQuery.builder()
+                                                                        .minPrice(100.0)
+                                                                        .maxPrice(300.0)
+                                                                        .priceSort(PriceSort.DESC)
+                                                                        .build(), PageRequest.of(0, 2));
+
+    assertThat(productIds.getContent()).containsExactly(1L, 3L);
+    assertThat(productIds.getTotalElements()).isEqualTo(3);
+  }
+
+  @Test
+  public void filter_IntersectSubCategoriesWithStock_WhenBothAreRequested() {
+    Page<Long> productIds = productColumnIndex.filter(ProductColumnQuery.builder()
+                                                                        .subCategoryIds(Set.of(10L, 30L))
+                                                                        .inStock(true)
+                                                                        .priceSort(PriceSort.ASC)
+                                                                        .build(), PageRequest.of(0, 10));
+
+    assertThat(productIds.getContent()).containsExactly(4L, 1L);
+  }
+
+  @Test
+  public void filter_ExcludeARemovedProduct_WhenItsChangeIsApplied() {
+    productColumnIndex.load();
+    BDDMockito.when(productRepository.findColumnsByBarCodes(anyCollection())).thenReturn(List.of());
+
+    productColumnIndex.onProductChanged(new ProductChangedEvent(ChangeType.DELETED, Set.of(101L)));
+
+    Page<Long> productIds = productColumnIndex.filter(ProductColumnQuery.builder().mainCategoryId(1L).build(), PageRequest.of(0, 10));
+
+    assertThat(productIds.getContent()).containsExactly(2L);
+  }
+
+  @Test
+  public void rebuild_KeepAChangeCommittedWhileReloading_WhenTheNewColumnsAreSwappedIn() {
+    productColumnIndex.load();
+    BDDMockito.when(productRepository.findColumnsByBarCodes(anyCollection())).thenReturn(List.of());
+    BDDMockito.when(productRepository.findColumnsAfter(anyLong(), any(Pageable.class))).thenAnswer(invocation -> {
+      // the reload has already read product 1 when its deletion is committed
+      productColumnIndex.onProductChanged(new ProductChangedEvent(ChangeType.DELETED, Set.of(101L)));
+      return List.of(
+          new ProductColumns(1L, 101L, "Product 1", 300.0, 5, "CREATED", 1L),
+          new ProductColumns(2L, 102L, "Product 2", 100.0, 0, "CREATED", 1L));
+    });
+
+    productColumnIndex.rebuild();
+
+    Page<Long> productIds = productColumnIndex.filter(ProductColumnQuery.builder().mainCategoryId(1L).build(), PageRequest.of(0, 10));
+
+    assertThat(productIds.getContent()).containsExactly(2L);
+  }
+
+  @Test
+  public void evaluate_ReturnProductIdsInOrder_WhenTheExpressionCombinesAndWithNot() {
+    Page<Long> productIds = productColumnIndex.evaluate(SubCategoryExpression.parse("Gaming Accessories AND Mice NOT Keyboards"),
+        SUB_CATEGORY_IDS, PageRequest.of(0, 10));
+
+    assertThat(productIds.getContent()).containsExactly(1L);
+  }
+
+  @Test
+  public void evaluate_ReturnTheComplement_WhenTheExpressionStartsWithNot() {
+    Page<Long> productIds = productColumnIndex.evaluate(SubCategoryExpression.parse("NOT (\"Gaming Accessories\" OR Keyboards)"),
+        SUB_CATEGORY_IDS, PageRequest.of(0, 10));
+
+    assertThat(productIds.getContent()).containsExactly(3L);
+  }
+
+  @Test
+  public void parse_ThrowInvalidQueryException_WhenAnOperandIsMissing() {
+    assertThatExceptionOfType(InvalidQueryException.class).isThrownBy(() -> SubCategoryExpression.parse("Mice AND"))
+      .withMessage("Expected a Sub Category name at the end of the expression");
+  }
+
+  private static CatalogLink link(Long parentId, Long childId) {
+    return new CatalogLink() {
+
+      @Override
+      public Long getParentId() {
+        return parentId;
+      }
+
+      @Override
+      public Long getChildId() {
+        return childId;
+      }
+    };
+  }
+}
@@ -0,0 +1,86 @@
+package com.da.productservice.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+
+import java.util.List;
+import java.util.Set;
+
+import com.da.productservice.dto.ProductText;
+import com.da.productservice.dto.SimilarProductResponse;
+import com.da.productservice.event.ProductChangedEvent;
+import com.da.productservice.event.ProductChangedEvent.ChangeType;
+import com.da.productservice.repository.ProductRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.BDDMockito;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+public class ProductSimilarityIndexTest {
+
+  private static final String MOUSE_DESCRIPTION = "Wired gaming mouse with an 8000 DPI optical sensor, LIGHTSYNC RGB lighting, "
+      + "six programmable buttons, a classic three-button design and on-board memory that keeps your settings across computers";
+
+  @Mock
+  ProductRepository productRepository;
+
+  ProductSimilarityIndex productSimilarityIndex;
+
+  @BeforeEach
+  public void setUp() {
+    MockitoAnnotations.openMocks(this);
+    productSimilarityIndex = new ProductSimilarityIndex(productRepository, 0.5, 0.85);
+
+    BDDMockito.when(productRepository.findTextsAfter(anyLong(), any())).thenReturn(List.of(
+        new ProductText(1L, 101L, "Logitech G203 Prodigy Gaming Mouse", MOUSE_DESCRIPTION),
+        new ProductText(2L, 102L, "Logitech G203 Prodigy Gaming Mouse Black", MOUSE_DESCRIPTION),
+        new ProductText(3L, 103L, "Dell UltraSharp 27 Monitor", "27 inch QHD IPS panel with USB-C hub and height adjustable stand")));
+
+    productSimilarityIndex.load();
+  }
+
+  @Test
+  public void findSimilar_ReturnOnlyTheNearDuplicate_WhenTheCatalogHasVariants() {
+    var similar = productSimilarityIndex.findSimilar(101L, 10);
+
+    assertThat(similar).isPresent();
+    assertThat(similar.get()).extracting(SimilarProductResponse::getProductBarCode).containsExactly(102L);
+    assertThat(similar.get().get(0).getSimilarity()).isGreaterThan(0.85);
+  }
+
+  @Test
+  public void findSimilar_ReturnEmptyOptional_WhenTheBarCodeIsNotIndexed() {
+    assertThat(productSimilarityIndex.findSimilar(999L, 10)).isEmpty();
+  }
+
+  @Test
+  public void findDuplicates_ReturnTheExistingVariants_WhenANewProductRepeatsThem() {
+    var duplicates = productSimilarityIndex.findDuplicates("Logitech G203 Prodigy Gaming Mouse White", MOUSE_DESCRIPTION);
+
+    assertThat(duplicates).extracting(SimilarProductResponse::getProductBarCode).containsExactlyInAnyOrder(101L, 102L);
+    assertThat(productSimilarityIndex.findDuplicates("Apple Magic Keyboard", "Wireless keyboard with numeric keypad")).isEmpty();
+  }
+
+  @Test
+  public void onProductChanged_DropTheProduct_WhenItWasDeleted() {
+    BDDMockito.when(productRepository.findTextsByBarCodes(anyCollection())).thenReturn(List.of());
+
+    productSimilarityIndex.onProductChanged(new ProductChangedEvent(ChangeType.DELETED, Set.of(102L)));
+
+    assertThat(productSimilarityIndex.size()).isEqualTo(2);
+    assertThat(productSimilarityIndex.findSimilar(101L, 10).get()).isEmpty();
+  }
+
+  @Test
+  public void similarity_EstimateJaccardSimilarity_WhenTextsOverlap() {
+    int[] signature = MinHash.signature("Logitech G203 Prodigy Gaming Mouse");
+
+    assertThat(MinHash.similarity(signature, MinHash.signature("  LOGITECH g203   Prodigy Gaming Mouse "))).isEqualTo(1.0);
+    assertThat(MinHash.similarity(signature, MinHash.signature("Dell UltraSharp 27 Monitor"))).isLessThan(0.2);
+    assertThat(MinHash.signature(" ")).isNull();
+  }
+}
@@ -0,0 +1,93 @@
+package com.da.productservice.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+
+import java.util.List;
+import java.util.Set;
+
+import com.da.productservice.dto.ProductText;
+import com.da.productservice.event.CategoryChangedEvent;
+import com.da.productservice.event.CategoryChangedEvent.CategoryType;
+import com.da.productservice.event.ProductChangedEvent;
+import com.da.productservice.event.ProductChangedEvent.ChangeType;
+import com.da.productservice.repository.MainCategoryRepository;
+import com.da.productservice.repository.ProductRepository;
+import com.da.productservice.repository.SubCategoryRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.BDDMockito;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+public class ProductSpellingIndexTest {
+
+  @Mock
+  ProductRepository productRepository;
+
+  @Mock
+  MainCategoryRepository mainCategoryRepository;
+
+  @Mock
+  SubCategoryRepository subCategoryRepository;
+
+  ProductSpellingIndex productSpellingIndex;
+
+  @BeforeEach
+  public void setUp() {
+    MockitoAnnotations.openMocks(this);
+    productSpellingIndex = new ProductSpellingIndex(productRepository, mainCategoryRepository, subCategoryRepository, 2);
+
+    BDDMockito.when(mainCategoryRepository.findAllNames()).thenReturn(List.of("Computers & Accessories"));
+    BDDMockito.when(subCategoryRepository.findAllNames()).thenReturn(List.of("Mice", "Monitors"));
+    BDDMockito.when(productRepository.findTextsAfter(anyLong(), any())).thenReturn(List.of(
+        new ProductText(1L, 101L, "Logitech G203 Prodigy Mouse", null),
+        new ProductText(2L, 102L, "Dell UltraSharp Monitor", null)));
+
+    productSpellingIndex.load();
+  }
+
+  @Test
+  public void correct_ReplaceMisspelledWords_WhenTheyAreWithinTwoEdits() {
+    assertThat(productSpellingIndex.correct("Logitek mouse")).contains("logitech mouse");
+    assertThat(productSpellingIndex.correct("acessories")).contains("accessories");
+    assertThat(productSpellingIndex.correct("moniotr")).contains("monitor");
+  }
+
+  @Test
+  public void correct_ReturnEmptyOptional_WhenEveryWordIsKnownOrOutOfReach() {
+    assertThat(productSpellingIndex.correct("logitech mouse")).isEmpty();
+    assertThat(productSpellingIndex.correct("xyzzy")).isEmpty();
+  }
+
+  @Test
+  public void onProductChanged_FollowRenamedProducts_WhenTheEventCommits() {
+    BDDMockito.when(productRepository.findTextsByBarCodes(anyCollection()))
+        .thenReturn(List.of(new ProductText(1L, 101L, "Razer DeathAdder Mouse", null)));
+
+    productSpellingIndex.onProductChanged(new ProductChangedEvent(ChangeType.UPDATED, Set.of(101L)));
+
+    assertThat(productSpellingIndex.correct("razr")).contains("razer");
+    assertThat(productSpellingIndex.correct("logitek")).isEmpty();
+  }
+
+  @Test
+  public void onCategoryChanged_FollowRenamedCategories_WhenTheEventCommits() {
+    BDDMockito.when(subCategoryRepository.findAllNames()).thenReturn(List.of("Mice", "Headphones"));
+
+    productSpellingIndex.onCategoryChanged(new CategoryChangedEvent(CategoryType.SUB, Set.of(2L)));
+
+    assertThat(productSpellingIndex.correct("headphnes")).contains("headphones");
+    assertThat(productSpellingIndex.correct("monitros")).contains("monitor");
+  }
+
+  @Test
+  public void distance_CountATranspositionAsOneEdit_WhenCharactersAreSwapped() {
+    assertThat(SymSpellDictionary.distance("moniotr", "monitor", 3)).isEqualTo(1);
+    assertThat(SymSpellDictionary.distance("logitek", "logitech", 3)).isEqualTo(2);
+    assertThat(SymSpellDictionary.distance("mouse", "monitor", 2)).isEqualTo(2);
+  }
+}
@@ -0,0 +1,38 @@
+package com.da.productservice.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+public class ScalableBloomFilterTest {
+
+  @Test
+  public void mightContain_ReturnTrueForEveryAddedKey_WhenFilterOutgrowsItsEstimate() {
+    ScalableBloomFilter filter = new ScalableBloomFilter(1024, 0.01);
+    for (long key = 0; key < 10_000; key++)
+      filter.add(key * 0x9E3779B97F4A7C15L);
+
+    for (long key = 0; key < 10_000; key++)
+      assertThat(filter.mightContain(key * 0x9E3779B97F4A7C15L)).isTrue();
+    assertThat(filter.size()).isEqualTo(10_000);
+    assertThat(filter.expectedFalsePositiveRate()).isLessThan(0.02);
+  }
+
+  @Test
+  public void mightContain_ReturnFalseForMostUnknownKeys_WhenFilterIsWithinItsEstimate() {
+    ScalableBloomFilter filter = new ScalableBloomFilter(5000, 0.01);
+    for (long key = 0; key < 5000; key++)
+      filter.add(key * 0x9E3779B97F4A7C15L);
+
+    int falsePositives = 0;
+    for (long key = 5000; key < 105_000; key++)
+      if (filter.mightContain(key * 0x9E3779B97F4A7C15L)) falsePositives++;
+
+    assertThat(falsePositives).isLessThan(2000);
+  }
+
+  @Test
+  public void normalize_CollapseCaseAndWhitespace_WhenNamesDifferOnlyInFormatting() {
+    assertThat(ProductBloomFilter.normalize("  Gaming   MOUSE ")).isEqualTo(ProductBloomFilter.normalize("gaming mouse"));
+  }
+}
@@ -0,0 +1,134 @@
+package com.da.productservice.invalidation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import javax.sql.DataSource;
+
+import com.da.productservice.event.CategoryChangedEvent;
+import com.da.productservice.event.CategoryChangedEvent.CategoryType;
+import com.da.productservice.event.ProductChangedEvent;
+import com.da.productservice.event.ProductChangedEvent.ChangeType;
+import com.da.productservice.invalidation.InvalidationBus.EntityType;
+import com.da.productservice.invalidation.InvalidationBus.Notification;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.BDDMockito;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class InvalidationBusTest {
+
+  @Mock
+  DataSource dataSource;
+
+  @Mock
+  JdbcTemplate jdbcTemplate;
+
+  @Mock
+  PlatformTransactionManager transactionManager;
+
+  @Mock
+  ApplicationEventPublisher eventPublisher;
+
+  ObjectMapper objectMapper = new ObjectMapper();
+
+  InvalidationBus invalidationBus;
+
+  @BeforeEach
+  public void setUp() {
+    MockitoAnnotations.openMocks(this);
+    BDDMockito.when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+    invalidationBus = new InvalidationBus(dataSource, jdbcTemplate, transactionManager, eventPublisher, objectMapper,
+        new SimpleMeterRegistry(), "catalog_invalidation", 10);
+  }
+
+  @Test
+  public void onProductChanged_SplitTheBarCodesOverSeveralNotifications_WhenTheyDoNotFitInOne() {
+    Set<Long> barCodes = LongStream.rangeClosed(1, InvalidationBus.MAX_KEYS_PER_NOTIFICATION + 1).boxed().collect(Collectors.toSet());
+
+    invalidationBus.onProductChanged(new ProductChangedEvent(ChangeType.UPDATED, barCodes));
+
+    ArgumentCaptor<String> payloads = ArgumentCaptor.forClass(String.class);
+    Mockito.verify(jdbcTemplate, Mockito.times(2)).queryForList(eq("SELECT pg_notify(?, ?)"), eq("catalog_invalidation"), payloads.capture());
+
+    Set<Long> sent = payloads.getAllValues().stream()
+                             .map(this::read)
+                             .peek(notification -> assertThat(notification.getEntityType()).isEqualTo(EntityType.PRODUCT))
+                             .flatMap(notification -> notification.getKeys().stream())
+                             .collect(Collectors.toSet());
+    assertThat(sent).isEqualTo(barCodes);
+  }
+
+  @Test
+  public void onProductChanged_SendNothing_WhenTheChangeCameFromAnotherReplica() {
+    invalidationBus.onProductChanged(new ProductChangedEvent(ChangeType.UPDATED, Set.of(1L), true));
+    invalidationBus.onCategoryChanged(new CategoryChangedEvent(CategoryType.SUB, Set.of(1L), true));
+
+    Mockito.verifyNoInteractions(jdbcTemplate);
+  }
+
+  @Test
+  public void receive_PublishARemoteProductChange_WhenAnotherReplicaSentIt() throws Exception {
+    invalidationBus.receive(objectMapper.writeValueAsString(new Notification("other", EntityType.PRODUCT, List.of(7L, 8L))));
+
+    ArgumentCaptor<ProductChangedEvent> event = ArgumentCaptor.forClass(ProductChangedEvent.class);
+    Mockito.verify(eventPublisher).publishEvent(event.capture());
+    Mockito.verify(transactionManager).commit(any());
+    assertThat(event.getValue().isRemote()).isTrue();
+    assertThat(event.getValue().getProductBarCodes()).containsExactlyInAnyOrder(7L, 8L);
+  }
+
+  @Test
+  public void receive_PublishARemoteStockChange_WhenAnotherReplicaSentOne() throws Exception {
+    invalidationBus.receive(objectMapper.writeValueAsString(new Notification("other", EntityType.PRODUCT_STOCK, List.of(7L))));
+
+    ArgumentCaptor<ProductChangedEvent> event = ArgumentCaptor.forClass(ProductChangedEvent.class);
+    Mockito.verify(eventPublisher).publishEvent(event.capture());
+    assertThat(event.getValue().getChangeType()).isEqualTo(ChangeType.STOCK);
+    assertThat(event.getValue().isRemote()).isTrue();
+  }
+
+  @Test
+  public void receive_PublishARemoteCategoryChange_WhenAnotherReplicaSentIt() throws Exception {
+    invalidationBus.receive(objectMapper.writeValueAsString(new Notification("other", EntityType.MAIN_CATEGORY, List.of(2L))));
+
+    ArgumentCaptor<CategoryChangedEvent> event = ArgumentCaptor.forClass(CategoryChangedEvent.class);
+    Mockito.verify(eventPublisher).publishEvent(event.capture());
+    assertThat(event.getValue().isRemote()).isTrue();
+    assertThat(event.getValue().getCategoryType()).isEqualTo(CategoryType.MAIN);
+    assertThat(event.getValue().getCategoryIds()).containsExactly(2L);
+  }
+
+  @Test
+  public void receive_IgnoreTheNotification_WhenThisReplicaSentIt() throws Exception {
+    invalidationBus.receive(objectMapper.writeValueAsString(new Notification(invalidationBus.getOrigin(), EntityType.PRODUCT, List.of(7L))));
+    invalidationBus.receive("not json");
+
+    Mockito.verify(eventPublisher, Mockito.never()).publishEvent(any(Object.class));
+  }
+
+  private Notification read(String payload) {
+    try {
+      return objectMapper.readValue(payload, Notification.class);
+    } catch (Exception e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -0,0 +1,83 @@
+package com.da.productservice.jdbc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.da.productservice.cache.ProductReadCache;
+import com.da.productservice.repository.MainCategoryRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Runs the budgeted endpoints against the seed data. A change that makes one of them execute more statements
+ * than its {@link StatementBudget} fails the request, and with it the test. The flag makes this a context of its
+ * own, so it seeds a database of its own as well.
+ */
+@SpringBootTest(properties = {"product.statements.fail-over-budget=true",
+                              "spring.datasource.url=jdbc:h2:mem:statementBudgetDB;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE"})
+@AutoConfigureMockMvc
+class StatementBudgetTest {
+
+  private static final Long BAR_CODE = 6012329632587L;
+  private static final String PRODUCT_NAME = "Samsung Gear S3 Frontier Smartwatch (Bluetooth), SM-R760NDAAXAR";
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private MainCategoryRepository mainCategoryRepository;
+
+  @Autowired
+  private ProductReadCache productReadCache;
+
+  @BeforeEach
+  public void setUp() {
+    // views read by one test would otherwise be served from memory in the next
+    productReadCache.clear();
+  }
+
+  @Test
+  void counts_statements_of_the_current_thread() {
+    try (var scope = StatementCounter.open()) {
+      mainCategoryRepository.findByMainCategoryName("Electronics");
+      mainCategoryRepository.count();
+
+      assertThat(scope.getTotal()).isEqualTo(2);
+      assertThat(scope.getByKind()).containsEntry("select", 2);
+    }
+  }
+
+  @Test
+  void product_reads_stay_within_budget() throws Exception {
+    mockMvc.perform(get("/products/responses").param("productBarCode", BAR_CODE.toString())).andExpect(status().isOk());
+    mockMvc.perform(get("/products/responses/batch").param("productBarCodes", BAR_CODE.toString(), "1")).andExpect(status().isOk());
+    mockMvc.perform(get("/products/invoices").param("productBarCode", BAR_CODE.toString()).param("productName", PRODUCT_NAME))
+           .andExpect(status().isOk());
+    mockMvc.perform(get("/products/names").param("productName", PRODUCT_NAME)).andExpect(status().isOk());
+    mockMvc.perform(get("/products")).andExpect(status().isOk());
+    mockMvc.perform(get("/products/main-categories/2")).andExpect(status().isOk());
+  }
+
+  @Test
+  void category_reads_stay_within_budget() throws Exception {
+    mockMvc.perform(get("/main-categories/Electronics")).andExpect(status().isOk());
+    mockMvc.perform(get("/main-categories")).andExpect(status().isOk());
+    mockMvc.perform(get("/sub-categories/Smartwatches")).andExpect(status().isOk());
+    mockMvc.perform(get("/sub-categories")).andExpect(status().isOk());
+  }
+
+  @Test
+  void nested_scope_counts_the_request_as_well() throws Exception {
+    try (var scope = StatementCounter.open()) {
+      mockMvc.perform(get("/products/names").param("productName", PRODUCT_NAME)).andExpect(status().isOk());
+
+      assertThat(scope.getTotal()).isEqualTo(1);
+    }
+  }
+}
@@ -0,0 +1,85 @@
+package com.da.productservice.replica;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+public class CatalogSnapshotTest {
+
+  private static final Map<Long, String> MAIN_CATEGORIES = Map.of(1L, "Main Category");
+  private static final Map<Long, String> SUB_CATEGORIES = Map.of(10L, "Mice", 20L, "Keyboards");
+
+  CatalogSnapshot snapshot;
+
+  @BeforeEach
+  public void setUp() {
+    snapshot = CatalogSnapshot.of(List.of(product(2L, 1023045000000L, "Keyboard K120", 20.0, 20L),
+                                          product(1L, 1023045090807L, "Mouse M185", 15.0, 10L)),
+                                  MAIN_CATEGORIES, SUB_CATEGORIES);
+  }
+
+  @Test
+  public void findByBarCode_ReturnTheProductWithItsCategoryNames_WhenSuccessful() {
+    CatalogProduct product = snapshot.findByBarCode(1023045090807L).orElseThrow();
+
+    assertThat(product.getProductName()).isEqualTo("Mouse M185");
+    assertThat(snapshot.getMainCategoryName(product)).isEqualTo("Main Category");
+    assertThat(snapshot.getSubCategoryNames(product)).containsExactly("Mice");
+  }
+
+  @Test
+  public void findAll_ReturnProductsOrderedById_WhenSuccessful() {
+    Page<CatalogProduct> products = snapshot.findAll(PageRequest.of(0, 10));
+
+    assertThat(products.map(CatalogProduct::getProductId).getContent()).containsExactly(1L, 2L);
+  }
+
+  @Test
+  public void withChanges_LeaveThePreviousSnapshotUntouched_WhenAProductIsReplacedAndAnotherRemoved() {
+    CatalogSnapshot next = snapshot.withChanges(List.of(product(1L, 1023045090808L, "Mouse M185", 12.5, 10L)),
+        Set.of(1023045000000L), MAIN_CATEGORIES, SUB_CATEGORIES);
+
+    assertThat(next.size()).isEqualTo(1);
+    assertThat(next.findByBarCode(1023045090807L)).isEmpty();
+    assertThat(next.findByBarCode(1023045090808L).orElseThrow().getProductPrice()).isEqualTo(12.5);
+    assertThat(next.findBySubCategoryName("Keyboards")).isEmpty();
+    assertThat(snapshot.size()).isEqualTo(2);
+    assertThat(snapshot.findByBarCode(1023045090807L)).isPresent();
+  }
+
+  @Test
+  public void findByNameContainingIgnoreCase_MatchPartOfTheName_WhenTheCaseDiffers() {
+    Page<CatalogProduct> products = snapshot.findByNameContainingIgnoreCase("mouse", PageRequest.of(0, 10));
+
+    assertThat(products.getTotalElements()).isEqualTo(1);
+  }
+
+  @Test
+  public void withDescriptionsIn_KeepEveryDescriptionOffTheHeap_WhenMovedIntoAFile(@TempDir Path directory) {
+    var descriptions = DescriptionFile.create(directory);
+
+    CatalogSnapshot moved = snapshot.withDescriptionsIn(descriptions);
+    CatalogProduct product = moved.findByBarCode(1023045090807L).orElseThrow();
+
+    assertThat(product.getProductDescription()).isNull();
+    assertThat(moved.getDescription(product)).isEqualTo("Description");
+    assertThat(moved.getDescriptionBytes()).isEqualTo(2 * "Description".length());
+    assertThat(moved.getEstimatedBytes()).isLessThan(snapshot.getEstimatedBytes());
+    assertThat(moved.getSubCategoryNames(product)).containsExactly("Mice");
+    assertThat(snapshot.getDescription(snapshot.findByBarCode(1023045090807L).orElseThrow())).isEqualTo("Description");
+  }
+
+  private static CatalogProduct product(Long productId, Long productBarCode, String productName, Double productPrice, long subCategoryId) {
+    return new CatalogProduct(productId, productBarCode, productName, "Description", productPrice, 10, "CREATED", null, null, 1L)
+        .withSubCategoryIds(new long[] { subCategoryId });
+  }
+}
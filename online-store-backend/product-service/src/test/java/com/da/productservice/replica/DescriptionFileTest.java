@@ -0,0 +1,86 @@
+package com.da.productservice.replica;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class DescriptionFileTest {
+
+  @TempDir
+  Path directory;
+
+  DescriptionFile descriptions;
+
+  @BeforeEach
+  public void setUp() {
+    descriptions = DescriptionFile.create(directory, 16);
+  }
+
+  @AfterEach
+  public void tearDown() {
+    descriptions.release();
+  }
+
+  @Test
+  public void read_ReturnWhatWasAppended_WhenTheDescriptionsFillSeveralChunks() {
+    long first = descriptions.append("Wireless mouse");
+    long second = descriptions.append("\u041c\u044b\u0448\u044c");
+    long empty = descriptions.append("");
+    long third = descriptions.append("USB-C cable");
+
+    assertThat(descriptions.read(first)).isEqualTo("Wireless mouse");
+    assertThat(descriptions.read(second)).isEqualTo("\u041c\u044b\u0448\u044c");
+    assertThat(descriptions.read(empty)).isEmpty();
+    assertThat(descriptions.read(third)).isEqualTo("USB-C cable");
+    assertThat(descriptions.getMappedBytes()).isEqualTo(48);
+  }
+
+  @Test
+  public void append_KeepTheDescriptionOnTheHeap_WhenItIsNullOrLongerThanAChunk() {
+    assertThat(descriptions.append(null)).isEqualTo(DescriptionFile.NOT_STORED);
+    assertThat(descriptions.append("A description of seventeen+ bytes")).isEqualTo(DescriptionFile.NOT_STORED);
+    assertThat(descriptions.read(DescriptionFile.NOT_STORED)).isNull();
+  }
+
+  @Test
+  public void slice_ShareTheMappedBytesReadOnly_WhenSuccessful() {
+    long reference = descriptions.append("Mouse");
+
+    ByteBuffer bytes = descriptions.slice(reference);
+
+    assertThat(bytes.isReadOnly()).isTrue();
+    assertThat(bytes.isDirect()).isTrue();
+    assertThat(StandardCharsets.UTF_8.decode(bytes).toString()).isEqualTo("Mouse");
+  }
+
+  @Test
+  public void copy_MoveTheBytesIntoAnotherFile_WhenCompacting() {
+    descriptions.append("Replaced");
+    long live = descriptions.append("Live");
+    DescriptionFile compacted = DescriptionFile.create(directory, 16);
+
+    long copied = compacted.copy(descriptions, live);
+    descriptions.release();
+
+    assertThat(compacted.read(copied)).isEqualTo("Live");
+    assertThat(compacted.getAppendedBytes()).isEqualTo(4);
+    compacted.release();
+  }
+
+  @Test
+  public void deleteStale_RemoveTheFilesOfAPreviousRun_WhenStarting() throws Exception {
+    Path stale = Files.createTempFile(directory, "descriptions-", ".bin");
+
+    DescriptionFile.deleteStale(directory);
+
+    assertThat(stale).doesNotExist();
+  }
+}
@@ -1,12 +1,14 @@
 package com.da.productservice.repository;
 
 import static com.da.productservice.util.RandomEntityGenerator.createMainCategory;
+import static com.da.productservice.util.RandomEntityGenerator.createProduct;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 
 import javax.validation.ConstraintViolationException;
 
 import com.da.productservice.entity.MainCategory;
+import com.da.productservice.entity.Product;
 
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -19,6 +21,8 @@ class MainCategoryRepositoryTest {
 
   @Autowired
   private MainCategoryRepository mainCategoryRepository;
+  @Autowired
+  private ProductRepository productRepository;
 
   @Test
   public void save_PersistMainCategory_WhenSuccessful() {
@@ -97,6 +101,19 @@ class MainCategoryRepositoryTest {
     Assertions.assertThat(mainCategoryWithUpdatedName.get().getMainCategoryName()).isEqualToIgnoringCase("TEST");
   }
 
+  @Test
+  public void updateNameOnProducts_RewritesTheDenormalizedNameOfItsProducts_WhenSuccessful() {
+    MainCategory mainCategory = mainCategoryRepository.save(createMainCategory());
+    Product product = createProduct();
+    product.setMainCategory(mainCategory);
+    productRepository.saveAndFlush(product);
+
+    int updated = mainCategoryRepository.updateNameOnProducts("TEST", mainCategory.getMainCategoryId());
+
+    assertThat(updated).isEqualTo(1);
+    Assertions.assertThat(productRepository.findViewByProductName(product.getProductName()).get().getMainCategoryName()).isEqualTo("TEST");
+  }
+
   @Test
   public void updateMainCategoryName_ReturnZero_WhenNoMainCategoryHasThatId() {
     Integer returnFromUpdateOperation = mainCategoryRepository.updateName("TEST", -1L);
@@ -0,0 +1,101 @@
+package com.da.productservice.repository;
+
+import static com.da.productservice.util.RandomEntityGenerator.createProduct;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import com.da.productservice.entity.Product;
+import com.da.productservice.entity.ProductInventory;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+@DataJpaTest
+class ProductInventoryRepositoryTest {
+
+  @Autowired
+  private ProductRepository productRepository;
+  @Autowired
+  private ProductInventoryRepository productInventoryRepository;
+
+  @Test
+  public void save_PersistInventoryWithProduct_WhenSuccessful() {
+    Product productSaved = productRepository.save(createProductWithStock(20));
+
+    ProductInventory inventory = productInventoryRepository.findById(productSaved.getProductId()).get();
+
+    assertThat(inventory.getProductStock()).isEqualTo(20);
+  }
+
+  @Test
+  public void updateProductStockByProductBarCode_ReturnAnIntegerGreaterThanZero_WhenSuccessful() {
+    Product productSaved = productRepository.save(createProductWithStock(20));
+
+    Integer returnFromUpdateOperation = productInventoryRepository.updateStockByBarCode(100,
+        productSaved.getProductBarCode());
+
+    Product productWithUpdatedStock = productRepository.findById(productSaved.getProductId()).get();
+
+    assertThat(returnFromUpdateOperation).isNotNull();
+    assertThat(returnFromUpdateOperation).isGreaterThan(0);
+    assertThat(productWithUpdatedStock.getProductStock()).isEqualTo(120);
+  }
+
+  @Test
+  public void updateProductStockByProductBarCode_ReturnZero_WhenNoProductHasThatBarCode() {
+    Integer returnFromUpdateOperation = productInventoryRepository.updateStockByBarCode(100, -1L);
+
+    assertThat(returnFromUpdateOperation).isNotNull();
+    assertThat(returnFromUpdateOperation).isEqualTo(0);
+  }
+
+  @Test
+  public void updateProductStockByProductBarCode_ReturnZero_WhenProductBarCodeIsNull() {
+    Integer returnFromUpdateOperation = productInventoryRepository.updateStockByBarCode(100, null);
+
+    assertThat(returnFromUpdateOperation).isNotNull();
+    assertThat(returnFromUpdateOperation).isEqualTo(0);
+  }
+
+  @Test
+  public void reserveStockByBarCode_TakeQuantityOutOfStock_WhenThereIsEnoughStock() {
+    Product productSaved = productRepository.save(createProductWithStock(20));
+
+    int reserved = productInventoryRepository.reserveStockByBarCode(5, productSaved.getProductBarCode());
+    int rejected = productInventoryRepository.reserveStockByBarCode(50, productSaved.getProductBarCode());
+
+    ProductInventory inventory = productInventoryRepository.findById(productSaved.getProductId()).get();
+
+    assertThat(reserved).isEqualTo(1);
+    assertThat(rejected).isEqualTo(0);
+    assertThat(inventory.getProductStock()).isEqualTo(15);
+  }
+
+  @Test
+  public void adjustStockByBarCodes_ChangeStockOfEveryMatchingProduct_WhenSuccessful() {
+    Product productSaved = productRepository.save(createProductWithStock(20));
+
+    int updated = productInventoryRepository.adjustStockByBarCodes(-5, List.of(productSaved.getProductBarCode(), -1L));
+
+    assertThat(updated).isEqualTo(1);
+    assertThat(productInventoryRepository.findById(productSaved.getProductId()).get().getProductStock()).isEqualTo(15);
+  }
+
+  @Test
+  public void adjustStockByBarCodes_LeaveStockUnchanged_WhenItWouldDropBelowZero() {
+    Product productSaved = productRepository.save(createProductWithStock(3));
+
+    int updated = productInventoryRepository.adjustStockByBarCodes(-5, List.of(productSaved.getProductBarCode()));
+
+    assertThat(updated).isEqualTo(0);
+    assertThat(productInventoryRepository.findById(productSaved.getProductId()).get().getProductStock()).isEqualTo(3);
+  }
+
+  private Product createProductWithStock(int productStock) {
+    Product product = createProduct();
+    product.setProductStock(productStock);
+    return product;
+  }
+}
@@ -0,0 +1,123 @@
+package com.da.productservice.repository;
+
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import com.da.productservice.util.SearchPattern;
+import com.da.queryplan.ExplainingDataSourcePostProcessor;
+import com.da.queryplan.PlanDataset;
+import com.da.queryplan.PlanRecorder;
+import com.da.queryplan.PlanSettings;
+import com.da.queryplan.PlanVerifier;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+/**
+ * Explains every ProductRepository query on a seeded PostgreSQL and checks the plans against the baseline, see
+ * {@link PlanSettings} for how to run it. Skipped unless {@code plan.datasource.url} is set.
+ */
+@DataJpaTest(properties = { "spring.jpa.hibernate.ddl-auto=none", "spring.datasource.initialization-mode=never",
+                            "spring.datasource.driver-class-name=org.postgresql.Driver",
+                            "spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect" })
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+@EnabledIfSystemProperty(named = PlanSettings.URL, matches = ".+")
+class ProductRepositoryPlanTest {
+
+  private static final PlanSettings SETTINGS = PlanSettings.fromSystemProperties();
+  private static final PlanRecorder RECORDER = new PlanRecorder();
+
+  private static final long MIDDLE = SETTINGS.getRows() / 2;
+  private static final Long BAR_CODE = 7000000000000L + MIDDLE;
+  private static final String PRODUCT_NAME = "Plan Product " + MIDDLE;
+  private static final String SEARCHED_NAME = "Product " + MIDDLE / 10;
+  private static final List<Long> BAR_CODES = List.of(BAR_CODE, BAR_CODE + 1, BAR_CODE + 2, 6012329632587L);
+  private static final List<Long> PRODUCT_IDS = List.of(1L, 2L, MIDDLE);
+  private static final Long MAIN_CATEGORY_ID = 2L;
+  private static final Pageable PAGE = PageRequest.of(0, 20);
+  private static final Pageable BATCH = PageRequest.of(0, 500);
+
+  @TestConfiguration
+  static class Explaining {
+
+    @Bean
+    static ExplainingDataSourcePostProcessor explainingDataSourcePostProcessor() {
+      return new ExplainingDataSourcePostProcessor(RECORDER);
+    }
+  }
+
+  @DynamicPropertySource
+  static void datasource(DynamicPropertyRegistry registry) {
+    registry.add("spring.datasource.url", SETTINGS::getUrl);
+    registry.add("spring.datasource.username", SETTINGS::getUsername);
+    registry.add("spring.datasource.password", SETTINGS::getPassword);
+  }
+
+  @BeforeAll
+  static void seed(@Autowired DataSource dataSource) {
+    PlanDataset.seed(dataSource, "query-plans/products_seed.sql", "products", SETTINGS.getRows());
+  }
+
+  @Autowired
+  private ProductRepository productRepository;
+  @Autowired
+  private SubCategoryRepository subCategoryRepository;
+
+  @Test
+  public void queries_KeepTheirBaselinePlans() {
+    var subCategory = subCategoryRepository.findBySubCategoryName("Smartwatches").orElseThrow();
+    String pattern = SearchPattern.containing(SEARCHED_NAME);
+
+    RECORDER.record("findByProductName", () -> productRepository.findByProductName(PRODUCT_NAME));
+    RECORDER.record("findByProductBarCodeOrProductName", () -> productRepository.findByProductBarCodeOrProductName(BAR_CODE, PRODUCT_NAME));
+    RECORDER.record("findViewByProductName", () -> productRepository.findViewByProductName(PRODUCT_NAME));
+    RECORDER.record("findResponseByProductBarCodeOrProductName", () -> productRepository.findResponseByProductBarCodeOrProductName(BAR_CODE, PRODUCT_NAME));
+    RECORDER.record("findResponsesByBarCodes", () -> productRepository.findResponsesByBarCodes(BAR_CODES));
+    RECORDER.record("findByMainCategoryMainCategoryId", () -> productRepository.findByMainCategoryMainCategoryId(MAIN_CATEGORY_ID));
+    RECORDER.record("findByMainCategoryMainCategoryId:paged", () -> productRepository.findByMainCategoryMainCategoryId(MAIN_CATEGORY_ID, PAGE));
+    RECORDER.record("findSliceByMainCategoryMainCategoryId", () -> productRepository.findSliceByMainCategoryMainCategoryId(MAIN_CATEGORY_ID, PAGE));
+    RECORDER.record("countByMainCategoryMainCategoryId", () -> productRepository.countByMainCategoryMainCategoryId(MAIN_CATEGORY_ID));
+    RECORDER.record("findForInvoice", () -> productRepository.findForInvoice(BAR_CODE, PRODUCT_NAME));
+    RECORDER.record("getAll", () -> productRepository.getAll(PAGE));
+    RECORDER.record("getAllSlice", () -> productRepository.getAllSlice(PAGE));
+    RECORDER.record("findByProductNameContainingIgnoreCase", () -> productRepository.findByProductNameContainingIgnoreCase(SEARCHED_NAME, PAGE));
+    RECORDER.record("findSliceByProductNameContainingIgnoreCase", () -> productRepository.findSliceByProductNameContainingIgnoreCase(SEARCHED_NAME, PAGE));
+    RECORDER.record("countByProductNameContainingIgnoreCase", () -> productRepository.countByProductNameContainingIgnoreCase(SEARCHED_NAME));
+    RECORDER.record("searchByName", () -> productRepository.searchByName(SEARCHED_NAME, pattern, PAGE));
+    RECORDER.record("searchSliceByName", () -> productRepository.searchSliceByName(SEARCHED_NAME, pattern, PAGE));
+    RECORDER.record("countSearchByName", () -> productRepository.countSearchByName(SEARCHED_NAME, pattern));
+    RECORDER.record("findBySubCategory", () -> productRepository.findBySubCategory(subCategory));
+    RECORDER.record("findStockChangesByBarCodes", () -> productRepository.findStockChangesByBarCodes(BAR_CODES));
+    RECORDER.record("findSubCategoryNodesByBarCodes", () -> productRepository.findSubCategoryNodesByBarCodes(BAR_CODES));
+    RECORDER.record("findColumnsAfter", () -> productRepository.findColumnsAfter(MIDDLE, BATCH));
+    RECORDER.record("findColumnsByBarCodes", () -> productRepository.findColumnsByBarCodes(BAR_CODES));
+    RECORDER.record("findTextsAfter", () -> productRepository.findTextsAfter(MIDDLE, BATCH));
+    RECORDER.record("findTextsByBarCodes", () -> productRepository.findTextsByBarCodes(BAR_CODES));
+    RECORDER.record("findSubCategoryLinksByProductIds", () -> productRepository.findSubCategoryLinksByProductIds(PRODUCT_IDS));
+    RECORDER.record("findCatalogProductsAfter", () -> productRepository.findCatalogProductsAfter(MIDDLE, BATCH));
+    RECORDER.record("findCatalogProductsByBarCodes", () -> productRepository.findCatalogProductsByBarCodes(BAR_CODES));
+    RECORDER.record("findBarCodesByMainCategoryName", () -> productRepository.findBarCodesByMainCategoryName("Electronics"));
+    RECORDER.record("findBarCodesBySubCategoryName", () -> productRepository.findBarCodesBySubCategoryName("Smartwatches"));
+    RECORDER.record("findBarCodesWithAdjustablePrice", () -> productRepository.findBarCodesWithAdjustablePrice(1.1, 0.0, BAR_CODES));
+    RECORDER.record("findExistingBarCodes", () -> productRepository.findExistingBarCodes(BAR_CODES));
+    RECORDER.record("findNodesByProductIds", () -> productRepository.findNodesByProductIds(PRODUCT_IDS));
+    RECORDER.record("findNodeByProductBarCodeOrProductName", () -> productRepository.findNodeByProductBarCodeOrProductName(BAR_CODE, PRODUCT_NAME));
+    RECORDER.record("findNodes", () -> productRepository.findNodes(PAGE));
+    RECORDER.record("findProductLinksBySubCategoryIds", () -> productRepository.findProductLinksBySubCategoryIds(List.of(subCategory.getSubCategoryId()), 10));
+    RECORDER.record("findProductLinksByMainCategoryIds", () -> productRepository.findProductLinksByMainCategoryIds(List.of(MAIN_CATEGORY_ID), 10));
+
+    PlanVerifier.verify(RECORDER, ProductRepository.class, SETTINGS);
+  }
+}
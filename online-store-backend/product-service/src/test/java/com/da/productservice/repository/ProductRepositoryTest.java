@@ -6,10 +6,12 @@ import static com.da.productservice.util.RandomEntityGenerator.createSubCategory
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 
+import java.util.List;
 import java.util.Set;
 
 import com.da.productservice.dto.ProductInvoiceResponse;
 import com.da.productservice.dto.ProductListView;
+import com.da.productservice.dto.ProductResponse;
 import com.da.productservice.entity.MainCategory;
 import com.da.productservice.entity.Product;
 import com.da.productservice.entity.SubCategory;
@@ -161,6 +163,39 @@ class ProductRepositoryTest {
     assertThat(productFetchedByNameOrBarCode.isEmpty()).isTrue();
   }
 
+  @Test
+  public void findViewByProductName_ReturnProductViewWithCategoryNames_WhenSuccessful() {
+    MainCategory mainCategory = mainCategoryRepository.save(createMainCategory());
+    SubCategory subCategory = createSubCategory();
+    subCategory.setMainCategory(mainCategory);
+    subCategory = subCategoryRepository.save(subCategory);
+    Product product = createProduct();
+    product.setMainCategory(mainCategory);
+    product.setSubCategories(Set.of(subCategory));
+    productRepository.saveAndFlush(product);
+
+    var productView = productRepository.findViewByProductName(product.getProductName());
+    var productResponse = productRepository.findResponseByProductBarCodeOrProductName(product.getProductBarCode(), "");
+
+    assertThat(productView.isPresent()).isTrue();
+    Assertions.assertThat(productView.get().getMainCategoryName()).isEqualTo(mainCategory.getMainCategoryName());
+    Assertions.assertThat(productView.get().getSubCategories()).containsExactly(subCategory.getSubCategoryName());
+    assertThat(productResponse.isPresent()).isTrue();
+    Assertions.assertThat(productResponse.get().getProductStock()).isEqualTo(product.getProductStock());
+    Assertions.assertThat(productResponse.get().getSubCategories()).containsExactly(subCategory.getSubCategoryName());
+  }
+
+  @Test
+  public void findResponsesByBarCodes_ReturnOnlyTheExistingProducts_WhenSuccessful() {
+    Product product1 = productRepository.save(createProduct());
+    Product product2 = productRepository.save(createProduct());
+
+    var products = productRepository.findResponsesByBarCodes(Set.of(product1.getProductBarCode(), product2.getProductBarCode(), -1L));
+
+    Assertions.assertThat(products).extracting(ProductResponse::getProductBarCode)
+        .containsExactlyInAnyOrder(product1.getProductBarCode(), product2.getProductBarCode());
+  }
+
   @Test
   public void findByMainCategory_ReturnProductList_WhenSuccessful() {
     Product product1 = productRepository.save(createProduct());
@@ -244,6 +279,20 @@ class ProductRepositoryTest {
     assertThat(pageOfProducts.getPageable().getPageNumber()).isEqualTo(0);
   }
 
+  @Test
+  public void getAllSlice_ReturnSliceOfProductListViewWithoutCounting_WhenSuccessful() {
+    productRepository.deleteAllInBatch();
+    productRepository.save(createProduct());
+    productRepository.save(createProduct());
+    productRepository.save(createProduct());
+
+    var sliceOfProducts = productRepository.getAllSlice(PageRequest.of(0, 2));
+
+    assertThat(sliceOfProducts.getNumberOfElements()).isEqualTo(2);
+    assertThat(sliceOfProducts.hasNext()).isTrue();
+    assertThat(productRepository.count()).isEqualTo(3);
+  }
+
   @Test
   public void getAll_ReturnEmptyPageOfProductListView_WhenThereAreNoRecordsInTheProductTable() {
     productRepository.deleteAllInBatch();
@@ -409,33 +458,41 @@ class ProductRepositoryTest {
   }
 
   @Test
-  public void updateProductStockByProductBarCode_ReturnAnIntegerGreaterThanZero_WhenSuccessful() {
-    Product productSaved = productRepository.save(createProduct());
-
-    Integer returnFromUpdateOperation = productRepository.updateStockByBarCode(100,
-        productSaved.getProductBarCode());
+  public void adjustPriceByBarCodes_RoundPricesToCents_WhenAPercentageIsApplied() {
+    Product product = createProduct();
+    product.setProductPrice(10.0);
+    Product productSaved = productRepository.save(product);
 
-    Product productWithUpdatedStock = productRepository.findById(productSaved.getProductId()).get();
+    int updated = productRepository.adjustPriceByBarCodes(1.0333, 0.0, List.of(productSaved.getProductBarCode()));
 
-    assertThat(returnFromUpdateOperation).isNotNull();
-    assertThat(returnFromUpdateOperation).isGreaterThan(0);
-    assertThat(productWithUpdatedStock.getProductStock()).isNotEqualTo(productSaved.getProductStock());
+    assertThat(updated).isEqualTo(1);
+    assertThat(productRepository.findById(productSaved.getProductId()).get().getProductPrice()).isEqualTo(10.33);
   }
 
   @Test
-  public void updateProductStockByProductBarCode_ReturnZero_WhenNoProductHasThatBarCode() {
-    Integer returnFromUpdateOperation = productRepository.updateStockByBarCode(100, -1L);
+  public void adjustPriceByBarCodes_LeavePriceUnchanged_WhenItWouldDropBelowZero() {
+    Product product = createProduct();
+    product.setProductPrice(4.99);
+    Product productSaved = productRepository.save(product);
+
+    int updated = productRepository.adjustPriceByBarCodes(1.0, -5.0, List.of(productSaved.getProductBarCode()));
 
-    assertThat(returnFromUpdateOperation).isNotNull();
-    assertThat(returnFromUpdateOperation).isEqualTo(0);
+    assertThat(updated).isEqualTo(0);
+    assertThat(productRepository.findById(productSaved.getProductId()).get().getProductPrice()).isEqualTo(4.99);
   }
 
   @Test
-  public void updateProductStockByProductBarCode_ReturnZero_WhenProductBarCodeIsNull() {
-    Integer returnFromUpdateOperation = productRepository.updateStockByBarCode(100, null);
+  public void findBarCodesWithAdjustablePrice_LeaveOutPricesThatWouldDropBelowZero_WhenSuccessful() {
+    Product cheap = createProduct();
+    cheap.setProductPrice(4.99);
+    Product expensive = createProduct();
+    expensive.setProductPrice(5.0);
+    productRepository.save(cheap);
+    productRepository.save(expensive);
+
+    var productBarCodes = productRepository.findBarCodesWithAdjustablePrice(1.0, -5.0, List.of(cheap.getProductBarCode(), expensive.getProductBarCode()));
 
-    assertThat(returnFromUpdateOperation).isNotNull();
-    assertThat(returnFromUpdateOperation).isEqualTo(0);
+    assertThat(productBarCodes).containsExactly(expensive.getProductBarCode());
   }
 
   private SubCategory createSubCategoryWithPersistedMainCategory(){
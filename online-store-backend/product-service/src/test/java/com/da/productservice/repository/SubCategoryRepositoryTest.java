@@ -18,6 +18,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.data.domain.PageRequest;
 
 @DataJpaTest
 class SubCategoryRepositoryTest {
@@ -231,6 +232,90 @@ class SubCategoryRepositoryTest {
     assertThat(returnFromUpdateOperation).isEqualTo(0);
   }
 
+  @Test
+  public void findProductNamesBySubCategoryId_ReturnCountAndPageOfNames_WhenSuccessful() {
+    SubCategory subCategorySaved = subCategoryRepository.save(createSubCategoryWithPersistedMainCategory());
+    for (int i = 0; i < 3; i++) {
+      Product product = createProduct();
+      product.setSubCategories(Set.of(subCategorySaved));
+      productRepository.save(product);
+    }
+    productRepository.flush();
+
+    var productNames = subCategoryRepository.findProductNamesBySubCategoryId(subCategorySaved.getSubCategoryId(), PageRequest.of(0, 2));
+
+    assertThat(productNames.getTotalElements()).isEqualTo(3);
+    assertThat(productNames.getContent()).hasSize(2);
+  }
+
+  @Test
+  public void findProductsBySubCategoryId_ReturnProductsWithTheirStock_WhenSuccessful() {
+    SubCategory subCategorySaved = subCategoryRepository.save(createSubCategoryWithPersistedMainCategory());
+    Product product = createProduct();
+    product.setSubCategories(Set.of(subCategorySaved));
+    productRepository.saveAndFlush(product);
+
+    var products = subCategoryRepository.findProductsBySubCategoryId(subCategorySaved.getSubCategoryId());
+
+    assertThat(products).hasSize(1);
+    assertThat(products.get(0).getProductStock()).isEqualTo(product.getProductStock());
+  }
+
+  @Test
+  public void renameOnProducts_RewritesTheDenormalizedNamesOfItsProducts_WhenSuccessful() {
+    SubCategory renamed = subCategoryRepository.save(createSubCategoryWithPersistedMainCategory());
+    SubCategory kept = subCategoryRepository.save(createSubCategoryWithPersistedMainCategory());
+    Product product = createProduct();
+    product.setSubCategories(Set.of(renamed, kept));
+    productRepository.saveAndFlush(product);
+
+    subCategoryRepository.updateName("Say \"cheese\" \\o/", renamed.getSubCategoryId());
+    int updated = subCategoryRepository.renameOnProducts(renamed.getSubCategoryId());
+
+    var productView = productRepository.findViewByProductName(product.getProductName());
+
+    assertThat(updated).isEqualTo(1);
+    Assertions.assertThat(productView.get().getSubCategories()).containsExactlyInAnyOrder("Say \"cheese\" \\o/", kept.getSubCategoryName());
+  }
+
+  @Test
+  public void renameOnProducts_LeaveOtherNamesContainingTheOldName_WhenSuccessful() {
+    SubCategory renamed = createSubCategoryWithPersistedMainCategory();
+    renamed.setSubCategoryName("Pointers");
+    renamed = subCategoryRepository.save(renamed);
+    SubCategory containing = createSubCategoryWithPersistedMainCategory();
+    containing.setSubCategoryName("Laser Pointers");
+    containing = subCategoryRepository.save(containing);
+    Product product = createProduct();
+    product.setSubCategories(Set.of(renamed, containing));
+    productRepository.saveAndFlush(product);
+
+    subCategoryRepository.updateName("Pens", renamed.getSubCategoryId());
+    subCategoryRepository.renameOnProducts(renamed.getSubCategoryId());
+
+    Assertions.assertThat(productRepository.findViewByProductName(product.getProductName()).get().getSubCategories())
+        .containsExactlyInAnyOrder("Pens", "Laser Pointers");
+  }
+
+  @Test
+  public void removeFromProducts_DropsTheNameFromTheDenormalizedNamesOfItsProducts_WhenSuccessful() {
+    SubCategory first = subCategoryRepository.save(createSubCategoryWithPersistedMainCategory());
+    SubCategory second = subCategoryRepository.save(createSubCategoryWithPersistedMainCategory());
+    Product product = createProduct();
+    product.setSubCategories(Set.of(first, second));
+    Product alone = createProduct();
+    alone.setSubCategories(Set.of(second));
+    productRepository.save(product);
+    productRepository.saveAndFlush(alone);
+
+    int updated = subCategoryRepository.removeFromProducts(second.getSubCategoryId());
+
+    assertThat(updated).isEqualTo(2);
+    Assertions.assertThat(productRepository.findViewByProductName(product.getProductName()).get().getSubCategories())
+        .containsExactly(first.getSubCategoryName());
+    Assertions.assertThat(productRepository.findViewByProductName(alone.getProductName()).get().getSubCategories()).isEmpty();
+  }
+
   private SubCategory createSubCategoryWithPersistedMainCategory(){
     SubCategory subCategory = createSubCategory();
 
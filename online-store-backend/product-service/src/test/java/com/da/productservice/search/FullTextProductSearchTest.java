@@ -0,0 +1,71 @@
+package com.da.productservice.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import com.da.productservice.dto.ProductListView;
+import com.da.productservice.dto.ProductSearchHit;
+import com.da.productservice.repository.ProductRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.BDDMockito;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+public class FullTextProductSearchTest {
+
+  @Mock
+  ProductRepository productRepository;
+
+  ProductSearch productSearch;
+
+  @BeforeEach
+  public void setUp() {
+    MockitoAnnotations.openMocks(this);
+    productSearch = new FullTextProductSearch(productRepository);
+  }
+
+  @Test
+  public void search_ReturnRankedProductListViews_WhenTheNameMatches() {
+    BDDMockito.when(productRepository.searchByName("mouse_pad", "%mouse\\_pad%", PageRequest.of(1, 5)))
+        .thenReturn(new PageImpl<>(List.of(hit("Mouse_Pad XL", 12.5)), PageRequest.of(1, 5), 6));
+
+    Page<ProductListView> products = productSearch.search("mouse_pad", PageRequest.of(1, 5, Sort.by("productPrice")));
+
+    assertThat(products.getContent()).containsExactly(new ProductListView("Mouse_Pad XL", "Description", 12.5));
+    assertThat(products.getTotalElements()).isEqualTo(6);
+  }
+
+  @Test
+  public void countQuery_CountTheSameMatches_WhenTheTotalIsExact() {
+    BDDMockito.when(productRepository.countSearchByName("mouse", "%mouse%")).thenReturn(3L);
+
+    assertThat(productSearch.countQuery("mouse").getExactCount().getAsLong()).isEqualTo(3);
+  }
+
+  private static ProductSearchHit hit(String productName, Double productPrice) {
+    return new ProductSearchHit() {
+
+      @Override
+      public String getProductName() {
+        return productName;
+      }
+
+      @Override
+      public String getProductDescription() {
+        return "Description";
+      }
+
+      @Override
+      public Double getProductPrice() {
+        return productPrice;
+      }
+    };
+  }
+}
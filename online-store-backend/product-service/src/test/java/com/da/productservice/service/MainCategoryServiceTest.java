@@ -14,6 +14,8 @@ import java.util.Set;
 import com.da.productservice.entity.MainCategory;
 import com.da.productservice.entity.Product;
 import com.da.productservice.entity.SubCategory;
+import com.da.productservice.event.CategoryChangedEvent;
+import com.da.productservice.event.CategoryChangedEvent.CategoryType;
 import com.da.productservice.exception.ResourceNotFoundException;
 import com.da.productservice.repository.MainCategoryRepository;
 import com.da.productservice.util.RandomEntityGenerator;
@@ -24,6 +26,7 @@ import org.mockito.BDDMockito;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -45,12 +48,15 @@ public class MainCategoryServiceTest {
   @Mock
   private SubCategoryService subCategoryService;
 
+  @Mock
+  private ApplicationEventPublisher eventPublisher;
+
   private MainCategoryService mainCategoryService;
 
   @BeforeEach
   public void setUp() {
     MockitoAnnotations.openMocks(this);
-    mainCategoryService = new MainCategoryServiceImpl(productService, subCategoryService, mainCategoryRepository);
+    mainCategoryService = new MainCategoryServiceImpl(productService, subCategoryService, mainCategoryRepository, eventPublisher);
 
     MainCategory mainCategory = RandomEntityGenerator.createMainCategoryStaticValues();
 
@@ -84,6 +90,8 @@ public class MainCategoryServiceTest {
     assertThat(mainCategory).isNotNull();
     assertThat(mainCategory.getMainCategoryId()).isNotNull();
     assertThat(mainCategory.getMainCategoryName()).isNotNull();
+    BDDMockito.verify(eventPublisher).publishEvent(BDDMockito.<Object>argThat(event -> event instanceof CategoryChangedEvent
+        && ((CategoryChangedEvent) event).getCategoryType() == CategoryType.MAIN));
   }
 
   @Test
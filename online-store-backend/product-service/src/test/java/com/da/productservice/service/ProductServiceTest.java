@@ -4,42 +4,76 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatCode;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anySet;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
+import com.da.productservice.cache.ProductReadCache;
+import com.da.productservice.count.CountQuery;
+import com.da.productservice.count.ProductCounter;
 import com.da.productservice.entity.MainCategory;
 import com.da.productservice.entity.Product;
 import com.da.productservice.entity.SubCategory;
+import com.da.productservice.event.ProductChangedEvent;
+import com.da.productservice.event.ProductChangedEvent.ChangeType;
+import com.da.productservice.exception.DuplicateProductException;
+import com.da.productservice.exception.InvalidQueryException;
 import com.da.productservice.exception.ResourceNotFoundException;
+import com.da.productservice.index.BarCodeIndex;
+import com.da.productservice.index.ProductBloomFilter;
+import com.da.productservice.index.ProductSimilarityIndex;
+import com.da.productservice.index.ProductSpellingIndex;
 import com.da.productservice.mapper.ProductMapper;
+import com.da.productservice.repository.ProductInventoryRepository;
 import com.da.productservice.repository.ProductRepository;
+import com.da.productservice.search.ContainingProductSearch;
 import com.da.productservice.util.RandomEntityGenerator;
+import com.da.productservice.dto.CountStrategy;
+import com.da.productservice.dto.CountedSlice;
+import com.da.productservice.dto.ProductBulkAdjustmentRequest;
+import com.da.productservice.dto.ProductBulkAdjustmentRequest.PriceAdjustment;
+import com.da.productservice.dto.ProductBulkAdjustmentResponse;
 import com.da.productservice.dto.ProductInvoiceResponse;
 import com.da.productservice.dto.ProductListView;
+import com.da.productservice.dto.ProductLookupResponse;
+import com.da.productservice.dto.ProductPatchRequest;
 import com.da.productservice.dto.ProductRequest;
 import com.da.productservice.dto.ProductResponse;
 import com.da.productservice.dto.ProductView;
+import com.da.productservice.dto.SimilarProductResponse;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.AdditionalMatchers;
 import org.mockito.BDDMockito;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.transaction.annotation.Transactional;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 @ExtendWith(SpringExtension.class)
 @SpringBootTest
 @Transactional
@@ -55,15 +89,38 @@ public class ProductServiceTest {
   @Mock
   ProductRepository productRepository;
 
+  @Mock
+  ProductInventoryRepository productInventoryRepository;
+
   @Mock
   ProductMapper productMapper;
 
+  @Mock
+  ApplicationEventPublisher eventPublisher;
+
+  @Mock
+  BarCodeIndex barCodeIndex;
+
+  @Mock
+  ProductBloomFilter productBloomFilter;
+
+  @Mock
+  ProductCounter productCounter;
+
+  @Mock
+  ProductSimilarityIndex productSimilarityIndex;
+
+  @Mock
+  ProductSpellingIndex productSpellingIndex;
+
   ProductService productService;
 
   @BeforeEach
   public void setUp() {
     MockitoAnnotations.openMocks(this);
-    productService = new ProductServiceImpl(subCategoryService, productRepository, productMapper);
+    productService = new ProductServiceImpl(subCategoryService, productRepository, productInventoryRepository, productMapper, eventPublisher, barCodeIndex, productBloomFilter, productCounter,
+                                            new ContainingProductSearch(productRepository), productSimilarityIndex,
+                                            productSpellingIndex, new ProductReadCache(new SimpleMeterRegistry(), 0, 0.8, 100));
 
     Set<SubCategory> subCategories = Set.of(RandomEntityGenerator.createSubCategory(), RandomEntityGenerator.createSubCategory());
 
@@ -87,11 +144,11 @@ public class ProductServiceTest {
 
     BDDMockito.when(productMapper.productToProductResponse(any(Product.class))).thenReturn(productResponse);
 
-    BDDMockito.when(productRepository.updateStockByBarCode(anyInt(), anyLong())).thenReturn(1);
+    BDDMockito.when(productInventoryRepository.updateStockByBarCode(anyInt(), anyLong())).thenReturn(1);
 
     BDDMockito.doNothing().when(productRepository).delete(any(Product.class));
 
-    BDDMockito.when(productRepository.findByProductBarCodeOrProductName(anyLong(), anyString())).thenReturn(Optional.of(product));
+    BDDMockito.when(productRepository.findResponseByProductBarCodeOrProductName(anyLong(), anyString())).thenReturn(Optional.of(productResponse));
 
     BDDMockito.when(productRepository.findForInvoice(anyLong(), anyString())).thenReturn(Optional.of(productForInvoiceResponse));
 
@@ -99,9 +156,7 @@ public class ProductServiceTest {
 
     BDDMockito.when(productRepository.findByMainCategoryMainCategoryId(anyLong())).thenReturn(List.of(product));
 
-    BDDMockito.when(productRepository.findByProductName(anyString())).thenReturn(Optional.of(product));
-
-    BDDMockito.when(productMapper.productToProductView(any(Product.class))).thenReturn(productView);
+    BDDMockito.when(productRepository.findViewByProductName(anyString())).thenReturn(Optional.of(productView));
 
     BDDMockito.when(productRepository.findByProductNameContainingIgnoreCase(anyString(), any(Pageable.class))).thenReturn(productListViewPage);
 
@@ -112,11 +167,17 @@ public class ProductServiceTest {
     BDDMockito.when(subCategoryService.getSetByName(any())).thenReturn(subCategories);
 
     BDDMockito.when(productRepository.findBySubCategory(any(SubCategory.class))).thenReturn(List.of(productListView));
+
+    BDDMockito.when(productRepository.findBarCodesBySubCategoryName(anyString())).thenReturn(List.of(1023045090807L, 1023045000000L));
+
+    BDDMockito.when(productRepository.findBarCodesWithAdjustablePrice(any(), any(), any())).thenReturn(List.of(1023045090807L, 1023045000000L));
+
+    BDDMockito.when(productRepository.adjustPriceByBarCodes(any(), any(), any())).thenReturn(2);
   }
 
   @Test
   public void createProduct_CreateProduct_WhenSuccessful() {
-    ProductResponse productSaved = productService.create(RandomEntityGenerator.createProductRequest(), RandomEntityGenerator.createMainCategoryStaticValues());
+    ProductResponse productSaved = productService.create(RandomEntityGenerator.createProductRequest(), RandomEntityGenerator.createMainCategoryStaticValues(), false);
 
     assertThat(productSaved).isNotNull();
     assertThat(productSaved.getProductStatus()).isEqualTo("CREATED");
@@ -125,6 +186,62 @@ public class ProductServiceTest {
     assertThat(productSaved.getSubCategories().isEmpty()).isNotNull();
   }
 
+  @Test
+  public void createProduct_SkipTheDuplicateLookup_WhenDuplicatesAreNotChecked() {
+    productService.create(RandomEntityGenerator.createProductRequest(), RandomEntityGenerator.createMainCategoryStaticValues(), false);
+
+    BDDMockito.verify(productSimilarityIndex, BDDMockito.never()).findDuplicates(anyString(), any());
+  }
+
+  @Test
+  public void createProduct_ThrowDuplicateProductExceptionWithoutSaving_WhenASimilarProductExists() {
+    BDDMockito.when(productSimilarityIndex.findDuplicates(anyString(), any()))
+        .thenReturn(List.of(new SimilarProductResponse(1023045090807L, "Logitech G203 Prodigy", 0.9)));
+
+    assertThatExceptionOfType(DuplicateProductException.class)
+      .isThrownBy(() -> productService.create(RandomEntityGenerator.createProductRequest(), RandomEntityGenerator.createMainCategoryStaticValues(), true))
+      .withMessage("Similar Product Exists: Logitech G203 Prodigy");
+    BDDMockito.verify(productRepository, BDDMockito.never()).save(any(Product.class));
+  }
+
+  @Test
+  public void getSimilar_ThrowResourceNotFoundException_WhenTheBarCodeIsNotIndexed() {
+    BDDMockito.when(productSimilarityIndex.isLoaded()).thenReturn(true);
+
+    assertThatExceptionOfType(ResourceNotFoundException.class).isThrownBy(() -> productService.getSimilar(1L, 10))
+      .withMessage(PRODUCT_NOT_FOUND);
+  }
+
+  @Test
+  public void getProductResponsesByBarCodes_ReturnResultsInRequestOrderWithNotFoundMarkers_WhenSuccessful() {
+    ProductResponse productResponse = RandomEntityGenerator.createProductResponseStaticValues();
+    BDDMockito.when(productRepository.findResponsesByBarCodes(anyCollection())).thenReturn(List.of(productResponse));
+
+    List<ProductLookupResponse> products = productService.getProductResponsesByBarCodes(List.of(1L, productResponse.getProductBarCode(), 1L));
+
+    assertThat(products).extracting(ProductLookupResponse::getProductBarCode).containsExactly(1L, productResponse.getProductBarCode(), 1L);
+    assertThat(products).extracting(ProductLookupResponse::isFound).containsExactly(false, true, false);
+    assertThat(products.get(1).getProduct()).isEqualTo(productResponse);
+    BDDMockito.verify(productRepository).findResponsesByBarCodes(Set.of(1L, productResponse.getProductBarCode()));
+  }
+
+  @Test
+  public void getProductResponsesByBarCodes_ReturnNotFoundWithoutQuery_WhenIndexHasNoSuchBarCodes() {
+    BDDMockito.when(barCodeIndex.isLoaded()).thenReturn(true);
+
+    List<ProductLookupResponse> products = productService.getProductResponsesByBarCodes(List.of(1L, 2L));
+
+    assertThat(products).extracting(ProductLookupResponse::isFound).containsExactly(false, false);
+    BDDMockito.verify(productRepository, BDDMockito.never()).findResponsesByBarCodes(anyCollection());
+  }
+
+  @Test
+  public void getProductResponsesByBarCodes_ThrowInvalidQueryException_WhenTooManyBarCodesAreRequested() {
+    List<Long> productBarCodes = LongStream.rangeClosed(1, 101).boxed().collect(Collectors.toList());
+
+    assertThatExceptionOfType(InvalidQueryException.class).isThrownBy(() -> productService.getProductResponsesByBarCodes(productBarCodes));
+  }
+
   @Test
   public void updateProduct_UpdateAnExistingProduct_WhenSuccessful() {
     ProductResponse productUpdated = productService.update(1L, RandomEntityGenerator.createProductRequest(), RandomEntityGenerator.createMainCategoryStaticValues());
@@ -135,20 +252,90 @@ public class ProductServiceTest {
     assertThat(productUpdated.getSubCategories().isEmpty()).isNotNull();
   }
 
+  @Test
+  public void updateProduct_PublishPreviousAndNewBarCodes_WhenSuccessful() {
+    ProductRequest productRequest = RandomEntityGenerator.createProductRequest();
+    productRequest.setProductBarCode(2023045090807L);
+
+    productService.update(1L, productRequest, RandomEntityGenerator.createMainCategoryStaticValues());
+
+    BDDMockito.verify(eventPublisher).publishEvent(BDDMockito.<Object>argThat(event -> event instanceof ProductChangedEvent
+        && ((ProductChangedEvent) event).getChangeType() == ChangeType.UPDATED
+        && ((ProductChangedEvent) event).getProductBarCodes().containsAll(Set.of(1023045090807L, productRequest.getProductBarCode()))));
+  }
+
+  @Test
+  public void patchProduct_ChangeOnlyPatchedFieldsAndDiffSubCategories_WhenSuccessful() {
+    Product product = RandomEntityGenerator.createProductWithMainCategoryAndSubCategory();
+    BDDMockito.when(productRepository.findById(anyLong())).thenReturn(Optional.of(product));
+    BDDMockito.when(subCategoryService.getSetByName(any())).thenReturn(Set.of(RandomEntityGenerator.createSubCategoryStaticValues(3, product.getMainCategory())));
+
+    ProductPatchRequest productPatchRequest = new ProductPatchRequest();
+    productPatchRequest.setProductPrice(149.99);
+    productPatchRequest.setSubCategoriesNames(new String[] { "Sub Category 1", "Sub Category 3" });
+
+    productService.patch(1L, productPatchRequest, null);
+
+    assertThat(product.getProductPrice()).isEqualTo(149.99);
+    assertThat(product.getProductStock()).isEqualTo(50);
+    assertThat(product.getSubCategories()).extracting(SubCategory::getSubCategoryName).containsExactlyInAnyOrder("Sub Category 1", "Sub Category 3");
+    BDDMockito.verify(subCategoryService).getSetByName(AdditionalMatchers.aryEq(new String[] { "Sub Category 3" }));
+    BDDMockito.verify(productRepository, BDDMockito.never()).save(any(Product.class));
+  }
+
+  @Test
+  public void patchProduct_ThrowResourceNotFoundException_WhenProductNotFound() {
+    BDDMockito.when(productRepository.findById(anyLong())).thenReturn(Optional.empty());
+
+    ProductPatchRequest productPatchRequest = new ProductPatchRequest();
+    productPatchRequest.setProductPrice(149.99);
+
+    assertThatExceptionOfType(ResourceNotFoundException.class)
+      .isThrownBy(() -> productService.patch(-1L, productPatchRequest, null)).withMessage(PRODUCT_NOT_FOUND);
+  }
+
   @Test
   public void updateProductStock_UpdateStockOfAnExistingProduct_WhenSuccessful() {
     assertThatCode(() -> productService.updateStock(1L, 100)).doesNotThrowAnyException();
   }
 
+  @Test
+  public void updateProductStock_PublishAStockChange_WhenSuccessful() {
+    productService.updateStock(1L, 100);
+
+    BDDMockito.verify(eventPublisher).publishEvent(BDDMockito.<Object>argThat(event -> event instanceof ProductChangedEvent
+        && ((ProductChangedEvent) event).getChangeType() == ChangeType.STOCK
+        && ((ProductChangedEvent) event).getProductBarCodes().equals(Set.of(1L))));
+  }
+
   @Test
   public void updateProductStock_ThrowResourceNotFoundException_WhenTheReturnOfTheQueryIsLessThanOne() {
-    BDDMockito.when(productRepository.updateStockByBarCode(anyInt(), anyLong()))
+    BDDMockito.when(productInventoryRepository.updateStockByBarCode(anyInt(), anyLong()))
         .thenThrow(new ResourceNotFoundException(PRODUCT_NOT_FOUND));
 
     assertThatExceptionOfType(ResourceNotFoundException.class).isThrownBy(() -> productService.updateStock(-1L, 0))
       .withMessage(PRODUCT_NOT_FOUND);
   }
 
+  @Test
+  public void reserveProductStock_ReturnFalse_WhenTheStockIsNotEnough() {
+    BDDMockito.when(productInventoryRepository.reserveStockByBarCode(anyInt(), anyLong())).thenReturn(0);
+
+    assertThat(productService.reserveStock(1L, 100)).isFalse();
+  }
+
+  @Test
+  public void reserveProductStock_ReturnOneResultPerBarCodeInOrder_WhenSuccessful() {
+    BDDMockito.when(productInventoryRepository.reserveStockByBarCode(anyInt(), anyLong())).thenReturn(1);
+    BDDMockito.when(productInventoryRepository.reserveStockByBarCode(5, 2L)).thenReturn(0);
+
+    Map<Long, Integer> quantities = new LinkedHashMap<>();
+    quantities.put(3L, 1);
+    quantities.put(2L, 5);
+
+    assertThat(productService.reserveStock(quantities)).containsExactly(Map.entry(3L, true), Map.entry(2L, false));
+  }
+
   @Test
   public void deleteProductById_RemovesAProduct_WhenSuccessful() {
     assertThatCode(() -> productService.deleteById(1L)).doesNotThrowAnyException();
@@ -166,7 +353,7 @@ public class ProductServiceTest {
 
   @Test
   public void getProductResponseByBarCodeOrProductName_ThrowResourceNotFoundException_WhenProductNotFound() {
-    BDDMockito.when(productRepository.findByProductBarCodeOrProductName(anyLong(), anyString()))
+    BDDMockito.when(productRepository.findResponseByProductBarCodeOrProductName(anyLong(), anyString()))
         .thenThrow(new ResourceNotFoundException(PRODUCT_NOT_FOUND));
 
     assertThatExceptionOfType(ResourceNotFoundException.class)
@@ -192,6 +379,49 @@ public class ProductServiceTest {
       .isThrownBy(() -> productService.getForInvoiceResponse(-1L, "")).withMessage(PRODUCT_NOT_FOUND);
   }
 
+  @Test
+  public void getProductForInvoiceResponse_ReturnAProductInvoiceResponseFromIndex_WhenIndexIsLoaded() {
+    BDDMockito.when(barCodeIndex.isLoaded()).thenReturn(true);
+    BDDMockito.when(barCodeIndex.findForInvoice(1L, PRODUCT)).thenReturn(Optional.of(new ProductInvoiceResponse(PRODUCT, 100.0)));
+
+    ProductInvoiceResponse productForInvoiceResponse = productService.getForInvoiceResponse(1L, PRODUCT);
+
+    assertThat(productForInvoiceResponse.getProductName()).isEqualTo(PRODUCT);
+    BDDMockito.verify(productRepository, BDDMockito.never()).findForInvoice(anyLong(), anyString());
+  }
+
+  @Test
+  public void reserveStock_ReturnFalseWithoutQuery_WhenIndexHasNoSuchBarCode() {
+    BDDMockito.when(barCodeIndex.isLoaded()).thenReturn(true);
+    BDDMockito.when(barCodeIndex.contains(anyLong())).thenReturn(false);
+
+    assertThat(productService.reserveStock(-1L, 1)).isFalse();
+    BDDMockito.verify(productInventoryRepository, BDDMockito.never()).reserveStockByBarCode(anyInt(), anyLong());
+  }
+
+  @Test
+  public void reserveProductStock_SkipTheQueryForBarCodesTheIndexLacks_WhenReservingABatch() {
+    BDDMockito.when(barCodeIndex.isLoaded()).thenReturn(true);
+    BDDMockito.when(barCodeIndex.contains(3L)).thenReturn(true);
+    BDDMockito.when(productInventoryRepository.reserveStockByBarCode(anyInt(), anyLong())).thenReturn(1);
+
+    Map<Long, Integer> quantities = new LinkedHashMap<>();
+    quantities.put(3L, 1);
+    quantities.put(-1L, 1);
+
+    assertThat(productService.reserveStock(quantities)).containsExactly(Map.entry(3L, true), Map.entry(-1L, false));
+    BDDMockito.verify(productInventoryRepository, BDDMockito.never()).reserveStockByBarCode(1, -1L);
+  }
+
+  @Test
+  public void getProductViewByName_ThrowResourceNotFoundExceptionWithoutQuery_WhenBloomFilterExcludesName() {
+    BDDMockito.when(productBloomFilter.excludesName(anyString())).thenReturn(true);
+
+    assertThatExceptionOfType(ResourceNotFoundException.class)
+      .isThrownBy(() -> productService.getProductViewByName(PRODUCT)).withMessage(PRODUCT_NOT_FOUND);
+    BDDMockito.verify(productRepository, BDDMockito.never()).findViewByProductName(anyString());
+  }
+
   @Test
   public void getProductById_ReturnAProduct_WhenSuccessful() {
     Product productFetchedById = productService.getById(1L);
@@ -238,7 +468,7 @@ public class ProductServiceTest {
 
   @Test
   public void findProductViewByName_ThrowResourceNotFoundException_WhenProductNotFound() {
-    BDDMockito.when(productRepository.findByProductName(anyString())).thenThrow(new ResourceNotFoundException(PRODUCT_NOT_FOUND));
+    BDDMockito.when(productRepository.findViewByProductName(anyString())).thenThrow(new ResourceNotFoundException(PRODUCT_NOT_FOUND));
 
     assertThatExceptionOfType(ResourceNotFoundException.class).isThrownBy(() -> productService.getProductViewByName(""))
       .withMessage(PRODUCT_NOT_FOUND);
@@ -246,7 +476,7 @@ public class ProductServiceTest {
 
   @Test
   public void getProductListViewByName_ReturnAPageProductListView_WhenSuccessful() {
-    Page<ProductListView> products = productService.getListViewByName("sa", PageRequest.of(0, 10));
+    Slice<ProductListView> products = productService.getListViewByName("sa", PageRequest.of(0, 10), CountStrategy.EXACT).getProducts();
 
     assertThat(products).isNotNull();
     assertThat(products.isEmpty()).isFalse();
@@ -258,13 +488,25 @@ public class ProductServiceTest {
         .thenThrow(new ResourceNotFoundException(NO_PRODUCTS_FOUND));
 
     assertThatExceptionOfType(ResourceNotFoundException.class)
-      .isThrownBy(() -> productService.getListViewByName("?>~!#", PageRequest.of(0, 10)))
+      .isThrownBy(() -> productService.getListViewByName("?>~!#", PageRequest.of(0, 10), CountStrategy.EXACT))
       .withMessage(NO_PRODUCTS_FOUND);
   }
 
+  @Test
+  public void getPageOfProductListViewByName_SearchTheCorrectedName_WhenTheNameAsTypedMatchesNothing() {
+    BDDMockito.when(productRepository.findByProductNameContainingIgnoreCase(eq("logitek"), any(Pageable.class))).thenReturn(Page.empty());
+    BDDMockito.when(productSpellingIndex.correct("logitek")).thenReturn(Optional.of("logitech"));
+
+    CountedSlice<ProductListView> products = productService.getListViewByName("logitek", PageRequest.of(0, 10), CountStrategy.EXACT);
+
+    assertThat(products.getCorrectedQuery()).isEqualTo("logitech");
+    assertThat(products.getProducts().isEmpty()).isFalse();
+    BDDMockito.verify(productRepository).findByProductNameContainingIgnoreCase(eq("logitech"), any(Pageable.class));
+  }
+
   @Test
   public void getPageOfProductListView_ReturnAPageProductListView_WhenSuccessful() {
-    Page<ProductListView> products = productService.getListView(PageRequest.of(0, 10));
+    Slice<ProductListView> products = productService.getListView(PageRequest.of(0, 10), CountStrategy.EXACT).getProducts();
 
     assertThat(products).isNotNull();
     assertThat(products.isEmpty()).isFalse();
@@ -275,12 +517,25 @@ public class ProductServiceTest {
     BDDMockito.when(productRepository.getAll(any(Pageable.class))).thenThrow(new ResourceNotFoundException(NO_PRODUCTS_FOUND));
 
     assertThatExceptionOfType(ResourceNotFoundException.class)
-      .isThrownBy(() -> productService.getListView(PageRequest.of(0, 10))).withMessage(NO_PRODUCTS_FOUND);
+      .isThrownBy(() -> productService.getListView(PageRequest.of(0, 10), CountStrategy.EXACT)).withMessage(NO_PRODUCTS_FOUND);
+  }
+
+  @Test
+  public void getPageOfProductListView_LeaveTheTotalToTheCounter_WhenTheCountStrategyIsNotExact() {
+    Slice<ProductListView> slice = new SliceImpl<>(List.of(RandomEntityGenerator.createProductListViewStaticValues()), PageRequest.of(0, 1), true);
+    BDDMockito.when(productRepository.getAllSlice(any(Pageable.class))).thenReturn(slice);
+    BDDMockito.when(productCounter.count(eq(slice), eq(CountStrategy.CACHED), any(CountQuery.class)))
+        .thenReturn(new CountedSlice<>(slice, CountStrategy.CACHED));
+
+    CountedSlice<ProductListView> products = productService.getListView(PageRequest.of(0, 1), CountStrategy.CACHED);
+
+    assertThat(products.getCountStrategy()).isEqualTo(CountStrategy.CACHED);
+    BDDMockito.verify(productRepository, BDDMockito.never()).getAll(any(Pageable.class));
   }
 
   @Test
   public void getPageOfProductListViewByMainCategory_ReturnAPageProductListView_WhenSuccessful() {
-    Page<ProductListView> products = productService.getListViewByMainCategory(1L, PageRequest.of(0, 10));
+    Slice<ProductListView> products = productService.getListViewByMainCategory(1L, PageRequest.of(0, 10), CountStrategy.EXACT).getProducts();
 
     assertThat(products).isNotNull();
     assertThat(products.isEmpty()).isFalse();
@@ -292,7 +547,7 @@ public class ProductServiceTest {
         .thenThrow(new ResourceNotFoundException(NO_PRODUCTS_FOUND));
 
     assertThatExceptionOfType(ResourceNotFoundException.class)
-        .isThrownBy(() -> productService.getListViewByMainCategory(1L, PageRequest.of(0, 10)))
+        .isThrownBy(() -> productService.getListViewByMainCategory(1L, PageRequest.of(0, 10), CountStrategy.EXACT))
         .withMessage(NO_PRODUCTS_FOUND);
   }
 
@@ -315,4 +570,50 @@ public class ProductServiceTest {
     assertThatExceptionOfType(ResourceNotFoundException.class)
       .isThrownBy(() -> productService.getListViewBySubCategory(subcategories)).withMessage(NO_PRODUCTS_FOUND);
   }
+
+  @Test
+  public void bulkAdjust_AdjustPriceOfEveryProductOfTheSubCategory_WhenSuccessful() {
+    ProductBulkAdjustmentRequest request = ProductBulkAdjustmentRequest.builder()
+                                                                       .subCategoryName("Sub Category 1")
+                                                                       .priceAdjustment(PriceAdjustment.PERCENTAGE)
+                                                                       .priceValue(10.0)
+                                                                       .build();
+
+    ProductBulkAdjustmentResponse response = productService.bulkAdjust(request);
+
+    assertThat(response.getMatchedProducts()).isEqualTo(2);
+    assertThat(response.getUpdatedProducts()).isEqualTo(2);
+    BDDMockito.verify(productRepository).adjustPriceByBarCodes(BDDMockito.eq(1.1), BDDMockito.eq(0.0), any());
+    BDDMockito.verify(productInventoryRepository, BDDMockito.never()).adjustStockByBarCodes(any(), any());
+    BDDMockito.verify(eventPublisher).publishEvent(any(Object.class));
+  }
+
+  @Test
+  public void bulkAdjust_ThrowResourceNotFoundException_WhenNoProductsMatchTheSelector() {
+    BDDMockito.when(productRepository.findBarCodesBySubCategoryName(anyString())).thenReturn(List.of());
+
+    ProductBulkAdjustmentRequest request = ProductBulkAdjustmentRequest.builder().subCategoryName("Sub Category 1").stockDelta(5).build();
+
+    assertThatExceptionOfType(ResourceNotFoundException.class).isThrownBy(() -> productService.bulkAdjust(request))
+      .withMessage(NO_PRODUCTS_FOUND);
+  }
+
+  @Test
+  public void bulkAdjust_PublishOnlyTheUpdatedBarCodesOfEachBatch_WhenSomeStocksWouldDropBelowZero() {
+    List<Long> productBarCodes = LongStream.rangeClosed(1, 600).boxed().collect(Collectors.toList());
+    BDDMockito.when(productRepository.findBarCodesBySubCategoryName(anyString())).thenReturn(productBarCodes);
+    BDDMockito.when(productInventoryRepository.findBarCodesWithAdjustableStock(anyInt(), any()))
+              .thenAnswer(invocation -> invocation.<Collection<Long>>getArgument(1).stream().filter(productBarCode -> productBarCode % 2 == 0)
+                                                  .collect(Collectors.toList()));
+
+    ProductBulkAdjustmentRequest request = ProductBulkAdjustmentRequest.builder().subCategoryName("Sub Category 1").stockDelta(-5).build();
+
+    assertThat(productService.bulkAdjust(request).getUpdatedProducts()).isEqualTo(300);
+    BDDMockito.verify(eventPublisher).publishEvent(BDDMockito.<Object>argThat(event -> event instanceof ProductChangedEvent
+        && ((ProductChangedEvent) event).getProductBarCodes().size() == 250));
+    BDDMockito.verify(eventPublisher).publishEvent(BDDMockito.<Object>argThat(event -> event instanceof ProductChangedEvent
+        && ((ProductChangedEvent) event).getProductBarCodes().size() == 50));
+    BDDMockito.verify(eventPublisher, BDDMockito.never()).publishEvent(BDDMockito.<Object>argThat(event -> event instanceof ProductChangedEvent
+        && ((ProductChangedEvent) event).getProductBarCodes().contains(1L)));
+  }
 }
@@ -11,13 +11,17 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import com.da.productservice.dto.SubCategoryResponse;
 import com.da.productservice.entity.MainCategory;
 import com.da.productservice.entity.SubCategory;
+import com.da.productservice.event.CategoryChangedEvent;
+import com.da.productservice.event.CategoryChangedEvent.CategoryType;
 import com.da.productservice.exception.ResourceNotFoundException;
 import com.da.productservice.mapper.SubCategoryMapper;
 import com.da.productservice.repository.SubCategoryRepository;
@@ -29,6 +33,7 @@ import org.mockito.BDDMockito;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -50,12 +55,15 @@ public class SubCategoryServiceTest {
   @Mock
   SubCategoryRepository subCategoryRepository;
 
+  @Mock
+  ApplicationEventPublisher eventPublisher;
+
   SubCategoryService subCategoryService;
 
   @BeforeEach
   public void setUp() {
     MockitoAnnotations.openMocks(this);
-    subCategoryService = new SubCategoryServiceImpl(subCategoryMapper, subCategoryRepository);
+    subCategoryService = new SubCategoryServiceImpl(subCategoryMapper, subCategoryRepository, eventPublisher);
 
     MainCategory mainCategory = createMainCategoryStaticValues();
 
@@ -67,7 +75,9 @@ public class SubCategoryServiceTest {
 
     BDDMockito.when(subCategoryRepository.save(any(SubCategory.class))).thenReturn(subCategory);
 
-    BDDMockito.when(subCategoryMapper.subCategoryToSubCategoryResponse(any(SubCategory.class))).thenReturn(createSubCategoryResponse());
+    BDDMockito.when(subCategoryMapper.subCategoryToSubCategoryResponse(any(SubCategory.class), any())).thenReturn(createSubCategoryResponse());
+
+    BDDMockito.when(subCategoryRepository.findProductNamesBySubCategoryId(any(), any(Pageable.class))).thenReturn(new PageImpl<>(List.of("Product")));
 
     BDDMockito.when(subCategoryRepository.updateName(anyString(), anyLong())).thenReturn(1);
 
@@ -80,6 +90,11 @@ public class SubCategoryServiceTest {
     BDDMockito.when(subCategoryRepository.findAll(any(Pageable.class))).thenReturn(subCategories);
 
     BDDMockito.when(subCategoryRepository.findByMainCategoryMainCategoryId(anyLong())).thenReturn(List.of(subCategory));
+
+    BDDMockito.when(subCategoryRepository.findBySubCategoryNameIn(any()))
+              .thenAnswer(invocation -> invocation.<Collection<String>>getArgument(0).stream()
+                                                  .map(name -> SubCategory.builder().subCategoryName(name).mainCategory(mainCategory).build())
+                                                  .collect(Collectors.toList()));
   }
 
   @Test
@@ -92,6 +107,8 @@ public class SubCategoryServiceTest {
     assertThat(subCategory.getMainCategory()).isNotNull();
     assertThat(subCategory.getProducts()).isNotNull();
     assertThat(subCategory.getProducts().isEmpty()).isFalse();
+    BDDMockito.verify(eventPublisher).publishEvent(BDDMockito.<Object>argThat(event -> event instanceof CategoryChangedEvent
+        && ((CategoryChangedEvent) event).getCategoryType() == CategoryType.SUB));
   }
 
   @Test
@@ -110,7 +127,10 @@ public class SubCategoryServiceTest {
 
   @Test
   public void deleteSubCategory_DeleteSubCategoryEvenIfItIsRelatedToProducts_WhenSuccessful() {
-    BDDMockito.when(subCategoryRepository.findById(anyLong())).thenReturn(Optional.of(createSubCategoryForDeleteTest()));
+    SubCategory subCategory = createSubCategoryForDeleteTest();
+
+    BDDMockito.when(subCategoryRepository.findById(anyLong())).thenReturn(Optional.of(subCategory));
+    BDDMockito.when(subCategoryRepository.findProductsBySubCategoryId(anyLong())).thenReturn(List.copyOf(subCategory.getProducts()));
 
     assertThatCode(() -> subCategoryService.deleteById(1L)).doesNotThrowAnyException();
   }
@@ -131,6 +151,7 @@ public class SubCategoryServiceTest {
     subCategory.getProducts().forEach(pr -> pr.setSubCategories(null));
 
     BDDMockito.when(subCategoryRepository.findById(anyLong())).thenReturn(Optional.of(subCategory));
+    BDDMockito.when(subCategoryRepository.findProductsBySubCategoryId(anyLong())).thenReturn(List.copyOf(subCategory.getProducts()));
 
     assertThatCode(() -> subCategoryService.deleteById(1L)).doesNotThrowAnyException();
   }
@@ -158,7 +179,7 @@ public class SubCategoryServiceTest {
   public void getSubCategoryResponseByName_ReturnASubCategoryResponse_WhenSuccessful() {
     String expectedName = "Sub Category";
 
-    SubCategoryResponse subCategoryFetchedByName = subCategoryService.getSubCategoryResponseByName(expectedName);
+    SubCategoryResponse subCategoryFetchedByName = subCategoryService.getSubCategoryResponseByName(expectedName, PageRequest.of(0, 20));
 
     assertThat(subCategoryFetchedByName).isNotNull();
     assertThat(subCategoryFetchedByName.getSubCategoryName()).isEqualTo(expectedName);
@@ -167,6 +188,13 @@ public class SubCategoryServiceTest {
     assertThat(subCategoryFetchedByName.getProducts().isEmpty()).isFalse();
   }
 
+  @Test
+  public void getSubCategoryResponseByName_CapProductNamesPageSize_WhenPageIsTooLarge() {
+    subCategoryService.getSubCategoryResponseByName("Sub Category", PageRequest.of(2, 5000));
+
+    BDDMockito.verify(subCategoryRepository).findProductNamesBySubCategoryId(any(), BDDMockito.eq(PageRequest.of(2, 100)));
+  }
+
   @Test
   public void getSubCategoryByName_ReturnAMainCategory_WhenSuccessful() {
     String expectedName = "Sub Category 1";
@@ -209,7 +237,18 @@ public class SubCategoryServiceTest {
     Set<SubCategory> subCategoriesFetchedByName = subCategoryService.getSetByName(names);
 
     assertThat(subCategoriesFetchedByName).isNotNull();
-    assertThat(subCategoriesFetchedByName.isEmpty()).isFalse();
+    assertThat(subCategoriesFetchedByName).hasSize(3);
+    BDDMockito.verify(subCategoryRepository).findBySubCategoryNameIn(Set.of(names));
+    BDDMockito.verify(subCategoryRepository, BDDMockito.never()).findBySubCategoryName(anyString());
+  }
+
+  @Test
+  public void getSubcategoriesByName_ThrowResourceNotFoundException_WithEveryMissingName() {
+    BDDMockito.doReturn(List.of(createSubCategoryStaticValues(1, createMainCategoryStaticValues()))).when(subCategoryRepository).findBySubCategoryNameIn(any());
+    String[] names = { "Sub Category 1", "Missing 1", "Missing 2", "Missing 1" };
+
+    assertThatExceptionOfType(ResourceNotFoundException.class)
+      .isThrownBy(() -> subCategoryService.getSetByName(names)).withMessage("Sub Categories Not Found: Missing 1, Missing 2");
   }
 
   @Test
@@ -0,0 +1,185 @@
+package com.da.productservice.stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import com.da.productservice.dto.ProductStockChange;
+import com.da.productservice.event.ProductChangedEvent;
+import com.da.productservice.event.ProductChangedEvent.ChangeType;
+import com.da.productservice.repository.ProductRepository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.BDDMockito;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter.SseEventBuilder;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class ProductStreamHubTest {
+
+  private static final Long BAR_CODE = 1023045090807L;
+  private static final String MAIN_CATEGORY = "Electronics";
+
+  @Mock
+  ProductRepository productRepository;
+
+  private SimpleMeterRegistry meterRegistry;
+  private ProductStreamHub productStreamHub;
+
+  @BeforeEach
+  public void setUp() {
+    MockitoAnnotations.openMocks(this);
+    meterRegistry = new SimpleMeterRegistry();
+    // flushes and heartbeats are driven by the tests
+    productStreamHub = new ProductStreamHub(productRepository, meterRegistry, TimeUnit.HOURS.toMillis(1), 3600, 30, 4);
+  }
+
+  @AfterEach
+  public void tearDown() {
+    productStreamHub.shutdown();
+  }
+
+  @Test
+  public void flush_SendOneEventPerProduct_WhenItChangedSeveralTimesBetweenFlushes() throws IOException {
+    SseEmitter emitter = Mockito.mock(SseEmitter.class);
+    productStreamHub.subscribe(emitter, Set.of(), MAIN_CATEGORY, null);
+    BDDMockito.when(productRepository.findStockChangesByBarCodes(any())).thenReturn(List.of(change(5)));
+
+    changed();
+    changed();
+    changed();
+    productStreamHub.flush();
+
+    Mockito.verify(emitter, Mockito.timeout(1000).times(1)).send(any(SseEventBuilder.class));
+    Mockito.verify(productRepository, Mockito.times(1)).findStockChangesByBarCodes(any());
+  }
+
+  @Test
+  public void flush_SkipTheEvent_WhenStockAndPriceAreUnchanged() throws IOException {
+    SseEmitter emitter = Mockito.mock(SseEmitter.class);
+    productStreamHub.subscribe(emitter, Set.of(), MAIN_CATEGORY, null);
+    BDDMockito.when(productRepository.findStockChangesByBarCodes(any())).thenReturn(List.of(change(5)));
+
+    changed();
+    productStreamHub.flush();
+    changed();
+    productStreamHub.flush();
+
+    Mockito.verify(emitter, Mockito.after(200).times(1)).send(any(SseEventBuilder.class));
+  }
+
+  @Test
+  public void flush_RetryTheChanges_WhenTheRepositoryFails() throws IOException {
+    SseEmitter emitter = Mockito.mock(SseEmitter.class);
+    productStreamHub.subscribe(emitter, Set.of(), MAIN_CATEGORY, null);
+    BDDMockito.when(productRepository.findStockChangesByBarCodes(any()))
+              .thenThrow(new QueryTimeoutException("timeout"))
+              .thenReturn(List.of(change(5)));
+
+    changed();
+    productStreamHub.flush();
+    productStreamHub.flush();
+
+    Mockito.verify(emitter, Mockito.timeout(1000).times(1)).send(any(SseEventBuilder.class));
+    assertThat(meterRegistry.counter("catalog.stream.flush.failures").count()).isEqualTo(1);
+  }
+
+  @Test
+  public void flush_KeepOnlyTheLatestChangeForASlowSubscriber_WithoutHoldingBackTheOthers() throws Exception {
+    SseEmitter slow = Mockito.mock(SseEmitter.class);
+    SseEmitter fast = Mockito.mock(SseEmitter.class);
+    var sending = new CountDownLatch(1);
+    var release = new CountDownLatch(1);
+    ArgumentCaptor<SseEventBuilder> slowEvents = ArgumentCaptor.forClass(SseEventBuilder.class);
+    BDDMockito.doAnswer(invocation -> {
+      sending.countDown();
+      release.await(5, TimeUnit.SECONDS);
+      return null;
+    }).when(slow).send(slowEvents.capture());
+    productStreamHub.subscribe(slow, Set.of(), MAIN_CATEGORY, null);
+    productStreamHub.subscribe(fast, Set.of(), MAIN_CATEGORY, null);
+
+    for (int stock = 1; stock <= 3; stock++) {
+      BDDMockito.when(productRepository.findStockChangesByBarCodes(any())).thenReturn(List.of(change(stock)));
+      changed();
+      productStreamHub.flush();
+      if (stock == 1) assertThat(sending.await(1, TimeUnit.SECONDS)).isTrue();
+      Mockito.verify(fast, Mockito.timeout(1000).times(stock)).send(any(SseEventBuilder.class));
+    }
+
+    release.countDown();
+
+    Mockito.verify(slow, Mockito.timeout(1000).times(2)).send(any(SseEventBuilder.class));
+    assertThat(stockOf(slowEvents.getAllValues().get(1))).isEqualTo(3);
+  }
+
+  @Test
+  public void onProductChanged_IgnoreTheChange_WhenTheSubscriberHasUnsubscribed() throws IOException {
+    SseEmitter emitter = Mockito.mock(SseEmitter.class);
+    ArgumentCaptor<Runnable> onCompletion = ArgumentCaptor.forClass(Runnable.class);
+    productStreamHub.subscribe(emitter, Set.of(), MAIN_CATEGORY, null);
+    Mockito.verify(emitter).onCompletion(onCompletion.capture());
+
+    onCompletion.getValue().run();
+    changed();
+    productStreamHub.flush();
+
+    Mockito.verify(productRepository, Mockito.never()).findStockChangesByBarCodes(any());
+    Mockito.verify(emitter, Mockito.never()).send(any(SseEventBuilder.class));
+  }
+
+  @Test
+  public void flush_DropTheSubscriber_WhenSendingFails() throws IOException {
+    SseEmitter emitter = Mockito.mock(SseEmitter.class);
+    BDDMockito.doThrow(new IOException("Broken pipe")).when(emitter).send(any(SseEventBuilder.class));
+    productStreamHub.subscribe(emitter, Set.of(), MAIN_CATEGORY, null);
+    BDDMockito.when(productRepository.findStockChangesByBarCodes(any())).thenReturn(List.of(change(5)));
+
+    changed();
+    productStreamHub.flush();
+    Mockito.verify(emitter, Mockito.timeout(1000)).completeWithError(any());
+
+    BDDMockito.when(productRepository.findStockChangesByBarCodes(any())).thenReturn(List.of(change(6)));
+    changed();
+    productStreamHub.flush();
+
+    Mockito.verify(emitter, Mockito.after(200).times(1)).send(any(SseEventBuilder.class));
+  }
+
+  private void changed() {
+    productStreamHub.onProductChanged(new ProductChangedEvent(ChangeType.UPDATED, Set.of(BAR_CODE)));
+  }
+
+  private static ProductStockChange change(int productStock) {
+    return ProductStockChange.builder()
+                             .productBarCode(BAR_CODE)
+                             .productName("Product")
+                             .productPrice(10.95)
+                             .productStock(productStock)
+                             .mainCategoryName(MAIN_CATEGORY)
+                             .build();
+  }
+
+  private static Integer stockOf(SseEventBuilder event) {
+    return event.build().stream()
+                .map(DataWithMediaType::getData)
+                .filter(ProductStockChange.class::isInstance)
+                .map(data -> ((ProductStockChange) data).getProductStock())
+                .findFirst()
+                .orElseThrow();
+  }
+}
@@ -1,6 +1,7 @@
 package com.da.productservice.util;
 
 import java.util.HashSet;
+import java.util.List;
 import java.util.Random;
 import java.util.Set;
 import java.util.UUID;
@@ -175,11 +176,11 @@ public class RandomEntityGenerator {
   }
 
   public static SubCategory createSubCategoryForIT() {
-    return SubCategory.builder().subCategoryName("Sub Category").mainCategory(createMainCategoryStaticValues()).build();
+    return SubCategory.builder().subCategoryId(1L).subCategoryName("Sub Category").mainCategory(createMainCategoryStaticValues()).build();
   }
 
   public static SubCategory createSubCategoryStaticValues(int value, MainCategory mainCategory) {
-    return SubCategory.builder().subCategoryName("Sub Category " + value).mainCategory(mainCategory).build();
+    return SubCategory.builder().subCategoryId((long) value).subCategoryName("Sub Category " + value).mainCategory(mainCategory).build();
   }
 
   public static SubCategoryResponse createSubCategoryResponse() {
@@ -188,7 +189,8 @@ public class RandomEntityGenerator {
                               .subCategoryId(1L)
                               .subCategoryName("Sub Category")
                               .mainCategory("Main Category")
-                              .products(Set.of("Product"))
+                              .productCount(1)
+                              .products(List.of("Product"))
                               .build();
     //@formatter:on
   }
@@ -0,0 +1,23 @@
+-- plan dataset: ${rows} generated products on top of the catalog of products_schema.sql, spread over its categories
+
+INSERT INTO products (product_bar_code, product_name, product_price, product_description, product_status, main_category_id, main_category_name)
+SELECT 7000000000000 + g, 'Plan Product ' || g, g % 500 + 0.99, 'Generated description of plan product ' || g, 'CREATED', m.category_id, m.category_name
+FROM generate_series(1, ${rows}) g JOIN main_categories m ON m.category_id = g % 3 + 1
+ON CONFLICT DO NOTHING;
+
+INSERT INTO product_inventory (product_id, product_stock)
+SELECT p.product_id, 10 FROM products p WHERE p.product_bar_code > 7000000000000
+ON CONFLICT DO NOTHING;
+
+INSERT INTO sub_categories_products (fk_sub_category, fk_product)
+SELECT s.sub_category_id, p.product_id
+FROM products p JOIN sub_categories s ON s.main_category_id = p.main_category_id AND s.sub_category_id % 2 = p.product_id % 2
+WHERE p.product_bar_code > 7000000000000
+ON CONFLICT DO NOTHING;
+
+-- one aggregate joined in, a correlated subquery per product would scan sub_categories_products for each
+UPDATE products p SET sub_category_names = n.names
+FROM (SELECT sp.fk_product, '[' || STRING_AGG('"' || REPLACE(REPLACE(s.sub_category_name, '\', '\\'), '"', '\"') || '"', ',' ORDER BY s.sub_category_name) || ']' AS names
+      FROM sub_categories_products sp JOIN sub_categories s ON s.sub_category_id = sp.fk_sub_category
+      GROUP BY sp.fk_product) n
+WHERE n.fk_product = p.product_id AND p.product_bar_code > 7000000000000;
@@ -0,0 +1,110 @@
+package com.da.queryplan;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/** Runs every query prepared while the {@link PlanRecorder} records through {@code EXPLAIN (ANALYZE, BUFFERS, FORMAT JSON)} once per label. */
+public class ExplainingDataSource extends DelegatingDataSource {
+
+  private static final String EXPLAIN = "EXPLAIN (ANALYZE, BUFFERS, FORMAT JSON) ";
+
+  private final PlanRecorder recorder;
+
+  public ExplainingDataSource(DataSource targetDataSource, PlanRecorder recorder) {
+    super(targetDataSource);
+    this.recorder = recorder;
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    return explaining(super.getConnection());
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    return explaining(super.getConnection(username, password));
+  }
+
+  private Connection explaining(Connection connection) {
+    return (Connection) Proxy.newProxyInstance(ExplainingDataSource.class.getClassLoader(), new Class<?>[] { Connection.class },
+        (proxy, method, args) -> {
+          if (isIdentityMethod(method)) return identity(proxy, method, args);
+          Object result = invoke(connection, method, args);
+          if (method.getName().equals("prepareStatement") && method.getReturnType() == PreparedStatement.class && isQuery((String) args[0]))
+            return explaining(connection, (PreparedStatement) result, (String) args[0]);
+          return result;
+        });
+  }
+
+  private PreparedStatement explaining(Connection connection, PreparedStatement statement, String sql) {
+    List<Binding> bindings = new ArrayList<>();
+    return (PreparedStatement) Proxy.newProxyInstance(ExplainingDataSource.class.getClassLoader(), new Class<?>[] { PreparedStatement.class },
+        (proxy, method, args) -> {
+          if (isIdentityMethod(method)) return identity(proxy, method, args);
+          if (isParameterSetter(method, args)) bindings.add(new Binding(method, args));
+          else if (method.getName().equals("clearParameters")) bindings.clear();
+          else if ((method.getName().equals("executeQuery") || method.getName().equals("execute")) && args == null && recorder.isExplaining(sql))
+            recorder.add(sql, explain(connection, sql, bindings));
+          return invoke(statement, method, args);
+        });
+  }
+
+  private static String explain(Connection connection, String sql, List<Binding> bindings) throws Throwable {
+    try (var explain = connection.prepareStatement(EXPLAIN + sql)) {
+      for (var binding : bindings)
+        invoke(explain, binding.method, binding.args);
+      try (var resultSet = explain.executeQuery()) {
+        resultSet.next();
+        return resultSet.getString(1);
+      }
+    }
+  }
+
+  static boolean isQuery(String sql) {
+    String start = sql.stripLeading().toLowerCase(Locale.ROOT);
+    return start.startsWith("select") || start.startsWith("with");
+  }
+
+  /** setLong(1, ...), setString(2, ...)...: setFetchSize, setMaxRows and the like take a single argument. */
+  private static boolean isParameterSetter(Method method, Object[] args) {
+    return method.getName().startsWith("set") && args != null && args.length >= 2 && method.getParameterTypes()[0] == int.class;
+  }
+
+  private static boolean isIdentityMethod(Method method) {
+    return method.getDeclaringClass() == Object.class && !method.getName().equals("toString");
+  }
+
+  private static Object identity(Object proxy, Method method, Object[] args) {
+    return method.getName().equals("equals") ? proxy == args[0] : System.identityHashCode(proxy);
+  }
+
+  private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+    try {
+      return method.invoke(target, args);
+    } catch (InvocationTargetException e) {
+      throw e.getCause();
+    }
+  }
+
+  private static final class Binding {
+
+    private final Method method;
+    private final Object[] args;
+
+    private Binding(Method method, Object[] args) {
+      this.method = method;
+      this.args = args.clone();
+    }
+  }
+}
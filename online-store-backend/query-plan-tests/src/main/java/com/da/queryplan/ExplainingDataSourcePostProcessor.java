@@ -0,0 +1,20 @@
+package com.da.queryplan;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+/** Wraps the application's data sources in an {@link ExplainingDataSource}; declare it as a static bean. */
+public class ExplainingDataSourcePostProcessor implements BeanPostProcessor {
+
+  private final PlanRecorder recorder;
+
+  public ExplainingDataSourcePostProcessor(PlanRecorder recorder) {
+    this.recorder = recorder;
+  }
+
+  @Override
+  public Object postProcessAfterInitialization(Object bean, String beanName) {
+    return bean instanceof DataSource && !(bean instanceof ExplainingDataSource) ? new ExplainingDataSource((DataSource) bean, recorder) : bean;
+  }
+}
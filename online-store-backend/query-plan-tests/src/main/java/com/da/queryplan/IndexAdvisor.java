@@ -0,0 +1,48 @@
+package com.da.queryplan;
+
+import java.util.LinkedHashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Suggests an index for a sequential scan from the columns its condition compares. The columns of a filter are
+ * the ones left of a comparison, {@code (product_bar_code = '...'::bigint)} or {@code ((user_name)::text = ...)};
+ * those of a join condition are the ones qualified with the scan's alias. LIKE comparisons get a trigram index.
+ */
+public final class IndexAdvisor {
+
+  private static final Pattern COMPARED_COLUMN = Pattern.compile("(?<![:\\w'])(?:(\\w+)\\.)?([a-z_][a-z0-9_]*)\\)*(?:::[a-z ]+(?:\\(\\d+\\))?\\)*)?\\s*(=|<>|<=|>=|<|>|~~\\*?)\\s");
+  private static final Pattern QUALIFIED_COLUMN = Pattern.compile("\\b(\\w+)\\.([a-z_][a-z0-9_]*)\\b");
+
+  private IndexAdvisor() {
+  }
+
+  public static Optional<String> suggest(PlanScan scan) {
+    if (!scan.isSequential() || scan.getCondition() == null) return Optional.empty();
+
+    Set<String> columns = new LinkedHashSet<>();
+    boolean like = false;
+
+    var compared = COMPARED_COLUMN.matcher(scan.getCondition());
+    while (compared.find()) {
+      if (!isOwnColumn(compared.group(1), scan)) continue;
+      columns.add(compared.group(2));
+      like |= compared.group(3).startsWith("~~");
+    }
+
+    if (columns.isEmpty()) {
+      var qualified = QUALIFIED_COLUMN.matcher(scan.getCondition());
+      while (qualified.find())
+        if (qualified.group(1).equals(scan.getAlias())) columns.add(qualified.group(2));
+    }
+
+    if (columns.isEmpty()) return Optional.empty();
+    if (like) return Optional.of("CREATE INDEX ON " + scan.getRelation() + " USING gin (" + columns.iterator().next() + " gin_trgm_ops)");
+    return Optional.of("CREATE INDEX ON " + scan.getRelation() + " (" + String.join(", ", columns) + ")");
+  }
+
+  private static boolean isOwnColumn(String qualifier, PlanScan scan) {
+    return qualifier == null || qualifier.equals(scan.getAlias()) || qualifier.equals(scan.getRelation());
+  }
+}
@@ -0,0 +1,48 @@
+package com.da.queryplan;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** The plans of one repository, keyed by label, together with the dataset size they were taken on. */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PlanBaseline {
+
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+  private int rows;
+  private Map<String, List<PlanSummary>> plans = new LinkedHashMap<>();
+
+  public static Optional<PlanBaseline> read(Path file) {
+    if (!Files.exists(file)) return Optional.empty();
+
+    try {
+      return Optional.of(OBJECT_MAPPER.readValue(file.toFile(), PlanBaseline.class));
+    } catch (IOException e) {
+      throw new UncheckedIOException("Cannot read the plan baseline " + file, e);
+    }
+  }
+
+  public void write(Path file) {
+    try {
+      Files.createDirectories(file.toAbsolutePath().getParent());
+      OBJECT_MAPPER.writeValue(file.toFile(), this);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Cannot write the plan baseline " + file, e);
+    }
+  }
+}
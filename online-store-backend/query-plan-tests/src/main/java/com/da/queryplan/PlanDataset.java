@@ -0,0 +1,50 @@
+package com.da.queryplan;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.util.StreamUtils;
+
+/**
+ * Seeds the database the plans are taken on. The script is a classpath resource in which {@code ${rows}} stands
+ * for the dataset size; it runs only while the given table holds fewer rows, so a seeded database is reused.
+ * The tables are analyzed afterwards, as the planner's statistics are what the plans depend on.
+ */
+public final class PlanDataset {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(PlanDataset.class);
+
+  private PlanDataset() {
+  }
+
+  public static void seed(DataSource dataSource, String script, String table, int rows) {
+    try (var connection = dataSource.getConnection()) {
+      connection.setAutoCommit(true);
+      try (var statement = connection.createStatement(); var count = statement.executeQuery("SELECT COUNT(*) FROM " + table)) {
+        count.next();
+        if (count.getLong(1) >= rows) return;
+      }
+
+      LOGGER.info("Seeding {} rows with {}", rows, script);
+      String sql = StreamUtils.copyToString(new ClassPathResource(script).getInputStream(), StandardCharsets.UTF_8)
+                              .replace("${rows}", Integer.toString(rows));
+      ScriptUtils.executeSqlScript(connection, new ByteArrayResource(sql.getBytes(StandardCharsets.UTF_8), script));
+      try (var statement = connection.createStatement()) {
+        statement.execute("ANALYZE");
+      }
+    } catch (SQLException e) {
+      throw new IllegalStateException("Cannot seed the plan dataset with " + script, e);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
@@ -0,0 +1,67 @@
+package com.da.queryplan;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Collects the plans the {@link ExplainingDataSource} produces, under the label of the repository call that
+ * caused them. A label is the repository method name, optionally followed by {@code :variant} when one method
+ * is recorded with different arguments. Meant for one test thread.
+ */
+public class PlanRecorder {
+
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+  private final Map<String, List<PlanSummary>> plans = new LinkedHashMap<>();
+  private volatile String label;
+
+  public void record(String label, Runnable query) {
+    this.label = label;
+    try {
+      query.run();
+    } finally {
+      this.label = null;
+    }
+  }
+
+  boolean isExplaining(String sql) {
+    String current = label;
+    return current != null && plans.getOrDefault(current, List.of()).stream().noneMatch(plan -> plan.getSql().equals(sql));
+  }
+
+  void add(String sql, String explain) throws JsonProcessingException {
+    plans.computeIfAbsent(label, key -> new ArrayList<>()).add(PlanSummary.parse(sql, OBJECT_MAPPER.readTree(explain)));
+  }
+
+  public Map<String, List<PlanSummary>> getPlans() {
+    return Collections.unmodifiableMap(plans);
+  }
+
+  /**
+   * The query methods the repository declares that no recorded plan is labelled with, so that a method added
+   * later cannot slip past the suite. Modifying methods are left out: their statements are not explained.
+   */
+  public List<String> getUnexplained(Class<?> repository) {
+    return Arrays.stream(repository.getDeclaredMethods())
+                 .filter(method -> !method.isDefault() && !Modifier.isStatic(method.getModifiers()) && !isModifying(method))
+                 .map(Method::getName)
+                 .distinct()
+                 .filter(name -> plans.keySet().stream().noneMatch(label -> label.equals(name) || label.startsWith(name + ":")))
+                 .sorted()
+                 .collect(Collectors.toList());
+  }
+
+  private static boolean isModifying(Method method) {
+    return Arrays.stream(method.getAnnotations()).anyMatch(annotation -> annotation.annotationType().getSimpleName().equals("Modifying"));
+  }
+}
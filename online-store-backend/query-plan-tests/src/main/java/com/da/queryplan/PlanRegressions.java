@@ -0,0 +1,75 @@
+package com.da.queryplan;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Compares recorded plans with their baseline. A sequential scan of a relation the baseline plan did not scan
+ * sequentially, or an index the plan no longer uses, is a regression whatever the dataset. Costs and buffers
+ * only compare on a dataset of the baseline's size, and regress when they grow past the tolerance factor.
+ */
+public final class PlanRegressions {
+
+  /** Buffer counts of small plans wobble with the cache; a few blocks more is not a regression. */
+  private static final long MIN_BLOCKS_GROWTH = 16;
+
+  private PlanRegressions() {
+  }
+
+  public static List<String> compare(PlanBaseline baseline, PlanBaseline current, double tolerance) {
+    List<String> regressions = new ArrayList<>();
+    boolean sameDataset = baseline.getRows() == current.getRows();
+
+    current.getPlans().forEach((label, plans) -> {
+      var expected = baseline.getPlans().get(label);
+      if (expected == null) {
+        regressions.add(label + ": no baseline plan, record the baselines again");
+        return;
+      }
+
+      for (int i = 0; i < plans.size(); i++) {
+        String statement = plans.size() > 1 ? label + " #" + (i + 1) : label;
+        if (i >= expected.size()) {
+          regressions.add(statement + ": new statement " + plans.get(i).getSql());
+          continue;
+        }
+        compare(statement, expected.get(i), plans.get(i), sameDataset, tolerance, regressions);
+      }
+    });
+    return regressions;
+  }
+
+  private static void compare(String statement, PlanSummary expected, PlanSummary plan, boolean sameDataset, double tolerance,
+                              List<String> regressions) {
+    var scanned = expected.getSequentiallyScanned();
+    for (var scan : plan.getScans()) {
+      if (!scan.isSequential() || scanned.contains(scan.getRelation())) continue;
+      regressions.add(statement + ": new sequential scan on " + scan.getRelation()
+          + IndexAdvisor.suggest(scan).map(index -> ", consider " + index).orElse(""));
+    }
+
+    var indexes = plan.getIndexes();
+    for (String index : expected.getIndexes())
+      if (!indexes.contains(index)) regressions.add(statement + ": no longer uses index " + index);
+
+    if (!sameDataset) return;
+
+    if (plan.getTotalCost() > expected.getTotalCost() * tolerance)
+      regressions.add(String.format("%s: estimated cost rose from %.2f to %.2f", statement, expected.getTotalCost(), plan.getTotalCost()));
+    if (plan.getSharedBlocks() > expected.getSharedBlocks() * tolerance && plan.getSharedBlocks() - expected.getSharedBlocks() > MIN_BLOCKS_GROWTH)
+      regressions.add(statement + ": shared buffers rose from " + expected.getSharedBlocks() + " to " + plan.getSharedBlocks());
+  }
+
+  /** The indexes suggested for every sequential scan of the plans, regressions or not. */
+  public static Set<String> suggestIndexes(Collection<List<PlanSummary>> plans) {
+    Set<String> suggestions = new TreeSet<>();
+    plans.stream()
+         .flatMap(List::stream)
+         .flatMap(plan -> plan.getScans().stream())
+         .forEach(scan -> IndexAdvisor.suggest(scan).ifPresent(suggestions::add));
+    return suggestions;
+  }
+}
@@ -0,0 +1,30 @@
+package com.da.queryplan;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One scan node of a plan. The condition is what the scan filters on: its Filter or Index Cond, or for a scan
+ * without one, the condition of the join it feeds.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PlanScan {
+
+  public static final String SEQ_SCAN = "Seq Scan";
+
+  private String nodeType;
+  private String relation;
+  private String alias;
+  private String index;
+  private String condition;
+
+  @JsonIgnore
+  public boolean isSequential() {
+    return SEQ_SCAN.equals(nodeType);
+  }
+}
@@ -0,0 +1,42 @@
+package com.da.queryplan;
+
+import lombok.Getter;
+
+/**
+ * The plan suite's system properties. Plan tests run only when {@code plan.datasource.url} names a PostgreSQL
+ * database, e.g. from {@code online-store-backend}: {@code mvn -P query-plans test -pl product-service,shopping-service
+ * -am -Dtest=*PlanTest -DfailIfNoTests=false -Dplan.datasource.url=jdbc:postgresql://localhost:5432/store}. The
+ * {@code query-plans} profile compiles the plan tests, which the services' default builds leave out, and adds the
+ * PostgreSQL driver to the shopping service.
+ * <ul>
+ *   <li>{@code plan.datasource.username} / {@code plan.datasource.password}: default postgres / postgres</li>
+ *   <li>{@code plan.rows}: the size of the seeded dataset, 100000 by default</li>
+ *   <li>{@code plan.cost-tolerance}: how much cost and buffers may grow before it is a regression, 1.5 by default</li>
+ *   <li>{@code plan.record}: write the current plans as the new baselines instead of comparing</li>
+ * </ul>
+ */
+@Getter
+public final class PlanSettings {
+
+  public static final String URL = "plan.datasource.url";
+
+  private final String url;
+  private final String username;
+  private final String password;
+  private final int rows;
+  private final double costTolerance;
+  private final boolean record;
+
+  private PlanSettings() {
+    url = System.getProperty(URL);
+    username = System.getProperty("plan.datasource.username", "postgres");
+    password = System.getProperty("plan.datasource.password", "postgres");
+    rows = Integer.getInteger("plan.rows", 100_000);
+    costTolerance = Double.parseDouble(System.getProperty("plan.cost-tolerance", "1.5"));
+    record = Boolean.getBoolean("plan.record");
+  }
+
+  public static PlanSettings fromSystemProperties() {
+    return new PlanSettings();
+  }
+}
@@ -0,0 +1,83 @@
+package com.da.queryplan;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * What a baseline keeps of one {@code EXPLAIN (ANALYZE, BUFFERS, FORMAT JSON)}: the planner's total cost, the
+ * shared buffers the execution touched and the scans. Timings are left out, they differ from run to run.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PlanSummary {
+
+  private static final String[] JOIN_CONDITIONS = { "Hash Cond", "Merge Cond", "Join Filter" };
+
+  private String sql;
+  private double totalCost;
+  private long sharedHitBlocks;
+  private long sharedReadBlocks;
+  private List<PlanScan> scans = new ArrayList<>();
+
+  /** @param explain the JSON EXPLAIN output: an array holding one object with the root "Plan" */
+  public static PlanSummary parse(String sql, JsonNode explain) {
+    JsonNode plan = explain.get(0).get("Plan");
+
+    var summary = new PlanSummary();
+    summary.sql = sql;
+    summary.totalCost = plan.path("Total Cost").asDouble();
+    summary.sharedHitBlocks = plan.path("Shared Hit Blocks").asLong();
+    summary.sharedReadBlocks = plan.path("Shared Read Blocks").asLong();
+    summary.collectScans(plan, null);
+    return summary;
+  }
+
+  private void collectScans(JsonNode node, String joinCondition) {
+    for (String key : JOIN_CONDITIONS)
+      if (node.has(key)) joinCondition = node.get(key).asText();
+
+    String nodeType = node.path("Node Type").asText();
+    if (nodeType.endsWith("Scan") && (node.has("Relation Name") || node.has("Index Name"))) {
+      String condition = node.has("Filter") ? node.get("Filter").asText()
+          : node.has("Index Cond") ? node.get("Index Cond").asText() : joinCondition;
+      scans.add(new PlanScan(nodeType, text(node, "Relation Name"), text(node, "Alias"), text(node, "Index Name"), condition));
+    }
+
+    for (JsonNode child : node.path("Plans"))
+      collectScans(child, joinCondition);
+  }
+
+  private static String text(JsonNode node, String field) {
+    return node.has(field) ? node.get(field).asText() : null;
+  }
+
+  @JsonIgnore
+  public long getSharedBlocks() {
+    return sharedHitBlocks + sharedReadBlocks;
+  }
+
+  @JsonIgnore
+  public Set<String> getIndexes() {
+    Set<String> indexes = new LinkedHashSet<>();
+    scans.stream().map(PlanScan::getIndex).filter(Objects::nonNull).forEach(indexes::add);
+    return indexes;
+  }
+
+  @JsonIgnore
+  public Set<String> getSequentiallyScanned() {
+    Set<String> relations = new LinkedHashSet<>();
+    scans.stream().filter(PlanScan::isSequential).map(PlanScan::getRelation).forEach(relations::add);
+    return relations;
+  }
+}
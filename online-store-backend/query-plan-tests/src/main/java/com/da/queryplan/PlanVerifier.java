@@ -0,0 +1,49 @@
+package com.da.queryplan;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Checks the recorded plans of a repository against its baseline, {@code src/test/resources/query-plans/<name>.json}
+ * of the module running the test. The current plans always go to {@code target/query-plans/<name>.json} for
+ * inspection. Without a baseline, or with {@code plan.record}, the current plans become the baseline.
+ */
+public final class PlanVerifier {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(PlanVerifier.class);
+
+  private PlanVerifier() {
+  }
+
+  public static void verify(PlanRecorder recorder, Class<?> repository, PlanSettings settings) {
+    var unexplained = recorder.getUnexplained(repository);
+    if (!unexplained.isEmpty())
+      throw new AssertionError(repository.getSimpleName() + " query methods without a recorded plan: " + unexplained);
+
+    String name = repository.getSimpleName();
+    var current = new PlanBaseline(settings.getRows(), new LinkedHashMap<>(recorder.getPlans()));
+    current.write(Paths.get("target", "query-plans", name + ".json"));
+
+    PlanRegressions.suggestIndexes(current.getPlans().values())
+                   .forEach(index -> LOGGER.info("{}: sequential scan, consider {}", name, index));
+
+    Path baselineFile = Paths.get("src", "test", "resources", "query-plans", name + ".json");
+    var baseline = PlanBaseline.read(baselineFile);
+    if (settings.isRecord() || baseline.isEmpty()) {
+      current.write(baselineFile);
+      LOGGER.info("{}: recorded {} plans as the baseline on {} rows", name, current.getPlans().size(), settings.getRows());
+      return;
+    }
+
+    if (baseline.get().getRows() != settings.getRows())
+      LOGGER.warn("{}: baseline taken on {} rows, not {}; comparing index usage only", name, baseline.get().getRows(), settings.getRows());
+
+    var regressions = PlanRegressions.compare(baseline.get(), current, settings.getCostTolerance());
+    if (!regressions.isEmpty())
+      throw new AssertionError(name + " query plans regressed:\n  " + String.join("\n  ", regressions));
+  }
+}
@@ -1,5 +1,8 @@
 package com.da.shoppingservice.client;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 import com.da.shoppingservice.config.FeignConfig;
 import com.da.shoppingservice.model.Product;
 
@@ -14,7 +17,7 @@ import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 
 
 
-@FeignClient(name = "product-service", configuration = FeignConfig.class, fallback = ProductFallback.class)
+@FeignClient(name = "product-service", primary = false, configuration = FeignConfig.class, fallback = ProductFallback.class)
 public interface ProductClient {
   public final String INVOICES = "invoices";
   public final String STOCK = "stock";
@@ -28,4 +31,15 @@ public interface ProductClient {
   @CircuitBreaker(name = STOCK)
   @PutMapping("/products/{productBarCode}/stock")
   public ResponseEntity<Void> updateStock(@PathVariable Long productBarCode, @RequestParam(required = true) Integer quantity);
+
+  /**
+   * Takes the quantities out of stock and reports, per barcode, whether that succeeded. Over HTTP every product is
+   * one stock update; the gRPC client sends them all in one call.
+   */
+  public default Map<Long, Boolean> reserveStock(Map<Long, Integer> quantitiesByBarCode) {
+    Map<Long, Boolean> reservations = new LinkedHashMap<>();
+    quantitiesByBarCode.forEach((productBarCode, quantity) -> reservations.put(productBarCode,
+        updateStock(productBarCode, -quantity).getStatusCode().is2xxSuccessful()));
+    return reservations;
+  }
 }
@@ -4,9 +4,7 @@ import com.da.shoppingservice.model.Product;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.stereotype.Component;
 
-@Component
 public class ProductFallback implements ProductClient {
 
   @Override
@@ -0,0 +1,151 @@
+package com.da.shoppingservice.client;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import com.da.shoppingservice.grpc.PricingRequest;
+import com.da.shoppingservice.grpc.ProductInventoryGrpc;
+import com.da.shoppingservice.grpc.StockReservation;
+import com.da.shoppingservice.grpc.StockReservationBatchResult;
+import com.da.shoppingservice.model.Product;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.StreamObserver;
+import net.devh.boot.grpc.client.inject.GrpcClient;
+
+/**
+ * {@link ProductClient} over gRPC, enabled with {@code product.client.transport=grpc}. Every call carries a
+ * deadline that product-service honours, and goes through the same circuit breakers and fallback as the Feign client.
+ */
+@Primary
+@Component
+@ConditionalOnProperty(prefix = "product.client", name = "transport", havingValue = "grpc")
+public class ProductGrpcClient implements ProductClient {
+
+  private static final String ONLY_RESERVATIONS = "The gRPC transport only takes stock out, the quantity must be negative";
+
+  private final ProductFallback productFallback = new ProductFallback();
+  private final CircuitBreakerRegistry circuitBreakerRegistry;
+
+  @GrpcClient("product-service")
+  private ProductInventoryGrpc.ProductInventoryBlockingStub blockingStub;
+
+  @GrpcClient("product-service")
+  private ProductInventoryGrpc.ProductInventoryStub asyncStub;
+
+  @Value("${product.client.deadline-millis:1000}")
+  private long deadlineMillis;
+
+  public ProductGrpcClient(CircuitBreakerRegistry circuitBreakerRegistry) {
+    this.circuitBreakerRegistry = circuitBreakerRegistry;
+  }
+
+  @Override
+  public ResponseEntity<Product> getInfo(Long productBarCode, String productName) {
+    var request = PricingRequest.newBuilder().setProductBarCode(productBarCode).setProductName(productName).build();
+    try {
+      var response = withCircuitBreaker(INVOICES, () -> blockingStub.withDeadlineAfter(deadlineMillis, TimeUnit.MILLISECONDS)
+                                                                     .getPricing(request));
+      if (!response.getFound()) return productFallback.getInfo(productBarCode, productName);
+
+      return ResponseEntity.ok(new Product(response.getProductName(), response.getProductPrice()));
+    } catch (StatusRuntimeException | CallNotPermittedException exception) {
+      return productFallback.getInfo(productBarCode, productName);
+    }
+  }
+
+  /**
+   * Takes stock out as a reservation, which product-service refuses when the stock is short. Restocking has no RPC,
+   * so a delta that is not negative is rejected instead of being sent as a negative reservation.
+   */
+  @Override
+  public ResponseEntity<Void> updateStock(Long productBarCode, Integer quantity) {
+    if (quantity >= 0) throw new IllegalArgumentException(ONLY_RESERVATIONS);
+
+    var request = StockReservation.newBuilder().setProductBarCode(productBarCode).setQuantity(-quantity).build();
+    try {
+      var response = withCircuitBreaker(STOCK, () -> blockingStub.withDeadlineAfter(deadlineMillis, TimeUnit.MILLISECONDS)
+                                                                  .reserveStock(request));
+      if (!response.getReserved()) return productFallback.updateStock(productBarCode, quantity);
+
+      return ResponseEntity.noContent().build();
+    } catch (StatusRuntimeException | CallNotPermittedException exception) {
+      return productFallback.updateStock(productBarCode, quantity);
+    }
+  }
+
+  /**
+   * Reserves several products over one client-streaming call. Products missing from the result, or every product
+   * when the call fails, are reported as not reserved.
+   */
+  @Override
+  public Map<Long, Boolean> reserveStock(Map<Long, Integer> quantitiesByBarCode) {
+    Map<Long, Boolean> reservations = new LinkedHashMap<>();
+    quantitiesByBarCode.keySet().forEach(productBarCode -> reservations.put(productBarCode, false));
+    try {
+      var result = withCircuitBreaker(STOCK, () -> streamReservations(quantitiesByBarCode));
+      result.getResultsList().forEach(reservation -> reservations.put(reservation.getProductBarCode(), reservation.getReserved()));
+    } catch (StatusRuntimeException | CallNotPermittedException exception) {
+      // every reservation stays false
+    }
+    return reservations;
+  }
+
+  private StockReservationBatchResult streamReservations(Map<Long, Integer> quantitiesByBarCode) {
+    var result = new CompletableFuture<StockReservationBatchResult>();
+    var requestObserver = asyncStub.withDeadlineAfter(deadlineMillis, TimeUnit.MILLISECONDS)
+                                   .reserveStockBatch(new StreamObserver<>() {
+
+      @Override
+      public void onNext(StockReservationBatchResult value) {
+        result.complete(value);
+      }
+
+      @Override
+      public void onError(Throwable throwable) {
+        result.completeExceptionally(throwable);
+      }
+
+      @Override
+      public void onCompleted() {
+        result.complete(StockReservationBatchResult.getDefaultInstance());
+      }
+    });
+
+    quantitiesByBarCode.forEach((productBarCode, quantity) -> requestObserver.onNext(StockReservation.newBuilder()
+                                                                                                      .setProductBarCode(productBarCode)
+                                                                                                      .setQuantity(quantity)
+                                                                                                      .build()));
+    requestObserver.onCompleted();
+
+    try {
+      return result.get(deadlineMillis, TimeUnit.MILLISECONDS);
+    } catch (ExecutionException exception) {
+      if (exception.getCause() instanceof StatusRuntimeException) throw (StatusRuntimeException) exception.getCause();
+      throw Status.fromThrowable(exception.getCause()).asRuntimeException();
+    } catch (TimeoutException exception) {
+      throw Status.DEADLINE_EXCEEDED.asRuntimeException();
+    } catch (InterruptedException exception) {
+      Thread.currentThread().interrupt();
+      throw Status.CANCELLED.withCause(exception).asRuntimeException();
+    }
+  }
+
+  private <T> T withCircuitBreaker(String name, Supplier<T> call) {
+    return circuitBreakerRegistry.circuitBreaker(name).executeSupplier(call);
+  }
+}
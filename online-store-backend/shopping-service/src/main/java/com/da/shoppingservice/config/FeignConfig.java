@@ -15,7 +15,11 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class FeignConfig {
   private final CircuitBreakerRegistry circuitBreakerRegistry;
-  private final ProductFallback productFallback;
+
+  @Bean
+  public ProductFallback productFallback() {
+    return new ProductFallback();
+  }
 
   @Bean
   @Scope("prototype")
@@ -25,7 +29,7 @@ public class FeignConfig {
     var decorator = FeignDecorators.builder()
                                     .withCircuitBreaker(invoicesCircuitBreaker)
                                     .withCircuitBreaker(stockCircuitBreaker)
-                                    .withFallback(productFallback)
+                                    .withFallback(productFallback())
                                     .build();
     return Resilience4jFeign.builder(decorator);
   }
@@ -2,6 +2,8 @@ package com.da.shoppingservice.service;
 
 import java.sql.SQLException;
 import java.text.DecimalFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -43,11 +45,14 @@ public class InvoiceServiceImpl implements InvoiceService{
   public Invoice create(InvoiceRequest invoiceRequest) {
     if(invoiceRepository.existsByInvoiceNumber(invoiceRequest.getInvoiceNumber())) getDataIntegrityViolationException();
 
+    Map<Long, Integer> quantitiesByBarCode = new LinkedHashMap<>();
     var items = invoiceRequest.getProducts()
                                     .stream()
-                                    .map(productDto -> buildItem(getProductAndUpdateStock(productDto), productDto))
+                                    .map(productDto -> buildItem(getProduct(productDto, quantitiesByBarCode), productDto))
                                     .collect(Collectors.toSet());
 
+    if (!quantitiesByBarCode.isEmpty()) productClient.reserveStock(quantitiesByBarCode);
+
     return invoiceRepository.save(buildInvoice(invoiceRequest, items));
   }
 
@@ -77,11 +82,12 @@ public class InvoiceServiceImpl implements InvoiceService{
 
 
 
-  private Product getProductAndUpdateStock(ProductDto productDto){
+  /** Collects the quantity of every product found, so their stock is taken in one call once all are priced. */
+  private Product getProduct(ProductDto productDto, Map<Long, Integer> quantitiesByBarCode){
     var productRes = productClient.getInfo(productDto.getProductBarCode(), productDto.getProductName());
 
     if (productRes.getStatusCode().is2xxSuccessful())
-    productClient.updateStock(productDto.getProductBarCode(), (productDto.getQuantity() * -1));
+      quantitiesByBarCode.merge(productDto.getProductBarCode(), productDto.getQuantity(), Integer::sum);
 
     return productRes.getBody();
   }
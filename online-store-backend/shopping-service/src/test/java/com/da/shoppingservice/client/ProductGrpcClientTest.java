@@ -0,0 +1,159 @@
+package com.da.shoppingservice.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.da.shoppingservice.grpc.PricingRequest;
+import com.da.shoppingservice.grpc.PricingResponse;
+import com.da.shoppingservice.grpc.ProductInventoryGrpc;
+import com.da.shoppingservice.grpc.StockReservation;
+import com.da.shoppingservice.grpc.StockReservationBatchResult;
+import com.da.shoppingservice.grpc.StockReservationResult;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+
+class ProductGrpcClientTest {
+
+  private static final long FOUND = 1L;
+  private static final long MISSING = 2L;
+  private static final long SLOW = 3L;
+  private static final int STOCK = 10;
+
+  private Server server;
+  private ManagedChannel channel;
+  private ProductGrpcClient productGrpcClient;
+
+  /** Knows one product with {@value #STOCK} units in stock, and answers late for {@link #SLOW}. */
+  private static class FakeProductInventory extends ProductInventoryGrpc.ProductInventoryImplBase {
+
+    @Override
+    public void getPricing(PricingRequest request, StreamObserver<PricingResponse> responseObserver) {
+      if (request.getProductBarCode() == SLOW) sleep(500);
+
+      var response = request.getProductBarCode() == MISSING ? PricingResponse.newBuilder().setFound(false)
+                   : PricingResponse.newBuilder().setFound(true).setProductName(request.getProductName()).setProductPrice(10.95);
+      responseObserver.onNext(response.build());
+      responseObserver.onCompleted();
+    }
+
+    @Override
+    public void reserveStock(StockReservation request, StreamObserver<StockReservationResult> responseObserver) {
+      responseObserver.onNext(reserve(request.getProductBarCode(), request.getQuantity()));
+      responseObserver.onCompleted();
+    }
+
+    @Override
+    public StreamObserver<StockReservation> reserveStockBatch(StreamObserver<StockReservationBatchResult> responseObserver) {
+      var result = StockReservationBatchResult.newBuilder();
+      return new StreamObserver<>() {
+
+        @Override
+        public void onNext(StockReservation reservation) {
+          result.addResults(reserve(reservation.getProductBarCode(), reservation.getQuantity()));
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+        }
+
+        @Override
+        public void onCompleted() {
+          responseObserver.onNext(result.build());
+          responseObserver.onCompleted();
+        }
+      };
+    }
+
+    private static StockReservationResult reserve(long productBarCode, int quantity) {
+      return StockReservationResult.newBuilder().setProductBarCode(productBarCode).setReserved(productBarCode == FOUND && quantity <= STOCK).build();
+    }
+
+    private static void sleep(long millis) {
+      try {
+        Thread.sleep(millis);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  @BeforeEach
+  public void setUp() throws IOException {
+    String name = InProcessServerBuilder.generateName();
+    server = InProcessServerBuilder.forName(name).addService(new FakeProductInventory()).build().start();
+    channel = InProcessChannelBuilder.forName(name).build();
+
+    productGrpcClient = new ProductGrpcClient(CircuitBreakerRegistry.ofDefaults());
+    ReflectionTestUtils.setField(productGrpcClient, "blockingStub", ProductInventoryGrpc.newBlockingStub(channel));
+    ReflectionTestUtils.setField(productGrpcClient, "asyncStub", ProductInventoryGrpc.newStub(channel));
+    ReflectionTestUtils.setField(productGrpcClient, "deadlineMillis", 200L);
+  }
+
+  @AfterEach
+  public void tearDown() {
+    channel.shutdownNow();
+    server.shutdownNow();
+  }
+
+  @Test
+  public void getInfo_ReturnProduct_WhenSuccessful() {
+    var response = productGrpcClient.getInfo(FOUND, "Product");
+
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+    assertThat(response.getBody().getProductPrice()).isEqualTo(10.95);
+  }
+
+  @Test
+  public void getInfo_ReturnFallback_WhenProductWasNotFound() {
+    var response = productGrpcClient.getInfo(MISSING, "Product");
+
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    assertThat(response.getBody().getProductName()).isEqualTo("none");
+  }
+
+  @Test
+  public void getInfo_ReturnFallback_WhenTheDeadlineExpires() {
+    var response = productGrpcClient.getInfo(SLOW, "Product");
+
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+  }
+
+  @Test
+  public void updateStock_Return204StatusCode_WhenThereIsEnoughStock() {
+    assertThat(productGrpcClient.updateStock(FOUND, -STOCK).getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+  }
+
+  @Test
+  public void updateStock_ReturnFallback_WhenStockIsInsufficient() {
+    assertThat(productGrpcClient.updateStock(FOUND, -(STOCK + 1)).getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+  }
+
+  @Test
+  public void updateStock_ThrowIllegalArgumentException_WhenTheDeltaIsARestock() {
+    assertThatExceptionOfType(IllegalArgumentException.class).isThrownBy(() -> productGrpcClient.updateStock(FOUND, 5));
+  }
+
+  @Test
+  public void reserveStock_ReportEveryProduct_WhenStreamed() {
+    Map<Long, Integer> quantitiesByBarCode = new LinkedHashMap<>();
+    quantitiesByBarCode.put(FOUND, 2);
+    quantitiesByBarCode.put(MISSING, 1);
+
+    assertThat(productGrpcClient.reserveStock(quantitiesByBarCode)).containsEntry(FOUND, true).containsEntry(MISSING, false);
+  }
+}
@@ -1,8 +1,8 @@
 package com.da.shoppingservice.controller;
 
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -11,7 +11,9 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import com.da.shoppingservice.util.Provider;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -56,8 +58,9 @@ class InvoiceControllerTest {
     BDDMockito.when(invoiceRepository.existsByInvoiceNumber(anyLong())).thenReturn(false);
     BDDMockito.when(productClient.getInfo(anyLong(), anyString()))
         .thenReturn(ResponseEntity.ok(Provider.createProductRandomPrice()));
-    BDDMockito.when(productClient.updateStock(anyLong(), anyInt()))
-        .thenReturn(ResponseEntity.noContent().build());
+    BDDMockito.when(productClient.reserveStock(anyMap()))
+        .thenAnswer(invocation -> invocation.<Map<Long, Integer>>getArgument(0).keySet().stream()
+                                            .collect(Collectors.toMap(productBarCode -> productBarCode, productBarCode -> true)));
     BDDMockito.when(invoiceRepository.save(any())).thenReturn(INVOICE);
 
     mockMvc.perform(post("/invoices")
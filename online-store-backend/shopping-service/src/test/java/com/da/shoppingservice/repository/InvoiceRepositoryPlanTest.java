@@ -0,0 +1,81 @@
+package com.da.shoppingservice.repository;
+
+import javax.sql.DataSource;
+
+import com.da.queryplan.ExplainingDataSourcePostProcessor;
+import com.da.queryplan.PlanDataset;
+import com.da.queryplan.PlanRecorder;
+import com.da.queryplan.PlanSettings;
+import com.da.queryplan.PlanVerifier;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+/**
+ * Explains every InvoiceRepository query on a seeded PostgreSQL and checks the plans against the baseline, see
+ * {@link PlanSettings} for how to run it. Skipped unless {@code plan.datasource.url} is set.
+ */
+@DataJpaTest(properties = { "spring.jpa.hibernate.ddl-auto=none", "spring.datasource.initialization-mode=never",
+                            "spring.datasource.driver-class-name=org.postgresql.Driver",
+                            "spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect" })
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+@EnabledIfSystemProperty(named = PlanSettings.URL, matches = ".+")
+class InvoiceRepositoryPlanTest {
+
+  private static final PlanSettings SETTINGS = PlanSettings.fromSystemProperties();
+  private static final PlanRecorder RECORDER = new PlanRecorder();
+
+  private static final long MIDDLE = SETTINGS.getRows() / 2;
+  private static final Long INVOICE_NUMBER = 900000000L + MIDDLE;
+  private static final String USER_NAME = "plan-user-" + MIDDLE % 1000;
+  private static final Long PRODUCT_BAR_CODE = 7000000000000L + MIDDLE % 5000 + 1;
+  private static final Pageable PAGE = PageRequest.of(0, 20);
+
+  @TestConfiguration
+  static class Explaining {
+
+    @Bean
+    static ExplainingDataSourcePostProcessor explainingDataSourcePostProcessor() {
+      return new ExplainingDataSourcePostProcessor(RECORDER);
+    }
+  }
+
+  @DynamicPropertySource
+  static void datasource(DynamicPropertyRegistry registry) {
+    registry.add("spring.datasource.url", SETTINGS::getUrl);
+    registry.add("spring.datasource.username", SETTINGS::getUsername);
+    registry.add("spring.datasource.password", SETTINGS::getPassword);
+  }
+
+  @BeforeAll
+  static void seed(@Autowired DataSource dataSource) {
+    PlanDataset.seed(dataSource, "query-plans/invoices_seed.sql", "invoices", SETTINGS.getRows());
+  }
+
+  @Autowired
+  private InvoiceRepository invoiceRepository;
+
+  /** The paged lookups load the items too, as the controller does when it writes the invoices. */
+  @Test
+  public void queries_KeepTheirBaselinePlans() {
+    RECORDER.record("findByCustomerUserName",
+        () -> invoiceRepository.findByCustomerUserName(USER_NAME, PAGE).forEach(invoice -> invoice.getItems().size()));
+    RECORDER.record("findByInvoiceNumber", () -> invoiceRepository.findByInvoiceNumber(INVOICE_NUMBER));
+    RECORDER.record("findByItemsProductBarCode",
+        () -> invoiceRepository.findByItemsProductBarCode(PRODUCT_BAR_CODE, PAGE).forEach(invoice -> invoice.getItems().size()));
+    RECORDER.record("existsByInvoiceNumber", () -> invoiceRepository.existsByInvoiceNumber(INVOICE_NUMBER));
+
+    PlanVerifier.verify(RECORDER, InvoiceRepository.class, SETTINGS);
+  }
+}
@@ -5,12 +5,14 @@ import static org.assertj.core.api.Assertions.assertThatCode;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.ArgumentMatchers.anyString;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import com.da.shoppingservice.util.Provider;
 import com.da.shoppingservice.client.ProductClient;
@@ -59,8 +61,9 @@ class InvoiceServiceTest {
     BDDMockito.when(invoiceRepository.existsByInvoiceNumber(anyLong())).thenReturn(false);
     BDDMockito.when(productClient.getInfo(anyLong(), anyString()))
         .thenReturn(ResponseEntity.ok(Provider.createProductRandomPrice()));
-    BDDMockito.when(productClient.updateStock(anyLong(), anyInt()))
-        .thenReturn(ResponseEntity.noContent().build());
+    BDDMockito.when(productClient.reserveStock(anyMap()))
+        .thenAnswer(invocation -> invocation.<Map<Long, Integer>>getArgument(0).keySet().stream()
+                                            .collect(Collectors.toMap(productBarCode -> productBarCode, productBarCode -> true)));
     BDDMockito.when(invoiceRepository.save(any())).thenReturn(staticInvoiceWithItems);
 
     var invoice = invoiceService.create(staticInvoiceRequest);
@@ -68,6 +71,7 @@ class InvoiceServiceTest {
     assertThat(invoice).isNotNull();
     assertThat(invoice.getCustomer()).isNotNull();
     assertFalse(invoice.getItems().isEmpty());
+    BDDMockito.verify(productClient, BDDMockito.times(1)).reserveStock(anyMap());
   }
 
   @Test
@@ -0,0 +1,17 @@
+-- plan dataset: ${rows} generated invoices of a thousand customers, two items each, for the products of the products plan dataset
+
+INSERT INTO invoices (invoice_number, user_name, user_email, total)
+SELECT 900000000 + g, 'plan-user-' || g % 1000, 'plan-user-' || g % 1000 || '@store.com', 2 * (g % 500 + 0.99)
+FROM generate_series(1, ${rows}) g
+ON CONFLICT DO NOTHING;
+
+INSERT INTO items (quantity, product_bar_code, product_name, product_price, sub_total, fk_invoice_id)
+SELECT 1, 7000000000000 + (2 * i.invoice_number + n) % 5000 + 1, 'Plan Product ' || (2 * i.invoice_number + n) % 5000 + 1,
+       i.invoice_number % 500 + 0.99, i.invoice_number % 500 + 0.99, i.invoice_id
+FROM invoices i CROSS JOIN generate_series(0, 1) n
+WHERE i.invoice_number > 900000000 AND NOT EXISTS (SELECT 1 FROM items it WHERE it.fk_invoice_id = i.invoice_id);
+
+INSERT INTO invoices_items (fk_invoice, fk_item)
+SELECT it.fk_invoice_id, it.item_id FROM items it JOIN invoices i ON i.invoice_id = it.fk_invoice_id
+WHERE i.invoice_number > 900000000
+ON CONFLICT DO NOTHING;
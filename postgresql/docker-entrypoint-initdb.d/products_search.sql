@@ -0,0 +1,13 @@
+-- index-driven product search (product.search.full-text): runs after products_schema.sql
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- serves product_name ILIKE '%...%' and similarity() ranking
+CREATE INDEX IF NOT EXISTS products_product_name_trgm_idx ON products USING gin (product_name gin_trgm_ops);
+
+-- names weigh more than descriptions when ranking with ts_rank_cd
+ALTER TABLE products ADD COLUMN IF NOT EXISTS search_vector tsvector
+  GENERATED ALWAYS AS (setweight(to_tsvector('english', product_name), 'A') ||
+                       setweight(to_tsvector('english', coalesce(product_description, '')), 'B')) STORED;
+
+CREATE INDEX IF NOT EXISTS products_search_vector_idx ON products USING gin (search_vector);